@@ -7,6 +7,7 @@ import com.example.ecommerce.order.exception.ReturnRequestNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -107,6 +108,12 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, VALIDATION_ERROR_CODE, ex.getMessage(), request);
     }
 
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ApiErrorResponse> handleTaskRejected(TaskRejectedException ex, HttpServletRequest request) {
+        logger.warn("TaskRejectedException: {}", ex.getMessage());
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_BUSY", "Sunucu şu anda meşgul, lütfen daha sonra tekrar deneyin.", request);
+    }
+
     @ExceptionHandler(OrderNotFoundException.class)
     public ResponseEntity<ApiErrorResponse> handleOrderNotFound(OrderNotFoundException ex, HttpServletRequest request) {
         logger.warn("OrderNotFoundException: {}", ex.getMessage());
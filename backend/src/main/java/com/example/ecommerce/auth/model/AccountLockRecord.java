@@ -0,0 +1,20 @@
+package com.example.ecommerce.auth.model;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lock placed on an account after too many failed logins, stored under {@code auth:account_locked:}.
+ */
+public record AccountLockRecord(Instant lockedAt, Instant lockedUntil, int attemptCount, String reason) {
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("lockedAt", lockedAt != null ? lockedAt.toString() : null);
+        map.put("lockedUntil", lockedUntil != null ? lockedUntil.toString() : null);
+        map.put("attemptCount", attemptCount);
+        map.put("reason", reason);
+        return map;
+    }
+}
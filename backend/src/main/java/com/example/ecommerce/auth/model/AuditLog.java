@@ -71,6 +71,7 @@ public class AuditLog {
         ADMIN_PRODUCT_CREATED,
         ADMIN_PRODUCT_UPDATED,
         ADMIN_PRODUCT_DELETED,
+        ADMIN_PRODUCT_IMPORTED,
         ADMIN_INVENTORY_UPDATED,
         ORDER_CREATED,
         CHECKOUT_QUOTED,
@@ -0,0 +1,17 @@
+package com.example.ecommerce.auth.model;
+
+import java.time.Instant;
+
+/**
+ * One login as kept in Redis: the last successful login per user ({@code auth:suspicious:})
+ * and the short-lived attempt details ({@code auth:attempt_details:}).
+ */
+public record LoginRecord(
+        String username,
+        String ipAddress,
+        String userAgent,
+        boolean successful,
+        String failureReason,
+        int attemptCount,
+        Instant timestamp) {
+}
@@ -0,0 +1,36 @@
+package com.example.ecommerce.auth.model;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Metadata of an issued access token, stored under {@code jwt:metadata:<tokenId>}.
+ */
+public record SessionRecord(
+        String username,
+        String ipAddress,
+        String userAgent,
+        Instant issuedAt,
+        String deviceFingerprint,
+        String tokenHash,
+        Instant expiresAt) {
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        putIfPresent(map, "username", username);
+        putIfPresent(map, "ipAddress", ipAddress);
+        putIfPresent(map, "userAgent", userAgent);
+        putIfPresent(map, "issuedAt", issuedAt);
+        putIfPresent(map, "deviceFingerprint", deviceFingerprint);
+        putIfPresent(map, "tokenHash", tokenHash);
+        putIfPresent(map, "expiresAt", expiresAt);
+        return map;
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value.toString());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ecommerce.auth.redis;
+
+import com.example.ecommerce.auth.model.AccountLockRecord;
+import com.example.ecommerce.common.redis.VersionedRecordSerializer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class AccountLockRecordSerializer extends VersionedRecordSerializer<AccountLockRecord> {
+
+    public AccountLockRecordSerializer() {
+        super(AccountLockRecord.class, 1);
+    }
+
+    @Override
+    protected void write(DataOutput out, AccountLockRecord value) throws IOException {
+        writeInstant(out, value.lockedAt());
+        writeInstant(out, value.lockedUntil());
+        out.writeInt(value.attemptCount());
+        writeString(out, value.reason());
+    }
+
+    @Override
+    protected AccountLockRecord read(DataInput in, int version) throws IOException {
+        return new AccountLockRecord(readInstant(in), readInstant(in), in.readInt(), readString(in));
+    }
+
+    @Override
+    protected AccountLockRecord readLegacy(JsonNode json) {
+        return new AccountLockRecord(instant(json, "lockedAt"), instant(json, "lockedUntil"),
+                json.path("attemptCount").asInt(), text(json, "reason"));
+    }
+}
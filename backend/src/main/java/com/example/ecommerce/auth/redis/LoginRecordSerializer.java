@@ -0,0 +1,40 @@
+package com.example.ecommerce.auth.redis;
+
+import com.example.ecommerce.auth.model.LoginRecord;
+import com.example.ecommerce.common.redis.VersionedRecordSerializer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class LoginRecordSerializer extends VersionedRecordSerializer<LoginRecord> {
+
+    public LoginRecordSerializer() {
+        super(LoginRecord.class, 1);
+    }
+
+    @Override
+    protected void write(DataOutput out, LoginRecord value) throws IOException {
+        writeString(out, value.username());
+        writeString(out, value.ipAddress());
+        writeString(out, value.userAgent());
+        out.writeBoolean(value.successful());
+        writeString(out, value.failureReason());
+        out.writeInt(value.attemptCount());
+        writeInstant(out, value.timestamp());
+    }
+
+    @Override
+    protected LoginRecord read(DataInput in, int version) throws IOException {
+        return new LoginRecord(readString(in), readString(in), readString(in), in.readBoolean(),
+                readString(in), in.readInt(), readInstant(in));
+    }
+
+    @Override
+    protected LoginRecord readLegacy(JsonNode json) {
+        return new LoginRecord(text(json, "username"), text(json, "ipAddress"), text(json, "userAgent"),
+                json.path("successful").asBoolean(), text(json, "failureReason"),
+                json.path("attemptCount").asInt(), instant(json, "timestamp"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ecommerce.auth.redis;
+
+import com.example.ecommerce.auth.model.SessionRecord;
+import com.example.ecommerce.common.redis.VersionedRecordSerializer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class SessionRecordSerializer extends VersionedRecordSerializer<SessionRecord> {
+
+    public SessionRecordSerializer() {
+        super(SessionRecord.class, 1);
+    }
+
+    @Override
+    protected void write(DataOutput out, SessionRecord value) throws IOException {
+        writeString(out, value.username());
+        writeString(out, value.ipAddress());
+        writeString(out, value.userAgent());
+        writeInstant(out, value.issuedAt());
+        writeString(out, value.deviceFingerprint());
+        writeString(out, value.tokenHash());
+        writeInstant(out, value.expiresAt());
+    }
+
+    @Override
+    protected SessionRecord read(DataInput in, int version) throws IOException {
+        return new SessionRecord(readString(in), readString(in), readString(in), readInstant(in),
+                readString(in), readString(in), readInstant(in));
+    }
+
+    @Override
+    protected SessionRecord readLegacy(JsonNode json) {
+        return new SessionRecord(text(json, "username"), text(json, "ipAddress"), text(json, "userAgent"),
+                instant(json, "issuedAt"), text(json, "deviceFingerprint"), text(json, "tokenHash"),
+                instant(json, "expiresAt"));
+    }
+}
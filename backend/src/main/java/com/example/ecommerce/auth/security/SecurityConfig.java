@@ -97,6 +97,7 @@ public class SecurityConfig {
                     "/api/payments/iyzico/webhook"
                 ).permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/products/*/views").permitAll()
                 .requestMatchers("/api/cart/**").permitAll()
                 .anyRequest().authenticated()
             )
@@ -1,6 +1,8 @@
 package com.example.ecommerce.auth.service;
 
+import com.example.ecommerce.auth.model.AccountLockRecord;
 import com.example.ecommerce.auth.model.AuditLog;
+import com.example.ecommerce.auth.model.LoginRecord;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
@@ -17,7 +19,6 @@ import org.springframework.stereotype.Service;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -30,6 +31,8 @@ public class AccountLockoutService {
     private static final Logger logger = LoggerFactory.getLogger(AccountLockoutService.class);
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, AccountLockRecord> accountLockTemplate;
+    private final RedisTemplate<String, LoginRecord> loginRecordTemplate;
     private final AuditService auditService;
     private final AccountLockoutService selfProxy;
 
@@ -37,9 +40,6 @@ public class AccountLockoutService {
     private static final String ACCOUNT_LOCKED_KEY = "auth:account_locked:";
     private static final String IP_ATTEMPTS_KEY = "auth:ip_attempts:";
     private static final String SUSPICIOUS_LOGIN_KEY = "auth:suspicious:";
-    private static final String KEY_IP_ADDRESS = "ipAddress";
-    private static final String KEY_USER_AGENT = "userAgent";
-    private static final String KEY_TIMESTAMP = "timestamp";
 
     @Value("${app.security.account-lockout.max-attempts:5}")
     private int maxFailedAttempts;
@@ -54,9 +54,13 @@ public class AccountLockoutService {
     private int ipMaxAttempts;
 
     public AccountLockoutService(RedisTemplate<String, Object> redisTemplate,
+                                 RedisTemplate<String, AccountLockRecord> accountLockTemplate,
+                                 RedisTemplate<String, LoginRecord> loginRecordTemplate,
                                  AuditService auditService,
                                  @Lazy AccountLockoutService selfProxy) {
         this.redisTemplate = redisTemplate;
+        this.accountLockTemplate = accountLockTemplate;
+        this.loginRecordTemplate = loginRecordTemplate;
         this.auditService = auditService;
         this.selfProxy = selfProxy;
     }
@@ -161,13 +165,11 @@ public class AccountLockoutService {
     private void lockAccount(String username, int attemptCount, HttpServletRequest request) {
         String lockedKey = ACCOUNT_LOCKED_KEY + username;
 
-        Map<String, Object> lockInfo = new HashMap<>();
-        lockInfo.put("lockedAt", Instant.now().toString());
-        lockInfo.put("lockedUntil", Instant.now().plusSeconds(lockoutDurationMinutes * 60).toString());
-        lockInfo.put("attemptCount", attemptCount);
-        lockInfo.put("reason", "Too many failed login attempts");
+        Instant lockedAt = Instant.now();
+        AccountLockRecord lockInfo = new AccountLockRecord(lockedAt,
+                lockedAt.plusSeconds(lockoutDurationMinutes * 60L), attemptCount, "Too many failed login attempts");
 
-        redisTemplate.opsForValue().set(lockedKey, lockInfo, Duration.ofMinutes(lockoutDurationMinutes));
+        accountLockTemplate.opsForValue().set(lockedKey, lockInfo, Duration.ofMinutes(lockoutDurationMinutes));
 
         logger.warn("Account locked for user: {} due to {} failed attempts",
                 sanitizeForLog(username), attemptCount);
@@ -188,9 +190,8 @@ public class AccountLockoutService {
 
     public Map<String, Object> getAccountLockInfo(String username) {
         String lockedKey = ACCOUNT_LOCKED_KEY + username;
-        @SuppressWarnings("unchecked")
-        Map<String, Object> lockInfo = (Map<String, Object>) redisTemplate.opsForValue().get(lockedKey);
-        return lockInfo;
+        AccountLockRecord lockInfo = accountLockTemplate.opsForValue().get(lockedKey);
+        return lockInfo != null ? lockInfo.toMap() : null;
     }
 
     public void unlockAccount(String username) {
@@ -224,33 +225,26 @@ public class AccountLockoutService {
     private void checkSuspiciousActivity(String username, String ipAddress, String userAgent) {
         String suspiciousKey = SUSPICIOUS_LOGIN_KEY + username;
 
-        @SuppressWarnings("unchecked")
-        Map<String, Object> lastLogin = (Map<String, Object>) redisTemplate.opsForValue().get(suspiciousKey);
+        LoginRecord lastLogin = loginRecordTemplate.opsForValue().get(suspiciousKey);
 
         boolean suspicious = false;
         String reason = "";
 
         if (lastLogin != null) {
-            String lastIp = (String) lastLogin.get(KEY_IP_ADDRESS);
-            String lastUserAgent = (String) lastLogin.get(KEY_USER_AGENT);
-
-            if (!Objects.equals(ipAddress, lastIp)) {
+            if (!Objects.equals(ipAddress, lastLogin.ipAddress())) {
                 suspicious = true;
                 reason += "New location. ";
             }
 
-            if (!Objects.equals(userAgent, lastUserAgent)) {
+            if (!Objects.equals(userAgent, lastLogin.userAgent())) {
                 suspicious = true;
                 reason += "New device. ";
             }
         }
 
-        Map<String, Object> currentLogin = new HashMap<>();
-        currentLogin.put(KEY_IP_ADDRESS, ipAddress);
-        currentLogin.put(KEY_USER_AGENT, userAgent);
-        currentLogin.put(KEY_TIMESTAMP, Instant.now().toString());
+        LoginRecord currentLogin = new LoginRecord(username, ipAddress, userAgent, true, null, 0, Instant.now());
 
-        redisTemplate.opsForValue().set(suspiciousKey, currentLogin, Duration.ofDays(7));
+        loginRecordTemplate.opsForValue().set(suspiciousKey, currentLogin, Duration.ofDays(7));
 
         if (suspicious) {
             String suspiciousReason = reason.strip();
@@ -269,17 +263,11 @@ public class AccountLockoutService {
 
     private void saveLoginAttemptDetails(String username, String ipAddress, String userAgent, boolean successful, String failureReason, int attemptCount) {
         try {
-            Map<String, Object> attemptDetails = new HashMap<>();
-            attemptDetails.put("username", username);
-            attemptDetails.put(KEY_IP_ADDRESS, ipAddress);
-            attemptDetails.put(KEY_USER_AGENT, userAgent);
-            attemptDetails.put("successful", successful);
-            attemptDetails.put("failureReason", failureReason);
-            attemptDetails.put("attemptCount", attemptCount);
-            attemptDetails.put(KEY_TIMESTAMP, Instant.now().toString());
+            LoginRecord attemptDetails = new LoginRecord(username, ipAddress, userAgent, successful, failureReason,
+                    attemptCount, Instant.now());
 
             String key = "auth:attempt_details:" + username + ":" + System.currentTimeMillis();
-            redisTemplate.opsForValue().set(key, attemptDetails, Duration.ofDays(1));
+            loginRecordTemplate.opsForValue().set(key, attemptDetails, Duration.ofDays(1));
         } catch (Exception e) {
             logger.error("Error saving login attempt details", e);
         }
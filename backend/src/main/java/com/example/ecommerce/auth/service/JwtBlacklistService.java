@@ -1,13 +1,16 @@
 package com.example.ecommerce.auth.service;
 
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.connection.DataType;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import com.example.ecommerce.auth.model.SessionRecord;
 import com.example.ecommerce.auth.security.JwtUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,10 +35,14 @@ public class JwtBlacklistService {
     private static final String USER_TOKEN_REF_SEPARATOR = ":";
     
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, SessionRecord> sessionRecordTemplate;
     private final JwtUtils jwtUtils;
 
-    public JwtBlacklistService(RedisTemplate<String, Object> redisTemplate, JwtUtils jwtUtils) {
+    public JwtBlacklistService(RedisTemplate<String, Object> redisTemplate,
+                               RedisTemplate<String, SessionRecord> sessionRecordTemplate,
+                               JwtUtils jwtUtils) {
         this.redisTemplate = redisTemplate;
+        this.sessionRecordTemplate = sessionRecordTemplate;
         this.jwtUtils = jwtUtils;
     }
 
@@ -140,31 +147,20 @@ public class JwtBlacklistService {
             String tokenId = jwtUtils.getTokenId(token);
             String metadataKey = TOKEN_METADATA_KEY + tokenId;
             
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("username", username);
-            metadata.put("ipAddress", ipAddress);
-            metadata.put("userAgent", userAgent);
-            metadata.put("issuedAt", Instant.now().toString());
-            metadata.put("deviceFingerprint", generateDeviceFingerprint(userAgent, ipAddress));
-            
             Instant expiration = jwtUtils.getExpirationDate(token);
             long ttl = Duration.between(Instant.now(), expiration).getSeconds();
             
             if (ttl > 0) {
                 String tokenHash = hashToken(token);
                 String tokenRef = buildTokenReference(tokenHash, expiration);
-                metadata.put("tokenHash", tokenHash);
-                metadata.put("expiresAt", expiration.toString());
+                SessionRecord metadata = new SessionRecord(username, ipAddress, userAgent, Instant.now(),
+                        generateDeviceFingerprint(userAgent, ipAddress), tokenHash, expiration);
+
+                // Metadatayı sınıf adı içermeyen binary formatta saklar
+                sessionRecordTemplate.opsForValue().set(metadataKey, metadata, ttl, TimeUnit.SECONDS);
 
-                // Pipeline ile hem metadata'yı sakla hem de kullanıcı token listesine ekle
+                // Kullanıcının token listesine ekler
                 redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
-                    // Metadatayı saklar 
-                    String metadataKeyBytes = metadataKey;
-                    connection.hMSet(metadataKeyBytes.getBytes(), 
-                        convertToByteMap(metadata));
-                    connection.expire(metadataKeyBytes.getBytes(), ttl);
-                    
-                    // Kullanıcının token listesine ekler
                     String userTokensKey = USER_TOKENS_KEY + username;
                     connection.sAdd(userTokensKey.getBytes(), tokenRef.getBytes(StandardCharsets.UTF_8));
                     connection.expire(userTokensKey.getBytes(), ttl);
@@ -186,23 +182,38 @@ public class JwtBlacklistService {
         try {
             String tokenId = jwtUtils.getTokenId(token);
             String key = TOKEN_METADATA_KEY + tokenId;
-            
-            Map<Object, Object> rawMetadata = redisTemplate.opsForHash().entries(key);
-            Map<String, Object> metadata = new HashMap<>();
-            
-            rawMetadata.forEach((k, v) -> {
-                if (k != null) {
-                    metadata.put(k.toString(), v);
+
+            SessionRecord metadata;
+            try {
+                metadata = sessionRecordTemplate.opsForValue().get(key);
+            } catch (DataAccessException e) {
+                // Lettuce reports WRONGTYPE as a generic RedisSystemException, so check the key itself:
+                // tokens issued before the binary format still keep their metadata as a hash of strings.
+                if (redisTemplate.type(key) != DataType.HASH) {
+                    throw e;
                 }
-            });
-            
-            return metadata;
+                return getLegacyTokenMetadata(key);
+            }
+            return metadata != null ? metadata.toMap() : Map.of();
         } catch (Exception e) {
             logger.error("Error retrieving token metadata", e);
             return Map.of();
         }
     }
 
+    private Map<String, Object> getLegacyTokenMetadata(String key) {
+        Map<String, Object> metadata = redisTemplate.execute((RedisCallback<Map<String, Object>>) connection -> {
+            Map<byte[], byte[]> rawMetadata = connection.hGetAll(key.getBytes(StandardCharsets.UTF_8));
+            Map<String, Object> fields = new HashMap<>();
+            if (rawMetadata != null) {
+                rawMetadata.forEach((k, v) -> fields.put(new String(k, StandardCharsets.UTF_8),
+                        new String(v, StandardCharsets.UTF_8)));
+            }
+            return fields;
+        });
+        return metadata != null ? metadata : Map.of();
+    }
+
     public Set<String> getUserTokens(String username) {
         try {
             String key = USER_TOKENS_KEY + username;
@@ -341,18 +352,6 @@ public class JwtBlacklistService {
     }
 
 
-    private Map<byte[], byte[]> convertToByteMap(Map<String, Object> map) {
-        Map<byte[], byte[]> byteMap = new HashMap<>();
-        map.forEach((key, value) -> {
-            if (value == null) {
-                return;
-            }
-            byteMap.put(key.getBytes(StandardCharsets.UTF_8), 
-                       value.toString().getBytes(StandardCharsets.UTF_8));
-        });
-        return byteMap;
-    }
-
     private String buildTokenReference(String tokenHash, Instant expiration) {
         return tokenHash + USER_TOKEN_REF_SEPARATOR + expiration.getEpochSecond();
     }
@@ -2,6 +2,7 @@ package com.example.ecommerce.cart.controller;
 
 import com.example.ecommerce.cart.dto.AddToCartRequest;
 import com.example.ecommerce.cart.dto.CartDto;
+import com.example.ecommerce.cart.dto.CartValidationDto;
 import com.example.ecommerce.cart.dto.UpdateCartItemRequest;
 import com.example.ecommerce.cart.service.CartService;
 import com.example.ecommerce.auth.security.CustomUserDetails;
@@ -57,7 +58,8 @@ public class CartController {
             cart = cartService.getCartByUserId(userId);
         } else {
             // Guest user
-            String guestCartId = getOrCreateGuestCartId(request, response);
+            // Reading never creates a cart: without a cookie the guest simply has an empty one.
+            String guestCartId = getExistingGuestCartId(request);
             cart = cartService.getGuestCart(guestCartId);
         }
         
@@ -102,7 +104,7 @@ public class CartController {
             cart = cartService.updateCartItem(userId, productId, request.getQuantity());
         } else {
             // Guest user
-            String guestCartId = getOrCreateGuestCartId(httpRequest, httpResponse);
+            String guestCartId = getExistingGuestCartId(httpRequest);
             cart = cartService.updateGuestCartItem(guestCartId, productId, request.getQuantity());
         }
         
@@ -124,7 +126,7 @@ public class CartController {
             cart = cartService.removeItemFromCart(userId, productId);
         } else {
             // Guest user
-            String guestCartId = getOrCreateGuestCartId(httpRequest, httpResponse);
+            String guestCartId = getExistingGuestCartId(httpRequest);
             cart = cartService.removeItemFromGuestCart(guestCartId, productId);
         }
         
@@ -144,7 +146,7 @@ public class CartController {
             cartService.clearCart(userId);
         } else {
             // Guest user
-            String guestCartId = getOrCreateGuestCartId(httpRequest, httpResponse);
+            String guestCartId = getExistingGuestCartId(httpRequest);
             cartService.clearGuestCart(guestCartId);
         }
         
@@ -172,6 +174,17 @@ public class CartController {
         return ResponseEntity.ok(mergedCart);
     }
 
+    @PostMapping("/validate")
+    @Operation(summary = "Validate cart", description = "Refresh prices and check stock before checkout; returns what changed")
+    public ResponseEntity<CartValidationDto> validateCart(Authentication authentication) {
+        Long userId = extractUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        return ResponseEntity.ok(cartService.validateCart(userId));
+    }
+
     // Helper methods
     private Long extractUserId(Authentication authentication) {
         if (authentication == null
@@ -0,0 +1,16 @@
+package com.example.ecommerce.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartAdjustmentDto {
+    private Long productId;
+    private String productName;
+    private int requestedQuantity;
+    private int acceptedQuantity;
+    private String reason; // "REDUCED_FOR_STOCK", "OUT_OF_STOCK" or "PRODUCT_UNAVAILABLE"
+}
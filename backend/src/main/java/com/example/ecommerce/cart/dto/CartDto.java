@@ -2,6 +2,9 @@ package com.example.ecommerce.cart.dto;
 
 import java.math.BigDecimal;
 import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,4 +17,11 @@ public class CartDto {
     private int totalItems;
     private BigDecimal totalAmount;
     private String cartType; // "authenticated" or "guest"
+    // Guest lines that could not be merged in full; only set by the guest cart merge.
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<CartAdjustmentDto> adjustments;
+
+    public CartDto(List<CartItemDto> items, int totalItems, BigDecimal totalAmount, String cartType) {
+        this(items, totalItems, totalAmount, cartType, null);
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.ecommerce.cart.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineChangeDto {
+    private Long productId;
+    private String productName;
+    private String type; // "PRICE_CHANGED", "INSUFFICIENT_STOCK" or "PRODUCT_UNAVAILABLE"
+    private BigDecimal previousPrice;
+    private BigDecimal currentPrice;
+    private int requestedQuantity;
+    private int availableQuantity;
+}
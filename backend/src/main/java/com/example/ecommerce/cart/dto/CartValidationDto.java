@@ -0,0 +1,19 @@
+package com.example.ecommerce.cart.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartValidationDto {
+    // The cart after price refreshes.
+    private CartDto cart;
+    private List<CartLineChangeDto> changes;
+    private boolean pricesUpdated;
+    // False while any line is short on stock or no longer sold.
+    private boolean checkoutReady;
+}
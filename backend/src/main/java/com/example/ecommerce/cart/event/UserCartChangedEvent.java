@@ -0,0 +1,9 @@
+package com.example.ecommerce.cart.event;
+
+import com.example.ecommerce.cart.model.CartSnapshot;
+
+/**
+ * Published by CartServiceImpl after a user's cart is written; carries the cart as it now is.
+ */
+public record UserCartChangedEvent(Long userId, CartSnapshot snapshot) {
+}
@@ -0,0 +1,30 @@
+package com.example.ecommerce.cart.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Detached copy of a user's cart with the product details the cart view needs,
+ * so it can be cached and rendered without touching the entities.
+ */
+public record CartSnapshot(Long cartId, List<Line> lines) {
+
+    public record Line(Long productId, String productName, int quantity, BigDecimal unitPrice) {
+    }
+
+    public static CartSnapshot empty(Long cartId) {
+        return new CartSnapshot(cartId, List.of());
+    }
+
+    public static CartSnapshot of(Cart cart) {
+        List<Line> lines = cart.getItems().stream()
+                .map(item -> new Line(item.getProduct().getId(), item.getProduct().getName(),
+                        item.getQuantity(), item.getUnitPrice()))
+                .toList();
+        return new CartSnapshot(cart.getId(), lines);
+    }
+
+    public boolean containsProduct(Long productId) {
+        return lines.stream().anyMatch(line -> line.productId().equals(productId));
+    }
+}
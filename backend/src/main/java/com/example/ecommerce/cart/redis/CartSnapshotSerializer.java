@@ -0,0 +1,56 @@
+package com.example.ecommerce.cart.redis;
+
+import com.example.ecommerce.cart.model.CartSnapshot;
+import com.example.ecommerce.common.redis.VersionedRecordSerializer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CartSnapshotSerializer extends VersionedRecordSerializer<CartSnapshot> {
+
+    public CartSnapshotSerializer() {
+        super(CartSnapshot.class, 1);
+    }
+
+    @Override
+    protected void write(DataOutput out, CartSnapshot value) throws IOException {
+        out.writeBoolean(value.cartId() != null);
+        if (value.cartId() != null) {
+            out.writeLong(value.cartId());
+        }
+        out.writeInt(value.lines().size());
+        for (CartSnapshot.Line line : value.lines()) {
+            out.writeLong(line.productId());
+            writeString(out, line.productName());
+            out.writeInt(line.quantity());
+            writeString(out, line.unitPrice() != null ? line.unitPrice().toPlainString() : null);
+        }
+    }
+
+    @Override
+    protected CartSnapshot read(DataInput in, int version) throws IOException {
+        Long cartId = in.readBoolean() ? in.readLong() : null;
+        int size = in.readInt();
+        List<CartSnapshot.Line> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long productId = in.readLong();
+            String productName = readString(in);
+            int quantity = in.readInt();
+            String unitPrice = readString(in);
+            lines.add(new CartSnapshot.Line(productId, productName, quantity,
+                    unitPrice != null ? new BigDecimal(unitPrice) : null));
+        }
+        return new CartSnapshot(cartId, List.copyOf(lines));
+    }
+
+    @Override
+    protected CartSnapshot readLegacy(JsonNode json) {
+        // This keyspace never held JSON; anything else is treated as a cache miss.
+        return null;
+    }
+}
@@ -41,7 +41,11 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("SELECT SUM(ci.unitPrice * ci.quantity) FROM CartItem ci WHERE ci.cart.id = :cartId")
     BigDecimal sumTotalByCartId(@Param("cartId") Long cartId);
     
-    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product p WHERE ci.cart.id = :cartId AND p.stock < ci.quantity")
+    @Query("""
+            SELECT ci FROM CartItem ci JOIN FETCH ci.product p
+            LEFT JOIN InventoryItem ii ON ii.product = p
+            WHERE ci.cart.id = :cartId AND COALESCE(ii.availableStock, p.stock) < ci.quantity
+            """)
     List<CartItem> findItemsWithInsufficientStock(@Param("cartId") Long cartId);
     
     @Query("SELECT ci FROM CartItem ci WHERE ci.cart.id = :cartId AND ci.unitPrice != ci.product.price")
@@ -59,5 +63,38 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("SELECT ci FROM CartItem ci WHERE ci.cart.user.id = :userId")
     List<CartItem> findByUserId(@Param("userId") Long userId);
     
+    // Every line of the user's cart with the live price and stock, in one round trip.
+    @Query(value = """
+            SELECT ci.cart_id AS "cartId",
+                   ci.id AS "itemId",
+                   p.id AS "productId",
+                   p.name AS "productName",
+                   ci.quantity AS "quantity",
+                   ci.unit_price AS "unitPrice",
+                   p.price AS "currentPrice",
+                   COALESCE(ii.available_stock, p.stock) AS "availableStock",
+                   p.active AS "active"
+            FROM cart_item ci
+            JOIN cart c ON c.id = ci.cart_id
+            JOIN product p ON p.id = ci.product_id
+            LEFT JOIN inventory_items ii ON ii.product_id = p.id
+            WHERE c.user_id = :userId
+            ORDER BY ci.id
+            """, nativeQuery = true)
+    List<CartValidationLineView> findValidationLinesByUserId(@Param("userId") Long userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            UPDATE cart_item ci
+            SET unit_price = p.price,
+                updated_at = NOW()
+            FROM product p
+            WHERE p.id = ci.product_id
+              AND ci.cart_id = :cartId
+              AND p.price IS NOT NULL
+              AND ci.unit_price IS DISTINCT FROM p.price
+            """, nativeQuery = true)
+    int refreshUnitPrices(@Param("cartId") Long cartId);
+
     boolean existsByCartIdAndProductId(Long cartId, Long productId);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.ecommerce.cart.repository;
+
+import java.math.BigDecimal;
+
+public interface CartValidationLineView {
+    Long getCartId();
+
+    Long getItemId();
+
+    Long getProductId();
+
+    String getProductName();
+
+    Integer getQuantity();
+
+    BigDecimal getUnitPrice();
+
+    BigDecimal getCurrentPrice();
+
+    Integer getAvailableStock();
+
+    Boolean getActive();
+}
@@ -6,7 +6,6 @@ import com.example.ecommerce.cart.exception.CartItemNotFoundException;
 import com.example.ecommerce.cart.exception.CartOperationException;
 import com.example.ecommerce.inventory.service.InventoryService;
 import com.example.ecommerce.product.model.Product;
-import com.example.ecommerce.product.repository.ProductRepository;
 
 import org.springframework.context.annotation.Lazy;
 import org.springframework.cache.annotation.CacheEvict;
@@ -27,16 +26,13 @@ import java.util.Optional;
 public class CartItemServiceImpl implements CartItemService {
 
     private final CartItemRepository cartItemRepository;
-    private final ProductRepository productRepository;
     private final InventoryService inventoryService;
     private final CartItemService selfProxy;
 
     public CartItemServiceImpl(CartItemRepository cartItemRepository,
-                               ProductRepository productRepository,
                                InventoryService inventoryService,
                                @Lazy CartItemService selfProxy) {
         this.cartItemRepository = cartItemRepository;
-        this.productRepository = productRepository;
         this.inventoryService = inventoryService;
         this.selfProxy = selfProxy;
     }
@@ -255,22 +251,9 @@ public class CartItemServiceImpl implements CartItemService {
         log.debug("Refreshing item prices for cart ID: {}", cartId);
         
         try {
-            List<CartItem> items = selfProxy.getCartItemsByCartId(cartId);
-            
-            for (CartItem item : items) {
-                Product currentProduct = productRepository.findById(item.getProduct().getId())
-                        .orElse(null);
-                
-                if (currentProduct != null && 
-                    !item.getUnitPrice().equals(currentProduct.getPrice())) {
-                    
-                    log.debug("Updating price for item {} from {} to {}", 
-                            item.getId(), item.getUnitPrice(), currentProduct.getPrice());
-                    
-                    item.setUnitPrice(currentProduct.getPrice());
-                    selfProxy.saveCartItem(item);
-                }
-            }
+            int updated = cartItemRepository.refreshUnitPrices(cartId);
+            log.debug("Updated {} stale item prices for cart ID: {}", updated, cartId);
+            List<CartItem> items = cartItemRepository.findByCartId(cartId);
             
             log.info("Successfully refreshed prices for {} items in cart ID: {}", items.size(), cartId);
             return items;
@@ -285,14 +268,7 @@ public class CartItemServiceImpl implements CartItemService {
         log.debug("Finding items with insufficient stock for cart ID: {}", cartId);
         
         try {
-            List<CartItem> items = selfProxy.getCartItemsByCartId(cartId);
-            
-            List<CartItem> insufficientStockItems = items.stream()
-                    .filter(item -> {
-                        Product product = item.getProduct();
-                        return product.getStock() < item.getQuantity();
-                    })
-                    .toList();
+            List<CartItem> insufficientStockItems = cartItemRepository.findItemsWithInsufficientStock(cartId);
             
             log.debug("Found {} items with insufficient stock for cart ID: {}", 
                     insufficientStockItems.size(), cartId);
@@ -325,13 +301,11 @@ public class CartItemServiceImpl implements CartItemService {
     
     private void updateItemPrice(CartItem item) {
         if (item.getId() != null) {
-            Product currentProduct = productRepository.findById(item.getProduct().getId())
-                    .orElse(null);
+            BigDecimal currentPrice = item.getProduct().getPrice();
             
-            if (currentProduct != null && 
-                !item.getUnitPrice().equals(currentProduct.getPrice())) {
+            if (currentPrice != null && item.getUnitPrice().compareTo(currentPrice) != 0) {
                 log.debug("Price mismatch detected. Updating from {} to {} for item {}", 
-                        item.getUnitPrice(), currentProduct.getPrice(), item.getId());
+                        item.getUnitPrice(), currentPrice, item.getId());
             }
         }
     }
@@ -1,6 +1,7 @@
 package com.example.ecommerce.cart.service;
 
 import com.example.ecommerce.cart.dto.CartDto;
+import com.example.ecommerce.cart.dto.CartValidationDto;
 
 public interface CartService {
     
@@ -10,6 +11,7 @@ public interface CartService {
     CartDto updateCartItem(Long userId, Long productId, int quantity);
     CartDto removeItemFromCart(Long userId, Long productId);
     void clearCart(Long userId);
+    CartValidationDto validateCart(Long userId);
     
     // Guest user methods
     CartDto getGuestCart(String sessionId);
@@ -2,25 +2,33 @@ package com.example.ecommerce.cart.service;
 
 import com.example.ecommerce.auth.repository.UserRepository;
 import com.example.ecommerce.auth.exception.UserNotFoundException;
+import com.example.ecommerce.cart.event.UserCartChangedEvent;
 import com.example.ecommerce.cart.model.Cart;
 import com.example.ecommerce.cart.model.CartItem;
+import com.example.ecommerce.cart.model.CartSnapshot;
 import com.example.ecommerce.cart.model.GuestCart;
 import com.example.ecommerce.cart.model.GuestCartItem;
 import com.example.ecommerce.cart.repository.CartRepository;
+import com.example.ecommerce.cart.dto.CartAdjustmentDto;
 import com.example.ecommerce.cart.dto.CartDto;
 import com.example.ecommerce.cart.dto.CartItemDto;
+import com.example.ecommerce.cart.dto.CartValidationDto;
 import com.example.ecommerce.inventory.service.InventoryService;
 import com.example.ecommerce.product.model.Product;
 import com.example.ecommerce.product.exception.ProductNotFoundException;
 import com.example.ecommerce.product.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,12 +41,24 @@ public class CartServiceImpl implements CartService {
     private final ProductRepository productRepository;
     private final GuestCartService guestCartService;
     private final InventoryService inventoryService;
+    private final UserCartCache userCartCache;
+    private final CartValidationService cartValidationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Authenticated user methods
     @Override
+    @Transactional(readOnly = true)
     public CartDto getCartByUserId(Long userId) {
-        Cart cart = getOrCreateUserCart(userId);
-        return convertToCartDto(cart);
+        CartSnapshot snapshot = userCartCache.get(userId);
+        if (snapshot == null) {
+            // Reading does not create the cart; the first write does.
+            snapshot = cartRepository.findByUserIdWithItems(userId)
+                    .map(CartSnapshot::of)
+                    .orElseGet(() -> CartSnapshot.empty(null));
+            // A write committed since the read may already have cached a newer cart.
+            userCartCache.putIfAbsent(userId, snapshot);
+        }
+        return convertToCartDto(snapshot);
     }
 
     @Override
@@ -70,7 +90,7 @@ public class CartServiceImpl implements CartService {
         cartRepository.save(cart);
         log.info("Added {} units of product {} to user {} cart", quantity, productId, userId);
         
-        return convertToCartDto(cart);
+        return cartChanged(userId, cart);
     }
 
     @Override
@@ -92,7 +112,7 @@ public class CartServiceImpl implements CartService {
         cartRepository.save(cart);
         log.info("Updated product {} quantity to {} in user {} cart", productId, quantity, userId);
         
-        return convertToCartDto(cart);
+        return cartChanged(userId, cart);
     }
 
     @Override
@@ -102,17 +122,25 @@ public class CartServiceImpl implements CartService {
         cartRepository.save(cart);
         
         log.info("Removed product {} from user {} cart", productId, userId);
-        return convertToCartDto(cart);
+        return cartChanged(userId, cart);
     }
 
     @Override
     public void clearCart(Long userId) {
-        Cart cart = getOrCreateUserCart(userId);
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        Optional<Cart> cart = cartRepository.findByUserIdWithItems(userId);
+        cart.ifPresent(existing -> {
+            existing.getItems().clear();
+            cartRepository.save(existing);
+        });
+        eventPublisher.publishEvent(new UserCartChangedEvent(userId, CartSnapshot.empty(cart.map(Cart::getId).orElse(null))));
         log.info("Cleared cart for user {}", userId);
     }
 
+    @Override
+    public CartValidationDto validateCart(Long userId) {
+        return cartValidationService.validateCart(userId);
+    }
+
     // Guest user methods - delegate to GuestCartService
     @Override
     public CartDto getGuestCart(String sessionId) {
@@ -140,35 +168,58 @@ public class CartServiceImpl implements CartService {
     }
 
     // Merge functionality
+    /**
+     * Moves the guest lines into the user's cart with two lookups in total: all products,
+     * then all their inventory rows. A line that does not fit the available stock is
+     * reduced or dropped and reported instead of failing the login.
+     */
     @Override
     public CartDto mergeGuestCartToUserCart(String sessionId, Long userId) {
         GuestCart guestCart = guestCartService.getGuestCartForMerging(sessionId);
         Cart userCart = getOrCreateUserCart(userId);
+        List<CartAdjustmentDto> adjustments = new ArrayList<>();
 
-        // Merge each item from guest cart to user cart
-        for (GuestCartItem guestItem : guestCart.getItems().values()) {
-            Product product = productRepository.findById(guestItem.getProductId())
-                    .orElse(null);
-            
-            if (product == null) continue;
-
-            Optional<CartItem> existingItem = userCart.getItems().stream()
-                    .filter(item -> item.getProduct().getId().equals(guestItem.getProductId()))
-                    .findFirst();
-
-            if (existingItem.isPresent()) {
-                // Add quantities together
-                CartItem item = existingItem.orElseThrow();
-                inventoryService.ensureAvailableStock(guestItem.getProductId(), item.getQuantity() + guestItem.getQuantity());
-                item.setQuantity(item.getQuantity() + guestItem.getQuantity());
-            } else {
-                // Add new item
-                inventoryService.ensureAvailableStock(guestItem.getProductId(), guestItem.getQuantity());
-                CartItem newItem = new CartItem();
-                newItem.setProduct(product);
-                newItem.setQuantity(guestItem.getQuantity());
-                newItem.setUnitPrice(guestItem.getUnitPrice());
-                userCart.addItem(newItem);
+        if (!guestCart.getItems().isEmpty()) {
+            Map<Long, Product> products = new HashMap<>();
+            productRepository.findAllById(guestCart.getItems().keySet())
+                    .forEach(product -> products.put(product.getId(), product));
+            Map<Long, Integer> availableStocks = inventoryService.getAvailableStocks(products.values());
+            Map<Long, CartItem> userLines = new HashMap<>();
+            for (CartItem item : userCart.getItems()) {
+                userLines.put(item.getProduct().getId(), item);
+            }
+
+            for (GuestCartItem guestItem : guestCart.getItems().values()) {
+                Long productId = guestItem.getProductId();
+                Product product = products.get(productId);
+                if (product == null) {
+                    adjustments.add(new CartAdjustmentDto(productId, guestItem.getProductName(),
+                            guestItem.getQuantity(), 0, "PRODUCT_UNAVAILABLE"));
+                    continue;
+                }
+
+                CartItem existingItem = userLines.get(productId);
+                int inCart = existingItem != null ? existingItem.getQuantity() : 0;
+                int available = availableStocks.getOrDefault(productId, 0);
+                int accepted = Math.min(guestItem.getQuantity(), Math.max(available - inCart, 0));
+                if (accepted < guestItem.getQuantity()) {
+                    adjustments.add(new CartAdjustmentDto(productId, product.getName(), guestItem.getQuantity(),
+                            accepted, accepted == 0 ? "OUT_OF_STOCK" : "REDUCED_FOR_STOCK"));
+                }
+                if (accepted == 0) {
+                    continue;
+                }
+
+                if (existingItem != null) {
+                    existingItem.setQuantity(inCart + accepted);
+                } else {
+                    CartItem newItem = new CartItem();
+                    newItem.setProduct(product);
+                    newItem.setQuantity(accepted);
+                    newItem.setUnitPrice(guestItem.getUnitPrice());
+                    userCart.addItem(newItem);
+                    userLines.put(productId, newItem);
+                }
             }
         }
 
@@ -177,18 +228,17 @@ public class CartServiceImpl implements CartService {
         // Clear guest cart after merging
         guestCartService.clearGuestCart(sessionId);
         
-        log.info("Merged guest cart {} to user {} cart", sessionId, userId);
-        return convertToCartDto(userCart);
+        log.info("Merged guest cart {} to user {} cart ({} lines adjusted for stock)",
+                sessionId, userId, adjustments.size());
+        CartDto merged = cartChanged(userId, userCart);
+        merged.setAdjustments(adjustments);
+        return merged;
     }
 
     // Helper methods
     private Cart getOrCreateUserCart(Long userId) {
-        Optional<Cart> cartWithItems = cartRepository.findByUserIdWithItems(userId);
-        if (cartWithItems.isPresent()) {
-            return cartWithItems.orElseThrow();
-        }
-
-        Optional<Cart> cart = cartRepository.findByUserId(userId);
+        // The fetch join returns carts without items too, so an empty result means no cart yet.
+        Optional<Cart> cart = cartRepository.findByUserIdWithItems(userId);
         if (cart.isPresent()) {
             return cart.orElseThrow();
         }
@@ -200,28 +250,37 @@ public class CartServiceImpl implements CartService {
         return cartRepository.save(newCart);
     }
 
-    private CartDto convertToCartDto(Cart cart) {
-        List<CartItemDto> itemDtos = cart.getItems().stream()
-                .map(this::convertToCartItemDto)
-                .collect(Collectors.toList());
+    private CartDto cartChanged(Long userId, Cart cart) {
+        CartSnapshot snapshot = CartSnapshot.of(cart);
+        // The cache is updated once the transaction commits.
+        eventPublisher.publishEvent(new UserCartChangedEvent(userId, snapshot));
+        return convertToCartDto(snapshot);
+    }
+
+    static CartDto convertToCartDto(CartSnapshot snapshot) {
+        List<CartItemDto> itemDtos = snapshot.lines().stream()
+                .map(CartServiceImpl::convertToCartItemDto)
+                .toList();
 
         CartDto cartDto = new CartDto();
         cartDto.setItems(itemDtos);
-        cartDto.setTotalItems(cart.getItems().stream().mapToInt(CartItem::getQuantity).sum());
-        cartDto.setTotalAmount(cart.getTotalAmount());
+        cartDto.setTotalItems(snapshot.lines().stream().mapToInt(CartSnapshot.Line::quantity).sum());
+        cartDto.setTotalAmount(snapshot.lines().stream()
+                .map(line -> line.unitPrice() == null ? BigDecimal.ZERO
+                        : line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
         cartDto.setCartType("authenticated");
 
         return cartDto;
     }
 
-    private CartItemDto convertToCartItemDto(CartItem item) {
+    private static CartItemDto convertToCartItemDto(CartSnapshot.Line line) {
         CartItemDto dto = new CartItemDto();
-        dto.setProductId(item.getProduct().getId());
-        dto.setProductName(item.getProduct().getName());
-        // dto.setProductImage(item.getProduct().getImage()); // Product model'inde image field'i varsa
-        dto.setQuantity(item.getQuantity());
-        dto.setUnitPrice(item.getUnitPrice());
-        dto.setTotalPrice(item.getTotalPrice());
+        dto.setProductId(line.productId());
+        dto.setProductName(line.productName());
+        dto.setQuantity(line.quantity());
+        dto.setUnitPrice(line.unitPrice());
+        dto.setTotalPrice(line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())));
         return dto;
     }
 }
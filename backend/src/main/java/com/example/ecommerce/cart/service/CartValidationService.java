@@ -0,0 +1,87 @@
+package com.example.ecommerce.cart.service;
+
+import com.example.ecommerce.cart.dto.CartLineChangeDto;
+import com.example.ecommerce.cart.dto.CartValidationDto;
+import com.example.ecommerce.cart.event.UserCartChangedEvent;
+import com.example.ecommerce.cart.model.CartSnapshot;
+import com.example.ecommerce.cart.repository.CartItemRepository;
+import com.example.ecommerce.cart.repository.CartValidationLineView;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks a user's cart against current prices and stock before checkout.
+ *
+ * All lines are read with one query joining the cart, product and inventory tables;
+ * stale prices are then rewritten with a single UPDATE. The returned changes let the
+ * client tell the user what moved instead of silently showing a new total.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class CartValidationService {
+
+    public static final String PRICE_CHANGED = "PRICE_CHANGED";
+    public static final String INSUFFICIENT_STOCK = "INSUFFICIENT_STOCK";
+    public static final String PRODUCT_UNAVAILABLE = "PRODUCT_UNAVAILABLE";
+
+    private final CartItemRepository cartItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CartValidationDto validateCart(Long userId) {
+        List<CartValidationLineView> rows = cartItemRepository.findValidationLinesByUserId(userId);
+        if (rows.isEmpty()) {
+            return new CartValidationDto(CartServiceImpl.convertToCartDto(CartSnapshot.empty(null)),
+                    List.of(), false, false);
+        }
+
+        List<CartLineChangeDto> changes = new ArrayList<>();
+        List<CartSnapshot.Line> lines = new ArrayList<>(rows.size());
+        boolean priceDrift = false;
+        boolean blocked = false;
+
+        for (CartValidationLineView row : rows) {
+            int quantity = row.getQuantity();
+            int available = row.getAvailableStock() != null ? Math.max(row.getAvailableStock(), 0) : 0;
+            BigDecimal currentPrice = row.getCurrentPrice();
+            BigDecimal unitPrice = row.getUnitPrice();
+
+            if (currentPrice != null && (unitPrice == null || unitPrice.compareTo(currentPrice) != 0)) {
+                priceDrift = true;
+                changes.add(change(row, PRICE_CHANGED, available));
+                unitPrice = currentPrice;
+            }
+            if (!Boolean.TRUE.equals(row.getActive())) {
+                blocked = true;
+                changes.add(change(row, PRODUCT_UNAVAILABLE, 0));
+            } else if (available < quantity) {
+                blocked = true;
+                changes.add(change(row, INSUFFICIENT_STOCK, available));
+            }
+            lines.add(new CartSnapshot.Line(row.getProductId(), row.getProductName(), quantity, unitPrice));
+        }
+
+        Long cartId = rows.get(0).getCartId();
+        CartSnapshot snapshot = new CartSnapshot(cartId, List.copyOf(lines));
+        if (priceDrift) {
+            int updated = cartItemRepository.refreshUnitPrices(cartId);
+            log.info("Refreshed {} cart item prices for user {}", updated, userId);
+            eventPublisher.publishEvent(new UserCartChangedEvent(userId, snapshot));
+        }
+
+        return new CartValidationDto(CartServiceImpl.convertToCartDto(snapshot), changes, priceDrift, !blocked);
+    }
+
+    private static CartLineChangeDto change(CartValidationLineView row, String type, int availableQuantity) {
+        return new CartLineChangeDto(row.getProductId(), row.getProductName(), type,
+                row.getUnitPrice(), row.getCurrentPrice(), row.getQuantity(), availableQuantity);
+    }
+}
@@ -9,81 +9,194 @@ import com.example.ecommerce.inventory.service.InventoryService;
 import com.example.ecommerce.product.model.Product;
 import com.example.ecommerce.product.exception.ProductNotFoundException;
 import com.example.ecommerce.product.repository.ProductRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.DataType;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.math.BigDecimal;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+/**
+ * Guest carts live in one Redis hash per session ({@code guest_cart:<sessionId>}),
+ * one field per product id holding {@code quantity|unitPrice|productName}.
+ *
+ * Every operation is a single Lua script that changes only the affected field,
+ * refreshes the TTL and returns the whole hash, so concurrent tabs cannot overwrite
+ * each other and a request costs one round trip. Carts still stored in the old
+ * whole-object JSON format are detected by the scripts and converted once.
+ *
+ * Nothing is written until the first item is added: reading a missing cart, or a
+ * session without an id, yields an empty cart and leaves no key behind.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GuestCartService {
-    
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final ProductRepository productRepository;
     private final InventoryService inventoryService;
     private final ObjectMapper objectMapper;
     private static final String GUEST_CART_KEY_PREFIX = "guest_cart:";
     private static final Duration CART_EXPIRATION = Duration.ofDays(7); // 7 gün
-    
+    private static final String REPLY_OK = "ok";
+    private static final String REPLY_LEGACY = "legacy";
+    private static final char FIELD_SEPARATOR = '|';
+
+    // Shared prologue: a string value is a cart in the old format and must be converted first.
+    private static final String LEGACY_CHECK = """
+            if redis.call('TYPE', KEYS[1]).ok == 'string' then
+                return {'legacy'}
+            end
+            """;
+
+    private static final String CART_REPLY = """
+            local reply = redis.call('HGETALL', KEYS[1])
+            table.insert(reply, 1, 'ok')
+            return reply
+            """;
+
+    private static final RedisScript<List> READ_SCRIPT = script(LEGACY_CHECK + CART_REPLY);
+
+    // ARGV: productId, quantity delta, unit price, product name, ttl seconds.
+    // Price and name are captured when the product is first added, as before.
+    private static final RedisScript<List> ADD_ITEM_SCRIPT = script(LEGACY_CHECK + """
+            local current = redis.call('HGET', KEYS[1], ARGV[1])
+            if current then
+                local separator = string.find(current, '|', 1, true)
+                local quantity = tonumber(string.sub(current, 1, separator - 1)) + tonumber(ARGV[2])
+                redis.call('HSET', KEYS[1], ARGV[1], quantity .. string.sub(current, separator))
+            else
+                redis.call('HSET', KEYS[1], ARGV[1], ARGV[2] .. '|' .. ARGV[3] .. '|' .. ARGV[4])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[5])
+            """ + CART_REPLY);
+
+    // ARGV: productId, quantity (<= 0 removes), ttl seconds. Unknown products are ignored.
+    private static final RedisScript<List> SET_QUANTITY_SCRIPT = script(LEGACY_CHECK + """
+            local quantity = tonumber(ARGV[2])
+            if quantity <= 0 then
+                redis.call('HDEL', KEYS[1], ARGV[1])
+            else
+                local current = redis.call('HGET', KEYS[1], ARGV[1])
+                if current then
+                    local separator = string.find(current, '|', 1, true)
+                    redis.call('HSET', KEYS[1], ARGV[1], quantity .. string.sub(current, separator))
+                end
+            end
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('EXPIRE', KEYS[1], ARGV[3])
+            end
+            """ + CART_REPLY);
+
+    // ARGV: ttl seconds, then field/value pairs. Replaces a legacy string value with the hash;
+    // a key another request already converted (or that expired) is left alone.
+    private static final RedisScript<List> REPLACE_SCRIPT = script("""
+            if redis.call('TYPE', KEYS[1]).ok == 'string' then
+                redis.call('DEL', KEYS[1])
+                for i = 2, #ARGV, 2 do
+                    redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+                end
+                if #ARGV > 1 then
+                    redis.call('EXPIRE', KEYS[1], ARGV[1])
+                end
+            end
+            """ + CART_REPLY);
+
     public CartDto getGuestCart(String sessionId) {
-        GuestCart guestCart = getOrCreateGuestCart(sessionId);
+        if (!hasSession(sessionId)) {
+            return convertToCartDto(emptyCart(sessionId));
+        }
+        GuestCart guestCart = run(sessionId, READ_SCRIPT);
         return convertToCartDto(guestCart);
     }
-    
+
     public CartDto addItemToGuestCart(String sessionId, Long productId, int quantity) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found"));
         inventoryService.ensureAvailableStock(productId, quantity);
-        
-        GuestCart guestCart = getOrCreateGuestCart(sessionId);
-        guestCart.addItem(productId, quantity, product.getPrice(), product.getName());
-        
-        saveGuestCart(sessionId, guestCart);
+
+        GuestCart guestCart = run(sessionId, ADD_ITEM_SCRIPT, productId.toString(), Integer.toString(quantity),
+                product.getPrice().toPlainString(), product.getName(), ttlSeconds());
         log.info("Added {} units of product {} to guest cart {}", quantity, productId, sessionId);
-        
+
         return convertToCartDto(guestCart);
     }
-    
+
     public CartDto updateGuestCartItem(String sessionId, Long productId, int quantity) {
+        if (!hasSession(sessionId)) {
+            return convertToCartDto(emptyCart(sessionId));
+        }
         if (quantity > 0) {
             inventoryService.ensureAvailableStock(productId, quantity);
         }
-        GuestCart guestCart = getOrCreateGuestCart(sessionId);
-        guestCart.updateItemQuantity(productId, quantity);
-        
-        saveGuestCart(sessionId, guestCart);
+        GuestCart guestCart = run(sessionId, SET_QUANTITY_SCRIPT, productId.toString(), Integer.toString(quantity),
+                ttlSeconds());
         log.info("Updated product {} quantity to {} in guest cart {}", productId, quantity, sessionId);
-        
+
         return convertToCartDto(guestCart);
     }
-    
+
     public CartDto removeItemFromGuestCart(String sessionId, Long productId) {
-        GuestCart guestCart = getOrCreateGuestCart(sessionId);
-        guestCart.removeItem(productId);
-        
-        saveGuestCart(sessionId, guestCart);
+        if (!hasSession(sessionId)) {
+            return convertToCartDto(emptyCart(sessionId));
+        }
+        GuestCart guestCart = run(sessionId, SET_QUANTITY_SCRIPT, productId.toString(), "0", ttlSeconds());
         log.info("Removed product {} from guest cart {}", productId, sessionId);
-        
+
         return convertToCartDto(guestCart);
     }
-    
+
     public void clearGuestCart(String sessionId) {
+        if (!hasSession(sessionId)) {
+            return;
+        }
         String key = GUEST_CART_KEY_PREFIX + sessionId;
         redisTemplate.delete(key);
         log.info("Cleared guest cart {}", sessionId);
     }
-    
+
     public GuestCart getGuestCartForMerging(String sessionId) {
-        return getOrCreateGuestCart(sessionId);
+        if (!hasSession(sessionId)) {
+            return emptyCart(sessionId);
+        }
+        return run(sessionId, READ_SCRIPT);
+    }
+
+    private GuestCart run(String sessionId, RedisScript<List> script, String... args) {
+        List<String> reply = execute(sessionId, script, args);
+        if (isLegacy(reply)) {
+            migrateLegacyCart(sessionId);
+            reply = execute(sessionId, script, args);
+        }
+        if (reply == null || reply.isEmpty() || !REPLY_OK.equals(reply.get(0))) {
+            throw new IllegalStateException("Unexpected guest cart reply for session " + sessionId);
+        }
+        return toGuestCart(sessionId, reply);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<String> execute(String sessionId, RedisScript<List> script, String... args) {
+        RedisSerializer strings = StringRedisSerializer.UTF_8;
+        return redisTemplate.execute(script, strings, strings, List.of(GUEST_CART_KEY_PREFIX + sessionId), (Object[]) args);
     }
-    
-    private GuestCart getOrCreateGuestCart(String sessionId) {
+
+    private static boolean isLegacy(List<String> reply) {
+        return reply != null && reply.size() == 1 && REPLY_LEGACY.equals(reply.get(0));
+    }
+
+    private void migrateLegacyCart(String sessionId) {
         String key = GUEST_CART_KEY_PREFIX + sessionId;
         Object cachedValue = null;
         try {
@@ -91,34 +204,33 @@ public class GuestCartService {
         } catch (SerializationException ex) {
             // Legacy payload without type metadata can fail deserialization.
             log.warn("Invalid guest cart payload for session {}, resetting cart.", sessionId, ex);
-            redisTemplate.delete(key);
+        } catch (DataAccessException ex) {
+            // WRONGTYPE: a concurrent request converted the cart after our script saw the string.
+            if (redisTemplate.type(key) == DataType.HASH) {
+                return;
+            }
+            throw ex;
         }
-        GuestCart guestCart = null;
-        boolean convertedFromLegacyPayload = false;
-
+        GuestCart legacyCart = null;
         if (cachedValue instanceof GuestCart cachedCart) {
-            guestCart = cachedCart;
+            legacyCart = cachedCart;
         } else if (cachedValue != null) {
-            guestCart = convertLegacyGuestCart(cachedValue, sessionId);
-            convertedFromLegacyPayload = guestCart != null;
-        }
-        
-        if (guestCart == null) {
-            guestCart = new GuestCart();
-            guestCart.setSessionId(sessionId);
-            long now = System.currentTimeMillis();
-            guestCart.setCreatedAt(now);
-            guestCart.setUpdatedAt(now);
-            saveGuestCart(sessionId, guestCart);
-            return guestCart;
+            legacyCart = convertLegacyGuestCart(cachedValue, sessionId);
         }
 
-        if (convertedFromLegacyPayload) {
-            // Rewrite with current serializer format to avoid repeated conversions.
-            saveGuestCart(sessionId, guestCart);
+        List<String> args = new ArrayList<>();
+        args.add(ttlSeconds());
+        if (legacyCart != null && legacyCart.getItems() != null) {
+            for (GuestCartItem item : legacyCart.getItems().values()) {
+                if (item.getProductId() == null || item.getQuantity() <= 0 || item.getUnitPrice() == null) {
+                    continue;
+                }
+                args.add(item.getProductId().toString());
+                args.add(encodeItem(item));
+            }
         }
-        
-        return guestCart;
+        // Rewritten as a hash so the conversion happens only once.
+        execute(sessionId, REPLACE_SCRIPT, args.toArray(String[]::new));
     }
 
     private GuestCart convertLegacyGuestCart(Object cachedValue, String sessionId) {
@@ -143,26 +255,77 @@ public class GuestCartService {
             return null;
         }
     }
-    
-    private void saveGuestCart(String sessionId, GuestCart guestCart) {
-        String key = GUEST_CART_KEY_PREFIX + sessionId;
-        redisTemplate.opsForValue().set(key, guestCart, CART_EXPIRATION);
+
+    private GuestCart toGuestCart(String sessionId, List<String> reply) {
+        GuestCart guestCart = new GuestCart();
+        guestCart.setSessionId(sessionId);
+        for (int i = 1; i + 1 < reply.size(); i += 2) {
+            GuestCartItem item = decodeItem(reply.get(i), reply.get(i + 1));
+            if (item != null) {
+                guestCart.getItems().put(item.getProductId(), item);
+            }
+        }
+        return guestCart;
+    }
+
+    private static String encodeItem(GuestCartItem item) {
+        String name = item.getProductName() != null ? item.getProductName() : "";
+        return item.getQuantity() + String.valueOf(FIELD_SEPARATOR) + item.getUnitPrice().toPlainString()
+                + FIELD_SEPARATOR + name;
     }
-    
+
+    private GuestCartItem decodeItem(String field, String value) {
+        int quantityEnd = value.indexOf(FIELD_SEPARATOR);
+        int priceEnd = quantityEnd < 0 ? -1 : value.indexOf(FIELD_SEPARATOR, quantityEnd + 1);
+        try {
+            if (priceEnd < 0) {
+                throw new NumberFormatException("missing separator");
+            }
+            GuestCartItem item = new GuestCartItem();
+            item.setProductId(Long.valueOf(field));
+            item.setQuantity(Integer.parseInt(value, 0, quantityEnd, 10));
+            item.setUnitPrice(new BigDecimal(value.substring(quantityEnd + 1, priceEnd)));
+            // The name comes last, so it may itself contain the separator.
+            item.setProductName(value.substring(priceEnd + 1));
+            return item;
+        } catch (NumberFormatException ex) {
+            log.warn("Skipping malformed guest cart line {} for product {}", value, field);
+            return null;
+        }
+    }
+
+    private static boolean hasSession(String sessionId) {
+        return sessionId != null && !sessionId.isBlank();
+    }
+
+    private static GuestCart emptyCart(String sessionId) {
+        GuestCart guestCart = new GuestCart();
+        guestCart.setSessionId(sessionId);
+        return guestCart;
+    }
+
+    private static String ttlSeconds() {
+        return Long.toString(CART_EXPIRATION.toSeconds());
+    }
+
+    private static RedisScript<List> script(String lua) {
+        return new DefaultRedisScript<>(lua, List.class);
+    }
+
     private CartDto convertToCartDto(GuestCart guestCart) {
         List<CartItemDto> itemDtos = guestCart.getItems().values().stream()
                 .map(this::convertToCartItemDto)
                 .toList();
-        
+
         CartDto cartDto = new CartDto();
         cartDto.setItems(itemDtos);
         cartDto.setTotalItems(guestCart.getTotalItems());
         cartDto.setTotalAmount(guestCart.getTotalAmount());
         cartDto.setCartType("guest");
-        
+
         return cartDto;
     }
-    
+
     private CartItemDto convertToCartItemDto(GuestCartItem item) {
         CartItemDto dto = new CartItemDto();
         dto.setProductId(item.getProductId());
@@ -0,0 +1,84 @@
+package com.example.ecommerce.cart.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes how many guest carts Redis holds and roughly how much memory they take.
+ *
+ * Keys are counted with SCAN; MEMORY USAGE is only asked for the first sampled keys
+ * and the average is scaled to the full count, so a pass stays cheap on large keyspaces.
+ */
+@Component
+@Slf4j
+public class GuestCartStorageMetrics {
+
+    private static final String GUEST_CART_KEY_PATTERN = "guest_cart:*";
+    private static final byte[] USAGE = "USAGE".getBytes(StandardCharsets.US_ASCII);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final int memorySampleSize;
+    private final AtomicLong keyCount = new AtomicLong();
+    private final AtomicLong estimatedMemoryBytes = new AtomicLong();
+
+    public GuestCartStorageMetrics(RedisTemplate<String, Object> redisTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.cart.guest.metrics.memory-sample-size:200}") int memorySampleSize) {
+        this.redisTemplate = redisTemplate;
+        this.memorySampleSize = Math.max(memorySampleSize, 1);
+        Gauge.builder("ecommerce.guest_cart.keys", keyCount, AtomicLong::get)
+                .description("Guest cart keys stored in Redis")
+                .register(meterRegistry);
+        Gauge.builder("ecommerce.guest_cart.memory", estimatedMemoryBytes, AtomicLong::get)
+                .description("Estimated Redis memory used by guest carts")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.guest.metrics.interval-ms:300000}",
+            initialDelayString = "${app.cart.guest.metrics.initial-delay-ms:60000}")
+    public void refresh() {
+        RedisConnectionFactory connectionFactory = redisTemplate.getConnectionFactory();
+        if (connectionFactory == null) {
+            return;
+        }
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(GUEST_CART_KEY_PATTERN)
+                .count(500)
+                .build();
+
+        long keys = 0;
+        long sampled = 0;
+        long sampledBytes = 0;
+        try (RedisConnection connection = connectionFactory.getConnection();
+             Cursor<byte[]> cursor = connection.scan(options)) {
+            while (cursor.hasNext()) {
+                byte[] key = cursor.next();
+                keys++;
+                if (sampled < memorySampleSize
+                        && connection.execute("MEMORY", USAGE, key) instanceof Number bytes) {
+                    sampled++;
+                    sampledBytes += bytes.longValue();
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not measure guest cart storage: {}", ex.getMessage());
+            return;
+        }
+
+        keyCount.set(keys);
+        estimatedMemoryBytes.set(sampled == 0 ? 0 : Math.round((double) sampledBytes / sampled * keys));
+    }
+}
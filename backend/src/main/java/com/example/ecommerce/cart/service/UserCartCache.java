@@ -0,0 +1,179 @@
+package com.example.ecommerce.cart.service;
+
+import com.example.ecommerce.cart.event.UserCartChangedEvent;
+import com.example.ecommerce.cart.model.CartSnapshot;
+import com.example.ecommerce.product.event.CatalogEventReplay;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Authenticated carts by user id, so that showing the cart costs no queries.
+ *
+ * Committed cart writes replace the entry (write-through); a product update or
+ * delete drops every cached cart that contains it. The local tier is per node and
+ * only refreshed by writes on that node, so with several nodes it should expire
+ * quickly and the shared Redis tier ({@code app.cart.cache.redis.enabled}) carries
+ * the entries across nodes. Redis failures fall back to the database.
+ */
+@Component
+@Slf4j
+public class UserCartCache {
+
+    private static final String CART_KEY_PREFIX = "cart:user:";
+    // Set of user ids whose cached cart contains the product, used for invalidation.
+    private static final String PRODUCT_INDEX_KEY_PREFIX = "cart:by_product:";
+
+    private final RedisTemplate<String, CartSnapshot> redisTemplate;
+    private final boolean redisEnabled;
+    private final Duration redisTtl;
+    private final Cache<Long, CartSnapshot> localCarts;
+
+    public UserCartCache(RedisTemplate<String, CartSnapshot> redisTemplate,
+                         @Value("${app.cart.cache.max-size:50000}") long maxSize,
+                         @Value("${app.cart.cache.local.expire-after-write-seconds:300}") long localExpireAfterWriteSeconds,
+                         @Value("${app.cart.cache.redis.enabled:false}") boolean redisEnabled,
+                         @Value("${app.cart.cache.redis.ttl-minutes:60}") long redisTtlMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.redisEnabled = redisEnabled;
+        this.redisTtl = Duration.ofMinutes(Math.max(redisTtlMinutes, 1));
+        this.localCarts = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 1))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(localExpireAfterWriteSeconds, 1)))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The cached cart, or null when neither tier has it.
+     */
+    public CartSnapshot get(Long userId) {
+        CartSnapshot snapshot = localCarts.getIfPresent(userId);
+        if (snapshot != null || !redisEnabled) {
+            return snapshot;
+        }
+        try {
+            snapshot = redisTemplate.opsForValue().get(cartKey(userId));
+        } catch (RuntimeException ex) {
+            log.warn("Could not read cached cart for user {}: {}", userId, ex.getMessage());
+            return null;
+        }
+        if (snapshot != null) {
+            localCarts.put(userId, snapshot);
+        }
+        return snapshot;
+    }
+
+    public void put(Long userId, CartSnapshot snapshot) {
+        localCarts.put(userId, snapshot);
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(cartKey(userId), snapshot, redisTtl);
+            indexProducts(userId, snapshot.lines());
+        } catch (RuntimeException ex) {
+            log.warn("Could not cache cart for user {}: {}", userId, ex.getMessage());
+            evictRemote(userId);
+        }
+    }
+
+    /**
+     * Caches a snapshot loaded after a miss, unless a committed write has cached a newer
+     * one in the meantime. The local tier only takes it when Redis did.
+     */
+    public void putIfAbsent(Long userId, CartSnapshot snapshot) {
+        if (!redisEnabled) {
+            localCarts.asMap().putIfAbsent(userId, snapshot);
+            return;
+        }
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(cartKey(userId), snapshot, redisTtl))) {
+                indexProducts(userId, snapshot.lines());
+                localCarts.asMap().putIfAbsent(userId, snapshot);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not cache cart for user {}: {}", userId, ex.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCartChanged(UserCartChangedEvent event) {
+        put(event.userId(), event.snapshot());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Price, name or availability may have changed; created products are in no cart yet.
+        if (event.productId() == null || event.changeType() == ProductChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        localCarts.asMap().values().removeIf(snapshot -> snapshot.containsProduct(event.productId()));
+        if (redisEnabled && !CatalogEventReplay.isReplaying()) {
+            evictRemoteByProduct(event.productId());
+        }
+    }
+
+    private void indexProducts(Long userId, List<CartSnapshot.Line> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        byte[] member = userId.toString().getBytes(StandardCharsets.UTF_8);
+        long ttlSeconds = redisTtl.toSeconds();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (CartSnapshot.Line line : lines) {
+                byte[] indexKey = bytes(PRODUCT_INDEX_KEY_PREFIX + line.productId());
+                connection.setCommands().sAdd(indexKey, member);
+                connection.keyCommands().expire(indexKey, ttlSeconds);
+            }
+            return null;
+        });
+    }
+
+    private void evictRemoteByProduct(Long productId) {
+        String indexKey = PRODUCT_INDEX_KEY_PREFIX + productId;
+        try {
+            Set<String> keys = redisTemplate.execute((RedisCallback<Set<String>>) connection -> {
+                Set<byte[]> members = connection.setCommands().sMembers(bytes(indexKey));
+                Set<String> cartKeys = new HashSet<>();
+                if (members != null) {
+                    members.forEach(member -> cartKeys.add(CART_KEY_PREFIX + new String(member, StandardCharsets.UTF_8)));
+                }
+                return cartKeys;
+            });
+            Set<String> toDelete = keys != null ? new HashSet<>(keys) : new HashSet<>();
+            toDelete.add(indexKey);
+            redisTemplate.delete(toDelete);
+        } catch (RuntimeException ex) {
+            log.warn("Could not evict cached carts for product {}: {}", productId, ex.getMessage());
+        }
+    }
+
+    private void evictRemote(Long userId) {
+        try {
+            redisTemplate.delete(cartKey(userId));
+        } catch (RuntimeException ex) {
+            log.warn("Could not evict cached cart for user {}: {}", userId, ex.getMessage());
+        }
+    }
+
+    private static String cartKey(Long userId) {
+        return CART_KEY_PREFIX + userId;
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
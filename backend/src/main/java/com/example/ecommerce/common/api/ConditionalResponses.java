@@ -0,0 +1,38 @@
+package com.example.ecommerce.common.api;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+public final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Answers 304 when the request's If-None-Match / If-Modified-Since matches,
+     * without invoking {@code body}; otherwise 200 with the validators attached.
+     */
+    public static <T> ResponseEntity<T> conditional(WebRequest request,
+                                                    String etag,
+                                                    Instant lastModified,
+                                                    CacheControl cacheControl,
+                                                    Supplier<T> body) {
+        if (request.checkNotModified(etag, lastModified.toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .body(body.get());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.ecommerce.common.batch;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Progress marker of an incremental batch job: the highest order id it has consumed.
+ * The row is locked while a chunk is processed, so concurrent instances never
+ * count the same orders twice.
+ */
+@Entity
+@Table(name = "batch_job_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchJobWatermark {
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(nullable = false)
+    private long lastOrderId;
+
+    @Column(nullable = false)
+    private Instant updatedAt = Instant.now();
+}
@@ -0,0 +1,127 @@
+package com.example.ecommerce.common.redis;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Redis value serializer for one record type, written as a small binary layout:
+ * a marker byte, a format version byte, then the fields in a fixed order.
+ * No class names or field names are stored.
+ *
+ * The marker cannot start a JSON document, so values written earlier by the shared
+ * JSON template are still readable and are handed to {@link #readLegacy(JsonNode)}.
+ * Bump the version when the layout changes and keep reading the older ones.
+ */
+public abstract class VersionedRecordSerializer<T> implements RedisSerializer<T> {
+
+    static final byte MARKER = (byte) 0xB1;
+
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper();
+    private static final long NO_INSTANT = Long.MIN_VALUE;
+
+    private final Class<T> type;
+    private final int version;
+
+    protected VersionedRecordSerializer(Class<T> type, int version) {
+        this.type = type;
+        this.version = version;
+    }
+
+    protected abstract void write(DataOutput out, T value) throws IOException;
+
+    protected abstract T read(DataInput in, int version) throws IOException;
+
+    /**
+     * Converts a value stored as JSON by the generic template. Type metadata such as
+     * {@code @class} may be present and should be ignored.
+     */
+    protected abstract T readLegacy(JsonNode json);
+
+    @Override
+    public byte[] serialize(T value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MARKER);
+            out.writeByte(version);
+            write(out, value);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new SerializationException("Could not write " + type.getSimpleName(), ex);
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            if (bytes[0] != MARKER) {
+                return readLegacy(unwrapTypeInfo(LEGACY_MAPPER.readTree(bytes)));
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2));
+            return read(in, Byte.toUnsignedInt(bytes[1]));
+        } catch (IOException | RuntimeException ex) {
+            throw new SerializationException("Could not read " + type.getSimpleName(), ex);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return type;
+    }
+
+    protected static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    protected static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    protected static void writeInstant(DataOutput out, Instant value) throws IOException {
+        out.writeLong(value != null ? value.toEpochMilli() : NO_INSTANT);
+    }
+
+    protected static Instant readInstant(DataInput in) throws IOException {
+        long millis = in.readLong();
+        return millis == NO_INSTANT ? null : Instant.ofEpochMilli(millis);
+    }
+
+    protected static String text(JsonNode json, String field) {
+        JsonNode node = json.get(field);
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    protected static Instant instant(JsonNode json, String field) {
+        String value = text(json, field);
+        return value == null || value.isBlank() ? null : Instant.parse(value);
+    }
+
+    // Default typing may wrap non-bean values as ["java.util.HashMap", {...}].
+    private static JsonNode unwrapTypeInfo(JsonNode json) {
+        if (json.isArray() && json.size() == 2 && json.get(0).isTextual()) {
+            return json.get(1);
+        }
+        return json;
+    }
+}
@@ -66,7 +66,7 @@ public class CaffeineConfig {
 
     @Bean
     public CacheManager cacheManager() {
-        CaffeineCacheManager manager = new CaffeineCacheManager("productSearch");
+        CaffeineCacheManager manager = new CaffeineCacheManager("productSearch", "productFacets", "frequentlyBoughtTogether", "productDetails");
         manager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(productCacheMaxSize)
                 .expireAfterWrite(productCacheExpireMinutes, TimeUnit.MINUTES)
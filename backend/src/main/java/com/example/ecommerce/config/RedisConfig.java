@@ -1,11 +1,21 @@
 package com.example.ecommerce.config;
 
+import com.example.ecommerce.auth.model.AccountLockRecord;
+import com.example.ecommerce.auth.model.LoginRecord;
+import com.example.ecommerce.auth.model.SessionRecord;
+import com.example.ecommerce.auth.redis.AccountLockRecordSerializer;
+import com.example.ecommerce.auth.redis.LoginRecordSerializer;
+import com.example.ecommerce.auth.redis.SessionRecordSerializer;
+import com.example.ecommerce.cart.model.CartSnapshot;
+import com.example.ecommerce.cart.redis.CartSnapshotSerializer;
+import com.example.ecommerce.product.service.CatalogEventRelay;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisPassword;
@@ -13,7 +23,10 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -62,4 +75,47 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    // High-volume keyspaces get their own template with a compact binary value format
+    // instead of the class-tagged JSON above. Existing JSON values are still read.
+
+    @Bean
+    public RedisTemplate<String, AccountLockRecord> accountLockRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return typedTemplate(connectionFactory, new AccountLockRecordSerializer());
+    }
+
+    @Bean
+    public RedisTemplate<String, LoginRecord> loginRecordRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return typedTemplate(connectionFactory, new LoginRecordSerializer());
+    }
+
+    @Bean
+    public RedisTemplate<String, SessionRecord> sessionRecordRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return typedTemplate(connectionFactory, new SessionRecordSerializer());
+    }
+
+    @Bean
+    public RedisTemplate<String, CartSnapshot> cartSnapshotRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return typedTemplate(connectionFactory, new CartSnapshotSerializer());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.catalog.events.relay", havingValue = "redis")
+    public RedisMessageListenerContainer catalogEventListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       CatalogEventRelay catalogEventRelay) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(catalogEventRelay, new ChannelTopic(CatalogEventRelay.CHANNEL));
+        return container;
+    }
+
+    private static <T> RedisTemplate<String, T> typedTemplate(RedisConnectionFactory connectionFactory,
+                                                              RedisSerializer<T> valueSerializer) {
+        RedisTemplate<String, T> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(valueSerializer);
+        template.afterPropertiesSet();
+        return template;
+    }
 }
@@ -0,0 +1,9 @@
+package com.example.ecommerce.inventory.event;
+
+import com.example.ecommerce.inventory.model.StockHold;
+
+/**
+ * Published when stock has been reserved for a hold; the hold is indexed in Redis once that commits.
+ */
+public record StockHoldPlacedEvent(StockHold hold) {
+}
@@ -0,0 +1,10 @@
+package com.example.ecommerce.inventory.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Stock a user has set aside for checkout, by product id, until it expires.
+ */
+public record StockHold(String holdId, Long userId, Map<Long, Integer> quantities, Instant expiresAt) {
+}
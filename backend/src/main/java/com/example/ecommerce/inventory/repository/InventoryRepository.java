@@ -2,6 +2,9 @@ package com.example.ecommerce.inventory.repository;
 
 import com.example.ecommerce.inventory.model.InventoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 import java.util.List;
@@ -11,4 +14,57 @@ public interface InventoryRepository extends JpaRepository<InventoryItem, Long>
     Optional<InventoryItem> findByProductId(Long productId);
 
     List<InventoryItem> findByProductIdIn(Collection<Long> productIds);
+
+    // Stock holds are single-row UPDATEs so concurrent checkouts never read-modify-write.
+    // They bump the version so entity-based updates of the same row still detect them.
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE inventory_items
+            SET available_stock = available_stock - :quantity,
+                reserved_stock = reserved_stock + :quantity,
+                version = version + 1,
+                updated_at = NOW()
+            WHERE product_id = :productId
+              AND available_stock >= :quantity
+            """, nativeQuery = true)
+    int reserveStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE inventory_items
+            SET available_stock = available_stock + LEAST(reserved_stock, :quantity),
+                reserved_stock = reserved_stock - LEAST(reserved_stock, :quantity),
+                version = version + 1,
+                updated_at = NOW()
+            WHERE product_id = :productId
+              AND reserved_stock > 0
+            """, nativeQuery = true)
+    int releaseReservedStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Ships held units and takes any quantity ordered beyond the hold from available stock.
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE inventory_items
+            SET reserved_stock = reserved_stock - :heldQuantity,
+                available_stock = available_stock - :extraQuantity,
+                version = version + 1,
+                updated_at = NOW()
+            WHERE product_id = :productId
+              AND reserved_stock >= :heldQuantity
+              AND available_stock >= :extraQuantity
+            """, nativeQuery = true)
+    int consumeReservedStock(@Param("productId") Long productId,
+                             @Param("heldQuantity") int heldQuantity,
+                             @Param("extraQuantity") int extraQuantity);
+
+    // product.stock mirrors available_stock for catalog reads.
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE product p
+            SET stock = ii.available_stock
+            FROM inventory_items ii
+            WHERE ii.product_id = p.id
+              AND p.id IN (:productIds)
+            """, nativeQuery = true)
+    int syncProductStock(@Param("productIds") Collection<Long> productIds);
 }
@@ -0,0 +1,64 @@
+package com.example.ecommerce.inventory.repository;
+
+import com.example.ecommerce.inventory.model.StockHoldLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockHoldLineRepository extends JpaRepository<StockHoldLine, StockHoldLine.Key> {
+
+    @Query(value = """
+            SELECT h.hold_id AS "holdId", h.product_id AS "productId", h.quantity AS "quantity"
+            FROM stock_holds h
+            WHERE h.user_id = :userId
+            """, nativeQuery = true)
+    List<StockHoldLineView> findLinesByUserId(@Param("userId") Long userId);
+
+    // Whoever locks and deletes the rows settles the hold. Rows are always locked in
+    // (user_id, product_id) order so checkouts and the sweeper never deadlock.
+    @Query(value = """
+            SELECT h.hold_id AS "holdId", h.product_id AS "productId", h.quantity AS "quantity"
+            FROM stock_holds h
+            WHERE h.user_id = :userId
+            ORDER BY h.product_id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<StockHoldLineView> lockLinesByUserId(@Param("userId") Long userId);
+
+    @Query(value = """
+            SELECT h.hold_id AS "holdId", h.product_id AS "productId", h.quantity AS "quantity"
+            FROM stock_holds h
+            WHERE h.hold_id IN (:holdIds)
+              AND h.expires_at <= :now
+            ORDER BY h.user_id, h.product_id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<StockHoldLineView> lockExpiredLinesByHoldIdIn(@Param("holdIds") Collection<String> holdIds,
+                                                       @Param("now") Instant now);
+
+    // Fallback for holds whose Redis index entry was lost; an index range scan that is
+    // normally empty.
+    @Query(value = """
+            SELECT h.hold_id
+            FROM stock_holds h
+            WHERE h.expires_at <= :expiredBefore
+            GROUP BY h.hold_id
+            ORDER BY MIN(h.expires_at)
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<String> findHoldIdsExpiredBefore(@Param("expiredBefore") Instant expiredBefore,
+                                          @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM StockHoldLine h WHERE h.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM StockHoldLine h WHERE h.holdId IN :holdIds")
+    int deleteByHoldIdIn(@Param("holdIds") Collection<String> holdIds);
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.inventory.repository;
+
+public interface StockHoldLineView {
+    String getHoldId();
+
+    Long getProductId();
+
+    Integer getQuantity();
+}
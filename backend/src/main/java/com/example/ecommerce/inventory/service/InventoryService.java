@@ -3,14 +3,21 @@ package com.example.ecommerce.inventory.service;
 import com.example.ecommerce.cart.exception.InsufficientStockException;
 import com.example.ecommerce.inventory.model.InventoryItem;
 import com.example.ecommerce.inventory.repository.InventoryRepository;
+import com.example.ecommerce.product.event.ProductStockChangedEvent;
 import com.example.ecommerce.product.exception.ProductNotFoundException;
 import com.example.ecommerce.product.model.Product;
 import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.repository.ProductStockLevelView;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 @Transactional
@@ -19,13 +26,16 @@ public class InventoryService {
     private final InventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
     private final InventoryService selfProxy;
+    private final ApplicationEventPublisher eventPublisher;
 
     public InventoryService(InventoryRepository inventoryRepository,
                             ProductRepository productRepository,
-                            @Lazy InventoryService selfProxy) {
+                            @Lazy InventoryService selfProxy,
+                            ApplicationEventPublisher eventPublisher) {
         this.inventoryRepository = inventoryRepository;
         this.productRepository = productRepository;
         this.selfProxy = selfProxy;
+        this.eventPublisher = eventPublisher;
     }
 
     public void initializeStock(Long productId, int initialStock) {
@@ -49,6 +59,24 @@ public class InventoryService {
                 .orElseGet(() -> productRepository.findById(productId).map(Product::getStock).orElse(0));
     }
 
+    /**
+     * Available stock for several loaded products with a single inventory query. Like
+     * {@link #getAvailableStock(Long)}, products without an inventory row use their own stock.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getAvailableStocks(Collection<Product> products) {
+        Map<Long, Integer> stocks = new HashMap<>();
+        for (Product product : products) {
+            stocks.put(product.getId(), product.getStock());
+        }
+        if (!stocks.isEmpty()) {
+            for (InventoryItem item : inventoryRepository.findByProductIdIn(stocks.keySet())) {
+                stocks.put(item.getProduct().getId(), item.getAvailableStock());
+            }
+        }
+        return stocks;
+    }
+
     public void setStock(Long productId, int newStock) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException(PRODUCT_NOT_FOUND_WITH_ID + productId));
@@ -63,6 +91,7 @@ public class InventoryService {
             item.setReorderLevel(5);
         }
         inventoryRepository.save(item);
+        eventPublisher.publishEvent(new ProductStockChangedEvent(productId, item.getAvailableStock()));
     }
 
     public void decreaseStockWithOptimisticLock(Long productId, int quantity) {
@@ -95,6 +124,86 @@ public class InventoryService {
         }
         product.setStock(updated);
         inventoryRepository.saveAndFlush(item);
+        eventPublisher.publishEvent(new ProductStockChangedEvent(productId, updated));
+    }
+
+    /**
+     * Moves the quantities from available to reserved stock, all or nothing. Rows are
+     * updated in product id order so concurrent holds cannot deadlock.
+     */
+    public void reserveStock(Map<Long, Integer> quantities) {
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+            Long productId = entry.getKey();
+            int quantity = entry.getValue();
+            if (inventoryRepository.reserveStock(productId, quantity) == 0) {
+                reserveWithoutInventoryRow(productId, quantity);
+            }
+        }
+        stockChanged(quantities.keySet());
+    }
+
+    /**
+     * Returns held quantities to available stock; never releases more than is reserved.
+     */
+    public void releaseReservedStock(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+            inventoryRepository.releaseReservedStock(entry.getKey(), entry.getValue());
+        }
+        stockChanged(quantities.keySet());
+    }
+
+    /**
+     * Settles a hold at order time: ordered units come out of the hold first and then out of
+     * available stock, and held units that were not ordered go back to available stock.
+     */
+    public void consumeReservedStock(Map<Long, Integer> held, Map<Long, Integer> ordered) {
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(held).entrySet()) {
+            Long productId = entry.getKey();
+            int heldQuantity = entry.getValue();
+            int orderedQuantity = ordered.getOrDefault(productId, 0);
+            int fromHold = Math.min(heldQuantity, orderedQuantity);
+
+            if (orderedQuantity > 0
+                    && inventoryRepository.consumeReservedStock(productId, fromHold, orderedQuantity - fromHold) == 0) {
+                int available = selfProxy.getAvailableStock(productId);
+                throw new InsufficientStockException(
+                        "Insufficient stock for product " + productId + ". Available: " + available + ", Requested: " + (orderedQuantity - fromHold)
+                );
+            }
+            if (heldQuantity > fromHold) {
+                inventoryRepository.releaseReservedStock(productId, heldQuantity - fromHold);
+            }
+        }
+        stockChanged(held.keySet());
+    }
+
+    private void reserveWithoutInventoryRow(Long productId, int quantity) {
+        if (inventoryRepository.findByProductId(productId).isEmpty()) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ProductNotFoundException(PRODUCT_NOT_FOUND_WITH_ID + productId));
+            inventoryRepository.saveAndFlush(createInventoryItem(product));
+            if (inventoryRepository.reserveStock(productId, quantity) == 1) {
+                return;
+            }
+        }
+        int available = selfProxy.getAvailableStock(productId);
+        throw new InsufficientStockException(
+                "Insufficient stock for product " + productId + ". Available: " + available + ", Requested: " + quantity
+        );
+    }
+
+    private void stockChanged(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        inventoryRepository.syncProductStock(productIds);
+        for (ProductStockLevelView level : productRepository.findStockLevelsByIdIn(productIds)) {
+            int stock = level.getStock() != null ? level.getStock() : 0;
+            eventPublisher.publishEvent(new ProductStockChangedEvent(level.getId(), stock));
+        }
     }
 
     private InventoryItem createInventoryItem(Product product) {
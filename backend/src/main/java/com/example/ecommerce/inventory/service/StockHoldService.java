@@ -0,0 +1,212 @@
+package com.example.ecommerce.inventory.service;
+
+import com.example.ecommerce.inventory.event.StockHoldPlacedEvent;
+import com.example.ecommerce.inventory.model.StockHold;
+import com.example.ecommerce.inventory.model.StockHoldLine;
+import com.example.ecommerce.inventory.repository.StockHoldLineRepository;
+import com.example.ecommerce.inventory.repository.StockHoldLineView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Time-bound stock holds taken when checkout starts.
+ *
+ * The reservation lives in {@code inventory_items.reserved_stock} and the hold itself in
+ * {@code stock_holds}, both written in one transaction. Whoever locks and deletes a hold's
+ * rows (order creation, a newer hold or the sweeper) settles its reserved stock. Redis
+ * keeps a sorted set of hold ids by expiry so the sweeper finds expired holds without
+ * scanning the table; a hold missing from it is still released by a slower fallback pass.
+ */
+@Service
+@Slf4j
+public class StockHoldService {
+
+    private static final String EXPIRY_KEY = "stock_hold:expiry";
+
+    private final StringRedisTemplate redisTemplate;
+    private final StockHoldLineRepository stockHoldLineRepository;
+    private final InventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockHoldService selfProxy;
+    private final Duration holdTtl;
+    private final int maxLines;
+    private final int maxQuantityPerLine;
+    private final int sweepBatchSize;
+    private final int sweepMaxBatches;
+    private final Duration fallbackGrace;
+
+    public StockHoldService(StringRedisTemplate redisTemplate,
+                            StockHoldLineRepository stockHoldLineRepository,
+                            InventoryService inventoryService,
+                            ApplicationEventPublisher eventPublisher,
+                            @Lazy StockHoldService selfProxy,
+                            @Value("${app.inventory.hold.ttl-seconds:600}") long holdTtlSeconds,
+                            @Value("${app.inventory.hold.max-lines:50}") int maxLines,
+                            @Value("${app.inventory.hold.max-quantity-per-line:10}") int maxQuantityPerLine,
+                            @Value("${app.inventory.hold.sweep-batch-size:200}") int sweepBatchSize,
+                            @Value("${app.inventory.hold.sweep-max-batches:20}") int sweepMaxBatches,
+                            @Value("${app.inventory.hold.fallback-grace-seconds:300}") long fallbackGraceSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.stockHoldLineRepository = stockHoldLineRepository;
+        this.inventoryService = inventoryService;
+        this.eventPublisher = eventPublisher;
+        this.selfProxy = selfProxy;
+        this.holdTtl = Duration.ofSeconds(Math.max(holdTtlSeconds, 1));
+        this.maxLines = Math.max(maxLines, 1);
+        this.maxQuantityPerLine = Math.max(maxQuantityPerLine, 1);
+        this.sweepBatchSize = Math.max(sweepBatchSize, 1);
+        this.sweepMaxBatches = Math.max(sweepMaxBatches, 1);
+        this.fallbackGrace = Duration.ofSeconds(Math.max(fallbackGraceSeconds, 0));
+    }
+
+    /**
+     * Reserves the quantities for the user, replacing any hold they already have.
+     * Fails without reserving anything if one product is short.
+     */
+    @Transactional
+    public StockHold placeHold(Long userId, Map<Long, Integer> quantities) {
+        validate(quantities);
+        inventoryService.releaseReservedStock(claimHold(userId));
+        inventoryService.reserveStock(quantities);
+
+        StockHold hold = new StockHold(UUID.randomUUID().toString(), userId, Map.copyOf(quantities),
+                Instant.now().plus(holdTtl));
+        stockHoldLineRepository.saveAll(quantities.entrySet().stream()
+                .map(entry -> new StockHoldLine(userId, entry.getKey(), hold.holdId(), entry.getValue(), hold.expiresAt()))
+                .toList());
+        eventPublisher.publishEvent(new StockHoldPlacedEvent(hold));
+        log.info("event=stock_hold_placed userId={} holdId={} products={}", userId, hold.holdId(), quantities.size());
+        return hold;
+    }
+
+    /**
+     * Takes over the user's hold and returns its quantities, or an empty map when the user
+     * has none. The caller must release or consume them in the same transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Integer> claimHold(Long userId) {
+        List<StockHoldLineView> lines = stockHoldLineRepository.lockLinesByUserId(userId);
+        if (lines.isEmpty()) {
+            return Map.of();
+        }
+        stockHoldLineRepository.deleteByUserId(userId);
+        return quantities(lines);
+    }
+
+    /**
+     * Quantities of the user's hold without taking it over, for availability checks.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getHeldQuantities(Long userId) {
+        return quantities(stockHoldLineRepository.findLinesByUserId(userId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldPlaced(StockHoldPlacedEvent event) {
+        StockHold hold = event.hold();
+        try {
+            redisTemplate.opsForZSet().add(EXPIRY_KEY, hold.holdId(), hold.expiresAt().toEpochMilli());
+        } catch (RuntimeException ex) {
+            // The fallback pass releases the hold once it is fallback-grace past its expiry.
+            log.warn("Could not index stock hold {} for user {}: {}", hold.holdId(), hold.userId(), ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.hold.sweep-interval-ms:30000}",
+            initialDelayString = "${app.inventory.hold.sweep-initial-delay-ms:30000}")
+    public void releaseExpiredHolds() {
+        try {
+            for (int batch = 0; batch < sweepMaxBatches; batch++) {
+                if (releaseExpiredBatch() < sweepBatchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not release expired stock holds: {}", ex.getMessage());
+        }
+        try {
+            List<String> unindexed = stockHoldLineRepository.findHoldIdsExpiredBefore(
+                    Instant.now().minus(fallbackGrace), sweepBatchSize);
+            if (!unindexed.isEmpty()) {
+                log.warn("event=stock_holds_unindexed count={}", unindexed.size());
+                getSelfProxy().releaseExpired(unindexed);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not release unindexed stock holds: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Releases up to one batch of expired holds from the Redis index and returns how many
+     * expired ids were seen. Ids are only dropped from the index once the release commits.
+     */
+    int releaseExpiredBatch() {
+        Set<String> expired = redisTemplate.opsForZSet()
+                .rangeByScore(EXPIRY_KEY, 0, System.currentTimeMillis(), 0, sweepBatchSize);
+        if (expired == null || expired.isEmpty()) {
+            return 0;
+        }
+        getSelfProxy().releaseExpired(expired);
+        // Ids of claimed or already released holds are dropped here too.
+        redisTemplate.opsForZSet().remove(EXPIRY_KEY, expired.toArray());
+        return expired.size();
+    }
+
+    /**
+     * Deletes whatever is left of the given holds once they have expired and returns the
+     * stock to available in one transaction.
+     */
+    @Transactional
+    public void releaseExpired(Collection<String> holdIds) {
+        List<StockHoldLineView> lines = stockHoldLineRepository.lockExpiredLinesByHoldIdIn(holdIds, Instant.now());
+        if (lines.isEmpty()) {
+            return;
+        }
+        Set<String> released = new LinkedHashSet<>();
+        lines.forEach(line -> released.add(line.getHoldId()));
+        stockHoldLineRepository.deleteByHoldIdIn(released);
+        Map<Long, Integer> totals = quantities(lines);
+        inventoryService.releaseReservedStock(totals);
+        log.info("event=stock_holds_released count={} products={}", released.size(), totals.size());
+    }
+
+    private void validate(Map<Long, Integer> quantities) {
+        if (quantities.size() > maxLines) {
+            throw new IllegalArgumentException("A stock hold can contain at most " + maxLines + " products.");
+        }
+        quantities.forEach((productId, quantity) -> {
+            if (quantity == null || quantity < 1 || quantity > maxQuantityPerLine) {
+                throw new IllegalArgumentException(
+                        "Held quantity for product " + productId + " must be between 1 and " + maxQuantityPerLine + ".");
+            }
+        });
+    }
+
+    private StockHoldService getSelfProxy() {
+        return selfProxy != null ? selfProxy : this;
+    }
+
+    private static Map<Long, Integer> quantities(List<StockHoldLineView> lines) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        lines.forEach(line -> quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+        return quantities;
+    }
+}
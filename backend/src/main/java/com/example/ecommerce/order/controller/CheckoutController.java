@@ -2,6 +2,8 @@ package com.example.ecommerce.order.controller;
 
 import com.example.ecommerce.order.dto.CheckoutQuoteRequest;
 import com.example.ecommerce.order.dto.CheckoutQuoteResponse;
+import com.example.ecommerce.order.dto.StockHoldRequest;
+import com.example.ecommerce.order.dto.StockHoldResponse;
 import com.example.ecommerce.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -33,6 +35,14 @@ public class CheckoutController {
         return ResponseEntity.ok(orderService.quoteCheckout(getCurrentUsername(), request));
     }
 
+    @PostMapping("/hold")
+    @PreAuthorize("hasAuthority('ORDER_WRITE')")
+    @Operation(summary = "Hold stock for checkout", description = "Reserves the items until the hold expires or an order is created",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<StockHoldResponse> hold(@Valid @RequestBody StockHoldRequest request) {
+        return ResponseEntity.ok(orderService.holdCheckoutStock(getCurrentUsername(), request));
+    }
+
     private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || authentication.getName() == null) {
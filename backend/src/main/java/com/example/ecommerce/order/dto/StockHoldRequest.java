@@ -0,0 +1,16 @@
+package com.example.ecommerce.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class StockHoldRequest {
+    @Valid
+    @NotEmpty(message = "Hold must contain at least one item.")
+    private List<OrderItemRequest> items;
+}
@@ -0,0 +1,15 @@
+package com.example.ecommerce.order.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Getter
+@Builder
+public class StockHoldResponse {
+    // Held units by product id.
+    private Map<Long, Integer> quantities;
+    private Instant expiresAt;
+}
@@ -0,0 +1,36 @@
+package com.example.ecommerce.order.event;
+
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.OrderItem;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Published when an order is placed or its items stop counting as sold
+ * (cancellation, refund). Carries the lines so listeners need no lookups.
+ */
+public record OrderChangedEvent(ChangeType changeType, Long orderId, Instant placedAt, List<Line> lines) {
+
+    public enum ChangeType {
+        CREATED,
+        CANCELLED,
+        REFUNDED
+    }
+
+    public record Line(Long productId, String category, int quantity) {
+    }
+
+    public static OrderChangedEvent of(ChangeType changeType, Order order) {
+        List<Line> lines = order.getItems().stream()
+                .filter(item -> item.getProduct() != null)
+                .map(OrderChangedEvent::line)
+                .toList();
+        Instant placedAt = order.getCreatedAt() != null ? order.getCreatedAt() : Instant.now();
+        return new OrderChangedEvent(changeType, order.getId(), placedAt, lines);
+    }
+
+    private static Line line(OrderItem item) {
+        return new Line(item.getProduct().getId(), item.getProduct().getCategory(), item.getQuantity());
+    }
+}
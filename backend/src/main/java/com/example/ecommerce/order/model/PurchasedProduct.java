@@ -0,0 +1,52 @@
+package com.example.ecommerce.order.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One row per (user, product) with the number of the user's paid orders that
+ * contain the product. Maintained by PurchaseEligibilityService on payment
+ * and refund, so purchase checks are a primary-key lookup.
+ */
+@Entity
+@Table(name = "purchased_products")
+@IdClass(PurchasedProduct.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class PurchasedProduct {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private int orderCount;
+
+    @Column(nullable = false)
+    private Instant updatedAt = Instant.now();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long productId;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.ecommerce.order.repository;
+
+import com.example.ecommerce.order.model.PurchasedProduct;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PurchasedProductRepository extends JpaRepository<PurchasedProduct, PurchasedProduct.Key> {
+
+    boolean existsByUserIdAndProductId(Long userId, Long productId);
+
+    @Query("""
+            SELECT p.productId
+            FROM PurchasedProduct p
+            WHERE p.userId = :userId
+              AND p.productId IN :productIds
+            """)
+    List<Long> findProductIdsByUserIdAndProductIdIn(@Param("userId") Long userId,
+                                                    @Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query(
+            value = """
+                    INSERT INTO purchased_products (user_id, product_id, order_count, updated_at)
+                    VALUES (:userId, :productId, 1, NOW())
+                    ON CONFLICT (user_id, product_id) DO UPDATE SET
+                        order_count = purchased_products.order_count + 1,
+                        updated_at = EXCLUDED.updated_at
+                    """,
+            nativeQuery = true
+    )
+    int addOrder(@Param("userId") Long userId, @Param("productId") Long productId);
+
+    @Modifying
+    @Query(
+            value = """
+                    UPDATE purchased_products
+                    SET order_count = order_count - 1,
+                        updated_at = NOW()
+                    WHERE user_id = :userId
+                      AND product_id = :productId
+                    """,
+            nativeQuery = true
+    )
+    int removeOrder(@Param("userId") Long userId, @Param("productId") Long productId);
+
+    @Modifying
+    @Query(
+            value = """
+                    DELETE FROM purchased_products
+                    WHERE user_id = :userId
+                      AND order_count <= 0
+                    """,
+            nativeQuery = true
+    )
+    int deleteEmptyByUserId(@Param("userId") Long userId);
+}
@@ -62,7 +62,18 @@ public class CheckoutPricingService {
                                            Long userId,
                                            String couponCode,
                                            ShippingMethod requestedShippingMethod) {
-        List<OrderPricingItem> items = resolveItems(requestedItems);
+        return buildPricing(requestedItems, userId, couponCode, requestedShippingMethod, Map.of());
+    }
+
+    /**
+     * Same as the quote pricing, but units the user holds in reserved stock also count as available.
+     */
+    public OrderPricingResult buildPricing(List<OrderItemRequest> requestedItems,
+                                           Long userId,
+                                           String couponCode,
+                                           ShippingMethod requestedShippingMethod,
+                                           Map<Long, Integer> heldQuantities) {
+        List<OrderPricingItem> items = resolveItems(requestedItems, heldQuantities);
         BigDecimal subtotal = calculateSubtotal(items);
 
         Coupon appliedCoupon = resolveCoupon(couponCode, userId, subtotal);
@@ -114,7 +125,7 @@ public class CheckoutPricingService {
         couponRedemptionRepository.save(redemption);
     }
 
-    private List<OrderPricingItem> resolveItems(List<OrderItemRequest> requestedItems) {
+    private List<OrderPricingItem> resolveItems(List<OrderItemRequest> requestedItems, Map<Long, Integer> heldQuantities) {
         if (requestedItems == null || requestedItems.isEmpty()) {
             throw new IllegalArgumentException("Order must contain at least one item.");
         }
@@ -149,7 +160,8 @@ public class CheckoutPricingService {
 
         for (Long productId : productIds) {
             Product product = productsById.get(productId);
-            int available = availableStockByProductId.getOrDefault(productId, Math.max(product.getStock(), 0));
+            int available = availableStockByProductId.getOrDefault(productId, Math.max(product.getStock(), 0))
+                    + heldQuantities.getOrDefault(productId, 0);
             int requestedQuantity = requestedQuantityByProductId.get(productId);
             if (requestedQuantity > available) {
                 throw new InsufficientStockException(
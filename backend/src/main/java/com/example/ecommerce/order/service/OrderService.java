@@ -4,7 +4,9 @@ import com.example.ecommerce.auth.model.User;
 import com.example.ecommerce.auth.model.AuditLog;
 import com.example.ecommerce.auth.service.AuditService;
 import com.example.ecommerce.auth.service.UserService;
+import com.example.ecommerce.inventory.model.StockHold;
 import com.example.ecommerce.inventory.service.InventoryService;
+import com.example.ecommerce.inventory.service.StockHoldService;
 import com.example.ecommerce.order.dto.CheckoutQuoteRequest;
 import com.example.ecommerce.order.dto.CheckoutQuoteResponse;
 import com.example.ecommerce.order.dto.CreateOrderRequest;
@@ -13,6 +15,9 @@ import com.example.ecommerce.order.dto.OrderItemResponse;
 import com.example.ecommerce.order.dto.OrderResponse;
 import com.example.ecommerce.order.dto.ShipOrderRequest;
 import com.example.ecommerce.order.dto.ShippingAddressRequest;
+import com.example.ecommerce.order.dto.StockHoldRequest;
+import com.example.ecommerce.order.dto.StockHoldResponse;
+import com.example.ecommerce.order.event.OrderChangedEvent;
 import com.example.ecommerce.order.exception.OrderAccessDeniedException;
 import com.example.ecommerce.order.exception.OrderNotFoundException;
 import com.example.ecommerce.order.model.Order;
@@ -25,6 +30,7 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -48,22 +54,31 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final UserService userService;
     private final InventoryService inventoryService;
+    private final StockHoldService stockHoldService;
     private final CheckoutPricingService checkoutPricingService;
     private final AuditService auditService;
     private final MeterRegistry meterRegistry;
+    private final PurchaseEligibilityService purchaseEligibilityService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public OrderService(OrderRepository orderRepository,
                         UserService userService,
                         InventoryService inventoryService,
+                        StockHoldService stockHoldService,
                         CheckoutPricingService checkoutPricingService,
                         AuditService auditService,
-                        MeterRegistry meterRegistry) {
+                        MeterRegistry meterRegistry,
+                        PurchaseEligibilityService purchaseEligibilityService,
+                        ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.userService = userService;
         this.inventoryService = inventoryService;
+        this.stockHoldService = stockHoldService;
         this.checkoutPricingService = checkoutPricingService;
         this.auditService = auditService;
         this.meterRegistry = meterRegistry;
+        this.purchaseEligibilityService = purchaseEligibilityService;
+        this.eventPublisher = eventPublisher;
     }
 
     public OrderResponse createOrder(String username, CreateOrderRequest request) {
@@ -74,11 +89,14 @@ public class OrderService {
         order.setUserId(user.getId());
         order.setUsername(user.getUsername());
         order.setStatus(OrderStatus.CREATED);
+        // Units held since checkout started are settled here instead of being decremented again.
+        Map<Long, Integer> heldQuantities = stockHoldService.claimHold(user.getId());
         OrderPricingResult pricing = checkoutPricingService.buildPricing(
                 request.getItems(),
                 user.getId(),
                 request.getCouponCode(),
-                request.getShippingMethod()
+                request.getShippingMethod(),
+                heldQuantities
         );
         order.setSubtotalAmount(pricing.subtotalAmount());
         order.setDiscountAmount(pricing.discountAmount());
@@ -89,10 +107,15 @@ public class OrderService {
         order.setShippingMethod(pricing.shippingMethod());
         applyShippingAddress(order, request.getShippingAddress());
 
+        Map<Long, Integer> orderedHeldQuantities = new HashMap<>();
         for (OrderPricingItem pricingItem : pricing.items()) {
             Product product = pricingItem.product();
             int quantity = pricingItem.quantity();
-            inventoryService.decreaseStockWithOptimisticLock(product.getId(), quantity);
+            if (heldQuantities.containsKey(product.getId())) {
+                orderedHeldQuantities.merge(product.getId(), quantity, Integer::sum);
+            } else {
+                inventoryService.decreaseStockWithOptimisticLock(product.getId(), quantity);
+            }
             OrderItem item = new OrderItem();
             item.setOrder(order);
             item.setProduct(product);
@@ -101,13 +124,30 @@ public class OrderService {
             item.setProductNameSnapshot(product.getName());
             order.getItems().add(item);
         }
+        if (!heldQuantities.isEmpty()) {
+            inventoryService.consumeReservedStock(heldQuantities, orderedHeldQuantities);
+        }
         Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.of(OrderChangedEvent.ChangeType.CREATED, saved));
         recordOrderMetric("create", METRIC_OUTCOME_SUCCESS, startNanos);
         logOrderAudit(user.getId(), username, AuditLog.AuditAction.ORDER_CREATED, saved);
         logger.info("event=order_created orderId={} username={} totalAmount={}", saved.getId(), username, saved.getTotalAmount());
         return toResponse(saved);
     }
 
+    public StockHoldResponse holdCheckoutStock(String username, StockHoldRequest request) {
+        User user = userService.getByUsername(username);
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderItemRequest item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        StockHold hold = stockHoldService.placeHold(user.getId(), quantities);
+        return StockHoldResponse.builder()
+                .quantities(hold.quantities())
+                .expiresAt(hold.expiresAt())
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public CheckoutQuoteResponse quoteCheckout(String username, CheckoutQuoteRequest request) {
         long startNanos = System.nanoTime();
@@ -116,7 +156,8 @@ public class OrderService {
                 request.getItems(),
                 user.getId(),
                 request.getCouponCode(),
-                request.getShippingMethod()
+                request.getShippingMethod(),
+                stockHoldService.getHeldQuantities(user.getId())
         );
         recordOrderMetric("quote", METRIC_OUTCOME_SUCCESS, startNanos);
         auditService.logSystemEvent(
@@ -187,6 +228,7 @@ public class OrderService {
         order.setCancelReason(trimOrNull(cancelReason));
         order.setCancelledAt(Instant.now());
         Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.of(OrderChangedEvent.ChangeType.CANCELLED, saved));
         recordOrderMetric(METRIC_ACTION_CANCEL_CUSTOMER, METRIC_OUTCOME_SUCCESS, startNanos);
         logOrderAudit(order.getUserId(), username, AuditLog.AuditAction.ORDER_CANCELLED, saved);
         logger.info("event=order_cancelled_by_customer orderId={} username={}", saved.getId(), username);
@@ -209,6 +251,7 @@ public class OrderService {
         order.setCancelReason(trimOrNull(cancelReason));
         order.setCancelledAt(Instant.now());
         Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.of(OrderChangedEvent.ChangeType.CANCELLED, saved));
         recordOrderMetric("cancel", METRIC_OUTCOME_SUCCESS, startNanos);
         logOrderAudit(order.getUserId(), adminUsername, AuditLog.AuditAction.ORDER_CANCELLED, saved);
         logger.info("event=order_cancelled orderId={} admin={}", saved.getId(), adminUsername);
@@ -226,6 +269,8 @@ public class OrderService {
         order.setStatus(OrderStatus.REFUNDED);
         order.setRefundedAt(Instant.now());
         Order saved = orderRepository.save(order);
+        purchaseEligibilityService.recordRefunded(saved);
+        eventPublisher.publishEvent(OrderChangedEvent.of(OrderChangedEvent.ChangeType.REFUNDED, saved));
         recordOrderMetric("refund", METRIC_OUTCOME_SUCCESS, startNanos);
         logOrderAudit(order.getUserId(), adminUsername, AuditLog.AuditAction.ORDER_REFUNDED, saved);
         logger.info("event=order_refunded orderId={} admin={}", saved.getId(), adminUsername);
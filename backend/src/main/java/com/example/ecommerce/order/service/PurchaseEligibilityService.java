@@ -0,0 +1,73 @@
+package com.example.ecommerce.order.service;
+
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.OrderItem;
+import com.example.ecommerce.order.repository.PurchasedProductRepository;
+import com.example.ecommerce.product.model.Product;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps purchased_products in step with orders entering a paid state and
+ * leaving it through a refund. The hooks join the caller's transaction, so
+ * the index commits together with the order status change.
+ */
+@Service
+public class PurchaseEligibilityService {
+
+    private final PurchasedProductRepository purchasedProductRepository;
+
+    public PurchaseEligibilityService(PurchasedProductRepository purchasedProductRepository) {
+        this.purchasedProductRepository = purchasedProductRepository;
+    }
+
+    @Transactional
+    public void recordPaid(Order order) {
+        if (order.getUserId() == null) {
+            return;
+        }
+        for (Long productId : productIds(order)) {
+            purchasedProductRepository.addOrder(order.getUserId(), productId);
+        }
+    }
+
+    @Transactional
+    public void recordRefunded(Order order) {
+        if (order.getUserId() == null) {
+            return;
+        }
+        for (Long productId : productIds(order)) {
+            purchasedProductRepository.removeOrder(order.getUserId(), productId);
+        }
+        purchasedProductRepository.deleteEmptyByUserId(order.getUserId());
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasPurchased(Long userId, Long productId) {
+        return purchasedProductRepository.existsByUserIdAndProductId(userId, productId);
+    }
+
+    @Transactional(readOnly = true)
+    public Set<Long> purchasedProductIds(Long userId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(purchasedProductRepository.findProductIdsByUserIdAndProductIdIn(userId, productIds));
+    }
+
+    private List<Long> productIds(Order order) {
+        // An order counts once per product, however many lines reference it.
+        return order.getItems().stream()
+                .map(OrderItem::getProduct)
+                .filter(Objects::nonNull)
+                .map(Product::getId)
+                .distinct()
+                .toList();
+    }
+}
@@ -14,6 +14,7 @@ import com.example.ecommerce.order.model.PaymentProvider;
 import com.example.ecommerce.order.model.PaymentProviderStatus;
 import com.example.ecommerce.order.repository.OrderRepository;
 import com.example.ecommerce.order.service.CheckoutPricingService;
+import com.example.ecommerce.order.service.PurchaseEligibilityService;
 import com.example.ecommerce.payment.iyzico.dto.IyzicoInitPaymentResponse;
 import com.example.ecommerce.payment.iyzico.dto.IyzicoPaymentCallbackResponse;
 import com.example.ecommerce.payment.iyzico.dto.IyzicoPaymentStatusResponse;
@@ -49,6 +50,7 @@ public class IyzicoPaymentService {
     private final CartService cartService;
     private final AuditService auditService;
     private final MeterRegistry meterRegistry;
+    private final PurchaseEligibilityService purchaseEligibilityService;
 
     public IyzicoPaymentService(IyzicoProperties properties,
                                 IyzicoGatewayClient gatewayClient,
@@ -57,7 +59,8 @@ public class IyzicoPaymentService {
                                 CheckoutPricingService checkoutPricingService,
                                 CartService cartService,
                                 AuditService auditService,
-                                MeterRegistry meterRegistry) {
+                                MeterRegistry meterRegistry,
+                                PurchaseEligibilityService purchaseEligibilityService) {
         this.properties = properties;
         this.gatewayClient = gatewayClient;
         this.orderRepository = orderRepository;
@@ -66,6 +69,7 @@ public class IyzicoPaymentService {
         this.cartService = cartService;
         this.auditService = auditService;
         this.meterRegistry = meterRegistry;
+        this.purchaseEligibilityService = purchaseEligibilityService;
     }
 
     public IyzicoInitPaymentResponse initializePayment(String username, Long orderId, String locale) {
@@ -290,6 +294,7 @@ public class IyzicoPaymentService {
         }
         orderRepository.save(order);
         if (firstPaymentTransition) {
+            purchaseEligibilityService.recordPaid(order);
             checkoutPricingService.recordCouponRedemptionByCode(order.getCouponCode(), order.getUserId(), order.getId());
             try {
                 cartService.clearCart(order.getUserId());
@@ -1,58 +1,209 @@
 package com.example.ecommerce.product.controller;
 
 import java.util.List;
+import java.util.function.Supplier;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.example.ecommerce.common.api.ConditionalResponses;
+
+import com.example.ecommerce.product.dto.ProductAttributeFacetDto;
+import com.example.ecommerce.product.dto.ProductBatchItemDto;
 import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductFacetsDto;
+import com.example.ecommerce.product.dto.ProductSearchResponse;
+import com.example.ecommerce.product.dto.ProductSuggestionDto;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.model.ProductAttributeFilters;
+import com.example.ecommerce.product.model.ProductSearchQuery;
+import com.example.ecommerce.product.model.TrendingWindow;
+import com.example.ecommerce.product.service.CatalogRevisionService;
+import com.example.ecommerce.product.service.ProductBatchService;
+import com.example.ecommerce.product.service.FrequentlyBoughtTogetherService;
+import com.example.ecommerce.product.service.ProductFacetService;
 import com.example.ecommerce.product.service.ProductService;
+import com.example.ecommerce.product.service.ProductSuggestionService;
+import com.example.ecommerce.product.service.ProductTrendingService;
+import com.example.ecommerce.product.service.RecentlyViewedService;
+import com.example.ecommerce.product.service.SearchAnalyticsService;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductFacetService productFacetService;
+    private final ProductSuggestionService productSuggestionService;
+    private final CatalogRevisionService catalogRevisionService;
+    private final ProductTrendingService productTrendingService;
+    private final FrequentlyBoughtTogetherService frequentlyBoughtTogetherService;
+    private final SearchAnalyticsService searchAnalyticsService;
+    private final RecentlyViewedService recentlyViewedService;
+    private final RecentViewerResolver recentViewerResolver;
+    private final ProductBatchService productBatchService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductFacetService productFacetService,
+                             ProductSuggestionService productSuggestionService,
+                             CatalogRevisionService catalogRevisionService,
+                             ProductTrendingService productTrendingService,
+                             FrequentlyBoughtTogetherService frequentlyBoughtTogetherService,
+                             SearchAnalyticsService searchAnalyticsService,
+                             RecentlyViewedService recentlyViewedService,
+                             RecentViewerResolver recentViewerResolver,
+                             ProductBatchService productBatchService) {
         this.productService = productService;
+        this.productFacetService = productFacetService;
+        this.productSuggestionService = productSuggestionService;
+        this.catalogRevisionService = catalogRevisionService;
+        this.productTrendingService = productTrendingService;
+        this.frequentlyBoughtTogetherService = frequentlyBoughtTogetherService;
+        this.searchAnalyticsService = searchAnalyticsService;
+        this.recentlyViewedService = recentlyViewedService;
+        this.recentViewerResolver = recentViewerResolver;
+        this.productBatchService = productBatchService;
     }
 
     @GetMapping
     public ResponseEntity<Page<ProductDto>> getAllProducts(
-            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.ASC) Pageable pageable) {
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+            WebRequest request) {
+        return catalogResponse(request, () -> productService.getAllProducts(pageable));
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ProductDto>> getProductsByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(productService.getProductsByCategory(category));
+    public ResponseEntity<Page<ProductSummaryDto>> getProductsByCategory(
+            @PathVariable String category,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+            WebRequest request) {
+        if (ProductService.isPopularSort(pageable)) {
+            return popularityResponse(productService.getProductsByCategory(category, pageable));
+        }
+        return catalogResponse(request, () -> productService.getProductsByCategory(category, pageable));
     }
 
     @GetMapping("/brand/{brand}")
-    public ResponseEntity<List<ProductDto>> getProductsByBrand(@PathVariable String brand) {
-        return ResponseEntity.ok(productService.getProductsByBrand(brand));
+    public ResponseEntity<Page<ProductSummaryDto>> getProductsByBrand(
+            @PathVariable String brand,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+            WebRequest request) {
+        if (ProductService.isPopularSort(pageable)) {
+            return popularityResponse(productService.getProductsByBrand(brand, pageable));
+        }
+        return catalogResponse(request, () -> productService.getProductsByBrand(brand, pageable));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductDto>> searchProducts(
+    public ResponseEntity<ProductSearchResponse> searchProducts(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String brand,
             @RequestParam(required = false, name = "q") String query,
-            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
-        return ResponseEntity.ok(productService.searchProducts(category, brand, query, pageable));
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam MultiValueMap<String, String> params,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable,
+            WebRequest request) {
+        ProductAttributeFilters attributes = ProductAttributeFilters.fromParams(params);
+        if (pageable.getPageNumber() == 0) {
+            searchAnalyticsService.record(ProductSearchQuery.of(category, brand, query, attributes, pageable, facets));
+        }
+        return catalogResponse(request, () -> {
+            Page<ProductSummaryDto> page = productService.searchProducts(category, brand, query, attributes, pageable);
+            ProductFacetsDto facetCounts = facets
+                    ? productFacetService.getFacets(category, brand, query, attributes)
+                    : null;
+            return ProductSearchResponse.of(page, facetCounts);
+        });
+    }
+
+    @GetMapping("/category/{category}/attributes")
+    public ResponseEntity<List<ProductAttributeFacetDto>> getCategoryAttributes(
+            @PathVariable String category,
+            WebRequest request) {
+        return catalogResponse(request, () -> productFacetService.getAttributeFacets(category));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDto>> suggestProducts(
+            @RequestParam(name = "q") String query,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productSuggestionService.suggest(query, limit));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<ProductSummaryDto>> getTrendingProducts(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "20") int limit) {
+        TrendingWindow trendingWindow = TrendingWindow.fromCode(window);
+        return popularityResponse(productTrendingService.getTrendingProducts(trendingWindow, category, limit));
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<List<ProductBatchItemDto>> getProductsByIds(
+            @RequestParam List<Long> ids,
+            WebRequest request) {
+        return catalogResponse(request, () -> productBatchService.getProducts(ids));
+    }
+
+    @GetMapping("/recently-viewed")
+    public ResponseEntity<List<ProductSummaryDto>> getRecentlyViewed(
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest httpRequest,
+            Authentication authentication) {
+        String viewer = recentViewerResolver.resolve(httpRequest, authentication);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(recentlyViewedService.getRecentlyViewed(viewer, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
-        ProductDto product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+    public ResponseEntity<ProductDto> getProductById(
+            @PathVariable Long id,
+            WebRequest request,
+            HttpServletRequest httpRequest,
+            Authentication authentication) {
+        CatalogRevisionService.Validators validators = catalogRevisionService.product(id);
+        ResponseEntity<ProductDto> response = ConditionalResponses.conditional(request, validators.etag(),
+                validators.lastModified(), catalogRevisionService.cacheControl(), () -> productService.getProductById(id));
+        // Unknown ids have thrown by now, so they never reach the rankings.
+        productTrendingService.recordView(id);
+        // The response is publicly cacheable, so it never issues a viewer cookie.
+        recentlyViewedService.recordView(recentViewerResolver.resolve(httpRequest, authentication), id);
+        return response;
+    }
+
+    @PostMapping("/{id}/views")
+    public ResponseEntity<Void> recordView(
+            @PathVariable Long id,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse,
+            Authentication authentication) {
+        productService.getProductById(id);
+        recentlyViewedService.recordView(
+                recentViewerResolver.resolveOrCreate(httpRequest, httpResponse, authentication), id);
+        return ResponseEntity.noContent()
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+
+    @GetMapping("/{id}/frequently-bought-together")
+    public ResponseEntity<List<ProductSummaryDto>> getFrequentlyBoughtTogether(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "6") int limit) {
+        return ResponseEntity.ok(frequentlyBoughtTogetherService.getFrequentlyBoughtTogether(id, limit));
     }
 
     @PreAuthorize("hasAuthority('PRODUCT_WRITE')")
@@ -75,4 +226,20 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Popularity moves without catalog writes, so catalog validators would go stale;
+     * these responses are only cached for the ranking TTL.
+     */
+    private <T> ResponseEntity<T> popularityResponse(T body) {
+        return ResponseEntity.ok()
+                .cacheControl(productTrendingService.cacheControl())
+                .body(body);
+    }
+
+    private <T> ResponseEntity<T> catalogResponse(WebRequest request, Supplier<T> body) {
+        CatalogRevisionService.Validators validators = catalogRevisionService.catalog();
+        return ConditionalResponses.conditional(request, validators.etag(), validators.lastModified(),
+                catalogRevisionService.cacheControl(), body);
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.ecommerce.product.controller;
+
+import com.example.ecommerce.product.dto.ProductImportResult;
+import com.example.ecommerce.product.model.ProductImportFormat;
+import com.example.ecommerce.product.service.ProductImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin/products")
+public class ProductImportController {
+
+    private final ProductImportService productImportService;
+
+    public ProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    @PostMapping(value = "/import",
+            consumes = {ProductImportFormat.CSV_MEDIA_TYPE, ProductImportFormat.NDJSON_MEDIA_TYPE, "application/ndjson"})
+    @PreAuthorize("hasAuthority('PRODUCT_WRITE')")
+    public ResponseEntity<ProductImportResult> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            InputStream payload) {
+        ProductImportFormat format = ProductImportFormat.fromContentType(contentType);
+        return ResponseEntity.ok(productImportService.importProducts(payload, format, dryRun));
+    }
+}
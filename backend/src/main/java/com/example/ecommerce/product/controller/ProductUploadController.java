@@ -1,6 +1,8 @@
 package com.example.ecommerce.product.controller;
 
+import com.example.ecommerce.product.dto.ProductImageUploadJobDto;
 import com.example.ecommerce.product.dto.ProductImageUploadResponse;
+import com.example.ecommerce.product.service.ProductImageUploadPipeline;
 import com.example.ecommerce.product.service.ProductImageUploadService;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -8,14 +10,19 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
+
 @RestController
 @RequestMapping("/api/admin/uploads")
 public class ProductUploadController {
 
     private final ProductImageUploadService productImageUploadService;
+    private final ProductImageUploadPipeline productImageUploadPipeline;
 
-    public ProductUploadController(ProductImageUploadService productImageUploadService) {
+    public ProductUploadController(ProductImageUploadService productImageUploadService,
+                                   ProductImageUploadPipeline productImageUploadPipeline) {
         this.productImageUploadService = productImageUploadService;
+        this.productImageUploadPipeline = productImageUploadPipeline;
     }
 
     @PostMapping(value = "/product-image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -23,4 +30,21 @@ public class ProductUploadController {
     public ResponseEntity<ProductImageUploadResponse> uploadProductImage(@RequestPart("file") MultipartFile file) {
         return ResponseEntity.ok(productImageUploadService.uploadProductImage(file));
     }
+
+    @PostMapping(value = "/products/{productId}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAuthority('PRODUCT_WRITE')")
+    public ResponseEntity<ProductImageUploadJobDto> submitProductImage(
+            @PathVariable Long productId,
+            @RequestPart("file") MultipartFile file) {
+        ProductImageUploadJobDto job = productImageUploadPipeline.submit(productId, file);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/uploads/jobs/" + job.jobId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAuthority('PRODUCT_WRITE')")
+    public ResponseEntity<ProductImageUploadJobDto> getUploadJob(@PathVariable String jobId) {
+        return ResponseEntity.of(productImageUploadPipeline.getJob(jobId));
+    }
 }
@@ -0,0 +1,85 @@
+package com.example.ecommerce.product.controller;
+
+import com.example.ecommerce.auth.security.CustomUserDetails;
+import com.example.ecommerce.product.service.RecentlyViewedService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Maps a request to its recently-viewed list: the user id when signed in, otherwise a
+ * {@code recently_viewed_id} cookie that is only issued when the client records a view.
+ */
+@Component
+public class RecentViewerResolver {
+    private static final String GUEST_COOKIE_NAME = "recently_viewed_id";
+
+    private final RecentlyViewedService recentlyViewedService;
+    private final boolean cookieSecure;
+
+    public RecentViewerResolver(RecentlyViewedService recentlyViewedService,
+                                @Value("${app.cookie.secure:true}") boolean cookieSecure) {
+        this.recentlyViewedService = recentlyViewedService;
+        this.cookieSecure = cookieSecure;
+    }
+
+    public String resolve(HttpServletRequest request, Authentication authentication) {
+        Long userId = extractUserId(authentication);
+        if (userId != null) {
+            return RecentlyViewedService.userViewer(userId);
+        }
+        String guestId = existingGuestId(request);
+        return guestId != null ? RecentlyViewedService.guestViewer(guestId) : null;
+    }
+
+    public String resolveOrCreate(HttpServletRequest request, HttpServletResponse response,
+                                  Authentication authentication) {
+        String viewer = resolve(request, authentication);
+        if (viewer != null) {
+            return viewer;
+        }
+        String guestId = UUID.randomUUID().toString();
+        ResponseCookie cookie = ResponseCookie.from(GUEST_COOKIE_NAME, guestId)
+                .httpOnly(true)
+                .secure(cookieSecure)
+                .path("/")
+                .maxAge(recentlyViewedService.ttl())
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        return RecentlyViewedService.guestViewer(guestId);
+    }
+
+    private static Long extractUserId(Authentication authentication) {
+        if (authentication == null
+                || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof CustomUserDetails customUserDetails) {
+            return customUserDetails.getUser().getId();
+        }
+        return null;
+    }
+
+    private static String existingGuestId(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (GUEST_COOKIE_NAME.equals(cookie.getName()) && cookie.getValue() != null && !cookie.getValue().isBlank()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+}
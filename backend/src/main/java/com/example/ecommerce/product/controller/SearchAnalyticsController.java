@@ -0,0 +1,31 @@
+package com.example.ecommerce.product.controller;
+
+import com.example.ecommerce.product.dto.SearchQueryStatDto;
+import com.example.ecommerce.product.service.SearchAnalyticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/search")
+public class SearchAnalyticsController {
+
+    private final SearchAnalyticsService searchAnalyticsService;
+
+    public SearchAnalyticsController(SearchAnalyticsService searchAnalyticsService) {
+        this.searchAnalyticsService = searchAnalyticsService;
+    }
+
+    @PreAuthorize("hasAuthority('AUDIT_READ')")
+    @GetMapping("/top-queries")
+    public ResponseEntity<List<SearchQueryStatDto>> getTopQueries(
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(searchAnalyticsService.topQueries(limit, days));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.product.dto;
+
+import java.util.List;
+
+/**
+ * Values seen for one attribute key within a category, most common first.
+ */
+public record ProductAttributeFacetDto(String key, List<ProductFacetsDto.FacetCount> values) {
+}
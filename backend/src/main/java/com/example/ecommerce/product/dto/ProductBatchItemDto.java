@@ -0,0 +1,16 @@
+package com.example.ecommerce.product.dto;
+
+/**
+ * One slot of a batch lookup, in request order; {@code product} is null when the id
+ * does not exist.
+ */
+public record ProductBatchItemDto(Long id, boolean found, ProductDto product) {
+
+    public static ProductBatchItemDto found(ProductDto product) {
+        return new ProductBatchItemDto(product.getId(), true, product);
+    }
+
+    public static ProductBatchItemDto notFound(Long id) {
+        return new ProductBatchItemDto(id, false, null);
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.ecommerce.product.dto;
 
 import java.math.BigDecimal;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
@@ -14,6 +18,8 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductDto {
+    private static final ObjectMapper ATTRIBUTES_READER = new ObjectMapper();
+
     private Long id;
     @NotBlank(message = "Product name is required.")
     @Size(max = 255, message = "Product name is too long.")
@@ -41,6 +47,8 @@ public class ProductDto {
     private String attributesJson;
     @Min(value = 0, message = "Stock must be greater than or equal to 0.")
     private int stock;
+    private ProductRatingDto rating;
+    private Map<String, String> imageDerivatives;
 
     public ProductDto(Long id, String name, String description, BigDecimal price, String imageUrl, String category) {
         this.id = id;
@@ -73,4 +81,16 @@ public class ProductDto {
                 || path.endsWith(".webp")
                 || path.endsWith(".gif");
     }
+
+    @AssertTrue(message = "Attributes must be a JSON object.")
+    public boolean isAttributesJsonValid() {
+        if (attributesJson == null || attributesJson.isBlank()) {
+            return true;
+        }
+        try {
+            return ATTRIBUTES_READER.readTree(attributesJson).isObject();
+        } catch (JsonProcessingException ex) {
+            return false;
+        }
+    }
 }
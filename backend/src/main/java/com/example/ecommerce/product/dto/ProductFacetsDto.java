@@ -0,0 +1,20 @@
+package com.example.ecommerce.product.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ProductFacetsDto(
+        List<FacetCount> categories,
+        List<FacetCount> brands,
+        List<PriceRangeCount> priceRanges
+) {
+    public static ProductFacetsDto empty() {
+        return new ProductFacetsDto(List.of(), List.of(), List.of());
+    }
+
+    public record FacetCount(String value, long count) {
+    }
+
+    public record PriceRangeCount(String key, BigDecimal min, BigDecimal max, long count) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ecommerce.product.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record ProductImageUploadJobDto(
+        String jobId,
+        Long productId,
+        Status status,
+        String imageUrl,
+        Map<String, String> derivatives,
+        String error,
+        Instant createdAt,
+        Instant finishedAt) {
+
+    public enum Status {
+        QUEUED, PROCESSING, COMPLETED, FAILED
+    }
+
+    public static ProductImageUploadJobDto queued(String jobId, Long productId) {
+        return new ProductImageUploadJobDto(jobId, productId, Status.QUEUED, null, null, null, Instant.now(), null);
+    }
+
+    public ProductImageUploadJobDto processing() {
+        return new ProductImageUploadJobDto(jobId, productId, Status.PROCESSING, null, null, null, createdAt, null);
+    }
+
+    public ProductImageUploadJobDto completed(String imageUrl, Map<String, String> derivatives) {
+        return new ProductImageUploadJobDto(jobId, productId, Status.COMPLETED, imageUrl, derivatives, null,
+                createdAt, Instant.now());
+    }
+
+    public ProductImageUploadJobDto failed(String error) {
+        return new ProductImageUploadJobDto(jobId, productId, Status.FAILED, null, null, error, createdAt, Instant.now());
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+}
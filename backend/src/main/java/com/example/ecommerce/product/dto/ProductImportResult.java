@@ -0,0 +1,20 @@
+package com.example.ecommerce.product.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} is capped; {@code failed} always
+ * carries the full count. Row numbers are 1-based lines of the uploaded file,
+ * so for CSV the first data row is row 2.
+ */
+public record ProductImportResult(
+        boolean dryRun,
+        long totalRows,
+        long created,
+        long updated,
+        long failed,
+        List<RowError> errors
+) {
+    public record RowError(long row, String sku, String message) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.ecommerce.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Average rating and review count. {@code stars} holds the 1-5 star histogram
+ * and is only filled on the product detail.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductRatingDto(BigDecimal average, int count, List<Integer> stars) {
+
+    public static ProductRatingDto of(Integer count, Long sum) {
+        return of(count, sum, null);
+    }
+
+    public static ProductRatingDto of(Integer count, Long sum, List<Integer> stars) {
+        if (count == null || count <= 0 || sum == null) {
+            return null;
+        }
+        BigDecimal average = BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        return new ProductRatingDto(average, count, stars);
+    }
+}
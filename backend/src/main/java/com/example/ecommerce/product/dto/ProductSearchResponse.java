@@ -0,0 +1,39 @@
+package com.example.ecommerce.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Search result page. Keeps the page fields clients already read from
+ * {@code /search} and adds the optional facet section.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductSearchResponse(
+        List<ProductSummaryDto> content,
+        int number,
+        int size,
+        long totalElements,
+        int totalPages,
+        int numberOfElements,
+        boolean first,
+        boolean last,
+        boolean empty,
+        ProductFacetsDto facets
+) {
+    public static ProductSearchResponse of(Page<ProductSummaryDto> page, ProductFacetsDto facets) {
+        return new ProductSearchResponse(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.getNumberOfElements(),
+                page.isFirst(),
+                page.isLast(),
+                page.isEmpty(),
+                facets
+        );
+    }
+}
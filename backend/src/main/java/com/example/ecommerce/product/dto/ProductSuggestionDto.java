@@ -0,0 +1,10 @@
+package com.example.ecommerce.product.dto;
+
+public record ProductSuggestionDto(String text, SuggestionType type, Long productId) {
+
+    public enum SuggestionType {
+        PRODUCT,
+        BRAND,
+        CATEGORY
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.ecommerce.product.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Product card for list views. Leaves out description, attributes and
+ * variant fields; the detail endpoint returns the full ProductDto.
+ * {@code rating} is null for products without reviews.
+ */
+public record ProductSummaryDto(
+        Long id,
+        String name,
+        BigDecimal price,
+        String imageUrl,
+        String category,
+        String brand,
+        String sku,
+        int stock,
+        ProductRatingDto rating
+) {
+
+    public ProductSummaryDto(Long id, String name, BigDecimal price, String imageUrl, String category,
+                             String brand, String sku, int stock) {
+        this(id, name, price, imageUrl, category, brand, sku, stock, null);
+    }
+
+    /**
+     * Used by JPQL constructor expressions that left join product_rating_summary.
+     */
+    public ProductSummaryDto(Long id, String name, BigDecimal price, String imageUrl, String category,
+                             String brand, String sku, int stock, Integer ratingCount, Long ratingSum) {
+        this(id, name, price, imageUrl, category, brand, sku, stock, ProductRatingDto.of(ratingCount, ratingSum));
+    }
+
+    public ProductSummaryDto withRating(ProductRatingDto rating) {
+        return new ProductSummaryDto(id, name, price, imageUrl, category, brand, sku, stock, rating);
+    }
+}
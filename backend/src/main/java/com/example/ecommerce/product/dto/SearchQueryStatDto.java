@@ -0,0 +1,14 @@
+package com.example.ecommerce.product.dto;
+
+import com.example.ecommerce.product.model.ProductSearchQuery;
+
+/**
+ * An aggregated search: {@code query} is the normalized query string, the other
+ * fields are its decoded filters.
+ */
+public record SearchQueryStatDto(String query, String category, String brand, String text, boolean facets, long count) {
+
+    public static SearchQueryStatDto of(String query, ProductSearchQuery search, long count) {
+        return new SearchQueryStatDto(query, search.category(), search.brand(), search.query(), search.facets(), count);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ecommerce.product.event;
+
+/**
+ * Marks catalog events that another node committed and this node only replays to
+ * refresh its in-memory read models. Listeners that write shared state (Redis) skip
+ * replays, since the originating node already did that work.
+ */
+public final class CatalogEventReplay {
+
+    private static final ThreadLocal<Boolean> REPLAYING = ThreadLocal.withInitial(() -> false);
+
+    private CatalogEventReplay() {
+    }
+
+    public static boolean isReplaying() {
+        return REPLAYING.get();
+    }
+
+    /**
+     * Runs {@code publish} with replays marked; listeners run synchronously on this
+     * thread because no transaction is active.
+     */
+    public static void replay(Runnable publish) {
+        REPLAYING.set(true);
+        try {
+            publish.run();
+        } finally {
+            REPLAYING.remove();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.ecommerce.product.event;
+
+import com.example.ecommerce.product.dto.ProductDto;
+
+/**
+ * Published by ProductService after a catalog write. In-memory read models
+ * (facet counts, suggestions, search index) keep themselves in sync with it.
+ * For DELETED events {@code product} carries the last known state.
+ */
+public record ProductChangedEvent(ChangeType changeType, Long productId, ProductDto product) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ProductChangedEvent created(ProductDto product) {
+        return new ProductChangedEvent(ChangeType.CREATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent updated(ProductDto product) {
+        return new ProductChangedEvent(ChangeType.UPDATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(ProductDto product) {
+        return new ProductChangedEvent(ChangeType.DELETED, product.getId(), product);
+    }
+
+    public boolean isDeleted() {
+        return changeType == ChangeType.DELETED;
+    }
+}
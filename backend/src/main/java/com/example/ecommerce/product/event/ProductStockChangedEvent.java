@@ -0,0 +1,8 @@
+package com.example.ecommerce.product.event;
+
+/**
+ * Published by InventoryService whenever the stock shown on a product changes
+ * (admin update, order placement, cancellation).
+ */
+public record ProductStockChangedEvent(Long productId, int stock) {
+}
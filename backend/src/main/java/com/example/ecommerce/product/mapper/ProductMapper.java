@@ -1,7 +1,11 @@
 package com.example.ecommerce.product.mapper;
 
 import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductRatingDto;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
 import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.model.ProductRatingSummary;
+import com.example.ecommerce.product.repository.ProductSummaryView;
 
 public class ProductMapper {
     private ProductMapper() {
@@ -23,9 +27,62 @@ public class ProductMapper {
         dto.setSize(product.getSize());
         dto.setAttributesJson(product.getAttributesJson());
         dto.setStock(product.getStock());
+        dto.setImageDerivatives(product.getImageDerivatives());
         return dto;
     }
 
+    /**
+     * Copy of a (possibly cached, shared) detail DTO with the given stock.
+     */
+    public static ProductDto withStock(ProductDto source, int stock) {
+        if (source == null) return null;
+
+        ProductDto dto = new ProductDto();
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setDescription(source.getDescription());
+        dto.setPrice(source.getPrice());
+        dto.setImageUrl(source.getImageUrl());
+        dto.setCategory(source.getCategory());
+        dto.setBrand(source.getBrand());
+        dto.setSku(source.getSku());
+        dto.setColor(source.getColor());
+        dto.setSize(source.getSize());
+        dto.setAttributesJson(source.getAttributesJson());
+        dto.setStock(stock);
+        dto.setRating(source.getRating());
+        dto.setImageDerivatives(source.getImageDerivatives());
+        return dto;
+    }
+
+    public static ProductSummaryDto toSummaryDto(Product product) {
+        if (product == null) return null;
+
+        return new ProductSummaryDto(product.getId(), product.getName(), product.getPrice(), product.getImageUrl(),
+                product.getCategory(), product.getBrand(), product.getSku(), product.getStock());
+    }
+
+    public static ProductSummaryDto toSummaryDto(ProductDto dto) {
+        if (dto == null) return null;
+
+        return new ProductSummaryDto(dto.getId(), dto.getName(), dto.getPrice(), dto.getImageUrl(),
+                dto.getCategory(), dto.getBrand(), dto.getSku(), dto.getStock(), dto.getRating());
+    }
+
+    public static ProductSummaryDto toSummaryDto(ProductSummaryView view) {
+        if (view == null) return null;
+
+        return new ProductSummaryDto(view.getId(), view.getName(), view.getPrice(), view.getImageUrl(),
+                view.getCategory(), view.getBrand(), view.getSku(), view.getStock() != null ? view.getStock() : 0,
+                ProductRatingDto.of(view.getRatingCount(), view.getRatingSum()));
+    }
+
+    public static ProductRatingDto toRatingDto(ProductRatingSummary summary) {
+        if (summary == null) return null;
+
+        return ProductRatingDto.of(summary.getReviewCount(), summary.getRatingSum(), summary.getStarHistogram());
+    }
+
     public static Product toEntity(ProductDto dto) {
         if (dto == null) return null;
 
@@ -0,0 +1,51 @@
+package com.example.ecommerce.product.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed price ranges used for search facets. The CASE expression in
+ * ProductRepository#countSearchFacets mirrors these bounds by ordinal,
+ * so keep both in sync when changing them.
+ */
+public enum PriceBucket {
+    UNDER_2500(null, new BigDecimal("2500")),
+    FROM_2500_TO_5000(new BigDecimal("2500"), new BigDecimal("5000")),
+    FROM_5000_TO_10000(new BigDecimal("5000"), new BigDecimal("10000")),
+    FROM_10000_TO_20000(new BigDecimal("10000"), new BigDecimal("20000")),
+    OVER_20000(new BigDecimal("20000"), null);
+
+    private final BigDecimal min;
+    private final BigDecimal max;
+
+    PriceBucket(BigDecimal min, BigDecimal max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public BigDecimal getMin() {
+        return min;
+    }
+
+    public BigDecimal getMax() {
+        return max;
+    }
+
+    public String getKey() {
+        if (max == null) {
+            return min.toPlainString() + "+";
+        }
+        return (min == null ? "0" : min.toPlainString()) + "-" + max.toPlainString();
+    }
+
+    public static PriceBucket of(BigDecimal price) {
+        if (price == null) {
+            return OVER_20000;
+        }
+        for (PriceBucket bucket : values()) {
+            if (bucket.max == null || price.compareTo(bucket.max) < 0) {
+                return bucket;
+            }
+        }
+        return OVER_20000;
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.ecommerce.product.model;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -28,8 +31,13 @@ public class Product {
     private String sku;
     private String color;
     private String size;
-    @Column(columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
     private String attributesJson;
+    /** Resized renditions of {@link #imageUrl}, e.g. {@code "640.jpg" -> url}. */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, String> imageDerivatives;
     private int stock;
 
     @Column(nullable = false)
@@ -0,0 +1,214 @@
+package com.example.ecommerce.product.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Attribute filters taken from {@code attr.<key>} query parameters and compiled
+ * into one SQL/JSON path predicate over {@code product.attributes_json}:
+ * <ul>
+ *   <li>{@code attr.pickup=humbucker} or {@code attr.pickup=humbucker,single-coil} (any of)</li>
+ *   <li>{@code attr.strings=6..7}, {@code attr.frets=22..} or {@code attr.weight=..3.5} (inclusive range)</li>
+ * </ul>
+ * Keys and values are validated and literals escaped before they reach the path,
+ * so the compiled predicate can be bound as a plain parameter.
+ */
+public final class ProductAttributeFilters {
+    public static final String PARAM_PREFIX = "attr.";
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String RANGE_SEPARATOR = "..";
+    private static final int MAX_FILTERS = 10;
+    private static final int MAX_VALUES_PER_KEY = 20;
+    private static final int MAX_VALUE_LENGTH = 100;
+    // Numbers are rendered in plain notation, so exponents must stay small.
+    private static final int MAX_NUMBER_LENGTH = 40;
+    private static final int MAX_NUMBER_SCALE = 32;
+    private static final int MAX_NUMBER_PRECISION = 38;
+    private static final ProductAttributeFilters NONE = new ProductAttributeFilters(Collections.emptySortedMap());
+
+    private final SortedMap<String, String> filters;
+
+    private ProductAttributeFilters(SortedMap<String, String> filters) {
+        this.filters = filters;
+    }
+
+    public static ProductAttributeFilters none() {
+        return NONE;
+    }
+
+    public static ProductAttributeFilters fromParams(Map<String, List<String>> params) {
+        if (params == null || params.isEmpty()) {
+            return NONE;
+        }
+        SortedMap<String, String> filters = new TreeMap<>();
+        for (Map.Entry<String, List<String>> param : params.entrySet()) {
+            if (!param.getKey().startsWith(PARAM_PREFIX)) {
+                continue;
+            }
+            String key = param.getKey().substring(PARAM_PREFIX.length());
+            if (!KEY_PATTERN.matcher(key).matches()) {
+                throw new IllegalArgumentException("Invalid attribute filter name: " + key);
+            }
+            String value = param.getValue().stream()
+                    .filter(v -> v != null && !v.isBlank())
+                    .map(String::trim)
+                    .collect(Collectors.joining(","));
+            if (!value.isEmpty()) {
+                filters.put(key, value);
+            }
+        }
+        if (filters.size() > MAX_FILTERS) {
+            throw new IllegalArgumentException("At most " + MAX_FILTERS + " attribute filters are allowed.");
+        }
+        if (filters.isEmpty()) {
+            return NONE;
+        }
+        ProductAttributeFilters result = new ProductAttributeFilters(Collections.unmodifiableSortedMap(filters));
+        // Compile once up front so malformed filters fail as a bad request, not inside the query.
+        result.toJsonPath();
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return filters.isEmpty();
+    }
+
+    /**
+     * The filters as {@code attr.<key>} request parameters, as accepted by {@link #fromParams(Map)}.
+     */
+    public Map<String, List<String>> toParams() {
+        Map<String, List<String>> params = new TreeMap<>();
+        filters.forEach((key, value) -> params.put(PARAM_PREFIX + key, List.of(value)));
+        return params;
+    }
+
+    /**
+     * SQL/JSON path predicate for {@code attributes_json @@ CAST(:path AS jsonpath)},
+     * or {@code null} when there are no filters.
+     */
+    public String toJsonPath() {
+        if (filters.isEmpty()) {
+            return null;
+        }
+        return filters.entrySet().stream()
+                .map(filter -> clause(filter.getKey(), filter.getValue()))
+                .collect(Collectors.joining(" && "));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other
+                || other instanceof ProductAttributeFilters that && filters.equals(that.filters);
+    }
+
+    @Override
+    public int hashCode() {
+        return filters.hashCode();
+    }
+
+    /**
+     * Stable representation for cache keys; filters are kept sorted by name.
+     */
+    @Override
+    public String toString() {
+        return filters.entrySet().stream()
+                .map(filter -> filter.getKey() + "=" + filter.getValue())
+                .collect(Collectors.joining("&"));
+    }
+
+    private static String clause(String key, String value) {
+        String path = "$.\"" + key + "\"";
+        int separator = value.indexOf(RANGE_SEPARATOR);
+        if (separator >= 0) {
+            BigDecimal min = parseBound(key, value.substring(0, separator));
+            BigDecimal max = parseBound(key, value.substring(separator + RANGE_SEPARATOR.length()));
+            if (min == null && max == null) {
+                throw new IllegalArgumentException("Attribute range for " + key + " needs a lower or upper bound.");
+            }
+            List<String> bounds = new ArrayList<>(2);
+            if (min != null) {
+                bounds.add(path + " >= " + min.toPlainString());
+            }
+            if (max != null) {
+                bounds.add(path + " <= " + max.toPlainString());
+            }
+            return "(" + String.join(" && ", bounds) + ")";
+        }
+
+        String[] values = value.split(",");
+        if (values.length > MAX_VALUES_PER_KEY) {
+            throw new IllegalArgumentException("At most " + MAX_VALUES_PER_KEY + " values are allowed for " + key + ".");
+        }
+        List<String> alternatives = new ArrayList<>();
+        for (String raw : values) {
+            String candidate = raw.trim();
+            if (candidate.isEmpty()) {
+                continue;
+            }
+            alternatives.add(path + " == " + stringLiteral(key, candidate));
+            BigDecimal number = parseNumber(key, candidate);
+            if (number != null) {
+                alternatives.add(path + " == " + number.toPlainString());
+            }
+            if ("true".equalsIgnoreCase(candidate) || "false".equalsIgnoreCase(candidate)) {
+                alternatives.add(path + " == " + candidate.toLowerCase());
+            }
+        }
+        if (alternatives.isEmpty()) {
+            throw new IllegalArgumentException("Attribute filter " + key + " needs a value.");
+        }
+        return "(" + String.join(" || ", alternatives) + ")";
+    }
+
+    private static BigDecimal parseBound(String key, String bound) {
+        String trimmed = bound.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        BigDecimal number = parseNumber(key, trimmed);
+        if (number == null) {
+            throw new IllegalArgumentException("Attribute range for " + key + " must be numeric.");
+        }
+        return number;
+    }
+
+    private static BigDecimal parseNumber(String key, String value) {
+        BigDecimal number;
+        try {
+            number = new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        if (value.length() > MAX_NUMBER_LENGTH
+                || Math.abs(number.scale()) > MAX_NUMBER_SCALE
+                || number.precision() > MAX_NUMBER_PRECISION) {
+            throw new IllegalArgumentException("Attribute filter number for " + key + " is out of range.");
+        }
+        return number;
+    }
+
+    private static String stringLiteral(String key, String value) {
+        if (value.length() > MAX_VALUE_LENGTH) {
+            throw new IllegalArgumentException("Attribute filter value for " + key + " is too long.");
+        }
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            if (Character.isISOControl(c)) {
+                throw new IllegalArgumentException("Attribute filter value for " + key + " contains control characters.");
+            }
+            if (c == '"' || c == '\\') {
+                literal.append('\\');
+            }
+            literal.append(c);
+        }
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ecommerce.product.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * How many orders contained both products. Written by FrequentlyBoughtTogetherJob,
+ * which keeps only the strongest pairs per product.
+ */
+@Entity
+@Table(name = "product_co_purchases",
+        indexes = @Index(name = "idx_product_co_purchases_rank", columnList = "product_id, pair_count DESC"))
+@IdClass(ProductCoPurchase.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductCoPurchase {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "related_product_id")
+    private Long relatedProductId;
+
+    @Column(nullable = false)
+    private long pairCount;
+
+    @Column(nullable = false)
+    private Instant updatedAt = Instant.now();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long productId;
+        private Long relatedProductId;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.ecommerce.product.model;
+
+import org.springframework.http.MediaType;
+
+public enum ProductImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    public static ProductImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+                return CSV;
+            }
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                    || mediaType.isCompatibleWith(MediaType.parseMediaType("application/ndjson"))) {
+                return NDJSON;
+            }
+        }
+        throw new IllegalArgumentException("Import payload must be text/csv or application/x-ndjson.");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.ecommerce.product.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Per-product review aggregate. Maintained by ProductRatingSummaryRepository#addRating
+ * in the same transaction as the review insert, so listings never aggregate reviews.
+ */
+@Entity
+@Table(name = "product_rating_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductRatingSummary {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private int reviewCount;
+
+    @Column(nullable = false)
+    private long ratingSum;
+
+    @Column(name = "stars_1", nullable = false)
+    private int stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private int stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private int stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private int stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private int stars5;
+
+    @Column(nullable = false)
+    private Instant updatedAt = Instant.now();
+
+    public List<Integer> getStarHistogram() {
+        return List.of(stars1, stars2, stars3, stars4, stars5);
+    }
+}
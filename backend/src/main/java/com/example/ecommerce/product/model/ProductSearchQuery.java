@@ -0,0 +1,136 @@
+package com.example.ecommerce.product.model;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * A catalog search in normalized form. Text filters are trimmed, lower-cased and
+ * whitespace-collapsed, which matches how both search engines compare them, so
+ * "Gibson  Les Paul" and "gibson les paul" share one cache entry and one analytics
+ * counter. The query-string form is what search analytics stores and replays.
+ */
+public record ProductSearchQuery(String category,
+                                 String brand,
+                                 String query,
+                                 ProductAttributeFilters attributes,
+                                 int pageSize,
+                                 Sort sort,
+                                 boolean facets) {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static ProductSearchQuery of(String category, String brand, String query,
+                                        ProductAttributeFilters attributes, Pageable pageable, boolean facets) {
+        return new ProductSearchQuery(normalize(category), normalize(brand), normalize(query),
+                attributes != null ? attributes : ProductAttributeFilters.none(),
+                pageable.getPageSize(), pageable.getSort(), facets);
+    }
+
+    public Pageable firstPage() {
+        return PageRequest.of(0, pageSize, sort);
+    }
+
+    public String toQueryString() {
+        StringJoiner params = new StringJoiner("&");
+        append(params, "category", category);
+        append(params, "brand", brand);
+        append(params, "q", query);
+        attributes.toParams().forEach((name, values) -> append(params, name, values.get(0)));
+        append(params, "size", Integer.toString(pageSize));
+        for (Sort.Order order : sort) {
+            append(params, "sort", order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT));
+        }
+        if (facets) {
+            append(params, "facets", "true");
+        }
+        return params.toString();
+    }
+
+    /**
+     * Inverse of {@link #toQueryString()}; throws IllegalArgumentException for malformed input.
+     */
+    public static ProductSearchQuery fromQueryString(String value) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        for (String pair : value.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = decode(separator < 0 ? pair : pair.substring(0, separator));
+            String paramValue = separator < 0 ? "" : decode(pair.substring(separator + 1));
+            params.computeIfAbsent(name, key -> new ArrayList<>()).add(paramValue);
+        }
+
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String sortParam : params.getOrDefault("sort", List.of())) {
+            String[] parts = sortParam.split(",");
+            Sort.Direction direction = parts.length > 1 ? Sort.Direction.fromString(parts[1]) : Sort.Direction.ASC;
+            orders.add(new Sort.Order(direction, parts[0]));
+        }
+        int pageSize;
+        try {
+            pageSize = Integer.parseInt(first(params, "size", "20"));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid page size in search query: " + value);
+        }
+        return new ProductSearchQuery(
+                normalize(first(params, "category", null)),
+                normalize(first(params, "brand", null)),
+                normalize(first(params, "q", null)),
+                ProductAttributeFilters.fromParams(params),
+                pageSize,
+                Sort.by(orders),
+                Boolean.parseBoolean(first(params, "facets", "false")));
+    }
+
+    /**
+     * Cache key of {@code productSearch} entries.
+     */
+    public static String searchCacheKey(String category, String brand, String query,
+                                        ProductAttributeFilters attributes, Pageable pageable) {
+        return String.format("%s|%s|%s|%s|%s|%s|%s", normalize(category), normalize(brand), normalize(query),
+                attributes, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+    }
+
+    /**
+     * Cache key of search facet entries in {@code productFacets}.
+     */
+    public static String facetCacheKey(String category, String brand, String query, ProductAttributeFilters attributes) {
+        return String.format("%s|%s|%s|%s", normalize(category), normalize(brand), normalize(query), attributes);
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static void append(StringJoiner params, String name, String value) {
+        if (value != null) {
+            params.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String first(Map<String, List<String>> params, String name, String defaultValue) {
+        List<String> values = params.get(name);
+        return values == null || values.isEmpty() ? defaultValue : values.get(0);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ecommerce.product.model;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Sliding windows for popularity rankings. The 24h window is summed from
+ * hourly buckets, the longer ones from daily buckets.
+ */
+public enum TrendingWindow {
+    LAST_24_HOURS("24h", ChronoUnit.HOURS, 24),
+    LAST_7_DAYS("7d", ChronoUnit.DAYS, 7),
+    LAST_30_DAYS("30d", ChronoUnit.DAYS, 30);
+
+    private final String code;
+    private final ChronoUnit bucketUnit;
+    private final int bucketCount;
+
+    TrendingWindow(String code, ChronoUnit bucketUnit, int bucketCount) {
+        this.code = code;
+        this.bucketUnit = bucketUnit;
+        this.bucketCount = bucketCount;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public ChronoUnit bucketUnit() {
+        return bucketUnit;
+    }
+
+    public int bucketCount() {
+        return bucketCount;
+    }
+
+    public Duration length() {
+        return bucketUnit.getDuration().multipliedBy(bucketCount);
+    }
+
+    public static TrendingWindow fromCode(String code) {
+        for (TrendingWindow window : values()) {
+            if (window.code.equalsIgnoreCase(code)) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported trending window: " + code + ". Use 24h, 7d or 30d.");
+    }
+}
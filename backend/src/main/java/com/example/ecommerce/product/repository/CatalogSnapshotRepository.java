@@ -0,0 +1,132 @@
+package com.example.ecommerce.product.repository;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductRatingDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC reads for CatalogSnapshotService. Relies on {@code product.updated_at},
+ * which a trigger bumps on every write path, including bulk upserts.
+ */
+@Repository
+public class CatalogSnapshotRepository {
+
+    // Arbitrary constant shared by all nodes; only one of them writes a snapshot per interval.
+    private static final long SNAPSHOT_LOCK_KEY = 0x43415453L;
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> DERIVATIVES_TYPE = new TypeReference<>() {
+    };
+
+    private static final String STREAM_ACTIVE_PRODUCTS_SQL = """
+            SELECT p.id, p.name, p.description, p.price, p.image_url, p.category, p.brand, p.sku,
+                   p.color, p.size, p.attributes_json::text, p.image_derivatives::text, p.stock,
+                   r.review_count, r.rating_sum, r.stars_1, r.stars_2, r.stars_3, r.stars_4, r.stars_5
+            FROM product p
+            LEFT JOIN product_rating_summary r ON r.product_id = p.id
+            WHERE p.active = TRUE
+            ORDER BY p.id
+            """;
+
+    private static final String CHANGED_PRODUCT_IDS_SQL = """
+            SELECT id FROM product WHERE updated_at > ?
+            UNION
+            SELECT product_id FROM product_rating_summary WHERE updated_at > ?
+            """;
+
+    public record IdChecksum(long count, long idSum) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogSnapshotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Transaction-scoped advisory lock; released on commit or rollback.
+     */
+    public boolean tryAcquireSnapshotLock() {
+        Boolean acquired = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                SNAPSHOT_LOCK_KEY);
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    /**
+     * Streams active products with their detail rating in id order.
+     * Postgres only uses a cursor for a fetch size inside a transaction.
+     */
+    public void streamActiveProducts(int fetchSize, Consumer<ProductDto> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(STREAM_ACTIVE_PRODUCTS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, rs -> {
+            consumer.accept(toDto(rs));
+        });
+    }
+
+    public Set<Long> findChangedProductIdsSince(Instant since) {
+        Timestamp timestamp = Timestamp.from(since);
+        return new HashSet<>(jdbcTemplate.queryForList(CHANGED_PRODUCT_IDS_SQL, Long.class, timestamp, timestamp));
+    }
+
+    /**
+     * Row count and id sum of all products up to {@code maxId}. Ids come from a sequence,
+     * so this only moves when such a row is hard-deleted.
+     */
+    public IdChecksum checksumProductIdsUpTo(long maxId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(id), 0) FROM product WHERE id <= ?",
+                (rs, rowNum) -> new IdChecksum(rs.getLong(1), rs.getLong(2)), maxId);
+    }
+
+    public Set<Long> findActiveProductIds() {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM product WHERE active = TRUE", Long.class));
+    }
+
+    private static ProductDto toDto(ResultSet rs) throws SQLException {
+        ProductDto dto = new ProductDto();
+        dto.setId(rs.getLong("id"));
+        dto.setName(rs.getString("name"));
+        dto.setDescription(rs.getString("description"));
+        dto.setPrice(rs.getBigDecimal("price"));
+        dto.setImageUrl(rs.getString("image_url"));
+        dto.setCategory(rs.getString("category"));
+        dto.setBrand(rs.getString("brand"));
+        dto.setSku(rs.getString("sku"));
+        dto.setColor(rs.getString("color"));
+        dto.setSize(rs.getString("size"));
+        dto.setAttributesJson(rs.getString("attributes_json"));
+        dto.setStock(rs.getInt("stock"));
+        String derivatives = rs.getString("image_derivatives");
+        if (derivatives != null) {
+            try {
+                dto.setImageDerivatives(JSON.readValue(derivatives, DERIVATIVES_TYPE));
+            } catch (JsonProcessingException ex) {
+                throw new SQLException("Invalid image_derivatives for product " + dto.getId(), ex);
+            }
+        }
+        int reviewCount = rs.getInt("review_count");
+        if (!rs.wasNull()) {
+            dto.setRating(ProductRatingDto.of(reviewCount, rs.getLong("rating_sum"), List.of(
+                    rs.getInt("stars_1"), rs.getInt("stars_2"), rs.getInt("stars_3"),
+                    rs.getInt("stars_4"), rs.getInt("stars_5"))));
+        }
+        return dto;
+    }
+}
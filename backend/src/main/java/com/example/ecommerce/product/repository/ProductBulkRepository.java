@@ -0,0 +1,126 @@
+package com.example.ecommerce.product.repository;
+
+import com.example.ecommerce.product.model.Product;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based product writes for the bulk import. Goes through plain JDBC batches
+ * instead of the entity manager so a batch of N rows costs a handful of round
+ * trips rather than N saves plus N inventory lookups.
+ */
+@Repository
+public class ProductBulkRepository {
+
+    // Existing rows keep their active flag, so a deactivated SKU stays hidden until an
+    // admin reactivates it. Renditions belong to the old image and are dropped with it.
+    // The imported stock is on hand; units held for checkouts are not available.
+    private static final String UPSERT_PRODUCT_SQL = """
+            INSERT INTO product (name, description, price, image_url, category, brand, sku, color, size,
+                                 attributes_json, stock, active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, TRUE)
+            ON CONFLICT (sku) DO UPDATE SET
+                name = EXCLUDED.name,
+                description = EXCLUDED.description,
+                price = EXCLUDED.price,
+                image_url = EXCLUDED.image_url,
+                image_derivatives = CASE
+                    WHEN product.image_url IS DISTINCT FROM EXCLUDED.image_url THEN NULL
+                    ELSE product.image_derivatives
+                END,
+                category = EXCLUDED.category,
+                brand = EXCLUDED.brand,
+                color = EXCLUDED.color,
+                size = EXCLUDED.size,
+                attributes_json = EXCLUDED.attributes_json,
+                stock = GREATEST(EXCLUDED.stock - COALESCE(
+                    (SELECT i.reserved_stock FROM inventory_items i WHERE i.product_id = product.id), 0), 0)
+            """;
+
+    private static final String UPSERT_INVENTORY_SQL = """
+            INSERT INTO inventory_items (product_id, available_stock, reserved_stock, reorder_level, updated_at, version)
+            VALUES (?, ?, 0, 5, ?, 0)
+            ON CONFLICT (product_id) DO UPDATE SET
+                available_stock = GREATEST(EXCLUDED.available_stock - inventory_items.reserved_stock, 0),
+                updated_at = EXCLUDED.updated_at,
+                version = inventory_items.version + 1
+            """;
+
+    public record StoredProduct(long id, boolean active, int stock) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<String, Long> findIdsBySku(Collection<String> skus) {
+        Map<String, Long> ids = new HashMap<>();
+        if (skus.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query("SELECT id, sku FROM product WHERE sku = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", skus.toArray())),
+                rs -> {
+                    ids.put(rs.getString("sku"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Reads back what the upsert actually stored: existing rows keep their active flag
+     * and have held units taken off the imported stock.
+     */
+    public Map<String, StoredProduct> findStoredBySku(Collection<String> skus) {
+        Map<String, StoredProduct> stored = new HashMap<>();
+        if (skus.isEmpty()) {
+            return stored;
+        }
+        jdbcTemplate.query("SELECT id, sku, active, stock FROM product WHERE sku = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", skus.toArray())),
+                rs -> {
+                    stored.put(rs.getString("sku"),
+                            new StoredProduct(rs.getLong("id"), rs.getBoolean("active"), rs.getInt("stock")));
+                });
+        return stored;
+    }
+
+    public void upsertProducts(List<Product> products) {
+        jdbcTemplate.batchUpdate(UPSERT_PRODUCT_SQL, products, products.size(), this::bindProduct);
+    }
+
+    public void upsertInventory(Map<Long, Integer> stockByProductId) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Map.Entry<Long, Integer>> rows = new ArrayList<>(stockByProductId.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_INVENTORY_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getKey());
+            ps.setInt(2, Math.max(row.getValue(), 0));
+            ps.setTimestamp(3, now);
+        });
+    }
+
+    private void bindProduct(PreparedStatement ps, Product product) throws SQLException {
+        ps.setString(1, product.getName());
+        ps.setString(2, product.getDescription());
+        ps.setBigDecimal(3, product.getPrice());
+        ps.setString(4, product.getImageUrl());
+        ps.setString(5, product.getCategory());
+        ps.setString(6, product.getBrand());
+        ps.setString(7, product.getSku());
+        ps.setString(8, product.getColor());
+        ps.setString(9, product.getSize());
+        ps.setString(10, product.getAttributesJson());
+        ps.setInt(11, Math.max(product.getStock(), 0));
+    }
+}
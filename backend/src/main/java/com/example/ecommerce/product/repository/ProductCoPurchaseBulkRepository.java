@@ -0,0 +1,177 @@
+package com.example.ecommerce.product.repository;
+
+import com.example.ecommerce.util.LongCounterMap;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Plain JDBC access for FrequentlyBoughtTogetherJob: streams order lines through a
+ * server-side cursor and writes pair counts in batches. All methods are meant to
+ * run inside the job's chunk transaction.
+ */
+@Repository
+public class ProductCoPurchaseBulkRepository {
+
+    private static final String LOCK_WATERMARK_SQL = """
+            SELECT last_order_id FROM batch_job_watermarks WHERE job_name = ? FOR UPDATE
+            """;
+
+    private static final String CHUNK_UPPER_BOUND_SQL = """
+            SELECT MAX(id) FROM (
+                SELECT id FROM orders_table
+                WHERE id > ? AND created_at < ?
+                ORDER BY id
+                LIMIT ?
+            ) chunk
+            """;
+
+    private static final String STREAM_ORDER_LINES_SQL = """
+            SELECT oi.order_id, oi.product_id
+            FROM order_items oi
+            JOIN orders_table o ON o.id = oi.order_id
+            WHERE o.id > ? AND o.id <= ?
+              AND o.status IN ('PAID', 'PACKED', 'SHIPPED', 'DELIVERED')
+            ORDER BY oi.order_id
+            """;
+
+    private static final String ADD_PAIR_COUNT_SQL = """
+            INSERT INTO product_co_purchases (product_id, related_product_id, pair_count, updated_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (product_id, related_product_id) DO UPDATE SET
+                pair_count = product_co_purchases.pair_count + EXCLUDED.pair_count,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String PRUNE_SQL = """
+            DELETE FROM product_co_purchases c
+            USING (
+                SELECT product_id, related_product_id,
+                       row_number() OVER (PARTITION BY product_id ORDER BY pair_count DESC, related_product_id) AS pair_rank
+                FROM product_co_purchases
+                WHERE product_id = ANY(?)
+            ) ranked
+            WHERE c.product_id = ranked.product_id
+              AND c.related_product_id = ranked.related_product_id
+              AND ranked.pair_rank > ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductCoPurchaseBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Locks the job's watermark row for the rest of the transaction and returns it,
+     * creating the row on the first run.
+     */
+    public long lockWatermark(String jobName) {
+        jdbcTemplate.update("INSERT INTO batch_job_watermarks (job_name, last_order_id, updated_at) "
+                + "VALUES (?, 0, NOW()) ON CONFLICT (job_name) DO NOTHING", jobName);
+        Long lastOrderId = jdbcTemplate.queryForObject(LOCK_WATERMARK_SQL, Long.class, jobName);
+        return lastOrderId != null ? lastOrderId : 0L;
+    }
+
+    public void saveWatermark(String jobName, long lastOrderId) {
+        jdbcTemplate.update("UPDATE batch_job_watermarks SET last_order_id = ?, updated_at = NOW() WHERE job_name = ?",
+                lastOrderId, jobName);
+    }
+
+    /**
+     * Highest order id among the next {@code maxOrders} orders placed before
+     * {@code placedBefore}, or {@code null} when there is nothing new.
+     */
+    public Long findChunkUpperBound(long afterOrderId, Instant placedBefore, int maxOrders) {
+        return jdbcTemplate.queryForObject(CHUNK_UPPER_BOUND_SQL, Long.class,
+                afterOrderId, Timestamp.from(placedBefore), maxOrders);
+    }
+
+    /**
+     * Streams (order id, product id) of paid orders in the id range, grouped by order.
+     * Postgres only uses a cursor for a fetch size inside a transaction.
+     */
+    public void streamOrderLines(long afterOrderId, long upToOrderId, int fetchSize, OrderLineHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(STREAM_ORDER_LINES_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, afterOrderId);
+            ps.setLong(2, upToOrderId);
+            return ps;
+        }, rs -> {
+            handler.accept(rs.getLong(1), rs.getLong(2));
+        });
+    }
+
+    /**
+     * Adds each counted pair in both directions. Keys are packed as
+     * {@code (productId << 32) | relatedProductId}.
+     */
+    public void addPairCounts(LongCounterMap pairs, int batchSize) {
+        int rows = pairs.size() * 2;
+        long[] productIds = new long[rows];
+        long[] relatedIds = new long[rows];
+        long[] counts = new long[rows];
+        int[] index = {0};
+        pairs.forEach((pair, count) -> {
+            long first = pair >>> 32;
+            long second = pair & 0xFFFFFFFFL;
+            int i = index[0];
+            productIds[i] = first;
+            relatedIds[i] = second;
+            counts[i] = count;
+            productIds[i + 1] = second;
+            relatedIds[i + 1] = first;
+            counts[i + 1] = count;
+            index[0] = i + 2;
+        });
+
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int from = 0; from < rows; from += batchSize) {
+            int offset = from;
+            int size = Math.min(batchSize, rows - from);
+            jdbcTemplate.batchUpdate(ADD_PAIR_COUNT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setLong(1, productIds[offset + i]);
+                    ps.setLong(2, relatedIds[offset + i]);
+                    ps.setLong(3, counts[offset + i]);
+                    ps.setTimestamp(4, now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    /**
+     * Keeps the {@code retain} strongest pairs of each given product.
+     */
+    public void pruneToTop(Collection<Long> productIds, int retain) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(PRUNE_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", productIds.toArray()));
+            ps.setInt(2, retain);
+            return ps;
+        });
+    }
+
+    @FunctionalInterface
+    public interface OrderLineHandler {
+        void accept(long orderId, long productId);
+    }
+}
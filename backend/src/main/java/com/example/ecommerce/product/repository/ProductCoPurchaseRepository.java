@@ -0,0 +1,28 @@
+package com.example.ecommerce.product.repository;
+
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.model.ProductCoPurchase;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ProductCoPurchaseRepository extends JpaRepository<ProductCoPurchase, ProductCoPurchase.Key> {
+
+    @Query("""
+            SELECT new com.example.ecommerce.product.dto.ProductSummaryDto(
+                p.id, p.name, p.price, p.imageUrl, p.category, p.brand, p.sku, p.stock, r.reviewCount, r.ratingSum)
+            FROM ProductCoPurchase c
+            JOIN Product p ON p.id = c.relatedProductId
+            LEFT JOIN ProductRatingSummary r ON r.productId = p.id
+            WHERE c.productId = :productId
+              AND c.pairCount >= :minPairCount
+              AND p.active = true
+            ORDER BY c.pairCount DESC, p.id
+            """)
+    List<ProductSummaryDto> findRelatedSummaries(@Param("productId") Long productId,
+                                                 @Param("minPairCount") long minPairCount,
+                                                 Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.product.repository;
+
+public interface ProductFacetCountView {
+    String getDimension();
+
+    String getLabel();
+
+    Long getTotal();
+}
@@ -0,0 +1,13 @@
+package com.example.ecommerce.product.repository;
+
+import java.math.BigDecimal;
+
+public interface ProductFacetSourceView {
+    Long getId();
+
+    String getCategory();
+
+    String getBrand();
+
+    BigDecimal getPrice();
+}
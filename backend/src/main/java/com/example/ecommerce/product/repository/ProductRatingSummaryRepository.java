@@ -0,0 +1,74 @@
+package com.example.ecommerce.product.repository;
+
+import com.example.ecommerce.product.model.ProductRatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProductRatingSummaryRepository extends JpaRepository<ProductRatingSummary, Long> {
+
+    /**
+     * Adds one review to the product's aggregate as a single atomic upsert, so
+     * concurrent reviews of the same product cannot lose updates.
+     */
+    @Modifying
+    @Query(
+            value = """
+                    INSERT INTO product_rating_summary (product_id, review_count, rating_sum,
+                                                        stars_1, stars_2, stars_3, stars_4, stars_5, updated_at)
+                    VALUES (:productId, 1, :rating,
+                            CASE WHEN :rating = 1 THEN 1 ELSE 0 END,
+                            CASE WHEN :rating = 2 THEN 1 ELSE 0 END,
+                            CASE WHEN :rating = 3 THEN 1 ELSE 0 END,
+                            CASE WHEN :rating = 4 THEN 1 ELSE 0 END,
+                            CASE WHEN :rating = 5 THEN 1 ELSE 0 END,
+                            NOW())
+                    ON CONFLICT (product_id) DO UPDATE SET
+                        review_count = product_rating_summary.review_count + 1,
+                        rating_sum = product_rating_summary.rating_sum + EXCLUDED.rating_sum,
+                        stars_1 = product_rating_summary.stars_1 + EXCLUDED.stars_1,
+                        stars_2 = product_rating_summary.stars_2 + EXCLUDED.stars_2,
+                        stars_3 = product_rating_summary.stars_3 + EXCLUDED.stars_3,
+                        stars_4 = product_rating_summary.stars_4 + EXCLUDED.stars_4,
+                        stars_5 = product_rating_summary.stars_5 + EXCLUDED.stars_5,
+                        updated_at = EXCLUDED.updated_at
+                    """,
+            nativeQuery = true
+    )
+    int addRating(@Param("productId") Long productId, @Param("rating") int rating);
+
+    /**
+     * Recomputes every aggregate from product_reviews. Idempotent; used by the
+     * backfill job.
+     */
+    @Modifying
+    @Query(
+            value = """
+                    INSERT INTO product_rating_summary (product_id, review_count, rating_sum,
+                                                        stars_1, stars_2, stars_3, stars_4, stars_5, updated_at)
+                    SELECT r.product_id,
+                           COUNT(*),
+                           SUM(r.rating),
+                           COUNT(*) FILTER (WHERE r.rating = 1),
+                           COUNT(*) FILTER (WHERE r.rating = 2),
+                           COUNT(*) FILTER (WHERE r.rating = 3),
+                           COUNT(*) FILTER (WHERE r.rating = 4),
+                           COUNT(*) FILTER (WHERE r.rating = 5),
+                           NOW()
+                    FROM product_reviews r
+                    GROUP BY r.product_id
+                    ON CONFLICT (product_id) DO UPDATE SET
+                        review_count = EXCLUDED.review_count,
+                        rating_sum = EXCLUDED.rating_sum,
+                        stars_1 = EXCLUDED.stars_1,
+                        stars_2 = EXCLUDED.stars_2,
+                        stars_3 = EXCLUDED.stars_3,
+                        stars_4 = EXCLUDED.stars_4,
+                        stars_5 = EXCLUDED.stars_5,
+                        updated_at = EXCLUDED.updated_at
+                    """,
+            nativeQuery = true
+    )
+    int rebuildFromReviews();
+}
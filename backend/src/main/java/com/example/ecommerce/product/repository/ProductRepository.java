@@ -8,8 +8,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
 import com.example.ecommerce.product.model.Product;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,8 +21,86 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     Optional<Product> findBySku(String sku);
 
     Page<Product> findByActiveTrue(Pageable pageable);
-    List<Product> findByCategoryIgnoreCaseAndActiveTrue(String category);
-    List<Product> findByBrandIgnoreCaseAndActiveTrue(String brand);
+
+    @Query(value = """
+            SELECT new com.example.ecommerce.product.dto.ProductSummaryDto(
+                p.id, p.name, p.price, p.imageUrl, p.category, p.brand, p.sku, p.stock, r.reviewCount, r.ratingSum)
+            FROM Product p
+            LEFT JOIN ProductRatingSummary r ON r.productId = p.id
+            WHERE p.active = true AND lower(p.category) = lower(:category)
+            """,
+            countQuery = """
+            SELECT COUNT(p)
+            FROM Product p
+            WHERE p.active = true AND lower(p.category) = lower(:category)
+            """)
+    Page<ProductSummaryDto> findSummariesByCategory(@Param("category") String category, Pageable pageable);
+
+    @Query(value = """
+            SELECT new com.example.ecommerce.product.dto.ProductSummaryDto(
+                p.id, p.name, p.price, p.imageUrl, p.category, p.brand, p.sku, p.stock, r.reviewCount, r.ratingSum)
+            FROM Product p
+            LEFT JOIN ProductRatingSummary r ON r.productId = p.id
+            WHERE p.active = true AND lower(p.brand) = lower(:brand)
+            """,
+            countQuery = """
+            SELECT COUNT(p)
+            FROM Product p
+            WHERE p.active = true AND lower(p.brand) = lower(:brand)
+            """)
+    Page<ProductSummaryDto> findSummariesByBrand(@Param("brand") String brand, Pageable pageable);
+
+    List<ProductFacetSourceView> findFacetSourcesByActiveTrue();
+
+    List<ProductFacetSourceView> findFacetSourcesByIdIn(Collection<Long> ids);
+
+    List<ProductStockLevelView> findStockLevelsByIdIn(Collection<Long> ids);
+
+    @Query("""
+            SELECT new com.example.ecommerce.product.dto.ProductSummaryDto(
+                p.id, p.name, p.price, p.imageUrl, p.category, p.brand, p.sku, p.stock, r.reviewCount, r.ratingSum)
+            FROM Product p
+            LEFT JOIN ProductRatingSummary r ON r.productId = p.id
+            WHERE p.active = true AND p.id IN :ids
+            """)
+    List<ProductSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Category/brand listing in popularity order. {@code rankedIds} is a Postgres
+     * array literal of product ids, most popular first; unranked products follow by id.
+     */
+    @Query(
+            value = """
+                    SELECT p.id AS "id",
+                           p.name AS "name",
+                           p.price AS "price",
+                           p.image_url AS "imageUrl",
+                           p.category AS "category",
+                           p.brand AS "brand",
+                           p.sku AS "sku",
+                           p.stock AS "stock",
+                           r.review_count AS "ratingCount",
+                           r.rating_sum AS "ratingSum"
+                    FROM product p
+                    LEFT JOIN product_rating_summary r ON r.product_id = p.id
+                    WHERE p.active = TRUE
+                      AND (:category IS NULL OR lower(p.category) = lower(:category))
+                      AND (:brand IS NULL OR lower(p.brand) = lower(:brand))
+                    ORDER BY array_position(CAST(:rankedIds AS BIGINT[]), p.id) NULLS LAST, p.id
+                    """,
+            countQuery = """
+                    SELECT COUNT(*)
+                    FROM product p
+                    WHERE p.active = TRUE
+                      AND (:category IS NULL OR lower(p.category) = lower(:category))
+                      AND (:brand IS NULL OR lower(p.brand) = lower(:brand))
+                    """,
+            nativeQuery = true
+    )
+    Page<ProductSummaryView> findPopularSummaries(@Param("category") String category,
+                                                  @Param("brand") String brand,
+                                                  @Param("rankedIds") String rankedIds,
+                                                  Pageable pageable);
 
     @Modifying
     @Query("update Product p set p.active = false where p.sku in :skus")
@@ -29,8 +109,18 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     @Query(
             value = """
-                    SELECT p.*
+                    SELECT p.id AS "id",
+                           p.name AS "name",
+                           p.price AS "price",
+                           p.image_url AS "imageUrl",
+                           p.category AS "category",
+                           p.brand AS "brand",
+                           p.sku AS "sku",
+                           p.stock AS "stock",
+                           r.review_count AS "ratingCount",
+                           r.rating_sum AS "ratingSum"
                     FROM product p
+                    LEFT JOIN product_rating_summary r ON r.product_id = p.id
                     WHERE p.active = TRUE
                       AND (:category IS NULL OR lower(p.category) = lower(:category))
                       AND (:brand IS NULL OR lower(p.brand) = lower(:brand))
@@ -40,6 +130,7 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
                             OR similarity(COALESCE(p.name, ''), :query) >= 0.20
                             OR similarity(COALESCE(p.description, ''), :query) >= 0.15
                           )
+                      AND (:attributeFilter IS NULL OR p.attributes_json @@ CAST(:attributeFilter AS jsonpath))
                     ORDER BY
                       CASE
                         WHEN :query IS NULL THEN 0
@@ -65,11 +156,142 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
                             OR similarity(COALESCE(p.name, ''), :query) >= 0.20
                             OR similarity(COALESCE(p.description, ''), :query) >= 0.15
                           )
+                      AND (:attributeFilter IS NULL OR p.attributes_json @@ CAST(:attributeFilter AS jsonpath))
+                    """,
+            nativeQuery = true
+    )
+    Page<ProductSummaryView> searchProductsAdvanced(@Param("category") String category,
+                                                    @Param("brand") String brand,
+                                                    @Param("query") String query,
+                                                    @Param("attributeFilter") String attributeFilter,
+                                                    Pageable pageable);
+
+    /**
+     * LIKE-based attribute search used when the full-text query is unavailable;
+     * needs nothing beyond core PostgreSQL.
+     */
+    @Query(
+            value = """
+                    SELECT p.id AS "id",
+                           p.name AS "name",
+                           p.price AS "price",
+                           p.image_url AS "imageUrl",
+                           p.category AS "category",
+                           p.brand AS "brand",
+                           p.sku AS "sku",
+                           p.stock AS "stock",
+                           r.review_count AS "ratingCount",
+                           r.rating_sum AS "ratingSum"
+                    FROM product p
+                    LEFT JOIN product_rating_summary r ON r.product_id = p.id
+                    WHERE p.active = TRUE
+                      AND (:category IS NULL OR lower(p.category) = lower(:category))
+                      AND (:brand IS NULL OR lower(p.brand) = lower(:brand))
+                      AND (:pattern IS NULL OR lower(p.name) LIKE :pattern OR lower(p.description) LIKE :pattern)
+                      AND p.attributes_json @@ CAST(:attributeFilter AS jsonpath)
+                    ORDER BY p.id DESC
+                    """,
+            countQuery = """
+                    SELECT COUNT(*)
+                    FROM product p
+                    WHERE p.active = TRUE
+                      AND (:category IS NULL OR lower(p.category) = lower(:category))
+                      AND (:brand IS NULL OR lower(p.brand) = lower(:brand))
+                      AND (:pattern IS NULL OR lower(p.name) LIKE :pattern OR lower(p.description) LIKE :pattern)
+                      AND p.attributes_json @@ CAST(:attributeFilter AS jsonpath)
+                    """,
+            nativeQuery = true
+    )
+    Page<ProductSummaryView> searchProductsByAttributes(@Param("category") String category,
+                                                        @Param("brand") String brand,
+                                                        @Param("pattern") String pattern,
+                                                        @Param("attributeFilter") String attributeFilter,
+                                                        Pageable pageable);
+
+    @Query(
+            value = """
+                    SELECT CASE
+                             WHEN GROUPING(f.category) = 0 THEN 'category'
+                             WHEN GROUPING(f.brand) = 0 THEN 'brand'
+                             ELSE 'price'
+                           END AS dimension,
+                           CASE
+                             WHEN GROUPING(f.category) = 0 THEN f.category
+                             WHEN GROUPING(f.brand) = 0 THEN f.brand
+                             ELSE CAST(f.price_bucket AS VARCHAR)
+                           END AS label,
+                           COUNT(*) AS total
+                    FROM (
+                        SELECT p.category AS category,
+                               p.brand AS brand,
+                               CASE
+                                 WHEN p.price < 2500 THEN 0
+                                 WHEN p.price < 5000 THEN 1
+                                 WHEN p.price < 10000 THEN 2
+                                 WHEN p.price < 20000 THEN 3
+                                 ELSE 4
+                               END AS price_bucket
+                        FROM product p
+                        WHERE p.active = TRUE
+                          AND (:category IS NULL OR lower(p.category) = lower(:category))
+                          AND (:brand IS NULL OR lower(p.brand) = lower(:brand))
+                          AND (
+                                :query IS NULL
+                                OR p.search_vector @@ websearch_to_tsquery('simple', :query)
+                                OR similarity(COALESCE(p.name, ''), :query) >= 0.20
+                                OR similarity(COALESCE(p.description, ''), :query) >= 0.15
+                              )
+                          AND (:attributeFilter IS NULL OR p.attributes_json @@ CAST(:attributeFilter AS jsonpath))
+                    ) f
+                    GROUP BY GROUPING SETS ((f.category), (f.brand), (f.price_bucket))
+                    """,
+            nativeQuery = true
+    )
+    List<ProductFacetCountView> countSearchFacets(@Param("category") String category,
+                                                  @Param("brand") String brand,
+                                                  @Param("query") String query,
+                                                  @Param("attributeFilter") String attributeFilter);
+
+    /**
+     * Scalar attribute values and their product counts within a category, for
+     * building attribute filters. Nested objects and arrays are skipped.
+     */
+    @Query(
+            value = """
+                    SELECT a.key AS "dimension",
+                           a.value #>> '{}' AS "label",
+                           COUNT(*) AS "total"
+                    FROM product p
+                    CROSS JOIN LATERAL jsonb_each(
+                        CASE WHEN jsonb_typeof(p.attributes_json) = 'object' THEN p.attributes_json END) a
+                    WHERE p.active = TRUE
+                      AND lower(p.category) = lower(:category)
+                      AND jsonb_typeof(a.value) IN ('string', 'number', 'boolean')
+                    GROUP BY a.key, a.value #>> '{}'
+                    ORDER BY a.key, COUNT(*) DESC, a.value #>> '{}'
+                    """,
+            nativeQuery = true
+    )
+    List<ProductFacetCountView> countAttributeValuesByCategory(@Param("category") String category);
+
+    @Query(
+            value = """
+                    SELECT p.id AS id,
+                           p.name AS name,
+                           p.brand AS brand,
+                           p.category AS category,
+                           COALESCE(s.sold_quantity, 0) AS "soldQuantity"
+                    FROM product p
+                    LEFT JOIN (
+                        SELECT oi.product_id, SUM(oi.quantity) AS sold_quantity
+                        FROM order_items oi
+                        JOIN orders_table o ON o.id = oi.order_id
+                        WHERE o.status IN ('PAID', 'PACKED', 'SHIPPED', 'DELIVERED')
+                        GROUP BY oi.product_id
+                    ) s ON s.product_id = p.id
+                    WHERE p.active = TRUE
                     """,
             nativeQuery = true
     )
-    Page<Product> searchProductsAdvanced(@Param("category") String category,
-                                         @Param("brand") String brand,
-                                         @Param("query") String query,
-                                         Pageable pageable);
+    List<ProductSuggestionSourceView> findSuggestionSources();
 }
@@ -0,0 +1,7 @@
+package com.example.ecommerce.product.repository;
+
+public interface ProductStockLevelView {
+    Long getId();
+
+    Integer getStock();
+}
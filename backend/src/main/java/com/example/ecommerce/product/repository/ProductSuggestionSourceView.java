@@ -0,0 +1,13 @@
+package com.example.ecommerce.product.repository;
+
+public interface ProductSuggestionSourceView {
+    Long getId();
+
+    String getName();
+
+    String getBrand();
+
+    String getCategory();
+
+    Long getSoldQuantity();
+}
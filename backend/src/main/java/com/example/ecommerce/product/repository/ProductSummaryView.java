@@ -0,0 +1,25 @@
+package com.example.ecommerce.product.repository;
+
+import java.math.BigDecimal;
+
+public interface ProductSummaryView {
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    String getImageUrl();
+
+    String getCategory();
+
+    String getBrand();
+
+    String getSku();
+
+    Integer getStock();
+
+    Integer getRatingCount();
+
+    Long getRatingSum();
+}
@@ -0,0 +1,128 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.event.CatalogEventReplay;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.event.ProductStockChangedEvent;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Relays committed catalog events to the other nodes over Redis pub/sub.
+ *
+ * Validators come from a shared revision store, but response bodies come from
+ * per-node caches, indexes and the catalog snapshot. Each node replays the events
+ * it receives, so those read models are refreshed everywhere and not only on the
+ * node that handled the write. Pub/sub does not retry: a lost message is bounded by
+ * the caches' TTLs.
+ */
+@Component
+@ConditionalOnProperty(name = "app.catalog.events.relay", havingValue = "redis")
+@Slf4j
+public class CatalogEventRelay implements MessageListener {
+
+    public static final String CHANNEL = "catalog:events";
+
+    private static final String[] CATALOG_CACHES = {"productSearch", "productFacets"};
+    private static final Map<String, Class<?>> EVENT_TYPES = Map.of(
+            "product", ProductChangedEvent.class,
+            "stock", ProductStockChangedEvent.class,
+            "review", ProductReviewCreatedEvent.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    public CatalogEventRelay(StringRedisTemplate redisTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             CacheManager cacheManager,
+                             ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private record Envelope(String origin, String type, JsonNode event) {
+    }
+
+    // Sent before the revision bump, so other nodes start refreshing as early as possible.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        send("product", event);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        send("stock", event);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ProductReviewCreatedEvent event) {
+        send("review", event);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object event;
+        try {
+            Envelope envelope = objectMapper.readValue(message.getBody(), Envelope.class);
+            if (nodeId.equals(envelope.origin()) || !EVENT_TYPES.containsKey(envelope.type())) {
+                return;
+            }
+            event = objectMapper.treeToValue(envelope.event(), EVENT_TYPES.get(envelope.type()));
+        } catch (Exception ex) {
+            log.warn("Ignoring unreadable catalog event: {}", ex.getMessage());
+            return;
+        }
+        // Search and facet pages are evicted by the writing service itself, not by a listener.
+        if (!(event instanceof ProductStockChangedEvent)) {
+            clearCatalogCaches();
+        }
+        CatalogEventReplay.replay(() -> eventPublisher.publishEvent(event));
+    }
+
+    private void send(String type, Object event) {
+        if (CatalogEventReplay.isReplaying()) {
+            return;
+        }
+        try {
+            String payload = objectMapper.writeValueAsString(
+                    new Envelope(nodeId, type, objectMapper.valueToTree(event)));
+            redisTemplate.convertAndSend(CHANNEL, payload);
+        } catch (Exception ex) {
+            // Other nodes fall back to their cache TTLs for this change.
+            log.warn("Could not relay {} event: {}", type, ex.getMessage());
+        }
+    }
+
+    private void clearCatalogCaches() {
+        for (String cacheName : CATALOG_CACHES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.event.CatalogEventReplay;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.event.ProductStockChangedEvent;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Validators for conditional GETs on the public catalog.
+ *
+ * Every product and every product's review list has a revision stamp that is
+ * bumped after a committed change; list endpoints share one catalog-wide stamp.
+ * Stamps come from a {@link CatalogRevisionStore} shared by all nodes. When the
+ * store cannot be read the response gets a one-off ETag, so nothing is answered
+ * with 304 on a guess.
+ */
+@Service
+@Slf4j
+public class CatalogRevisionService {
+
+    private static final String CATALOG_SCOPE = "c";
+
+    private final CatalogRevisionStore revisionStore;
+    private final CacheControl cacheControl;
+
+    public CatalogRevisionService(CatalogRevisionStore revisionStore,
+                                  @Value("${app.http.catalog.max-age-seconds:60}") long maxAgeSeconds,
+                                  @Value("${app.http.catalog.stale-while-revalidate-seconds:300}") long staleWhileRevalidateSeconds) {
+        this.revisionStore = revisionStore;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .cachePublic()
+                .staleWhileRevalidate(Duration.ofSeconds(staleWhileRevalidateSeconds));
+    }
+
+    public record Validators(String etag, Instant lastModified) {
+    }
+
+    public CacheControl cacheControl() {
+        return cacheControl;
+    }
+
+    public Validators catalog() {
+        return validators(CATALOG_SCOPE);
+    }
+
+    public Validators product(Long productId) {
+        return validators(productScope(productId));
+    }
+
+    public Validators reviews(Long productId) {
+        return validators(reviewScope(productId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            bump(productScope(event.productId()), reviewScope(event.productId()), CATALOG_SCOPE);
+        } else {
+            bump(productScope(event.productId()), CATALOG_SCOPE);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        // Lists are served from the search cache, which stock changes leave alone, so
+        // checkouts must not move the catalog-wide stamp.
+        bump(productScope(event.productId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ProductReviewCreatedEvent event) {
+        // The rating summary is part of the product detail and list representations.
+        bump(reviewScope(event.productId()), productScope(event.productId()), CATALOG_SCOPE);
+    }
+
+    private void bump(String... scopes) {
+        if (CatalogEventReplay.isReplaying()) {
+            // The node that committed the change already bumped the shared stamps.
+            return;
+        }
+        try {
+            revisionStore.bump(List.of(scopes));
+        } catch (RuntimeException ex) {
+            // Caches keep serving the old representation until the next change or max-age.
+            log.error("Could not bump catalog revisions {}: {}", List.of(scopes), ex.getMessage());
+        }
+    }
+
+    private Validators validators(String scope) {
+        try {
+            long stamp = revisionStore.current(scope);
+            return new Validators("\"" + scope + "-" + Long.toString(stamp, 36) + "\"",
+                    Instant.ofEpochMilli(stamp).truncatedTo(ChronoUnit.SECONDS));
+        } catch (RuntimeException ex) {
+            log.warn("Could not read catalog revision {}: {}", scope, ex.getMessage());
+            return new Validators("\"" + scope + "-x" + UUID.randomUUID() + "\"", Instant.now());
+        }
+    }
+
+    private static String productScope(Long productId) {
+        return "p" + productId;
+    }
+
+    private static String reviewScope(Long productId) {
+        return "r" + productId;
+    }
+}
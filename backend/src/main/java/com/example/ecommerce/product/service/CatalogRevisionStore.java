@@ -0,0 +1,24 @@
+package com.example.ecommerce.product.service;
+
+import java.util.Collection;
+
+/**
+ * Shared revision stamps behind the catalog's HTTP validators. Selected with
+ * {@code app.http.catalog.revision-store}.
+ *
+ * A stamp is an epoch-millisecond value that only grows per scope, also across
+ * restarts, so an ETag built from it is never reused for different content.
+ */
+public interface CatalogRevisionStore {
+
+    /**
+     * Current stamp of {@code scope}. Reading never writes, so scopes that were never
+     * bumped cost nothing to look up.
+     */
+    long current(String scope);
+
+    /**
+     * Moves every scope to a stamp newer than both its current one and the clock.
+     */
+    void bump(Collection<String> scopes);
+}
@@ -0,0 +1,308 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductRatingDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mapped image of the active catalog.
+ *
+ * <pre>
+ * header  magic(8) version(4) rows(4) createdAtMillis(8) stringsOffset(8)
+ * rows    sorted by id, ROW_BYTES each: id, price unscaled/scale, stock, rating
+ *         count/histogram/average, then one int offset per string field (-1 = null)
+ * strings length(4) + UTF-8 bytes, addressed by the row offsets
+ * </pre>
+ *
+ * Lookups binary-search the fixed-width rows in place, so the catalog stays in the
+ * page cache instead of the heap and only the requested product is materialized.
+ */
+public final class CatalogSnapshot {
+    private static final long MAGIC = 0x434154534E415031L; // "CATSNAP1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int STRING_FIELDS = 10;
+    private static final int STRINGS_AT = 56;
+    private static final int AVERAGE_SCALE = 2;
+    static final int ROW_BYTES = STRINGS_AT + STRING_FIELDS * Integer.BYTES;
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> DERIVATIVES_TYPE = new TypeReference<>() {
+    };
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final Instant createdAt;
+    private final long stringsOffset;
+
+    private CatalogSnapshot(ByteBuffer buffer, int rows, Instant createdAt, long stringsOffset) {
+        this.buffer = buffer;
+        this.rows = rows;
+        this.createdAt = createdAt;
+        this.stringsOffset = stringsOffset;
+    }
+
+    public static CatalogSnapshot open(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot is larger than 2 GB: " + file);
+            }
+            // The mapping stays valid after the channel is closed.
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        mapped.order(ByteOrder.BIG_ENDIAN);
+        if (mapped.capacity() < HEADER_BYTES || mapped.getLong(0) != MAGIC || mapped.getInt(8) != VERSION) {
+            throw new IOException("Not a catalog snapshot: " + file);
+        }
+        int rows = mapped.getInt(12);
+        long stringsOffset = mapped.getLong(24);
+        if (rows < 0 || stringsOffset != HEADER_BYTES + (long) rows * ROW_BYTES || stringsOffset > mapped.capacity()) {
+            throw new IOException("Corrupt catalog snapshot: " + file);
+        }
+        return new CatalogSnapshot(mapped, rows, Instant.ofEpochMilli(mapped.getLong(16)), stringsOffset);
+    }
+
+    /**
+     * Reads only the header, to check whether a file is worth mapping.
+     */
+    public static Instant readCreatedAt(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    break;
+                }
+            }
+            if (header.hasRemaining() || header.getLong(0) != MAGIC || header.getInt(8) != VERSION) {
+                throw new IOException("Not a catalog snapshot: " + file);
+            }
+            return Instant.ofEpochMilli(header.getLong(16));
+        }
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public long idAt(int row) {
+        return buffer.getLong(rowOffset(row));
+    }
+
+    public ProductDto find(long id) {
+        int low = 0;
+        int high = rows - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = idAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return read(rowOffset(mid));
+            }
+        }
+        return null;
+    }
+
+    private ProductDto read(int row) {
+        ProductDto dto = new ProductDto();
+        dto.setId(buffer.getLong(row));
+        int scale = buffer.getInt(row + 16);
+        dto.setPrice(scale < 0 ? null : new BigDecimal(BigInteger.valueOf(buffer.getLong(row + 8)), scale));
+        dto.setStock(buffer.getInt(row + 20));
+        int reviewCount = buffer.getInt(row + 24);
+        if (reviewCount >= 0) {
+            List<Integer> stars = buffer.getInt(row + 28) < 0 ? null : List.of(buffer.getInt(row + 28),
+                    buffer.getInt(row + 32), buffer.getInt(row + 36), buffer.getInt(row + 40), buffer.getInt(row + 44));
+            BigDecimal average = BigDecimal.valueOf(buffer.getLong(row + 48), AVERAGE_SCALE);
+            dto.setRating(new ProductRatingDto(average, reviewCount, stars));
+        }
+        dto.setName(string(row, 0));
+        dto.setDescription(string(row, 1));
+        dto.setImageUrl(string(row, 2));
+        dto.setCategory(string(row, 3));
+        dto.setBrand(string(row, 4));
+        dto.setSku(string(row, 5));
+        dto.setColor(string(row, 6));
+        dto.setSize(string(row, 7));
+        dto.setAttributesJson(string(row, 8));
+        String derivatives = string(row, 9);
+        if (derivatives != null) {
+            try {
+                dto.setImageDerivatives(JSON.readValue(derivatives, DERIVATIVES_TYPE));
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Corrupt image derivatives in catalog snapshot", ex);
+            }
+        }
+        return dto;
+    }
+
+    private String string(int row, int field) {
+        int offset = buffer.getInt(row + STRINGS_AT + field * Integer.BYTES);
+        if (offset < 0) {
+            return null;
+        }
+        int at = Math.toIntExact(stringsOffset + offset);
+        byte[] bytes = new byte[buffer.getInt(at)];
+        buffer.get(at + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int rowOffset(int row) {
+        return HEADER_BYTES + row * ROW_BYTES;
+    }
+
+    /**
+     * Streams rows into two spill files (fixed-width rows, strings) and stitches them
+     * behind the header on {@link #commit()}; the target is replaced atomically, so
+     * readers only ever map complete snapshots. Rows must arrive in ascending id order.
+     */
+    public static final class Writer implements Closeable {
+        private final Path target;
+        private final Instant createdAt;
+        private final Path rowsFile;
+        private final Path stringsFile;
+        private final FileChannel rowsChannel;
+        private final FileChannel stringsChannel;
+        private final ByteBuffer row = ByteBuffer.allocate(ROW_BYTES);
+        private long stringsSize;
+        private int rowCount;
+        private long lastId = Long.MIN_VALUE;
+
+        public Writer(Path target, Instant createdAt) throws IOException {
+            this.target = target.toAbsolutePath();
+            this.createdAt = createdAt;
+            Path dir = this.target.getParent();
+            Files.createDirectories(dir);
+            this.rowsFile = Files.createTempFile(dir, ".catalog-rows-", ".tmp");
+            this.stringsFile = Files.createTempFile(dir, ".catalog-strings-", ".tmp");
+            this.rowsChannel = FileChannel.open(rowsFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.stringsChannel = FileChannel.open(stringsFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        public void add(ProductDto product) throws IOException {
+            if (product.getId() <= lastId) {
+                throw new IllegalArgumentException("Catalog snapshot rows must be in ascending id order");
+            }
+            lastId = product.getId();
+            row.clear();
+            row.putLong(product.getId());
+            BigDecimal price = product.getPrice();
+            row.putLong(price == null ? 0 : price.unscaledValue().longValueExact());
+            row.putInt(price == null ? -1 : price.scale());
+            row.putInt(product.getStock());
+            ProductRatingDto rating = product.getRating();
+            row.putInt(rating == null ? -1 : rating.count());
+            List<Integer> stars = rating == null ? null : rating.stars();
+            for (int star = 0; star < 5; star++) {
+                row.putInt(stars == null ? -1 : star < stars.size() ? stars.get(star) : 0);
+            }
+            row.putLong(rating == null ? 0
+                    : rating.average().setScale(AVERAGE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+            row.putInt(putString(product.getName()));
+            row.putInt(putString(product.getDescription()));
+            row.putInt(putString(product.getImageUrl()));
+            row.putInt(putString(product.getCategory()));
+            row.putInt(putString(product.getBrand()));
+            row.putInt(putString(product.getSku()));
+            row.putInt(putString(product.getColor()));
+            row.putInt(putString(product.getSize()));
+            row.putInt(putString(product.getAttributesJson()));
+            row.putInt(putString(product.getImageDerivatives() == null ? null
+                    : JSON.writeValueAsString(product.getImageDerivatives())));
+            row.flip();
+            writeFully(rowsChannel, row);
+            rowCount++;
+        }
+
+        public int size() {
+            return rowCount;
+        }
+
+        public void commit() throws IOException {
+            Path assembled = Files.createTempFile(target.getParent(), ".catalog-", ".tmp");
+            try {
+                try (FileChannel out = FileChannel.open(assembled, StandardOpenOption.WRITE)) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                    header.putLong(MAGIC).putInt(VERSION).putInt(rowCount).putLong(createdAt.toEpochMilli())
+                            .putLong(HEADER_BYTES + (long) rowCount * ROW_BYTES);
+                    header.flip();
+                    writeFully(out, header);
+                    transferFully(rowsChannel, out);
+                    transferFully(stringsChannel, out);
+                    out.force(true);
+                }
+                Files.move(assembled, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException ex) {
+                Files.deleteIfExists(assembled);
+                throw ex;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                rowsChannel.close();
+                stringsChannel.close();
+            } finally {
+                Files.deleteIfExists(rowsFile);
+                Files.deleteIfExists(stringsFile);
+            }
+        }
+
+        private int putString(String value) throws IOException {
+            if (value == null) {
+                return -1;
+            }
+            if (stringsSize > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot string region exceeds 2 GB");
+            }
+            int offset = (int) stringsSize;
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+            entry.putInt(bytes.length).put(bytes).flip();
+            writeFully(stringsChannel, entry);
+            stringsSize += entry.capacity();
+            return offset;
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private static void transferFully(FileChannel source, FileChannel target) throws IOException {
+            long size = source.size();
+            long position = 0;
+            while (position < size) {
+                position += source.transferTo(position, size - position, target);
+            }
+        }
+    }
+}
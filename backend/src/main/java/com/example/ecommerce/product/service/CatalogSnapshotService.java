@@ -0,0 +1,274 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.repository.CatalogSnapshotRepository;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves product details from a memory-mapped {@link CatalogSnapshot} so a freshly
+ * started node does not send every first read to Postgres.
+ *
+ * One node at a time (Postgres advisory lock) writes the snapshot file every
+ * {@code write-interval-ms}; with a shared {@code path} every node maps the same file.
+ * A snapshot is only served after a catch-up has marked every product changed since
+ * it was written (by {@code product.updated_at} and the rating summary, which also
+ * covers deactivation) or deleted; stale ids fall through to the database. Hard deletes
+ * are found by comparing all ids with the snapshot once per file, and afterwards only
+ * when an id checksum moves. The catch-up repeats every
+ * {@code refresh-interval-ms}, local change events mark ids stale immediately, and a
+ * snapshot older than {@code max-age-minutes} is dropped. Stock in the snapshot is only
+ * a fallback; readers overlay {@link ProductStockView}.
+ */
+@Service
+public class CatalogSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+    private static final int FETCH_SIZE = 1000;
+
+    private record Loaded(CatalogSnapshot snapshot, Set<Long> staleIds, Instant syncedAt,
+                          CatalogSnapshotRepository.IdChecksum idChecksum) {
+    }
+
+    private final CatalogSnapshotRepository snapshotRepository;
+    private final CatalogSnapshotService selfProxy;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration writeInterval;
+    private final Duration maxAge;
+    private final Duration catchUpOverlap;
+    private volatile Loaded loaded;
+    private volatile Set<Long> loadingStaleIds;
+
+    public CatalogSnapshotService(CatalogSnapshotRepository snapshotRepository,
+                                  @Lazy CatalogSnapshotService selfProxy,
+                                  @Value("${app.catalog.snapshot.enabled:false}") boolean enabled,
+                                  @Value("${app.catalog.snapshot.path:}") String path,
+                                  @Value("${app.catalog.snapshot.write-interval-ms:900000}") long writeIntervalMs,
+                                  @Value("${app.catalog.snapshot.max-age-minutes:120}") long maxAgeMinutes,
+                                  @Value("${app.catalog.snapshot.catch-up-overlap-seconds:300}") long catchUpOverlapSeconds) {
+        this.snapshotRepository = snapshotRepository;
+        this.selfProxy = selfProxy;
+        this.enabled = enabled;
+        this.path = path == null || path.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "catalog-snapshot.bin")
+                : Path.of(path);
+        this.writeInterval = Duration.ofMillis(Math.max(writeIntervalMs, 1000));
+        this.maxAge = Duration.ofMinutes(Math.max(maxAgeMinutes, 1));
+        // updated_at is stamped before commit, so a row can become visible after a later snapshot started.
+        this.catchUpOverlap = Duration.ofSeconds(Math.max(catchUpOverlapSeconds, 0));
+    }
+
+    /**
+     * The product as of the snapshot, or empty when no snapshot is served, the product
+     * is not in it, or it changed since.
+     */
+    public Optional<ProductDto> find(Long id) {
+        Loaded current = loaded;
+        if (current == null || id == null || current.staleIds().contains(id)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.snapshot().find(id));
+    }
+
+    public boolean isServing() {
+        return loaded != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Maps a newer snapshot file when one appears, otherwise catches the served one up.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.refresh-interval-ms:60000}",
+            initialDelayString = "${app.catalog.snapshot.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Loaded current = loaded;
+            Instant now = Instant.now();
+            if (current != null && current.snapshot().createdAt().isBefore(now.minus(maxAge))) {
+                retire("it is older than " + maxAge.toMinutes() + " minutes");
+                current = null;
+            }
+            CatalogSnapshot candidate = openIfNewer(current, now);
+            if (candidate != null) {
+                load(candidate);
+            } else if (current != null) {
+                catchUp(current);
+            }
+        } catch (Exception ex) {
+            logger.warn("Catalog snapshot refresh failed, reads go to the database. reason={}", ex.getMessage());
+            retire("refresh failed");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.write-interval-ms:900000}",
+            initialDelayString = "${app.catalog.snapshot.write-initial-delay-ms:60000}")
+    public void writeSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            selfProxy.writeIfLeader();
+        } catch (Exception ex) {
+            logger.error("Catalog snapshot write failed", ex);
+        }
+    }
+
+    /**
+     * Streams the active catalog into a new snapshot file unless another node holds the
+     * snapshot lock or the file on a shared path was written within this interval.
+     */
+    @Transactional(readOnly = true)
+    public boolean writeIfLeader() {
+        if (!snapshotRepository.tryAcquireSnapshotLock()) {
+            return false;
+        }
+        Instant createdAt = Instant.now();
+        Optional<Instant> existing = fileCreatedAt();
+        if (existing.isPresent() && existing.get().isAfter(createdAt.minus(writeInterval.dividedBy(2)))) {
+            return false;
+        }
+        long startNanos = System.nanoTime();
+        try (CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer(path, createdAt)) {
+            snapshotRepository.streamActiveProducts(FETCH_SIZE, product -> {
+                try {
+                    writer.add(product);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            writer.commit();
+            logger.info("Catalog snapshot with {} product(s) written to {} in {} ms",
+                    writer.size(), path, (System.nanoTime() - startNanos) / 1_000_000);
+            return true;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        markStale(event.productId());
+    }
+
+    @EventListener
+    public void onReviewCreated(ProductReviewCreatedEvent event) {
+        markStale(event.productId());
+    }
+
+    // Marked when published rather than after commit, so the detail cache cannot be
+    // refilled from the snapshot between the commit and this listener.
+    private void markStale(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        Loaded current = loaded;
+        if (current != null) {
+            current.staleIds().add(productId);
+        }
+        Set<Long> loading = loadingStaleIds;
+        if (loading != null) {
+            loading.add(productId);
+        }
+    }
+
+    private CatalogSnapshot openIfNewer(Loaded current, Instant now) throws IOException {
+        Optional<Instant> fileCreatedAt = fileCreatedAt();
+        if (fileCreatedAt.isEmpty() || fileCreatedAt.get().isBefore(now.minus(maxAge))) {
+            return null;
+        }
+        if (current != null && !fileCreatedAt.get().isAfter(current.snapshot().createdAt())) {
+            return null;
+        }
+        return CatalogSnapshot.open(path);
+    }
+
+    private void load(CatalogSnapshot candidate) {
+        // Events published during the catch-up land directly in the new snapshot's stale set.
+        Set<Long> staleIds = ConcurrentHashMap.newKeySet();
+        loadingStaleIds = staleIds;
+        try {
+            Instant syncedAt = Instant.now();
+            staleIds.addAll(snapshotRepository.findChangedProductIdsSince(candidate.createdAt().minus(catchUpOverlap)));
+            CatalogSnapshotRepository.IdChecksum idChecksum = addRemovedProducts(candidate, staleIds);
+            loaded = new Loaded(candidate, staleIds, syncedAt, idChecksum);
+            logger.info("Serving catalog snapshot from {} with {} product(s), {} changed since",
+                    candidate.createdAt(), candidate.size(), staleIds.size());
+        } finally {
+            loadingStaleIds = null;
+        }
+    }
+
+    private void catchUp(Loaded current) {
+        Instant syncedAt = Instant.now();
+        current.staleIds().addAll(snapshotRepository.findChangedProductIdsSince(current.syncedAt().minus(catchUpOverlap)));
+        // Hard deletes leave no updated_at behind, and other nodes' events do not reach this one.
+        CatalogSnapshotRepository.IdChecksum idChecksum = current.idChecksum();
+        if (!Objects.equals(snapshotRepository.checksumProductIdsUpTo(maxId(current.snapshot())), idChecksum)) {
+            idChecksum = addRemovedProducts(current.snapshot(), current.staleIds());
+        }
+        loaded = new Loaded(current.snapshot(), current.staleIds(), syncedAt, idChecksum);
+    }
+
+    private CatalogSnapshotRepository.IdChecksum addRemovedProducts(CatalogSnapshot snapshot, Set<Long> staleIds) {
+        // Taken before the ids, so a delete racing the scan moves the checksum next time.
+        CatalogSnapshotRepository.IdChecksum idChecksum = snapshotRepository.checksumProductIdsUpTo(maxId(snapshot));
+        Set<Long> activeIds = snapshotRepository.findActiveProductIds();
+        for (int row = 0; row < snapshot.size(); row++) {
+            long id = snapshot.idAt(row);
+            if (!activeIds.contains(id)) {
+                staleIds.add(id);
+            }
+        }
+        return idChecksum;
+    }
+
+    private static long maxId(CatalogSnapshot snapshot) {
+        return snapshot.size() > 0 ? snapshot.idAt(snapshot.size() - 1) : 0L;
+    }
+
+    private void retire(String reason) {
+        if (loaded != null) {
+            loaded = null;
+            logger.info("Stopped serving the catalog snapshot because {}", reason);
+        }
+    }
+
+    private Optional<Instant> fileCreatedAt() {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(CatalogSnapshot.readCreatedAt(path));
+        } catch (IOException ex) {
+            logger.warn("Ignoring unreadable catalog snapshot {}. reason={}", path, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+}
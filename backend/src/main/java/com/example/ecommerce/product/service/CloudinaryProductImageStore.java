@@ -0,0 +1,64 @@
+package com.example.ecommerce.product.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.example.ecommerce.config.CloudinaryProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "app.product.images.store", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryProductImageStore implements ProductImageStore {
+
+    private final Cloudinary cloudinary;
+    private final CloudinaryProperties cloudinaryProperties;
+
+    public CloudinaryProductImageStore(Cloudinary cloudinary, CloudinaryProperties cloudinaryProperties) {
+        this.cloudinary = cloudinary;
+        this.cloudinaryProperties = cloudinaryProperties;
+    }
+
+    @Override
+    public String store(String key, Path file, String contentType) throws IOException {
+        if (isBlank(cloudinaryProperties.getCloudName()) || isBlank(cloudinaryProperties.getApiKey())
+                || isBlank(cloudinaryProperties.getApiSecret())) {
+            throw new IllegalStateException("Cloudinary credentials are missing.");
+        }
+        // The uploader streams the file itself instead of taking a byte[] copy.
+        Map<?, ?> result = cloudinary.uploader().upload(file.toFile(), ObjectUtils.asMap(
+                "folder", cloudinaryProperties.getFolder(),
+                "resource_type", "image",
+                // Cloudinary keeps the format apart from the public id.
+                "public_id", stripExtension(key),
+                "overwrite", true
+        ));
+        return (String) result.get("secure_url");
+    }
+
+    /**
+     * Cloudinary transcodes on delivery when the extension of the delivery URL changes,
+     * so WebP renditions need no second upload.
+     */
+    @Override
+    public Optional<String> convertedUrl(String url, String format) {
+        int dot = url.lastIndexOf('.');
+        if (dot <= url.lastIndexOf('/')) {
+            return Optional.empty();
+        }
+        return Optional.of(url.substring(0, dot + 1) + format);
+    }
+
+    private static String stripExtension(String key) {
+        int dot = key.lastIndexOf('.');
+        return dot > key.lastIndexOf('/') ? key.substring(0, dot) : key;
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.repository.ProductCoPurchaseBulkRepository;
+import com.example.ecommerce.util.LongCounterMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Incremental co-purchase counting for "frequently bought together".
+ *
+ * Each run consumes paid orders above the job's watermark in chunks of at most
+ * {@code chunk-orders} orders. A chunk is streamed from a cursor, its product pairs
+ * are counted in a primitive map, merged into product_co_purchases and pruned to
+ * the strongest {@code retained-per-product} pairs, and the watermark is advanced,
+ * all in one transaction. Orders are only picked up after {@code settle-minutes},
+ * so most of them have been paid or abandoned by then.
+ */
+@Component
+public class FrequentlyBoughtTogetherJob {
+    private static final Logger logger = LoggerFactory.getLogger(FrequentlyBoughtTogetherJob.class);
+    static final String JOB_NAME = "frequently-bought-together";
+    private static final int FETCH_SIZE = 1000;
+    private static final int WRITE_BATCH_SIZE = 1000;
+    private static final int MAX_CHUNKS_PER_RUN = 20;
+    private static final long MAX_PACKED_PRODUCT_ID = 0xFFFFFFFFL;
+
+    private final ProductCoPurchaseBulkRepository coPurchaseBulkRepository;
+    private final CacheManager cacheManager;
+    private final FrequentlyBoughtTogetherJob selfProxy;
+    private final boolean enabled;
+    private final int chunkOrders;
+    private final int maxItemsPerOrder;
+    private final Duration settleDelay;
+    private final int retainedPerProduct;
+
+    public FrequentlyBoughtTogetherJob(ProductCoPurchaseBulkRepository coPurchaseBulkRepository,
+                                       CacheManager cacheManager,
+                                       @Lazy FrequentlyBoughtTogetherJob selfProxy,
+                                       @Value("${app.product.co-purchase.enabled:true}") boolean enabled,
+                                       @Value("${app.product.co-purchase.chunk-orders:5000}") int chunkOrders,
+                                       @Value("${app.product.co-purchase.max-items-per-order:50}") int maxItemsPerOrder,
+                                       @Value("${app.product.co-purchase.settle-minutes:60}") long settleMinutes,
+                                       @Value("${app.product.co-purchase.retained-per-product:50}") int retainedPerProduct) {
+        this.coPurchaseBulkRepository = coPurchaseBulkRepository;
+        this.cacheManager = cacheManager;
+        this.selfProxy = selfProxy;
+        this.enabled = enabled;
+        this.chunkOrders = Math.max(chunkOrders, 1);
+        this.maxItemsPerOrder = Math.max(maxItemsPerOrder, 2);
+        this.settleDelay = Duration.ofMinutes(Math.max(settleMinutes, 0));
+        this.retainedPerProduct = Math.max(retainedPerProduct, 1);
+    }
+
+    @Scheduled(fixedDelayString = "${app.product.co-purchase.interval-ms:3600000}",
+            initialDelayString = "${app.product.co-purchase.initial-delay-ms:120000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        int chunks = 0;
+        try {
+            while (chunks < MAX_CHUNKS_PER_RUN && getSelfProxy().processNextChunk()) {
+                chunks++;
+            }
+        } catch (Exception e) {
+            logger.error("Frequently bought together job failed after {} chunk(s)", chunks, e);
+        }
+        if (chunks > 0) {
+            Cache cache = cacheManager.getCache(FrequentlyBoughtTogetherService.CACHE_NAME);
+            if (cache != null) {
+                cache.clear();
+            }
+            logger.info("Frequently bought together job processed {} chunk(s)", chunks);
+        }
+    }
+
+    /**
+     * Processes the next chunk of orders. Returns false when there was nothing new.
+     */
+    @Transactional
+    public boolean processNextChunk() {
+        long watermark = coPurchaseBulkRepository.lockWatermark(JOB_NAME);
+        Long upTo = coPurchaseBulkRepository.findChunkUpperBound(watermark, Instant.now().minus(settleDelay), chunkOrders);
+        if (upTo == null) {
+            return false;
+        }
+
+        PairCounter counter = new PairCounter(chunkOrders, maxItemsPerOrder);
+        coPurchaseBulkRepository.streamOrderLines(watermark, upTo, FETCH_SIZE, counter::accept);
+        counter.finish();
+
+        if (!counter.pairs.isEmpty()) {
+            coPurchaseBulkRepository.addPairCounts(counter.pairs, WRITE_BATCH_SIZE);
+            coPurchaseBulkRepository.pruneToTop(counter.touchedProducts, retainedPerProduct);
+        }
+        coPurchaseBulkRepository.saveWatermark(JOB_NAME, upTo);
+        logger.debug("Co-purchase chunk ({}, {}] counted {} pair(s) over {} order(s)",
+                watermark, upTo, counter.pairs.size(), counter.orders);
+        return true;
+    }
+
+    private FrequentlyBoughtTogetherJob getSelfProxy() {
+        return selfProxy != null ? selfProxy : this;
+    }
+
+    /**
+     * Collects the distinct products of one order at a time (lines arrive grouped
+     * by order) and counts every unordered pair under {@code (low << 32) | high}.
+     */
+    private static final class PairCounter {
+        private final LongCounterMap pairs;
+        private final Set<Long> touchedProducts = new HashSet<>();
+        private final long[] orderProducts;
+        private long currentOrderId = -1;
+        private int orderSize;
+        private int orders;
+
+        private PairCounter(int expectedOrders, int maxItemsPerOrder) {
+            this.pairs = new LongCounterMap(expectedOrders * 4);
+            this.orderProducts = new long[maxItemsPerOrder];
+        }
+
+        void accept(long orderId, long productId) {
+            if (orderId != currentOrderId) {
+                finish();
+                currentOrderId = orderId;
+                orders++;
+            }
+            if (productId <= 0 || productId > MAX_PACKED_PRODUCT_ID || orderSize == orderProducts.length) {
+                return;
+            }
+            for (int i = 0; i < orderSize; i++) {
+                if (orderProducts[i] == productId) {
+                    return;
+                }
+            }
+            orderProducts[orderSize++] = productId;
+        }
+
+        void finish() {
+            for (int i = 0; i < orderSize; i++) {
+                for (int j = i + 1; j < orderSize; j++) {
+                    long low = Math.min(orderProducts[i], orderProducts[j]);
+                    long high = Math.max(orderProducts[i], orderProducts[j]);
+                    pairs.increment((low << 32) | high, 1);
+                }
+                if (orderSize > 1) {
+                    touchedProducts.add(orderProducts[i]);
+                }
+            }
+            orderSize = 0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.repository.ProductCoPurchaseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Serves the pairs precomputed by FrequentlyBoughtTogetherJob; a lookup is one
+ * indexed range read, cached until the next job run or catalog change.
+ */
+@Service
+public class FrequentlyBoughtTogetherService {
+    public static final String CACHE_NAME = "frequentlyBoughtTogether";
+    private static final int MAX_LIMIT = 20;
+
+    private final ProductCoPurchaseRepository coPurchaseRepository;
+    private final CacheManager cacheManager;
+    private final long minPairCount;
+
+    public FrequentlyBoughtTogetherService(ProductCoPurchaseRepository coPurchaseRepository,
+                                           CacheManager cacheManager,
+                                           @Value("${app.product.co-purchase.min-pair-count:2}") long minPairCount) {
+        this.coPurchaseRepository = coPurchaseRepository;
+        this.cacheManager = cacheManager;
+        this.minPairCount = Math.max(minPairCount, 1);
+    }
+
+    @Cacheable(value = CACHE_NAME, key = "#productId + ':' + #limit")
+    @Transactional(readOnly = true)
+    public List<ProductSummaryDto> getFrequentlyBoughtTogether(Long productId, int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return coPurchaseRepository.findRelatedSummaries(productId, minPairCount, PageRequest.of(0, safeLimit));
+    }
+
+    // Deactivated or renamed products must not linger in cached lists.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductRatingDto;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.mapper.ProductMapper;
+import com.example.ecommerce.product.model.ProductRatingSummary;
+import com.example.ecommerce.product.repository.ProductRatingSummaryRepository;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves search from {@link ProductInvertedIndex}. Only active when
+ * {@code app.product.search.engine=memory}; otherwise nothing is indexed
+ * and ProductService keeps using the Postgres engine.
+ */
+@Component
+public class InMemoryProductSearchEngine implements ProductSearchEngine {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryProductSearchEngine.class);
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final ProductRatingSummaryRepository ratingSummaryRepository;
+    private final boolean enabled;
+    private final ProductInvertedIndex index = new ProductInvertedIndex();
+    private final Map<Long, RatingTotals> ratings = new ConcurrentHashMap<>();
+
+    public InMemoryProductSearchEngine(ProductRepository productRepository,
+                                       ProductRatingSummaryRepository ratingSummaryRepository,
+                                       @Value("${app.product.search.engine:postgres}") String engine) {
+        this.productRepository = productRepository;
+        this.ratingSummaryRepository = ratingSummaryRepository;
+        this.enabled = "memory".equalsIgnoreCase(engine);
+    }
+
+    private record RatingTotals(int count, long sum) {
+
+        private RatingTotals plus(RatingTotals other) {
+            return new RatingTotals(count + other.count, sum + other.sum);
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && index.isReady();
+    }
+
+    @Override
+    public Page<ProductSummaryDto> search(String category, String brand, String query, Pageable pageable) {
+        return index.search(category, brand, query, pageable).map(this::withRating);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isDeleted()) {
+            index.remove(event.productId());
+            return;
+        }
+        index.upsert(event.product());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ProductReviewCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ratings.merge(event.productId(), new RatingTotals(1, event.rating()), RatingTotals::plus);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.product.search.rebuild-interval-ms:900000}",
+            initialDelayString = "${app.product.search.rebuild-interval-ms:900000}")
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<ProductDto> products = new ArrayList<>();
+            Pageable pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+            Page<ProductDto> page;
+            do {
+                page = productRepository.findByActiveTrue(pageable).map(ProductMapper::toDto);
+                products.addAll(page.getContent());
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+
+            Map<Long, RatingTotals> totals = new ConcurrentHashMap<>();
+            for (ProductRatingSummary summary : ratingSummaryRepository.findAll()) {
+                totals.put(summary.getProductId(), new RatingTotals(summary.getReviewCount(), summary.getRatingSum()));
+            }
+
+            index.rebuild(products);
+            ratings.clear();
+            ratings.putAll(totals);
+            logger.info("In-memory product search index built with {} product(s)", products.size());
+        } catch (Exception e) {
+            logger.error("Failed to build in-memory product search index", e);
+        }
+    }
+
+    private ProductSummaryDto withRating(ProductSummaryDto summary) {
+        RatingTotals totals = ratings.get(summary.id());
+        return totals == null ? summary : summary.withRating(ProductRatingDto.of(totals.count(), totals.sum()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ecommerce.product.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps revision stamps in memory, for single-node setups without Redis. Untouched
+ * scopes share the process start time, so a restart still moves every validator.
+ */
+@Component
+@ConditionalOnProperty(name = "app.http.catalog.revision-store", havingValue = "local")
+public class LocalCatalogRevisionStore implements CatalogRevisionStore {
+
+    private final long startedAt = System.currentTimeMillis();
+    private final Map<String, Long> stamps = new ConcurrentHashMap<>();
+
+    @Override
+    public long current(String scope) {
+        return stamps.getOrDefault(scope, startedAt);
+    }
+
+    @Override
+    public void bump(Collection<String> scopes) {
+        long now = System.currentTimeMillis();
+        for (String scope : scopes) {
+            stamps.compute(scope, (key, stamp) -> {
+                long previous = stamp != null ? stamp : startedAt;
+                return previous < now ? now : previous + 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ecommerce.product.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes renditions below {@code app.product.images.local.dir}; whatever serves that
+ * directory (nginx, the frontend dev server) must expose it at {@code base-url}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.product.images.store", havingValue = "local")
+public class LocalProductImageStore implements ProductImageStore {
+
+    private final Path rootDir;
+    private final String baseUrl;
+
+    public LocalProductImageStore(@Value("${app.product.images.local.dir:uploads/products}") String rootDir,
+                                  @Value("${app.product.images.local.base-url:/products/uploads/}") String baseUrl) {
+        this.rootDir = Path.of(rootDir).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    @Override
+    public String store(String key, Path file, String contentType) throws IOException {
+        Path target = rootDir.resolve(key).normalize();
+        if (!target.startsWith(rootDir)) {
+            throw new IllegalArgumentException("Invalid image key: " + key);
+        }
+        Files.createDirectories(target.getParent());
+        // Copy next to the target first so readers never see a half-written file.
+        Path partial = Files.createTempFile(target.getParent(), ".upload-", ".part");
+        try {
+            Files.copy(file, partial, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        return baseUrl + rootDir.relativize(target).toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.mapper.ProductMapper;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.model.ProductAttributeFilters;
+import com.example.ecommerce.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+/**
+ * tsvector + pg_trgm search. Falls back to a LIKE specification when the
+ * advanced query is unavailable (e.g. extensions missing).
+ */
+@Component
+public class PostgresProductSearchEngine implements ProductSearchEngine {
+    private static final Logger logger = LoggerFactory.getLogger(PostgresProductSearchEngine.class);
+
+    private final ProductRepository productRepository;
+
+    public PostgresProductSearchEngine(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public Page<ProductSummaryDto> search(String category, String brand, String query, Pageable pageable) {
+        return search(category, brand, query, ProductAttributeFilters.none(), pageable);
+    }
+
+    /**
+     * Same search with attribute filters applied in SQL against the JSONB attributes column.
+     */
+    public Page<ProductSummaryDto> search(String category, String brand, String query,
+                                          ProductAttributeFilters attributes, Pageable pageable) {
+        String attributeFilter = attributes.toJsonPath();
+        try {
+            Pageable advancedSearchPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            return productRepository.searchProductsAdvanced(category, brand, query, attributeFilter, advancedSearchPageable)
+                    .map(ProductMapper::toSummaryDto);
+        } catch (DataAccessException ex) {
+            logger.warn("Advanced product search unavailable, using fallback specification search. reason={}", ex.getMessage());
+            if (attributeFilter != null) {
+                String pattern = query == null ? null : "%" + query.toLowerCase() + "%";
+                return productRepository.searchProductsByAttributes(category, brand, pattern, attributeFilter,
+                                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                        .map(ProductMapper::toSummaryDto);
+            }
+            return searchFallback(category, brand, query, pageable);
+        }
+    }
+
+    private Page<ProductSummaryDto> searchFallback(String category, String brand, String query, Pageable pageable) {
+        Specification<Product> spec = (root, cq, cb) -> cb.isTrue(root.get("active"));
+
+        if (category != null) {
+            String normalizedCategory = category.toLowerCase();
+            spec = spec.and((root, cq, cb) -> cb.equal(cb.lower(root.get("category")), normalizedCategory));
+        }
+
+        if (brand != null) {
+            String normalizedBrand = brand.toLowerCase();
+            spec = spec.and((root, cq, cb) -> cb.equal(cb.lower(root.get("brand")), normalizedBrand));
+        }
+
+        if (query != null) {
+            String pattern = "%" + query.toLowerCase() + "%";
+            spec = spec.and((root, cq, cb) -> cb.or(
+                    cb.like(cb.lower(root.get("name")), pattern),
+                    cb.like(cb.lower(root.get("description")), pattern)
+            ));
+        }
+
+        return productRepository.findAll(spec, pageable).map(ProductMapper::toSummaryDto);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductBatchItemDto;
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.mapper.ProductMapper;
+import com.example.ecommerce.product.model.ProductRatingSummary;
+import com.example.ecommerce.product.repository.ProductRatingSummaryRepository;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves many product cards in one call. Details cached by
+ * {@link ProductService#getProductById(Long)} or still current in the catalog
+ * snapshot are reused and every remaining miss is loaded
+ * with a single {@code findAllById} plus one rating lookup, then cached as well.
+ * Stock is taken from {@link ProductStockView} for all of them in one step.
+ */
+@Service
+public class ProductBatchService {
+    public static final String CACHE_NAME = "productDetails";
+
+    private final ProductRepository productRepository;
+    private final ProductRatingSummaryRepository ratingSummaryRepository;
+    private final CacheManager cacheManager;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductStockView stockView;
+    private final int maxIds;
+
+    public ProductBatchService(ProductRepository productRepository,
+                               ProductRatingSummaryRepository ratingSummaryRepository,
+                               CacheManager cacheManager,
+                               CatalogSnapshotService catalogSnapshotService,
+                               ProductStockView stockView,
+                               @Value("${app.product.batch.max-ids:50}") int maxIds) {
+        this.productRepository = productRepository;
+        this.ratingSummaryRepository = ratingSummaryRepository;
+        this.cacheManager = cacheManager;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.stockView = stockView;
+        this.maxIds = Math.max(maxIds, 1);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductBatchItemDto> getProducts(List<Long> ids) {
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " product ids can be requested at once");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Product ids must not be empty");
+        }
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        Map<Long, ProductDto> products = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long id : ids) {
+            ProductDto cached = cache != null ? cache.get(id, ProductDto.class) : null;
+            if (cached == null) {
+                cached = catalogSnapshotService.find(id).orElse(null);
+            }
+            if (cached != null) {
+                products.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            List<ProductDto> loaded = productRepository.findAllById(misses).stream()
+                    .map(ProductMapper::toDto)
+                    .toList();
+            Map<Long, ProductRatingSummary> ratings = loaded.isEmpty() ? Map.of() : ratingSummaryRepository
+                    .findAllById(loaded.stream().map(ProductDto::getId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(ProductRatingSummary::getProductId, Function.identity()));
+            for (ProductDto dto : loaded) {
+                dto.setRating(ProductMapper.toRatingDto(ratings.get(dto.getId())));
+                products.put(dto.getId(), dto);
+                if (cache != null) {
+                    cache.put(dto.getId(), dto);
+                }
+            }
+        }
+
+        Map<Long, ProductDto> current = stockView.withCurrentStock(List.copyOf(products.values())).stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+        List<ProductBatchItemDto> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductDto product = current.get(id);
+            result.add(product != null ? ProductBatchItemDto.found(product) : ProductBatchItemDto.notFound(id));
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.productId());
+    }
+
+    // The rating summary is part of the cached product detail.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ProductReviewCreatedEvent event) {
+        evict(event.productId());
+    }
+
+    private void evict(Long productId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null && productId != null) {
+            cache.evict(productId);
+        }
+    }
+}
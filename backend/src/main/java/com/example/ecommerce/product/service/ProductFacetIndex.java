@@ -0,0 +1,118 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductFacetsDto;
+import com.example.ecommerce.product.model.PriceBucket;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Facet counts for the active catalog, kept per (category, brand, price bucket)
+ * combination. Writes adjust a single combination; reads aggregate over the
+ * combinations that match the filters, which stays small regardless of catalog size.
+ */
+public class ProductFacetIndex {
+
+    private record Entry(String category, String brand, PriceBucket priceBucket) {
+    }
+
+    private final Map<Long, Entry> entriesByProductId = new HashMap<>();
+    private volatile Map<Entry, Long> countsByCombination = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void rebuild(Collection<FacetSource> sources) {
+        Map<Entry, Long> counts = new ConcurrentHashMap<>();
+        entriesByProductId.clear();
+        for (FacetSource source : sources) {
+            Entry entry = toEntry(source);
+            entriesByProductId.put(source.productId(), entry);
+            counts.merge(entry, 1L, Long::sum);
+        }
+        countsByCombination = counts;
+        ready = true;
+    }
+
+    public synchronized void upsert(FacetSource source) {
+        Entry entry = toEntry(source);
+        Entry previous = entriesByProductId.put(source.productId(), entry);
+        if (previous != null) {
+            decrement(previous);
+        }
+        countsByCombination.merge(entry, 1L, Long::sum);
+    }
+
+    public synchronized void remove(Long productId) {
+        Entry previous = entriesByProductId.remove(productId);
+        if (previous != null) {
+            decrement(previous);
+        }
+    }
+
+    public ProductFacetsDto facets(String category, String brand) {
+        Map<String, Long> categories = new HashMap<>();
+        Map<String, Long> brands = new HashMap<>();
+        Map<PriceBucket, Long> priceRanges = new EnumMap<>(PriceBucket.class);
+
+        for (Map.Entry<Entry, Long> combination : countsByCombination.entrySet()) {
+            Entry entry = combination.getKey();
+            if (!matches(category, entry.category()) || !matches(brand, entry.brand())) {
+                continue;
+            }
+            long count = combination.getValue();
+            if (entry.category() != null) {
+                categories.merge(entry.category(), count, Long::sum);
+            }
+            if (entry.brand() != null) {
+                brands.merge(entry.brand(), count, Long::sum);
+            }
+            priceRanges.merge(entry.priceBucket(), count, Long::sum);
+        }
+        return toFacets(categories, brands, priceRanges);
+    }
+
+    static ProductFacetsDto toFacets(Map<String, Long> categories,
+                                     Map<String, Long> brands,
+                                     Map<PriceBucket, Long> priceRanges) {
+        List<ProductFacetsDto.PriceRangeCount> priceRangeCounts = priceRanges.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new ProductFacetsDto.PriceRangeCount(
+                        entry.getKey().getKey(),
+                        entry.getKey().getMin(),
+                        entry.getKey().getMax(),
+                        entry.getValue()))
+                .toList();
+        return new ProductFacetsDto(sortByCount(categories), sortByCount(brands), priceRangeCounts);
+    }
+
+    private static List<ProductFacetsDto.FacetCount> sortByCount(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new ProductFacetsDto.FacetCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private void decrement(Entry entry) {
+        countsByCombination.computeIfPresent(entry, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private boolean matches(String filter, String value) {
+        return filter == null || filter.equalsIgnoreCase(value);
+    }
+
+    private Entry toEntry(FacetSource source) {
+        return new Entry(source.category(), source.brand(), PriceBucket.of(source.price()));
+    }
+
+    public record FacetSource(Long productId, String category, String brand, BigDecimal price) {
+    }
+}
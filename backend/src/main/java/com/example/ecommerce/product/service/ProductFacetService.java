@@ -0,0 +1,145 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductAttributeFacetDto;
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductFacetsDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.model.PriceBucket;
+import com.example.ecommerce.product.model.ProductAttributeFilters;
+import com.example.ecommerce.product.repository.ProductFacetCountView;
+import com.example.ecommerce.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ProductFacetService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetService.class);
+    private static final int MAX_ATTRIBUTE_VALUES = 50;
+
+    private final ProductRepository productRepository;
+    private final ProductFacetIndex facetIndex = new ProductFacetIndex();
+
+    public ProductFacetService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Category, brand and price range counts for the active products matching the filters.
+     * Without a text query or attribute filters the counts come from the in-memory index;
+     * otherwise they are computed by a single grouped query using the same match rules as
+     * the search.
+     */
+    @Cacheable(value = "productFacets",
+            key = "T(com.example.ecommerce.product.model.ProductSearchQuery).facetCacheKey(#category, #brand, #query, #attributes)",
+            condition = "(#query != null and !#query.isBlank()) or !#attributes.isEmpty()")
+    public ProductFacetsDto getFacets(String category, String brand, String query, ProductAttributeFilters attributes) {
+        String normalizedCategory = normalizeFilter(category);
+        String normalizedBrand = normalizeFilter(brand);
+        String normalizedQuery = normalizeFilter(query);
+
+        if (normalizedQuery == null && attributes.isEmpty() && facetIndex.isReady()) {
+            return facetIndex.facets(normalizedCategory, normalizedBrand);
+        }
+
+        try {
+            return toFacets(productRepository.countSearchFacets(
+                    normalizedCategory, normalizedBrand, normalizedQuery, attributes.toJsonPath()));
+        } catch (DataAccessException ex) {
+            logger.warn("Search facet query unavailable, returning empty facets. reason={}", ex.getMessage());
+            return ProductFacetsDto.empty();
+        }
+    }
+
+    /**
+     * Attribute keys used in a category with their most common values, so clients can
+     * offer {@code attr.*} filters without downloading the category.
+     */
+    @Cacheable(value = "productFacets", key = "'attributes|' + #category.toLowerCase()")
+    public List<ProductAttributeFacetDto> getAttributeFacets(String category) {
+        Map<String, List<ProductFacetsDto.FacetCount>> valuesByKey = new LinkedHashMap<>();
+        for (ProductFacetCountView row : productRepository.countAttributeValuesByCategory(category)) {
+            List<ProductFacetsDto.FacetCount> values =
+                    valuesByKey.computeIfAbsent(row.getDimension(), key -> new ArrayList<>());
+            if (values.size() < MAX_ATTRIBUTE_VALUES) {
+                values.add(new ProductFacetsDto.FacetCount(row.getLabel(), row.getTotal()));
+            }
+        }
+        return valuesByKey.entrySet().stream()
+                .map(entry -> new ProductAttributeFacetDto(entry.getKey(), List.copyOf(entry.getValue())))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            facetIndex.remove(event.productId());
+            return;
+        }
+        ProductDto product = event.product();
+        facetIndex.upsert(new ProductFacetIndex.FacetSource(
+                product.getId(), product.getCategory(), product.getBrand(), product.getPrice()));
+    }
+
+    /**
+     * Full rebuild at startup and periodically afterwards, so writes made through
+     * other nodes or bulk SQL are reconciled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.product.facets.rebuild-interval-ms:300000}",
+            initialDelayString = "${app.product.facets.rebuild-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        try {
+            List<ProductFacetIndex.FacetSource> sources = productRepository.findFacetSourcesByActiveTrue().stream()
+                    .map(view -> new ProductFacetIndex.FacetSource(
+                            view.getId(), view.getCategory(), view.getBrand(), view.getPrice()))
+                    .toList();
+            facetIndex.rebuild(sources);
+            logger.debug("Product facet index rebuilt with {} product(s)", sources.size());
+        } catch (Exception e) {
+            logger.error("Failed to rebuild product facet index", e);
+        }
+    }
+
+    private ProductFacetsDto toFacets(List<ProductFacetCountView> rows) {
+        Map<String, Long> categories = new HashMap<>();
+        Map<String, Long> brands = new HashMap<>();
+        Map<PriceBucket, Long> priceRanges = new EnumMap<>(PriceBucket.class);
+
+        for (ProductFacetCountView row : rows) {
+            if (row.getLabel() == null || row.getTotal() == null) {
+                continue;
+            }
+            switch (row.getDimension()) {
+                case "category" -> categories.merge(row.getLabel(), row.getTotal(), Long::sum);
+                case "brand" -> brands.merge(row.getLabel(), row.getTotal(), Long::sum);
+                case "price" -> priceRanges.merge(
+                        PriceBucket.values()[Integer.parseInt(row.getLabel())], row.getTotal(), Long::sum);
+                default -> logger.debug("Ignoring unknown facet dimension {}", row.getDimension());
+            }
+        }
+        return ProductFacetIndex.toFacets(categories, brands, priceRanges);
+    }
+
+    private String normalizeFilter(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.ecommerce.product.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Produces width-bounded renditions of an uploaded image. JPEG is always written;
+ * WebP only when an ImageIO WebP writer is on the classpath, since the JDK has none.
+ */
+@Component
+public class ProductImageResizer {
+
+    public record Rendition(String name, Path file, String contentType, int width, int height) {
+    }
+
+    private final List<Integer> widths;
+    private final float jpegQuality;
+    private final long maxPixels;
+
+    public ProductImageResizer(@Value("${app.product.images.derivative-widths:320,640,1280}") List<Integer> widths,
+                               @Value("${app.product.images.jpeg-quality:0.82}") float jpegQuality,
+                               @Value("${app.product.images.max-pixels:40000000}") long maxPixels) {
+        this.widths = widths.stream().filter(width -> width != null && width > 0).sorted().distinct().toList();
+        this.jpegQuality = Math.max(0.1f, Math.min(jpegQuality, 1.0f));
+        this.maxPixels = Math.max(maxPixels, 1);
+    }
+
+    public static boolean webpSupported() {
+        return ImageIO.getImageWritersByFormatName("webp").hasNext();
+    }
+
+    public List<Rendition> resize(Path source, Path workDir) throws IOException {
+        BufferedImage original = decode(source);
+        int originalWidth = original.getWidth();
+        TreeSet<Integer> targetWidths = new TreeSet<>();
+        for (int width : widths) {
+            targetWidths.add(Math.min(width, originalWidth));
+        }
+        if (targetWidths.isEmpty()) {
+            targetWidths.add(originalWidth);
+        }
+
+        boolean webp = webpSupported();
+        List<Rendition> renditions = new ArrayList<>();
+        for (int width : targetWidths) {
+            BufferedImage scaled = scale(original, width);
+            Path jpeg = workDir.resolve(width + ".jpg");
+            writeJpeg(scaled, jpeg);
+            renditions.add(new Rendition(width + ".jpg", jpeg, "image/jpeg", scaled.getWidth(), scaled.getHeight()));
+            if (webp) {
+                Path webpFile = workDir.resolve(width + ".webp");
+                ImageIO.write(scaled, "webp", webpFile.toFile());
+                renditions.add(new Rendition(width + ".webp", webpFile, "image/webp", scaled.getWidth(), scaled.getHeight()));
+            }
+        }
+        return renditions;
+    }
+
+    private BufferedImage decode(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format.");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Check the header before decoding so a tiny file cannot expand into gigabytes of pixels.
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IllegalArgumentException("Image dimensions are too large.");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, Math.round(source.getHeight() * (targetWidth / (float) source.getWidth())));
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        // Halve step by step; a single bilinear pass from far above the target looks aliased.
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                // JPEG has no alpha channel; flatten transparent PNG/WebP onto white.
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width > targetWidth);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
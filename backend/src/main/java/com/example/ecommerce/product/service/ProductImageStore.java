@@ -0,0 +1,25 @@
+package com.example.ecommerce.product.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Destination of product image renditions. Selected with {@code app.product.images.store}.
+ */
+public interface ProductImageStore {
+
+    /**
+     * Stores {@code file} under {@code key}, a relative path ending in the file extension,
+     * and returns the public URL. Existing objects with the same key are replaced.
+     */
+    String store(String key, Path file, String contentType) throws IOException;
+
+    /**
+     * URL of an already stored image delivered in another format, for stores that convert
+     * on delivery. Empty when the rendition has to be uploaded separately.
+     */
+    default Optional<String> convertedUrl(String url, String format) {
+        return Optional.empty();
+    }
+}
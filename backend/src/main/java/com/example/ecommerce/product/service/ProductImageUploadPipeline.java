@@ -0,0 +1,175 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductImageUploadJobDto;
+import com.example.ecommerce.product.exception.ProductNotFoundException;
+import com.example.ecommerce.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accepts product images without holding the request thread for the upload: the
+ * multipart body is spooled to disk and a job id is returned, while the bounded
+ * {@code imageExecutor} resizes, stores the renditions and points the product at them.
+ *
+ * Job state lives on the node that accepted the upload and is kept for
+ * {@code job-retention-minutes} after it finishes.
+ */
+@Service
+public class ProductImageUploadPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImageUploadPipeline.class);
+    private static final String JPEG_EXTENSION = ".jpg";
+
+    private final ProductImageStore imageStore;
+    private final ProductImageResizer resizer;
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final TaskExecutor executor;
+    private final Path spoolDir;
+    private final Duration jobRetention;
+    private final Map<String, ProductImageUploadJobDto> jobs = new ConcurrentHashMap<>();
+
+    public ProductImageUploadPipeline(ProductImageStore imageStore,
+                                      ProductImageResizer resizer,
+                                      ProductService productService,
+                                      ProductRepository productRepository,
+                                      @Qualifier("imageExecutor") TaskExecutor executor,
+                                      @Value("${app.product.images.spool-dir:}") String spoolDir,
+                                      @Value("${app.product.images.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.imageStore = imageStore;
+        this.resizer = resizer;
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.executor = executor;
+        this.spoolDir = spoolDir == null || spoolDir.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "product-image-uploads")
+                : Path.of(spoolDir);
+        this.jobRetention = Duration.ofMinutes(Math.max(jobRetentionMinutes, 1));
+    }
+
+    public ProductImageUploadJobDto submit(Long productId, MultipartFile file) {
+        ProductImageUploadService.validateFile(file);
+        if (!productRepository.existsById(productId)) {
+            throw new ProductNotFoundException("Product not found with id " + productId);
+        }
+
+        Path spooled = spool(productId, file);
+        ProductImageUploadJobDto job = ProductImageUploadJobDto.queued(UUID.randomUUID().toString(), productId);
+        jobs.put(job.jobId(), job);
+        try {
+            executor.execute(() -> process(job.jobId(), productId, spooled));
+        } catch (TaskRejectedException ex) {
+            jobs.remove(job.jobId());
+            deleteQuietly(spooled);
+            throw ex;
+        }
+        return job;
+    }
+
+    public Optional<ProductImageUploadJobDto> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.product.images.job-purge-interval-ms:300000}")
+    public void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt().isBefore(cutoff));
+    }
+
+    private Path spool(Long productId, MultipartFile file) {
+        Path spooled = null;
+        try {
+            Files.createDirectories(spoolDir);
+            spooled = Files.createTempFile(spoolDir, "product-" + productId + "-", ".upload");
+            // Streams the part to disk; the servlet container may already have it on disk and just move it.
+            file.transferTo(spooled);
+            return spooled;
+        } catch (IOException ex) {
+            deleteQuietly(spooled);
+            throw new IllegalStateException("Image upload failed.", ex);
+        }
+    }
+
+    private void process(String jobId, Long productId, Path spooled) {
+        jobs.computeIfPresent(jobId, (id, job) -> job.processing());
+        long startNanos = System.nanoTime();
+        Path workDir = null;
+        try {
+            workDir = Files.createTempDirectory(spoolDir, "job-");
+            List<ProductImageResizer.Rendition> renditions = resizer.resize(spooled, workDir);
+
+            // A fresh prefix per upload keeps CDN and browser caches of the previous image valid.
+            String prefix = "product-" + productId + "/" + jobId.substring(0, 8) + "/";
+            Map<String, String> derivatives = new LinkedHashMap<>();
+            String imageUrl = null;
+            for (ProductImageResizer.Rendition rendition : renditions) {
+                String url = imageStore.store(prefix + rendition.name(), rendition.file(), rendition.contentType());
+                derivatives.put(rendition.name(), url);
+                if (rendition.name().endsWith(JPEG_EXTENSION)) {
+                    imageUrl = url;
+                }
+            }
+            for (Map.Entry<String, String> entry : List.copyOf(derivatives.entrySet())) {
+                if (!entry.getKey().endsWith(JPEG_EXTENSION)) {
+                    continue;
+                }
+                String webpName = entry.getKey().substring(0, entry.getKey().length() - JPEG_EXTENSION.length()) + ".webp";
+                if (!derivatives.containsKey(webpName)) {
+                    imageStore.convertedUrl(entry.getValue(), "webp").ifPresent(url -> derivatives.put(webpName, url));
+                }
+            }
+            if (imageUrl == null) {
+                throw new IllegalStateException("No image rendition was produced.");
+            }
+
+            productService.updateProductImage(productId, imageUrl, derivatives);
+            String finalImageUrl = imageUrl;
+            jobs.computeIfPresent(jobId, (id, job) -> job.completed(finalImageUrl, Map.copyOf(derivatives)));
+            logger.info("Product image job {} stored {} rendition(s) for product {} in {} ms",
+                    jobId, derivatives.size(), productId, (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (Exception ex) {
+            logger.warn("Product image job {} failed for product {}. reason={}", jobId, productId, ex.getMessage());
+            String error = ex instanceof IllegalArgumentException ? ex.getMessage() : "Image processing failed.";
+            jobs.computeIfPresent(jobId, (id, job) -> job.failed(error));
+        } finally {
+            deleteQuietly(spooled);
+            if (workDir != null) {
+                try {
+                    FileSystemUtils.deleteRecursively(workDir);
+                } catch (IOException ex) {
+                    logger.debug("Could not delete image work dir {}", workDir);
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            logger.debug("Could not delete spooled upload {}", file);
+        }
+    }
+}
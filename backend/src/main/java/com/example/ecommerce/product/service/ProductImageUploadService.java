@@ -60,7 +60,7 @@ public class ProductImageUploadService {
         }
     }
 
-    private void validateFile(MultipartFile file) {
+    static void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("Image file is required.");
         }
@@ -0,0 +1,188 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.model.ProductImportFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams an import payload one row at a time so the whole file never has to
+ * be held in memory. Malformed rows come back with an error instead of
+ * aborting the import.
+ */
+class ProductImportReader implements Closeable {
+
+    private static final Set<String> REQUIRED_CSV_COLUMNS = Set.of("sku", "name", "description", "price", "category");
+
+    record Row(long number, ProductDto product, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final ProductImportFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private long lineNumber;
+
+    ProductImportReader(InputStream inputStream, ProductImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Next data row, or {@code null} at the end of the payload.
+     */
+    Row next() throws IOException {
+        return format == ProductImportFormat.CSV ? nextCsvRow() : nextJsonRow();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row nextJsonRow() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                ProductDto product = objectMapper.readValue(line, ProductDto.class);
+                product.setId(null);
+                return new Row(lineNumber, product, null);
+            } catch (JsonProcessingException ex) {
+                return new Row(lineNumber, null, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    private Row nextCsvRow() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        List<String> record;
+        long rowNumber;
+        do {
+            rowNumber = lineNumber + 1;
+            record = readCsvRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        try {
+            return new Row(rowNumber, toProduct(record), null);
+        } catch (NumberFormatException ex) {
+            return new Row(rowNumber, null, "Price and stock must be numeric.");
+        }
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readCsvRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV payload is empty.");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT).replaceAll("[_\\-\\s]", "");
+            columns.putIfAbsent(name, i);
+        }
+        List<String> missing = REQUIRED_CSV_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .sorted()
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing required column(s): " + String.join(", ", missing));
+        }
+    }
+
+    private ProductDto toProduct(List<String> record) {
+        ProductDto product = new ProductDto();
+        product.setSku(field(record, "sku"));
+        product.setName(field(record, "name"));
+        product.setDescription(field(record, "description"));
+        String price = field(record, "price");
+        product.setPrice(price == null ? null : new BigDecimal(price));
+        product.setImageUrl(field(record, "imageurl"));
+        product.setCategory(field(record, "category"));
+        product.setBrand(field(record, "brand"));
+        product.setColor(field(record, "color"));
+        product.setSize(field(record, "size"));
+        product.setAttributesJson(field(record, "attributesjson"));
+        String stock = field(record, "stock");
+        product.setStock(stock == null ? 0 : Integer.parseInt(stock));
+        return product;
+    }
+
+    private String field(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * RFC 4180 record: comma separated, double-quoted fields may contain commas,
+     * line breaks and doubled quotes.
+     */
+    private List<String> readCsvRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        lineNumber++;
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.auth.model.AuditLog;
+import com.example.ecommerce.auth.security.CustomUserDetails;
+import com.example.ecommerce.auth.service.AuditService;
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductImportResult;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.mapper.ProductMapper;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.model.ProductImportFormat;
+import com.example.ecommerce.product.repository.ProductBulkRepository;
+import com.example.ecommerce.product.repository.ProductBulkRepository.StoredProduct;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product upsert keyed by SKU. Rows are validated with the same rules as
+ * the single-product endpoint and written in JDBC batches; each committed batch
+ * produces one audit event and one search/facet cache invalidation. Updating an
+ * existing SKU never changes whether it is active.
+ */
+@Service
+public class ProductImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+    private static final String[] CATALOG_CACHES = {"productSearch", "productFacets"};
+
+    private final ProductBulkRepository productBulkRepository;
+    private final AuditService auditService;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ProductImportService selfProxy;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ProductImportService(ProductBulkRepository productBulkRepository,
+                                AuditService auditService,
+                                CacheManager cacheManager,
+                                ApplicationEventPublisher eventPublisher,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Lazy ProductImportService selfProxy,
+                                @Value("${app.product.import.batch-size:500}") int batchSize,
+                                @Value("${app.product.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productBulkRepository = productBulkRepository;
+        this.auditService = auditService;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.selfProxy = selfProxy;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxReportedErrors = Math.max(maxReportedErrors, 0);
+    }
+
+    public ProductImportResult importProducts(InputStream payload, ProductImportFormat format, boolean dryRun) {
+        ImportProgress progress = new ImportProgress(dryRun, getCurrentUserId(), getCurrentUsername());
+        Set<String> seenSkus = new HashSet<>();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+
+        try (ProductImportReader reader = new ProductImportReader(payload, format, objectMapper)) {
+            ProductImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                progress.totalRows++;
+                if (row.error() != null) {
+                    progress.reject(row.number(), null, row.error());
+                    continue;
+                }
+                ProductDto product = row.product();
+                String sku = trimOrNull(product.getSku());
+                String error = validate(product, sku);
+                if (error == null && !seenSkus.add(sku)) {
+                    error = "Duplicate SKU in import; the first occurrence is used.";
+                }
+                if (error != null) {
+                    progress.reject(row.number(), sku, error);
+                    continue;
+                }
+
+                batch.add(new ImportRow(row.number(), toEntity(product)));
+                if (batch.size() == batchSize) {
+                    flush(batch, progress);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            flush(batch, progress);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Import payload could not be read.", ex);
+        }
+
+        logger.info("Product import finished. dryRun={}, rows={}, created={}, updated={}, failed={}",
+                dryRun, progress.totalRows, progress.created, progress.updated, progress.failed);
+        return progress.toResult();
+    }
+
+    /**
+     * Upserts one batch of products and their inventory rows in a single transaction.
+     * Returns the ids keyed by SKU that existed before the batch, so callers can tell
+     * created rows from updated ones. Change events carry the stored active flag and
+     * stock, and rows that stay deactivated are announced as deleted.
+     */
+    @Transactional
+    public Map<String, Long> writeBatch(List<Product> products) {
+        List<String> skus = products.stream().map(Product::getSku).toList();
+        Map<String, Long> existing = productBulkRepository.findIdsBySku(skus);
+
+        productBulkRepository.upsertProducts(products);
+        Map<String, StoredProduct> stored = productBulkRepository.findStoredBySku(skus);
+
+        Map<Long, Integer> stockByProductId = new HashMap<>();
+        for (Product product : products) {
+            StoredProduct row = stored.get(product.getSku());
+            stockByProductId.put(row.id(), product.getStock());
+            product.setId(row.id());
+            product.setActive(row.active());
+            product.setStock(row.stock());
+        }
+        productBulkRepository.upsertInventory(stockByProductId);
+
+        for (Product product : products) {
+            ProductDto dto = ProductMapper.toDto(product);
+            if (!product.isActive()) {
+                eventPublisher.publishEvent(ProductChangedEvent.deleted(dto));
+            } else if (existing.containsKey(product.getSku())) {
+                eventPublisher.publishEvent(ProductChangedEvent.updated(dto));
+            } else {
+                eventPublisher.publishEvent(ProductChangedEvent.created(dto));
+            }
+        }
+        return existing;
+    }
+
+    private void flush(List<ImportRow> batch, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        progress.batches++;
+        List<Product> products = batch.stream().map(ImportRow::product).toList();
+
+        if (progress.dryRun) {
+            Map<String, Long> existing = productBulkRepository.findIdsBySku(
+                    products.stream().map(Product::getSku).toList());
+            progress.count(products, existing);
+            return;
+        }
+
+        Map<String, Long> existing;
+        try {
+            existing = getSelfProxy().writeBatch(products);
+        } catch (DataAccessException ex) {
+            logger.warn("Product import batch {} rejected by the database (rows {}-{}). reason={}",
+                    progress.batches, batch.get(0).rowNumber(), batch.get(batch.size() - 1).rowNumber(),
+                    ex.getMostSpecificCause().getMessage());
+            for (ImportRow row : batch) {
+                progress.reject(row.rowNumber(), row.product().getSku(),
+                        "Batch could not be written; no rows of this batch were imported.");
+            }
+            return;
+        }
+        long createdBefore = progress.created;
+        long updatedBefore = progress.updated;
+        progress.count(products, existing);
+
+        evictCatalogCaches();
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("batch", progress.batches);
+        details.put("firstRow", batch.get(0).rowNumber());
+        details.put("lastRow", batch.get(batch.size() - 1).rowNumber());
+        details.put("rows", products.size());
+        details.put("created", progress.created - createdBefore);
+        details.put("updated", progress.updated - updatedBefore);
+        auditService.logSystemEvent(progress.userId, progress.username, AuditLog.AuditAction.ADMIN_PRODUCT_IMPORTED,
+                "Product import batch committed", details);
+    }
+
+    private void evictCatalogCaches() {
+        for (String name : CATALOG_CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private String validate(ProductDto product, String sku) {
+        if (sku == null) {
+            return "SKU is required for import.";
+        }
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    private Product toEntity(ProductDto product) {
+        Product entity = ProductMapper.toEntity(product);
+        ProductService.normalizeProductFields(entity);
+        return entity;
+    }
+
+    private ProductImportService getSelfProxy() {
+        return selfProxy != null ? selfProxy : this;
+    }
+
+    private String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getPrincipal() == null) {
+            return null;
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof CustomUserDetails customUserDetails && customUserDetails.getUser() != null) {
+            return customUserDetails.getUser().getId();
+        }
+        return null;
+    }
+
+    private String trimOrNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private record ImportRow(long rowNumber, Product product) {
+    }
+
+    private final class ImportProgress {
+        private final boolean dryRun;
+        private final Long userId;
+        private final String username;
+        private final List<ProductImportResult.RowError> errors = new ArrayList<>();
+        private long totalRows;
+        private long created;
+        private long updated;
+        private long failed;
+        private int batches;
+
+        private ImportProgress(boolean dryRun, Long userId, String username) {
+            this.dryRun = dryRun;
+            this.userId = userId;
+            this.username = username;
+        }
+
+        private void reject(long rowNumber, String sku, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportResult.RowError(rowNumber, sku, message));
+            }
+        }
+
+        private void count(List<Product> products, Map<String, Long> existing) {
+            for (Product product : products) {
+                if (existing.containsKey(product.getSku())) {
+                    updated++;
+                } else {
+                    created++;
+                }
+            }
+        }
+
+        private ProductImportResult toResult() {
+            return new ProductImportResult(dryRun, totalRows, created, updated, failed, List.copyOf(errors));
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.mapper.ProductMapper;
+import com.example.ecommerce.util.SearchTextUtil;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the active catalog.
+ *
+ * Documents get dense int ids in insertion order, so every posting list stays
+ * sorted by appending. Updates tombstone the old doc id and append a new one;
+ * the index compacts itself once a quarter of the doc ids are dead.
+ * Category and brand filters are bitsets intersected with the live-doc set,
+ * and text matches are ranked with BM25 (name and brand/category boosted).
+ */
+public class ProductInvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_BOOST = 3;
+    private static final int FACET_BOOST = 2;
+    private static final int MIN_DOCS_FOR_COMPACTION = 64;
+    private static final double COMPACTION_RATIO = 0.25;
+    private static final BitSet EMPTY = new BitSet();
+
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        private void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, BitSet> categoryDocs = new HashMap<>();
+    private final Map<String, BitSet> brandDocs = new HashMap<>();
+    private final Map<Long, Integer> docIdByProductId = new HashMap<>();
+    private final BitSet liveDocs = new BitSet();
+    private ProductDto[] documents = new ProductDto[16];
+    private int[] docLengths = new int[16];
+    private int maxDoc;
+    private long totalLength;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(Collection<ProductDto> products) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (ProductDto product : products) {
+                add(product);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            delete(product.getId());
+            add(product);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Without a query, matches are ordered by product id descending like the SQL path;
+     * with one, by BM25 score and then product id. A document matches if it contains
+     * at least one query term.
+     */
+    public Page<ProductSummaryDto> search(String category, String brand, String query, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) liveDocs.clone();
+            if (category != null) {
+                candidates.and(categoryDocs.getOrDefault(SearchTextUtil.normalize(category), EMPTY));
+            }
+            if (brand != null) {
+                candidates.and(brandDocs.getOrDefault(SearchTextUtil.normalize(brand), EMPTY));
+            }
+
+            Set<String> terms = new LinkedHashSet<>(SearchTextUtil.tokenize(query));
+            List<Integer> hits = terms.isEmpty() ? filterOnly(candidates) : score(candidates, terms);
+            return toPage(hits, pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Integer> filterOnly(BitSet candidates) {
+        List<Integer> hits = new ArrayList<>(candidates.cardinality());
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            hits.add(doc);
+        }
+        hits.sort((left, right) -> Long.compare(documents[right].getId(), documents[left].getId()));
+        return hits;
+    }
+
+    private List<Integer> score(BitSet candidates, Set<String> terms) {
+        int liveCount = liveDocs.cardinality();
+        if (liveCount == 0) {
+            return List.of();
+        }
+        double averageLength = Math.max(1.0, (double) totalLength / liveCount);
+        float[] scores = new float[maxDoc];
+        BitSet matched = new BitSet(maxDoc);
+
+        for (String term : terms) {
+            PostingList postingList = postings.get(term);
+            if (postingList == null) {
+                continue;
+            }
+            int documentFrequency = Math.min(postingList.size, liveCount);
+            double idf = Math.log(1 + (liveCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            for (int i = 0; i < postingList.size; i++) {
+                int doc = postingList.docs[i];
+                if (!candidates.get(doc)) {
+                    continue;
+                }
+                int tf = postingList.freqs[i];
+                double norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                scores[doc] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                matched.set(doc);
+            }
+        }
+
+        List<Integer> hits = new ArrayList<>(matched.cardinality());
+        for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+            hits.add(doc);
+        }
+        hits.sort((left, right) -> {
+            int byScore = Float.compare(scores[right], scores[left]);
+            return byScore != 0 ? byScore : Long.compare(documents[right].getId(), documents[left].getId());
+        });
+        return hits;
+    }
+
+    private Page<ProductSummaryDto> toPage(List<Integer> hits, Pageable pageable) {
+        int total = hits.size();
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), total) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), total) : total;
+        List<ProductSummaryDto> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(ProductMapper.toSummaryDto(documents[hits.get(i)]));
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private void add(ProductDto product) {
+        int doc = maxDoc++;
+        if (doc == documents.length) {
+            documents = Arrays.copyOf(documents, doc * 2);
+            docLengths = Arrays.copyOf(docLengths, doc * 2);
+        }
+
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        addTerms(termFrequencies, product.getName(), NAME_BOOST);
+        addTerms(termFrequencies, product.getBrand(), FACET_BOOST);
+        addTerms(termFrequencies, product.getCategory(), FACET_BOOST);
+        addTerms(termFrequencies, product.getDescription(), 1);
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new PostingList()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+
+        documents[doc] = product;
+        docLengths[doc] = length;
+        totalLength += length;
+        setFacetBit(categoryDocs, product.getCategory(), doc);
+        setFacetBit(brandDocs, product.getBrand(), doc);
+        liveDocs.set(doc);
+        docIdByProductId.put(product.getId(), doc);
+    }
+
+    private void delete(Long productId) {
+        Integer doc = docIdByProductId.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        liveDocs.clear(doc);
+        totalLength -= docLengths[doc];
+        documents[doc] = null;
+    }
+
+    private void compactIfNeeded() {
+        int deadDocs = maxDoc - liveDocs.cardinality();
+        if (maxDoc < MIN_DOCS_FOR_COMPACTION || deadDocs < maxDoc * COMPACTION_RATIO) {
+            return;
+        }
+        List<ProductDto> live = new ArrayList<>(maxDoc - deadDocs);
+        for (int doc = liveDocs.nextSetBit(0); doc >= 0; doc = liveDocs.nextSetBit(doc + 1)) {
+            live.add(documents[doc]);
+        }
+        clear();
+        live.forEach(this::add);
+    }
+
+    private void clear() {
+        postings.clear();
+        categoryDocs.clear();
+        brandDocs.clear();
+        docIdByProductId.clear();
+        liveDocs.clear();
+        documents = new ProductDto[16];
+        docLengths = new int[16];
+        maxDoc = 0;
+        totalLength = 0;
+    }
+
+    private void addTerms(Map<String, Integer> termFrequencies, String text, int weight) {
+        for (String token : SearchTextUtil.tokenize(text)) {
+            termFrequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private void setFacetBit(Map<String, BitSet> facetDocs, String value, int doc) {
+        String key = SearchTextUtil.normalize(value);
+        if (!key.isEmpty()) {
+            facetDocs.computeIfAbsent(key, k -> new BitSet()).set(doc);
+        }
+    }
+}
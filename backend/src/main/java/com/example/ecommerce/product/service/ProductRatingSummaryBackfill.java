@@ -0,0 +1,40 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.repository.ProductRatingSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * One-off reconciliation of product_rating_summary from product_reviews.
+ * The migration already backfills existing reviews; enable
+ * {@code app.product.rating-summary.backfill-on-startup} for a single start
+ * after importing reviews outside the application.
+ */
+@Component
+public class ProductRatingSummaryBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(ProductRatingSummaryBackfill.class);
+
+    private final ProductRatingSummaryRepository ratingSummaryRepository;
+    private final boolean enabled;
+
+    public ProductRatingSummaryBackfill(ProductRatingSummaryRepository ratingSummaryRepository,
+                                        @Value("${app.product.rating-summary.backfill-on-startup:false}") boolean enabled) {
+        this.ratingSummaryRepository = ratingSummaryRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        int products = ratingSummaryRepository.rebuildFromReviews();
+        logger.info("Product rating summaries rebuilt for {} product(s)", products);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.SearchQueryStatDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.model.ProductSearchQuery;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Replays the most frequent searches so {@code productSearch} and search facets are
+ * warm after startup and after catalog writes that evict them wholesale. Writes only
+ * mark the caches dirty; the replay runs on a debounce so an import or a burst of
+ * edits triggers one warm-up instead of one per change.
+ */
+@Component
+public class ProductSearchCacheWarmer {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchCacheWarmer.class);
+    private static final int ANALYTICS_DAYS = 7;
+
+    private final SearchAnalyticsService searchAnalyticsService;
+    private final ProductService productService;
+    private final ProductFacetService productFacetService;
+    private final int queryCount;
+    private final AtomicBoolean invalidated = new AtomicBoolean();
+
+    public ProductSearchCacheWarmer(SearchAnalyticsService searchAnalyticsService,
+                                    ProductService productService,
+                                    ProductFacetService productFacetService,
+                                    @Value("${app.product.search-analytics.prewarm-queries:20}") int queryCount) {
+        this.searchAnalyticsService = searchAnalyticsService;
+        this.productService = productService;
+        this.productFacetService = productFacetService;
+        this.queryCount = Math.max(queryCount, 0);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidated.set(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ProductReviewCreatedEvent event) {
+        invalidated.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${app.product.search-analytics.prewarm-debounce-ms:30000}")
+    public void warmUpIfInvalidated() {
+        if (invalidated.getAndSet(false)) {
+            warmUp();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (queryCount == 0) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        List<SearchQueryStatDto> topQueries = searchAnalyticsService.topQueries(queryCount, ANALYTICS_DAYS);
+        int warmed = 0;
+        for (SearchQueryStatDto stat : topQueries) {
+            try {
+                ProductSearchQuery search = ProductSearchQuery.fromQueryString(stat.query());
+                productService.searchProducts(search.category(), search.brand(), search.query(),
+                        search.attributes(), search.firstPage());
+                if (search.facets()) {
+                    productFacetService.getFacets(search.category(), search.brand(), search.query(), search.attributes());
+                }
+                warmed++;
+            } catch (RuntimeException ex) {
+                logger.debug("Skipping search cache warm-up for {}. reason={}", stat.query(), ex.getMessage());
+            }
+        }
+        if (warmed > 0) {
+            logger.info("Product search cache warmed with {} query(ies) in {} ms",
+                    warmed, (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+}
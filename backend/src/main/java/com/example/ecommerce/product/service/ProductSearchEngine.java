@@ -0,0 +1,14 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Active-product search with optional category/brand filters and a free-text query.
+ * Filters are already trimmed; blank values arrive as null.
+ */
+public interface ProductSearchEngine {
+
+    Page<ProductSummaryDto> search(String category, String brand, String query, Pageable pageable);
+}
@@ -7,73 +7,142 @@ import com.example.ecommerce.inventory.service.InventoryService;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.DataAccessException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
 import com.example.ecommerce.product.exception.ProductNotFoundException;
 import com.example.ecommerce.product.mapper.ProductMapper;
 import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.model.ProductAttributeFilters;
+import com.example.ecommerce.product.model.ProductRatingSummary;
+import com.example.ecommerce.product.model.TrendingWindow;
+import com.example.ecommerce.product.repository.ProductRatingSummaryRepository;
 import com.example.ecommerce.product.repository.ProductRepository;
 
 @Service
 public class ProductService {
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
     private static final String PRODUCT_NOT_FOUND_WITH_ID = "Product not found with id ";
+    public static final String POPULAR_SORT = "popular";
+    private static final int MAX_POPULAR_RANKED_IDS = 1000;
 
     private final ProductRepository productRepository;
     private final InventoryService inventoryService;
     private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostgresProductSearchEngine postgresSearchEngine;
+    private final InMemoryProductSearchEngine inMemorySearchEngine;
+    private final ProductRatingSummaryRepository ratingSummaryRepository;
+    private final ProductTrendingService trendingService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CacheManager cacheManager;
+    private final ProductStockView stockView;
 
-    public ProductService(ProductRepository productRepository, InventoryService inventoryService, AuditService auditService) {
+    public ProductService(ProductRepository productRepository,
+                          InventoryService inventoryService,
+                          AuditService auditService,
+                          ApplicationEventPublisher eventPublisher,
+                          PostgresProductSearchEngine postgresSearchEngine,
+                          InMemoryProductSearchEngine inMemorySearchEngine,
+                          ProductRatingSummaryRepository ratingSummaryRepository,
+                          ProductTrendingService trendingService,
+                          CatalogSnapshotService catalogSnapshotService,
+                          CacheManager cacheManager,
+                          ProductStockView stockView) {
         this.productRepository = productRepository;
         this.inventoryService = inventoryService;
         this.auditService = auditService;
+        this.eventPublisher = eventPublisher;
+        this.postgresSearchEngine = postgresSearchEngine;
+        this.inMemorySearchEngine = inMemorySearchEngine;
+        this.ratingSummaryRepository = ratingSummaryRepository;
+        this.trendingService = trendingService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.cacheManager = cacheManager;
+        this.stockView = stockView;
     }
 
     @Transactional(readOnly = true)
     public Page<ProductDto> getAllProducts(Pageable pageable) {
-        return productRepository.findByActiveTrue(pageable).map(ProductMapper::toDto);
+        Page<ProductDto> page = productRepository.findByActiveTrue(pageable).map(ProductMapper::toDto);
+        if (page.isEmpty()) {
+            return page;
+        }
+        // One primary-key lookup for the whole page instead of one per product.
+        Map<Long, ProductRatingSummary> ratings = ratingSummaryRepository
+                .findAllById(page.getContent().stream().map(ProductDto::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProductRatingSummary::getProductId, Function.identity()));
+        page.forEach(dto -> dto.setRating(ProductMapper.toRatingDto(ratings.get(dto.getId()))));
+        return page;
     }
 
+    /**
+     * Descriptive details come from the long-lived detail cache or the catalog snapshot,
+     * stock from {@link ProductStockView}, so orders do not evict the details.
+     */
     @Transactional(readOnly = true)
     public ProductDto getProductById(Long id) {
+        return stockView.withCurrentStock(getProductDetails(id));
+    }
+
+    private ProductDto getProductDetails(Long id) {
+        Cache cache = cacheManager.getCache(ProductBatchService.CACHE_NAME);
+        ProductDto cached = cache != null ? cache.get(id, ProductDto.class) : null;
+        if (cached != null) {
+            return cached;
+        }
+        Optional<ProductDto> snapshot = catalogSnapshotService.find(id);
+        if (snapshot.isPresent()) {
+            // Snapshot hits are not copied into the heap cache.
+            return snapshot.get();
+        }
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException(PRODUCT_NOT_FOUND_WITH_ID + id));
-        return ProductMapper.toDto(product);
+        ProductDto details = withRating(ProductMapper.toDto(product));
+        if (cache != null) {
+            cache.put(id, details);
+        }
+        return details;
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "productSearch", key = "T(String).format('%s|%s|%s|%s|%s|%s', #category, #brand, #query, #pageable.pageNumber, #pageable.pageSize, #pageable.sort)")
-    public Page<ProductDto> searchProducts(String category, String brand, String query, Pageable pageable) {
+    @Cacheable(value = "productSearch",
+            key = "T(com.example.ecommerce.product.model.ProductSearchQuery).searchCacheKey(#category, #brand, #query, #attributes, #pageable)")
+    public Page<ProductSummaryDto> searchProducts(String category, String brand, String query,
+                                                  ProductAttributeFilters attributes, Pageable pageable) {
         String normalizedCategory = normalizeFilter(category);
         String normalizedBrand = normalizeFilter(brand);
         String normalizedQuery = normalizeFilter(query);
 
-        try {
-            Pageable advancedSearchPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
-            return productRepository.searchProductsAdvanced(normalizedCategory, normalizedBrand, normalizedQuery, advancedSearchPageable)
-                    .map(ProductMapper::toDto);
-        } catch (DataAccessException ex) {
-            logger.warn("Advanced product search unavailable, using fallback specification search. reason={}", ex.getMessage());
-            return searchProductsFallback(normalizedCategory, normalizedBrand, normalizedQuery, pageable);
+        if (!attributes.isEmpty()) {
+            return postgresSearchEngine.search(normalizedCategory, normalizedBrand, normalizedQuery, attributes, pageable);
         }
+        return searchEngine().search(normalizedCategory, normalizedBrand, normalizedQuery, pageable);
     }
 
     @Transactional
-    @CacheEvict(value = "productSearch", allEntries = true)
+    @CacheEvict(value = {"productSearch", "productFacets"}, allEntries = true)
     public ProductDto createProduct(ProductDto productDto) {
         Product product = ProductMapper.toEntity(productDto);
         normalizeProductFields(product);
@@ -85,11 +154,13 @@ public class ProductService {
         details.put("name", savedProduct.getName());
         auditService.logSystemEvent(getCurrentUserId(), getCurrentUsername(), AuditLog.AuditAction.ADMIN_PRODUCT_CREATED,
                 "Product created", details);
-        return ProductMapper.toDto(savedProduct);
+        ProductDto created = ProductMapper.toDto(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(created));
+        return created;
     }
 
     @Transactional
-    @CacheEvict(value = "productSearch", allEntries = true)
+    @CacheEvict(value = {"productSearch", "productFacets"}, allEntries = true)
     public ProductDto updateProduct(Long id, ProductDto productDto) {
         Product existing = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException(PRODUCT_NOT_FOUND_WITH_ID + id));
@@ -97,6 +168,10 @@ public class ProductService {
         existing.setName(productDto.getName());
         existing.setDescription(productDto.getDescription());
         existing.setPrice(productDto.getPrice());
+        if (!Objects.equals(existing.getImageUrl(), productDto.getImageUrl())) {
+            // Derivatives belong to the image they were generated from.
+            existing.setImageDerivatives(null);
+        }
         existing.setImageUrl(productDto.getImageUrl());
         existing.setCategory(productDto.getCategory());
         existing.setBrand(productDto.getBrand());
@@ -114,11 +189,32 @@ public class ProductService {
         details.put("sku", updatedProduct.getSku());
         auditService.logSystemEvent(getCurrentUserId(), getCurrentUsername(), AuditLog.AuditAction.ADMIN_PRODUCT_UPDATED,
                 "Product updated", details);
-        return ProductMapper.toDto(updatedProduct);
+        ProductDto updated = withRating(ProductMapper.toDto(updatedProduct));
+        eventPublisher.publishEvent(ProductChangedEvent.updated(updated));
+        return updated;
+    }
+
+    @Transactional
+    @CacheEvict(value = {"productSearch", "productFacets"}, allEntries = true)
+    public ProductDto updateProductImage(Long id, String imageUrl, Map<String, String> derivatives) {
+        Product existing = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException(PRODUCT_NOT_FOUND_WITH_ID + id));
+        existing.setImageUrl(imageUrl);
+        existing.setImageDerivatives(derivatives == null || derivatives.isEmpty() ? null : Map.copyOf(derivatives));
+
+        Product updatedProduct = productRepository.save(existing);
+        Map<String, Object> details = new HashMap<>();
+        details.put("productId", updatedProduct.getId());
+        details.put("imageUrl", imageUrl);
+        auditService.logSystemEvent(getCurrentUserId(), getCurrentUsername(), AuditLog.AuditAction.ADMIN_PRODUCT_UPDATED,
+                "Product image updated", details);
+        ProductDto updated = withRating(ProductMapper.toDto(updatedProduct));
+        eventPublisher.publishEvent(ProductChangedEvent.updated(updated));
+        return updated;
     }
 
     @Transactional
-    @CacheEvict(value = "productSearch", allEntries = true)
+    @CacheEvict(value = {"productSearch", "productFacets"}, allEntries = true)
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ProductNotFoundException(PRODUCT_NOT_FOUND_WITH_ID + id));
@@ -128,20 +224,52 @@ public class ProductService {
         details.put("sku", product.getSku());
         auditService.logSystemEvent(getCurrentUserId(), getCurrentUsername(), AuditLog.AuditAction.ADMIN_PRODUCT_DELETED,
                 "Product deleted", details);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(ProductMapper.toDto(product)));
     }
 
     @Transactional(readOnly = true)
-    public List<ProductDto> getProductsByCategory(String category) {
-        return productRepository.findByCategoryIgnoreCaseAndActiveTrue(category).stream()
-                .map(ProductMapper::toDto)
-                .toList();
+    public Page<ProductSummaryDto> getProductsByCategory(String category, Pageable pageable) {
+        if (isPopularSort(pageable)) {
+            return getPopularProducts(category, null, pageable);
+        }
+        return productRepository.findSummariesByCategory(category, pageable);
     }
 
     @Transactional(readOnly = true)
-    public List<ProductDto> getProductsByBrand(String brand) {
-        return productRepository.findByBrandIgnoreCaseAndActiveTrue(brand).stream()
-                .map(ProductMapper::toDto)
-                .toList();
+    public Page<ProductSummaryDto> getProductsByBrand(String brand, Pageable pageable) {
+        if (isPopularSort(pageable)) {
+            return getPopularProducts(null, brand, pageable);
+        }
+        return productRepository.findSummariesByBrand(brand, pageable);
+    }
+
+    public static boolean isPopularSort(Pageable pageable) {
+        return pageable.getSort().getOrderFor(POPULAR_SORT) != null;
+    }
+
+    /**
+     * {@code sort=popular}: 7 day trending order from Redis, then the rest of the
+     * listing by id. Ranking happens in the listing query so paging stays exact.
+     */
+    private Page<ProductSummaryDto> getPopularProducts(String category, String brand, Pageable pageable) {
+        List<Long> rankedIds = trendingService.topProductIds(TrendingWindow.LAST_7_DAYS, category, MAX_POPULAR_RANKED_IDS);
+        String rankedIdArray = rankedIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",", "{", "}"));
+        return productRepository.findPopularSummaries(category, brand, rankedIdArray,
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .map(ProductMapper::toSummaryDto);
+    }
+
+    private ProductDto withRating(ProductDto dto) {
+        dto.setRating(ratingSummaryRepository.findById(dto.getId())
+                .map(ProductMapper::toRatingDto)
+                .orElse(null));
+        return dto;
+    }
+
+    private ProductSearchEngine searchEngine() {
+        return inMemorySearchEngine.isReady() ? inMemorySearchEngine : postgresSearchEngine;
     }
 
     private String getCurrentUsername() {
@@ -162,7 +290,7 @@ public class ProductService {
         return null;
     }
 
-    private void normalizeProductFields(Product product) {
+    static void normalizeProductFields(Product product) {
         product.setName(trimOrNull(product.getName()));
         product.setDescription(trimOrNull(product.getDescription()));
         product.setCategory(trimOrNull(product.getCategory()));
@@ -174,7 +302,7 @@ public class ProductService {
         product.setImageUrl(normalizeImageUrl(product.getImageUrl()));
     }
 
-    private String normalizeImageUrl(String imageUrl) {
+    private static String normalizeImageUrl(String imageUrl) {
         String normalized = trimOrNull(imageUrl);
         if (normalized == null) {
             return null;
@@ -185,7 +313,7 @@ public class ProductService {
         return null;
     }
 
-    private String trimOrNull(String value) {
+    private static String trimOrNull(String value) {
         if (value == null) {
             return null;
         }
@@ -203,28 +331,4 @@ public class ProductService {
         }
         return value.trim();
     }
-
-    private Page<ProductDto> searchProductsFallback(String category, String brand, String query, Pageable pageable) {
-        Specification<Product> spec = (root, cq, cb) -> cb.isTrue(root.get("active"));
-
-        if (hasText(category)) {
-            String normalizedCategory = category.trim().toLowerCase();
-            spec = spec.and((root, cq, cb) -> cb.equal(cb.lower(root.get("category")), normalizedCategory));
-        }
-
-        if (hasText(brand)) {
-            String normalizedBrand = brand.trim().toLowerCase();
-            spec = spec.and((root, cq, cb) -> cb.equal(cb.lower(root.get("brand")), normalizedBrand));
-        }
-
-        if (hasText(query)) {
-            String pattern = "%" + query.trim().toLowerCase() + "%";
-            spec = spec.and((root, cq, cb) -> cb.or(
-                    cb.like(cb.lower(root.get("name")), pattern),
-                    cb.like(cb.lower(root.get("description")), pattern)
-            ));
-        }
-
-        return productRepository.findAll(spec, pageable).map(ProductMapper::toDto);
-    }
 }
@@ -0,0 +1,92 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.event.ProductStockChangedEvent;
+import com.example.ecommerce.product.mapper.ProductMapper;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.repository.ProductStockLevelView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stock levels kept apart from the cached product details, so that orders only
+ * touch this small per-product entry and the descriptive caches stay warm.
+ *
+ * Committed stock changes write the new level straight into the view; the short
+ * TTL bounds how long two racing commits on the same product can leave it behind.
+ * Purchases still validate against inventory, not against this view.
+ */
+@Component
+public class ProductStockView {
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, Integer> stockByProductId;
+
+    public ProductStockView(ProductRepository productRepository,
+                            @Value("${app.cache.product-stock.max-size:20000}") long maxSize,
+                            @Value("${app.cache.product-stock.expire-after-write-seconds:30}") long expireAfterWriteSeconds) {
+        this.productRepository = productRepository;
+        this.stockByProductId = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 1))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(expireAfterWriteSeconds, 1)))
+                .recordStats()
+                .build();
+    }
+
+    public ProductDto withCurrentStock(ProductDto details) {
+        if (details == null || details.getId() == null) {
+            return details;
+        }
+        return withCurrentStock(List.of(details)).get(0);
+    }
+
+    /**
+     * Copies of the given details with current stock, loading all uncached levels in one query.
+     */
+    public List<ProductDto> withCurrentStock(List<ProductDto> details) {
+        Set<Long> ids = new HashSet<>();
+        for (ProductDto dto : details) {
+            if (dto.getId() != null) {
+                ids.add(dto.getId());
+            }
+        }
+        Map<Long, Integer> stocks = stockByProductId.getAll(ids, this::loadStocks);
+        return details.stream()
+                .map(dto -> ProductMapper.withStock(dto, stocks.getOrDefault(dto.getId(), dto.getStock())))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        if (event.productId() != null) {
+            stockByProductId.put(event.productId(), Math.max(event.stock(), 0));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Covers deletes and stock written by the importer without a stock event.
+        if (event.productId() != null) {
+            stockByProductId.invalidate(event.productId());
+        }
+    }
+
+    private Map<Long, Integer> loadStocks(Set<? extends Long> ids) {
+        Map<Long, Integer> stocks = new HashMap<>();
+        for (ProductStockLevelView level : productRepository.findStockLevelsByIdIn(Set.copyOf(ids))) {
+            stocks.put(level.getId(), level.getStock() != null ? Math.max(level.getStock(), 0) : 0);
+        }
+        return stocks;
+    }
+}
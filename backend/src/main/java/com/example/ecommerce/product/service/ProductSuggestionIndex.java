@@ -0,0 +1,200 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductSuggestionDto;
+import com.example.ecommerce.product.dto.ProductSuggestionDto.SuggestionType;
+import com.example.ecommerce.util.SearchTextUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Prefix index for typeahead. Every word position of a product name, brand and
+ * category is stored as a key in a sorted map, so a prefix lookup is a range scan
+ * that also matches words in the middle of a name ("strat" -> "Fender Stratocaster").
+ * Products are weighted by units sold; brands and categories by the sum of their products.
+ */
+public class ProductSuggestionIndex {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final Comparator<Term> RANKING = Comparator.comparingLong(Term::weight).reversed()
+            .thenComparing(Term::type)
+            .thenComparing(Term::text);
+
+    private record Term(String identity, String text, SuggestionType type, Long productId, long weight) {
+    }
+
+    private record ProductEntry(String name, String brand, String category, long weight) {
+    }
+
+    private static final class GroupEntry {
+        private final String text;
+        private final SuggestionType type;
+        private long weight;
+        private int products;
+
+        private GroupEntry(String text, SuggestionType type) {
+            this.text = text;
+            this.type = type;
+        }
+    }
+
+    private final Map<Long, ProductEntry> productsById = new HashMap<>();
+    private final Map<String, GroupEntry> groupsByIdentity = new HashMap<>();
+    private volatile ConcurrentSkipListMap<String, Term> terms = new ConcurrentSkipListMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void rebuild(Collection<SuggestionSource> sources) {
+        ConcurrentSkipListMap<String, Term> rebuilt = new ConcurrentSkipListMap<>();
+        productsById.clear();
+        groupsByIdentity.clear();
+        for (SuggestionSource source : sources) {
+            addProduct(rebuilt, source.productId(), source.name(), source.brand(), source.category(),
+                    weightOf(source.soldQuantity()));
+        }
+        terms = rebuilt;
+        ready = true;
+    }
+
+    /**
+     * Catalog edits do not change sales, so an existing product keeps its weight
+     * until the next rebuild; new products start with the minimum weight.
+     */
+    public synchronized void upsert(Long productId, String name, String brand, String category) {
+        ProductEntry previous = removeProduct(terms, productId);
+        long weight = previous != null ? previous.weight() : weightOf(0L);
+        addProduct(terms, productId, name, brand, category, weight);
+    }
+
+    public synchronized void remove(Long productId) {
+        removeProduct(terms, productId);
+    }
+
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        String normalizedPrefix = SearchTextUtil.normalize(prefix);
+        if (normalizedPrefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        NavigableMap<String, Term> range = terms.subMap(
+                normalizedPrefix, true, normalizedPrefix + Character.MAX_VALUE, true);
+        Set<String> seen = new HashSet<>();
+        PriorityQueue<Term> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Term term : range.values()) {
+            if (!seen.add(term.identity())) {
+                continue;
+            }
+            top.offer(term);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Term> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return ranked.stream()
+                .map(term -> new ProductSuggestionDto(term.text(), term.type(), term.productId()))
+                .toList();
+    }
+
+    private void addProduct(Map<String, Term> target, Long productId, String name,
+                            String brand, String category, long weight) {
+        productsById.put(productId, new ProductEntry(name, brand, category, weight));
+        String identity = "P" + productId;
+        putTerms(target, identity, name, new Term(identity, name, SuggestionType.PRODUCT, productId, weight));
+        addToGroup(target, SuggestionType.BRAND, brand, weight);
+        addToGroup(target, SuggestionType.CATEGORY, category, weight);
+    }
+
+    private ProductEntry removeProduct(Map<String, Term> target, Long productId) {
+        ProductEntry previous = productsById.remove(productId);
+        if (previous == null) {
+            return null;
+        }
+        removeTerms(target, "P" + productId, previous.name());
+        removeFromGroup(target, SuggestionType.BRAND, previous.brand(), previous.weight());
+        removeFromGroup(target, SuggestionType.CATEGORY, previous.category(), previous.weight());
+        return previous;
+    }
+
+    private void addToGroup(Map<String, Term> target, SuggestionType type, String text, long weight) {
+        String identity = groupIdentity(type, text);
+        if (identity == null) {
+            return;
+        }
+        GroupEntry group = groupsByIdentity.computeIfAbsent(identity, key -> new GroupEntry(text.trim(), type));
+        group.weight += weight;
+        group.products++;
+        putTerms(target, identity, group.text, new Term(identity, group.text, type, null, group.weight));
+    }
+
+    private void removeFromGroup(Map<String, Term> target, SuggestionType type, String text, long weight) {
+        String identity = groupIdentity(type, text);
+        GroupEntry group = identity != null ? groupsByIdentity.get(identity) : null;
+        if (group == null) {
+            return;
+        }
+        group.weight -= weight;
+        group.products--;
+        if (group.products <= 0) {
+            groupsByIdentity.remove(identity);
+            removeTerms(target, identity, group.text);
+            return;
+        }
+        putTerms(target, identity, group.text, new Term(identity, group.text, type, null, group.weight));
+    }
+
+    private void putTerms(Map<String, Term> target, String identity, String text, Term term) {
+        for (String key : keysOf(identity, text)) {
+            target.put(key, term);
+        }
+    }
+
+    private void removeTerms(Map<String, Term> target, String identity, String text) {
+        for (String key : keysOf(identity, text)) {
+            target.remove(key);
+        }
+    }
+
+    private List<String> keysOf(String identity, String text) {
+        String normalized = SearchTextUtil.normalize(text);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<String> keys = new ArrayList<>();
+        int start = 0;
+        while (start >= 0) {
+            keys.add(normalized.substring(start) + KEY_SEPARATOR + identity);
+            int space = normalized.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+        return keys;
+    }
+
+    private String groupIdentity(SuggestionType type, String text) {
+        String normalized = SearchTextUtil.normalize(text);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        return (type == SuggestionType.BRAND ? "B" : "C") + normalized;
+    }
+
+    private long weightOf(Long soldQuantity) {
+        return 1L + (soldQuantity != null ? Math.max(soldQuantity, 0L) : 0L);
+    }
+
+    public record SuggestionSource(Long productId, String name, String brand, String category, Long soldQuantity) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductSuggestionDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Service
+public class ProductSuggestionService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestionService.class);
+
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_LIMIT = 20;
+
+    private final ProductRepository productRepository;
+    private final ProductSuggestionIndex suggestionIndex = new ProductSuggestionIndex();
+
+    public ProductSuggestionService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Typeahead suggestions served only from memory; the database is never hit per keystroke.
+     * Returns an empty list until the index has been built.
+     */
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.trim().length() < MIN_PREFIX_LENGTH) {
+            return List.of();
+        }
+        int safeLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return suggestionIndex.suggest(prefix, safeLimit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            suggestionIndex.remove(event.productId());
+            return;
+        }
+        ProductDto product = event.product();
+        suggestionIndex.upsert(product.getId(), product.getName(), product.getBrand(), product.getCategory());
+    }
+
+    /**
+     * Full rebuild at startup and periodically afterwards; this is also where
+     * popularity weights are refreshed from order history.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.product.suggest.rebuild-interval-ms:300000}",
+            initialDelayString = "${app.product.suggest.rebuild-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        try {
+            List<ProductSuggestionIndex.SuggestionSource> sources = productRepository.findSuggestionSources().stream()
+                    .map(view -> new ProductSuggestionIndex.SuggestionSource(
+                            view.getId(), view.getName(), view.getBrand(), view.getCategory(), view.getSoldQuantity()))
+                    .toList();
+            suggestionIndex.rebuild(sources);
+            logger.debug("Product suggestion index rebuilt with {} product(s)", sources.size());
+        } catch (Exception e) {
+            logger.error("Failed to rebuild product suggestion index", e);
+        }
+    }
+}
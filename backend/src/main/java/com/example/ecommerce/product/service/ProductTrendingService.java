@@ -0,0 +1,247 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.order.event.OrderChangedEvent;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.model.TrendingWindow;
+import com.example.ecommerce.product.repository.ProductFacetSourceView;
+import com.example.ecommerce.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.CacheControl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Popularity rankings kept in Redis sorted sets, so reading them never touches orders.
+ *
+ * Every signal is added to an hourly and a daily bucket per scope (all products and
+ * the product's category). Windows are the union of their buckets, cached for a short
+ * TTL. Orders count at their placement time and are taken back on cancel/refund;
+ * detail views are sampled into a local counter and flushed periodically.
+ */
+@Service
+public class ProductTrendingService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductTrendingService.class);
+    private static final String KEY_PREFIX = "trending:";
+    private static final String GLOBAL_SCOPE = "all";
+    private static final DateTimeFormatter HOUR_BUCKET = DateTimeFormatter.ofPattern("yyyyMMddHH").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DAY_BUCKET = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final Duration HOUR_BUCKET_TTL = Duration.ofHours(26);
+    private static final Duration DAY_BUCKET_TTL = Duration.ofDays(32);
+    private static final int MAX_LIMIT = 100;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ProductRepository productRepository;
+    private final double orderWeight;
+    private final double viewWeight;
+    private final double viewSampleRate;
+    private final Duration rankingTtl;
+    private final CacheControl cacheControl;
+    private final Map<Long, LongAdder> sampledViews = new ConcurrentHashMap<>();
+
+    public ProductTrendingService(RedisTemplate<String, Object> redisTemplate,
+                                  ProductRepository productRepository,
+                                  @Value("${app.product.trending.order-weight:10}") double orderWeight,
+                                  @Value("${app.product.trending.view-weight:1}") double viewWeight,
+                                  @Value("${app.product.trending.view-sample-rate:0.25}") double viewSampleRate,
+                                  @Value("${app.product.trending.ranking-ttl-seconds:60}") long rankingTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.productRepository = productRepository;
+        this.orderWeight = orderWeight;
+        this.viewWeight = viewWeight;
+        this.viewSampleRate = Math.min(Math.max(viewSampleRate, 0.001), 1.0);
+        this.rankingTtl = Duration.ofSeconds(Math.max(rankingTtlSeconds, 1));
+        this.cacheControl = CacheControl.maxAge(rankingTtl).cachePublic();
+    }
+
+    public CacheControl cacheControl() {
+        return cacheControl;
+    }
+
+    public void recordView(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        if (viewSampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= viewSampleRate) {
+            return;
+        }
+        sampledViews.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.product.trending.view-flush-interval-ms:10000}")
+    public void flushViews() {
+        Map<Long, Long> views = new HashMap<>();
+        for (Long productId : sampledViews.keySet()) {
+            LongAdder counter = sampledViews.remove(productId);
+            if (counter != null && counter.sum() > 0) {
+                views.put(productId, counter.sum());
+            }
+        }
+        if (views.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, String> categories = productRepository.findFacetSourcesByIdIn(views.keySet()).stream()
+                    .filter(source -> source.getCategory() != null)
+                    .collect(Collectors.toMap(ProductFacetSourceView::getId, ProductFacetSourceView::getCategory));
+            List<Increment> increments = new ArrayList<>(views.size());
+            views.forEach((productId, sampled) -> increments.add(new Increment(productId, categories.get(productId),
+                    sampled / viewSampleRate * viewWeight)));
+            apply(Instant.now(), increments);
+        } catch (RuntimeException ex) {
+            // Views are an approximate signal; a lost flush only lowers scores slightly.
+            logger.warn("Failed to flush {} sampled product view counter(s). reason={}", views.size(), ex.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        double sign = event.changeType() == OrderChangedEvent.ChangeType.CREATED ? 1 : -1;
+        List<Increment> increments = event.lines().stream()
+                .map(line -> new Increment(line.productId(), line.category(), sign * line.quantity() * orderWeight))
+                .toList();
+        try {
+            apply(event.placedAt(), increments);
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to update trending counters for orderId={} change={}. reason={}",
+                    event.orderId(), event.changeType(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Top product ids of a window, most popular first. Empty when Redis is unavailable.
+     */
+    public List<Long> topProductIds(TrendingWindow window, String category, int limit) {
+        String scope = scope(category);
+        List<byte[]> buckets = bucketKeys(window, scope, Instant.now());
+        byte[] rankingKey = key(KEY_PREFIX + "ranking:" + window.code() + ":" + scope);
+        int count = Math.max(limit, 1);
+        try {
+            List<Long> ids = redisTemplate.execute((RedisCallback<List<Long>>) connection -> {
+                if (!Boolean.TRUE.equals(connection.keyCommands().exists(rankingKey))) {
+                    connection.zSetCommands().zUnionStore(rankingKey, buckets.toArray(new byte[0][]));
+                    connection.keyCommands().expire(rankingKey, rankingTtl.toSeconds());
+                }
+                Set<Tuple> ranked = connection.zSetCommands().zRevRangeWithScores(rankingKey, 0, count - 1L);
+                List<Long> result = new ArrayList<>();
+                if (ranked != null) {
+                    for (Tuple tuple : ranked) {
+                        if (tuple.getScore() != null && tuple.getScore() > 0) {
+                            result.add(Long.valueOf(new String(tuple.getValue(), StandardCharsets.UTF_8)));
+                        }
+                    }
+                }
+                return result;
+            });
+            return ids != null ? ids : List.of();
+        } catch (RuntimeException ex) {
+            logger.warn("Trending ranking unavailable for window={} scope={}. reason={}", window.code(), scope, ex.getMessage());
+            return List.of();
+        }
+    }
+
+    public List<ProductSummaryDto> getTrendingProducts(TrendingWindow window, String category, int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<Long> ids = topProductIds(window, category, safeLimit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductSummaryDto> products = productRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductSummaryDto::id, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(product -> product != null)
+                .toList();
+    }
+
+    private void apply(Instant at, List<Increment> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        boolean hourBucketLive = at.isAfter(now.minus(TrendingWindow.LAST_24_HOURS.length()));
+        boolean dayBucketLive = at.isAfter(now.minus(TrendingWindow.LAST_30_DAYS.length()));
+        if (!dayBucketLive) {
+            return;
+        }
+        String hour = HOUR_BUCKET.format(at);
+        String day = DAY_BUCKET.format(at);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisZSetCommands zSetCommands = connection.zSetCommands();
+            RedisKeyCommands keyCommands = connection.keyCommands();
+            Map<String, Duration> touched = new HashMap<>();
+            for (Increment increment : increments) {
+                byte[] member = key(Long.toString(increment.productId()));
+                List<String> scopes = increment.category() != null
+                        ? List.of(GLOBAL_SCOPE, scope(increment.category()))
+                        : List.of(GLOBAL_SCOPE);
+                for (String scope : scopes) {
+                    if (hourBucketLive) {
+                        String hourKey = bucketKey(scope, "h", hour);
+                        zSetCommands.zIncrBy(key(hourKey), increment.score(), member);
+                        touched.put(hourKey, HOUR_BUCKET_TTL);
+                    }
+                    String dayKey = bucketKey(scope, "d", day);
+                    zSetCommands.zIncrBy(key(dayKey), increment.score(), member);
+                    touched.put(dayKey, DAY_BUCKET_TTL);
+                }
+            }
+            touched.forEach((bucket, ttl) -> keyCommands.expire(key(bucket), ttl.toSeconds()));
+            return null;
+        });
+    }
+
+    private List<byte[]> bucketKeys(TrendingWindow window, String scope, Instant now) {
+        boolean hourly = window.bucketUnit() == ChronoUnit.HOURS;
+        DateTimeFormatter format = hourly ? HOUR_BUCKET : DAY_BUCKET;
+        List<byte[]> keys = new ArrayList<>(window.bucketCount());
+        for (int i = 0; i < window.bucketCount(); i++) {
+            keys.add(key(bucketKey(scope, hourly ? "h" : "d", format.format(now.minus(i, window.bucketUnit())))));
+        }
+        return keys;
+    }
+
+    private String bucketKey(String scope, String granularity, String bucket) {
+        return KEY_PREFIX + scope + ":" + granularity + ":" + bucket;
+    }
+
+    private String scope(String category) {
+        if (category == null || category.isBlank()) {
+            return GLOBAL_SCOPE;
+        }
+        return "c:" + category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private byte[] key(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Increment(Long productId, String category, double score) {
+    }
+}
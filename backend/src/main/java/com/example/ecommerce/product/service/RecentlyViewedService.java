@@ -0,0 +1,172 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisListCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SequencedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a short, de-duplicated, most-recent-first list of viewed products per user or
+ * guest in Redis ({@code recent:{viewer}}). Views are only queued in memory on the
+ * request thread; the scheduled flush coalesces each viewer's queued ids into one
+ * pipelined LREM/LPUSH/LTRIM/EXPIRE batch.
+ */
+@Service
+public class RecentlyViewedService {
+    private static final Logger logger = LoggerFactory.getLogger(RecentlyViewedService.class);
+    private static final String KEY_PREFIX = "recent:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ProductRepository productRepository;
+    private final int maxItems;
+    private final Duration ttl;
+    private final Map<String, SequencedSet<Long>> pendingViews = new ConcurrentHashMap<>();
+
+    public RecentlyViewedService(RedisTemplate<String, Object> redisTemplate,
+                                 ProductRepository productRepository,
+                                 @Value("${app.product.recently-viewed.max-items:20}") int maxItems,
+                                 @Value("${app.product.recently-viewed.ttl-days:30}") int ttlDays) {
+        this.redisTemplate = redisTemplate;
+        this.productRepository = productRepository;
+        this.maxItems = Math.max(maxItems, 1);
+        this.ttl = Duration.ofDays(Math.max(ttlDays, 1));
+    }
+
+    public static String userViewer(Long userId) {
+        return "u:" + userId;
+    }
+
+    public static String guestViewer(String guestId) {
+        return "g:" + guestId;
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    public void recordView(String viewer, Long productId) {
+        if (viewer == null || productId == null) {
+            return;
+        }
+        pendingViews.compute(viewer, (key, views) -> {
+            SequencedSet<Long> queued = views != null ? views : new LinkedHashSet<>();
+            queued.remove(productId);
+            queued.addLast(productId);
+            if (queued.size() > maxItems) {
+                queued.removeFirst();
+            }
+            return queued;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.product.recently-viewed.flush-interval-ms:2000}")
+    public void flush() {
+        Map<String, List<Long>> batch = new HashMap<>();
+        for (String viewer : pendingViews.keySet()) {
+            SequencedSet<Long> views = pendingViews.remove(viewer);
+            if (views != null && !views.isEmpty()) {
+                batch.put(viewer, List.copyOf(views));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        long ttlSeconds = ttl.toSeconds();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                RedisListCommands listCommands = connection.listCommands();
+                batch.forEach((viewer, views) -> {
+                    byte[] key = key(viewer);
+                    // Oldest first, so the latest view ends up at the head of the list.
+                    for (Long productId : views) {
+                        byte[] member = member(productId);
+                        listCommands.lRem(key, 0, member);
+                        listCommands.lPush(key, member);
+                    }
+                    listCommands.lTrim(key, 0, maxItems - 1L);
+                    connection.keyCommands().expire(key, ttlSeconds);
+                });
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            // The list is a convenience; a lost flush only drops a few entries.
+            logger.warn("Failed to flush recently viewed products for {} viewer(s). reason={}",
+                    batch.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Most recent first. Views still queued on this node are merged in front so a
+     * product shows up right after it was opened, and the ids are hydrated with a
+     * single query; inactive or deleted products are dropped.
+     */
+    public List<ProductSummaryDto> getRecentlyViewed(String viewer, int limit) {
+        if (viewer == null) {
+            return List.of();
+        }
+        int safeLimit = Math.max(1, Math.min(limit, maxItems));
+        LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        pendingViews.computeIfPresent(viewer, (key, queued) -> {
+            ids.addAll(queued.reversed());
+            return queued;
+        });
+        try {
+            ids.addAll(readIds(viewer));
+        } catch (RuntimeException ex) {
+            logger.warn("Recently viewed products unavailable for {}. reason={}", viewer, ex.getMessage());
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> window = ids.stream().limit(safeLimit).toList();
+        Map<Long, ProductSummaryDto> products = productRepository.findSummariesByIdIn(window).stream()
+                .collect(Collectors.toMap(ProductSummaryDto::id, Function.identity()));
+        return window.stream()
+                .map(products::get)
+                .filter(product -> product != null)
+                .toList();
+    }
+
+    private List<Long> readIds(String viewer) {
+        List<byte[]> members = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.listCommands().lRange(key(viewer), 0, maxItems - 1L));
+        if (members == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(members.size());
+        for (byte[] member : members) {
+            try {
+                ids.add(Long.parseLong(new String(member, StandardCharsets.UTF_8)));
+            } catch (NumberFormatException ex) {
+                logger.debug("Skipping unreadable recently viewed entry for {}", viewer);
+            }
+        }
+        return ids;
+    }
+
+    private static byte[] key(String viewer) {
+        return (KEY_PREFIX + viewer).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] member(Long productId) {
+        return productId.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.ecommerce.product.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps revision stamps in Redis so every node answers with the same validators.
+ *
+ * Only bumps write, and each stamp expires a TTL after its own value. A scope
+ * without a stamp reads as the start of the current TTL window: that is later than
+ * any stamp that could have expired, so a returning validator never matches content
+ * from before the expired bump. Untouched scopes move to a new window once per TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "app.http.catalog.revision-store", havingValue = "redis", matchIfMissing = true)
+public class RedisCatalogRevisionStore implements CatalogRevisionStore {
+
+    private static final String KEY_PREFIX = "catalog_revision:";
+
+    // Stamps are bumped one key per call, so scopes spread over the cluster's slots.
+    private static final RedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local stamp = tonumber(redis.call('GET', KEYS[1]))
+            if stamp == nil then
+                stamp = math.max(now, tonumber(ARGV[2]) + 1)
+            elseif stamp < now then
+                stamp = now
+            else
+                stamp = stamp + 1
+            end
+            redis.call('SET', KEYS[1], stamp, 'PX', tonumber(ARGV[3]) + stamp - now)
+            return stamp
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long ttlMillis;
+
+    public RedisCatalogRevisionStore(StringRedisTemplate redisTemplate,
+                                     @Value("${app.http.catalog.revision-ttl-hours:168}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.ttlMillis = Duration.ofHours(Math.max(ttlHours, 1)).toMillis();
+    }
+
+    @Override
+    public long current(String scope) {
+        String stamp = redisTemplate.opsForValue().get(KEY_PREFIX + scope);
+        return stamp != null ? Long.parseLong(stamp) : windowStart(System.currentTimeMillis());
+    }
+
+    @Override
+    public void bump(Collection<String> scopes) {
+        long now = System.currentTimeMillis();
+        for (String scope : scopes) {
+            redisTemplate.execute(BUMP_SCRIPT, List.of(KEY_PREFIX + scope), Long.toString(now),
+                    Long.toString(windowStart(now)), Long.toString(ttlMillis));
+        }
+    }
+
+    private long windowStart(long now) {
+        return now - Math.floorMod(now, ttlMillis);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.ecommerce.product.service;
+
+import com.example.ecommerce.product.dto.SearchQueryStatDto;
+import com.example.ecommerce.product.model.ProductSearchQuery;
+import com.example.ecommerce.util.CountMinSketch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts normalized catalog searches in fixed memory.
+ *
+ * Each node feeds a count-min sketch and keeps the {@code top-k} heaviest queries
+ * seen since the last flush. Every flush adds those counts to a daily Redis sorted
+ * set shared by all nodes (trimmed to {@code max-tracked-queries}) and starts a
+ * fresh sketch. Top queries are read by summing the daily sets.
+ */
+@Service
+public class SearchAnalyticsService {
+    private static final Logger logger = LoggerFactory.getLogger(SearchAnalyticsService.class);
+    private static final String KEY_PREFIX = "search:queries:";
+    private static final DateTimeFormatter DAY_BUCKET = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final int MAX_LIMIT = 200;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean enabled;
+    private final int topK;
+    private final int sketchDepth;
+    private final int sketchWidth;
+    private final int maxTrackedQueries;
+    private final int retentionDays;
+
+    private final Object lock = new Object();
+    private CountMinSketch sketch;
+    private Map<String, Long> heavyHitters;
+    private long heavyHitterFloor;
+
+    public SearchAnalyticsService(RedisTemplate<String, Object> redisTemplate,
+                                  @Value("${app.product.search-analytics.enabled:true}") boolean enabled,
+                                  @Value("${app.product.search-analytics.top-k:100}") int topK,
+                                  @Value("${app.product.search-analytics.sketch-depth:4}") int sketchDepth,
+                                  @Value("${app.product.search-analytics.sketch-width:4096}") int sketchWidth,
+                                  @Value("${app.product.search-analytics.max-tracked-queries:1000}") int maxTrackedQueries,
+                                  @Value("${app.product.search-analytics.retention-days:7}") int retentionDays) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.topK = Math.max(topK, 1);
+        this.sketchDepth = Math.max(sketchDepth, 1);
+        this.sketchWidth = Math.max(sketchWidth, 64);
+        this.maxTrackedQueries = Math.max(maxTrackedQueries, this.topK);
+        this.retentionDays = Math.max(retentionDays, 1);
+        resetWindow();
+    }
+
+    public void record(ProductSearchQuery search) {
+        if (!enabled) {
+            return;
+        }
+        String query = search.toQueryString();
+        synchronized (lock) {
+            long estimate = sketch.add(query);
+            if (heavyHitters.containsKey(query) || heavyHitters.size() < topK) {
+                heavyHitters.put(query, estimate);
+            } else if (estimate > heavyHitterFloor) {
+                // Counts only grow, so the floor is a cheap lower bound of the current minimum.
+                Map.Entry<String, Long> minimum = minimumEntry();
+                if (estimate > minimum.getValue()) {
+                    heavyHitters.remove(minimum.getKey());
+                    heavyHitters.put(query, estimate);
+                    minimum = minimumEntry();
+                }
+                heavyHitterFloor = minimum.getValue();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.product.search-analytics.flush-interval-ms:60000}")
+    public void flush() {
+        Map<String, Long> window;
+        synchronized (lock) {
+            if (heavyHitters.isEmpty()) {
+                return;
+            }
+            window = heavyHitters;
+            resetWindow();
+        }
+
+        byte[] key = key(KEY_PREFIX + DAY_BUCKET.format(Instant.now()));
+        long ttlSeconds = Duration.ofDays(retentionDays + 1L).toSeconds();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                window.forEach((query, count) -> connection.zSetCommands().zIncrBy(key, count, key(query)));
+                connection.zSetCommands().zRemRange(key, 0, -(maxTrackedQueries + 1L));
+                connection.keyCommands().expire(key, ttlSeconds);
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to flush {} search query counter(s). reason={}", window.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Most frequent searches of the last {@code days} days across all nodes. Falls back
+     * to this node's current window when Redis is unavailable.
+     */
+    public List<SearchQueryStatDto> topQueries(int limit, int days) {
+        int safeLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int safeDays = Math.max(1, Math.min(days, retentionDays));
+        Map<String, Double> totals;
+        try {
+            totals = readTotals(safeDays);
+        } catch (RuntimeException ex) {
+            logger.warn("Search analytics unavailable, using local counters. reason={}", ex.getMessage());
+            totals = new HashMap<>();
+            synchronized (lock) {
+                for (Map.Entry<String, Long> entry : heavyHitters.entrySet()) {
+                    totals.put(entry.getKey(), entry.getValue().doubleValue());
+                }
+            }
+        }
+
+        List<SearchQueryStatDto> result = new ArrayList<>();
+        totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> {
+                    if (result.size() >= safeLimit) {
+                        return;
+                    }
+                    try {
+                        ProductSearchQuery search = ProductSearchQuery.fromQueryString(entry.getKey());
+                        result.add(SearchQueryStatDto.of(entry.getKey(), search, Math.round(entry.getValue())));
+                    } catch (IllegalArgumentException ex) {
+                        logger.debug("Skipping unreadable search query {}", entry.getKey());
+                    }
+                });
+        return result;
+    }
+
+    private Map<String, Double> readTotals(int days) {
+        Instant now = Instant.now();
+        Map<String, Double> totals = redisTemplate.execute((RedisCallback<Map<String, Double>>) connection -> {
+            Map<String, Double> merged = new HashMap<>();
+            for (int day = 0; day < days; day++) {
+                byte[] key = key(KEY_PREFIX + DAY_BUCKET.format(now.minus(day, ChronoUnit.DAYS)));
+                Set<Tuple> entries = connection.zSetCommands().zRevRangeWithScores(key, 0, maxTrackedQueries - 1L);
+                if (entries == null) {
+                    continue;
+                }
+                for (Tuple entry : entries) {
+                    if (entry.getScore() != null) {
+                        merged.merge(new String(entry.getValue(), StandardCharsets.UTF_8), entry.getScore(), Double::sum);
+                    }
+                }
+            }
+            return merged;
+        });
+        return totals != null ? totals : Map.of();
+    }
+
+    private void resetWindow() {
+        sketch = new CountMinSketch(sketchDepth, sketchWidth);
+        heavyHitters = new HashMap<>(topK * 2);
+        heavyHitterFloor = 0;
+    }
+
+    private Map.Entry<String, Long> minimumEntry() {
+        Map.Entry<String, Long> minimum = null;
+        for (Map.Entry<String, Long> entry : heavyHitters.entrySet()) {
+            if (minimum == null || entry.getValue() < minimum.getValue()) {
+                minimum = entry;
+            }
+        }
+        return minimum;
+    }
+
+    private static byte[] key(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
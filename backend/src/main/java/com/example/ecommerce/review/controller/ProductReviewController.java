@@ -1,5 +1,7 @@
 package com.example.ecommerce.review.controller;
 
+import com.example.ecommerce.common.api.ConditionalResponses;
+import com.example.ecommerce.product.service.CatalogRevisionService;
 import com.example.ecommerce.review.dto.CreateProductReviewRequest;
 import com.example.ecommerce.review.dto.ProductReviewResponse;
 import com.example.ecommerce.review.service.ProductReviewService;
@@ -18,21 +20,28 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/products/{productId}/reviews")
 public class ProductReviewController {
     private final ProductReviewService productReviewService;
+    private final CatalogRevisionService catalogRevisionService;
 
-    public ProductReviewController(ProductReviewService productReviewService) {
+    public ProductReviewController(ProductReviewService productReviewService,
+                                   CatalogRevisionService catalogRevisionService) {
         this.productReviewService = productReviewService;
+        this.catalogRevisionService = catalogRevisionService;
     }
 
     @GetMapping
     public ResponseEntity<Page<ProductReviewResponse>> getProductReviews(
             @PathVariable Long productId,
-            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(productReviewService.getProductReviews(productId, pageable));
+            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            WebRequest request) {
+        CatalogRevisionService.Validators validators = catalogRevisionService.reviews(productId);
+        return ConditionalResponses.conditional(request, validators.etag(), validators.lastModified(),
+                catalogRevisionService.cacheControl(), () -> productReviewService.getProductReviews(productId, pageable));
     }
 
     @PostMapping
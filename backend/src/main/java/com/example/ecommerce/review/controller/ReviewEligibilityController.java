@@ -0,0 +1,38 @@
+package com.example.ecommerce.review.controller;
+
+import com.example.ecommerce.review.dto.ReviewEligibilityResponse;
+import com.example.ecommerce.review.service.ProductReviewService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reviews/eligibility")
+public class ReviewEligibilityController {
+    private final ProductReviewService productReviewService;
+
+    public ReviewEligibilityController(ProductReviewService productReviewService) {
+        this.productReviewService = productReviewService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('ORDER_WRITE')")
+    public ResponseEntity<List<ReviewEligibilityResponse>> getEligibility(@RequestParam List<Long> productIds) {
+        return ResponseEntity.ok(productReviewService.getReviewEligibility(currentUsername(), productIds));
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null) {
+            throw new IllegalStateException("No authenticated user in security context.");
+        }
+        return authentication.getName();
+    }
+}
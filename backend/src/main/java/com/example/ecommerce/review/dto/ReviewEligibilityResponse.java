@@ -0,0 +1,13 @@
+package com.example.ecommerce.review.dto;
+
+/**
+ * Whether the current user may review a product: they bought it and have
+ * not reviewed it yet.
+ */
+public record ReviewEligibilityResponse(
+        Long productId,
+        boolean purchased,
+        boolean reviewed,
+        boolean eligible
+) {
+}
@@ -0,0 +1,4 @@
+package com.example.ecommerce.review.event;
+
+public record ProductReviewCreatedEvent(Long productId, Long reviewId, int rating) {
+}
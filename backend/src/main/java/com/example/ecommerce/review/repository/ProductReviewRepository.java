@@ -4,9 +4,23 @@ import com.example.ecommerce.review.model.ProductReview;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ProductReviewRepository extends JpaRepository<ProductReview, Long> {
     boolean existsByProduct_IdAndUserId(Long productId, Long userId);
 
     Page<ProductReview> findByProduct_IdOrderByCreatedAtDesc(Long productId, Pageable pageable);
+
+    @Query("""
+            SELECT r.product.id
+            FROM ProductReview r
+            WHERE r.userId = :userId
+              AND r.product.id IN :productIds
+            """)
+    List<Long> findReviewedProductIds(@Param("userId") Long userId,
+                                      @Param("productIds") Collection<Long> productIds);
 }
@@ -2,50 +2,57 @@ package com.example.ecommerce.review.service;
 
 import com.example.ecommerce.auth.model.User;
 import com.example.ecommerce.auth.service.UserService;
-import com.example.ecommerce.order.model.OrderStatus;
-import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.service.PurchaseEligibilityService;
 import com.example.ecommerce.product.exception.ProductNotFoundException;
 import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRatingSummaryRepository;
 import com.example.ecommerce.product.repository.ProductRepository;
 import com.example.ecommerce.review.dto.CreateProductReviewRequest;
 import com.example.ecommerce.review.dto.ProductReviewResponse;
+import com.example.ecommerce.review.dto.ReviewEligibilityResponse;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
 import com.example.ecommerce.review.model.ProductReview;
 import com.example.ecommerce.review.repository.ProductReviewRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.text.Normalizer;
-import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
 @Service
 @Transactional
 public class ProductReviewService {
-    private static final Set<OrderStatus> REVIEWABLE_ORDER_STATUSES = EnumSet.of(
-            OrderStatus.PAID,
-            OrderStatus.PACKED,
-            OrderStatus.SHIPPED,
-            OrderStatus.DELIVERED
-    );
+    private static final int MAX_ELIGIBILITY_PRODUCTS = 100;
     private static final Pattern MULTI_SPACE_PATTERN = Pattern.compile("\\s+");
     private static final Pattern ALLOWED_COMMENT_PATTERN = Pattern.compile("^[\\p{L}\\p{N} ]+$");
 
     private final ProductReviewRepository productReviewRepository;
     private final ProductRepository productRepository;
     private final UserService userService;
-    private final OrderRepository orderRepository;
+    private final PurchaseEligibilityService purchaseEligibilityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductRatingSummaryRepository ratingSummaryRepository;
 
     public ProductReviewService(ProductReviewRepository productReviewRepository,
                                 ProductRepository productRepository,
                                 UserService userService,
-                                OrderRepository orderRepository) {
+                                PurchaseEligibilityService purchaseEligibilityService,
+                                ApplicationEventPublisher eventPublisher,
+                                ProductRatingSummaryRepository ratingSummaryRepository) {
         this.productReviewRepository = productReviewRepository;
         this.productRepository = productRepository;
         this.userService = userService;
-        this.orderRepository = orderRepository;
+        this.purchaseEligibilityService = purchaseEligibilityService;
+        this.eventPublisher = eventPublisher;
+        this.ratingSummaryRepository = ratingSummaryRepository;
     }
 
     @Transactional(readOnly = true)
@@ -55,6 +62,7 @@ public class ProductReviewService {
                 .map(this::toResponse);
     }
 
+    @CacheEvict(value = "productSearch", allEntries = true)
     public ProductReviewResponse createReview(Long productId, String username, CreateProductReviewRequest request) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id " + productId));
@@ -63,7 +71,7 @@ public class ProductReviewService {
         if (productReviewRepository.existsByProduct_IdAndUserId(productId, user.getId())) {
             throw new IllegalArgumentException("Bu urun icin zaten yorum yaptiniz.");
         }
-        if (!orderRepository.hasPurchasedProduct(user.getId(), productId, REVIEWABLE_ORDER_STATUSES)) {
+        if (!purchaseEligibilityService.hasPurchased(user.getId(), productId)) {
             throw new IllegalArgumentException("Yorum yazabilmek icin urunu satin almis olmaniz gerekir.");
         }
 
@@ -73,7 +81,36 @@ public class ProductReviewService {
         review.setUsername(user.getUsername());
         review.setRating(request.getRating());
         review.setComment(normalizeAndValidateComment(request.getComment()));
-        return toResponse(productReviewRepository.save(review));
+        ProductReview saved = productReviewRepository.save(review);
+        ratingSummaryRepository.addRating(productId, saved.getRating());
+        eventPublisher.publishEvent(new ProductReviewCreatedEvent(productId, saved.getId(), saved.getRating()));
+        return toResponse(saved);
+    }
+
+    /**
+     * Review eligibility for up to 100 products with two indexed lookups,
+     * e.g. to decide where product cards show a "write a review" button.
+     */
+    @Transactional(readOnly = true)
+    public List<ReviewEligibilityResponse> getReviewEligibility(String username, List<Long> productIds) {
+        Set<Long> requested = new LinkedHashSet<>(productIds);
+        requested.remove(null);
+        if (requested.size() > MAX_ELIGIBILITY_PRODUCTS) {
+            throw new IllegalArgumentException("En fazla " + MAX_ELIGIBILITY_PRODUCTS + " urun sorgulanabilir.");
+        }
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+        User user = userService.getByUsername(username);
+        Set<Long> purchased = purchaseEligibilityService.purchasedProductIds(user.getId(), requested);
+        Set<Long> reviewed = new HashSet<>(productReviewRepository.findReviewedProductIds(user.getId(), requested));
+        return requested.stream()
+                .map(productId -> new ReviewEligibilityResponse(
+                        productId,
+                        purchased.contains(productId),
+                        reviewed.contains(productId),
+                        purchased.contains(productId) && !reviewed.contains(productId)))
+                .toList();
     }
 
     private void ensureProductExists(Long productId) {
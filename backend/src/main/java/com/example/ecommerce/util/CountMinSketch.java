@@ -0,0 +1,64 @@
+package com.example.ecommerce.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size frequency estimator. Counts never underestimate; the overestimate is
+ * bounded by roughly {@code total / width} with probability {@code 1 - 2^-depth}.
+ * Not thread-safe.
+ */
+public final class CountMinSketch {
+    private final long[][] counters;
+    private final int width;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Sketch depth and width must be positive.");
+        }
+        this.counters = new long[depth][width];
+        this.width = width;
+    }
+
+    /**
+     * Adds one occurrence and returns the updated estimate for the key.
+     */
+    public long add(String key) {
+        long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            int column = (int) Long.remainderUnsigned(hash1 + row * hash2, width);
+            estimate = Math.min(estimate, ++counters[row][column]);
+        }
+        total++;
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            int column = (int) Long.remainderUnsigned(hash1 + row * hash2, width);
+            estimate = Math.min(estimate, counters[row][column]);
+        }
+        return estimate;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    private static long hash(String key, long seed) {
+        long h = seed;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
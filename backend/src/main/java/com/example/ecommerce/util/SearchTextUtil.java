@@ -0,0 +1,37 @@
+package com.example.ecommerce.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class SearchTextUtil {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTextUtil() {
+    }
+
+    /**
+     * Lower-cases, folds diacritics (including Turkish dotless i) and collapses
+     * everything that is not a letter or digit into single spaces.
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(value.replace('ı', 'i').replace('İ', 'I'), Normalizer.Form.NFD);
+        folded = DIACRITICS.matcher(folded).replaceAll("").toLowerCase(Locale.ROOT);
+        return NON_ALPHANUMERIC.matcher(folded).replaceAll(" ").trim();
+    }
+
+    public static List<String> tokenize(String value) {
+        String normalized = normalize(value);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(normalized.split(" "));
+    }
+}
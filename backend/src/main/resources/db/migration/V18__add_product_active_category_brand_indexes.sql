@@ -0,0 +1,7 @@
+CREATE INDEX IF NOT EXISTS idx_product_active_lower_category
+    ON product (lower(category), id)
+    WHERE active = TRUE;
+
+CREATE INDEX IF NOT EXISTS idx_product_active_lower_brand
+    ON product (lower(brand), id)
+    WHERE active = TRUE;
@@ -0,0 +1,23 @@
+CREATE FUNCTION pg_temp.to_jsonb_object(value TEXT) RETURNS JSONB AS $$
+DECLARE
+    parsed JSONB;
+BEGIN
+    IF value IS NULL OR btrim(value) = '' THEN
+        RETURN NULL;
+    END IF;
+    parsed := value::jsonb;
+    IF jsonb_typeof(parsed) <> 'object' THEN
+        RETURN NULL;
+    END IF;
+    RETURN parsed;
+EXCEPTION
+    WHEN invalid_text_representation THEN
+        RETURN NULL;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+ALTER TABLE product
+    ALTER COLUMN attributes_json TYPE JSONB USING pg_temp.to_jsonb_object(attributes_json);
+
+CREATE INDEX IF NOT EXISTS idx_product_attributes_json
+    ON product USING GIN (attributes_json jsonb_path_ops);
@@ -0,0 +1,23 @@
+CREATE TABLE product_rating_summary (
+    product_id BIGINT PRIMARY KEY REFERENCES product(id) ON DELETE CASCADE,
+    review_count INT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    stars_1 INT NOT NULL DEFAULT 0,
+    stars_2 INT NOT NULL DEFAULT 0,
+    stars_3 INT NOT NULL DEFAULT 0,
+    stars_4 INT NOT NULL DEFAULT 0,
+    stars_5 INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+INSERT INTO product_rating_summary (product_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5)
+SELECT r.product_id,
+       COUNT(*),
+       SUM(r.rating),
+       COUNT(*) FILTER (WHERE r.rating = 1),
+       COUNT(*) FILTER (WHERE r.rating = 2),
+       COUNT(*) FILTER (WHERE r.rating = 3),
+       COUNT(*) FILTER (WHERE r.rating = 4),
+       COUNT(*) FILTER (WHERE r.rating = 5)
+FROM product_reviews r
+GROUP BY r.product_id;
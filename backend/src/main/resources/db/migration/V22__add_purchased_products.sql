@@ -0,0 +1,15 @@
+CREATE TABLE purchased_products (
+    user_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES product(id) ON DELETE CASCADE,
+    order_count INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (user_id, product_id)
+);
+
+INSERT INTO purchased_products (user_id, product_id, order_count)
+SELECT o.user_id, oi.product_id, COUNT(DISTINCT o.id)
+FROM orders_table o
+JOIN order_items oi ON oi.order_id = o.id
+WHERE o.status IN ('PAID', 'PACKED', 'SHIPPED', 'DELIVERED')
+  AND o.user_id IS NOT NULL
+GROUP BY o.user_id, oi.product_id;
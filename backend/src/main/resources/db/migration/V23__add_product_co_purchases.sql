@@ -0,0 +1,15 @@
+CREATE TABLE product_co_purchases (
+    product_id BIGINT NOT NULL REFERENCES product(id) ON DELETE CASCADE,
+    related_product_id BIGINT NOT NULL REFERENCES product(id) ON DELETE CASCADE,
+    pair_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (product_id, related_product_id)
+);
+
+CREATE INDEX idx_product_co_purchases_rank ON product_co_purchases (product_id, pair_count DESC);
+
+CREATE TABLE batch_job_watermarks (
+    job_name VARCHAR(100) PRIMARY KEY,
+    last_order_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
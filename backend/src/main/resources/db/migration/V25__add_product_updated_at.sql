@@ -0,0 +1,16 @@
+ALTER TABLE product ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW();
+
+CREATE INDEX idx_product_updated_at ON product (updated_at);
+
+-- Every write path (JPA, bulk upserts, JPQL bulk updates) bumps the row, so catalog
+-- snapshots can catch up with a range scan instead of a full reload.
+CREATE OR REPLACE FUNCTION touch_product_updated_at() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at = NOW();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_product_updated_at
+    BEFORE UPDATE ON product
+    FOR EACH ROW EXECUTE FUNCTION touch_product_updated_at();
@@ -0,0 +1,12 @@
+-- Stock is served from a separate view; orders writing only product.stock must not
+-- make catalog snapshots treat the product as changed.
+CREATE OR REPLACE FUNCTION touch_product_updated_at() RETURNS trigger AS $$
+BEGIN
+    IF (to_jsonb(NEW) - 'stock' - 'updated_at') IS DISTINCT FROM (to_jsonb(OLD) - 'stock' - 'updated_at') THEN
+        NEW.updated_at = NOW();
+    ELSE
+        NEW.updated_at = OLD.updated_at;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,13 @@
+-- Checkout holds, written in the same transaction that moves stock into reserved_stock.
+-- Redis only indexes hold ids by expiry; this table decides who settles a hold.
+CREATE TABLE stock_holds (
+    user_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES product(id) ON DELETE CASCADE,
+    hold_id VARCHAR(36) NOT NULL,
+    quantity INT NOT NULL CHECK (quantity > 0),
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (user_id, product_id)
+);
+
+CREATE INDEX idx_stock_holds_hold_id ON stock_holds (hold_id);
+CREATE INDEX idx_stock_holds_expires_at ON stock_holds (expires_at);
@@ -1,7 +1,11 @@
 package com.example.ecommerce.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,6 +29,7 @@ import com.example.ecommerce.auth.security.CustomUserDetails;
 import com.example.ecommerce.cart.controller.CartController;
 import com.example.ecommerce.cart.dto.AddToCartRequest;
 import com.example.ecommerce.cart.dto.CartDto;
+import com.example.ecommerce.cart.dto.CartValidationDto;
 import com.example.ecommerce.cart.dto.UpdateCartItemRequest;
 import com.example.ecommerce.cart.service.CartService;
 
@@ -106,6 +111,30 @@ class CartControllerTest {
         verify(cartService).getGuestCart("guest-anon");
     }
 
+    @Test
+    void getCart_ShouldNotIssueGuestCookie_WhenGuestHasNoCart() {
+        when(request.getCookies()).thenReturn(null);
+        when(cartService.getGuestCart(null)).thenReturn(sampleCart());
+
+        ResponseEntity<CartDto> responseEntity = cartController.getCart(request, response, null);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        verify(response, never()).addHeader(anyString(), anyString());
+    }
+
+    @Test
+    void addItemToCart_ShouldIssueGuestCookie_WhenGuestHasNoCart() {
+        AddToCartRequest add = new AddToCartRequest();
+        add.setProductId(201L);
+        add.setQuantity(1);
+        when(request.getCookies()).thenReturn(null);
+        when(cartService.addItemToGuestCart(anyString(), eq(201L), eq(1))).thenReturn(sampleCart());
+
+        cartController.addItemToCart(add, request, response, null);
+
+        verify(response).addHeader(eq("Set-Cookie"), startsWith("guest_cart_id="));
+    }
+
     @Test
     void addItemToCart_ShouldUseAuthenticatedFlow() {
         AddToCartRequest add = new AddToCartRequest();
@@ -207,4 +236,23 @@ class CartControllerTest {
 
         assertEquals(HttpStatus.UNAUTHORIZED, responseEntity.getStatusCode());
     }
+
+    @Test
+    void validateCart_ShouldReturnUnauthorized_ForGuest() {
+        ResponseEntity<CartValidationDto> responseEntity = cartController.validateCart(null);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void validateCart_ShouldReturnChanges_ForAuthenticatedUser() {
+        Authentication auth = authenticatedUser(24L, "frank");
+        CartValidationDto validation = new CartValidationDto(sampleCart(), List.of(), false, true);
+        when(cartService.validateCart(24L)).thenReturn(validation);
+
+        ResponseEntity<CartValidationDto> responseEntity = cartController.validateCart(auth);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(validation, responseEntity.getBody());
+    }
 }
@@ -1,27 +1,61 @@
 package com.example.ecommerce.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.example.ecommerce.product.controller.ProductController;
+import com.example.ecommerce.product.controller.RecentViewerResolver;
+import com.example.ecommerce.product.dto.ProductBatchItemDto;
 import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductFacetsDto;
+import com.example.ecommerce.product.dto.ProductSearchResponse;
+import com.example.ecommerce.product.dto.ProductSuggestionDto;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.exception.ProductNotFoundException;
+import com.example.ecommerce.product.model.ProductAttributeFilters;
+import com.example.ecommerce.product.model.ProductSearchQuery;
+import com.example.ecommerce.product.model.TrendingWindow;
+import com.example.ecommerce.product.service.CatalogRevisionService;
+import com.example.ecommerce.product.service.LocalCatalogRevisionStore;
+import com.example.ecommerce.product.service.ProductBatchService;
+import com.example.ecommerce.product.service.FrequentlyBoughtTogetherService;
+import com.example.ecommerce.product.service.ProductFacetService;
 import com.example.ecommerce.product.service.ProductService;
+import com.example.ecommerce.product.service.ProductSuggestionService;
+import com.example.ecommerce.product.service.ProductTrendingService;
+import com.example.ecommerce.product.service.RecentlyViewedService;
+import com.example.ecommerce.product.service.SearchAnalyticsService;
 
 @ExtendWith(MockitoExtension.class)
 class ProductControllerTest {
@@ -29,6 +63,33 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductFacetService productFacetService;
+
+    @Mock
+    private ProductSuggestionService productSuggestionService;
+
+    @Mock
+    private ProductTrendingService productTrendingService;
+
+    @Mock
+    private FrequentlyBoughtTogetherService frequentlyBoughtTogetherService;
+
+    @Mock
+    private SearchAnalyticsService searchAnalyticsService;
+
+    @Mock
+    private RecentlyViewedService recentlyViewedService;
+
+    @Mock
+    private RecentViewerResolver recentViewerResolver;
+
+    @Mock
+    private ProductBatchService productBatchService;
+
+    @Spy
+    private CatalogRevisionService catalogRevisionService = new CatalogRevisionService(new LocalCatalogRevisionStore(), 60, 300);
+
     @InjectMocks
     private ProductController productController;
 
@@ -37,7 +98,7 @@ class ProductControllerTest {
         ProductDto dto = new ProductDto(1L, "Phone", "Flagship", new BigDecimal("999.99"), "img", "Electronics");
         when(productService.getAllProducts(any())).thenReturn(new PageImpl<>(List.of(dto)));
 
-        ResponseEntity<Page<ProductDto>> response = productController.getAllProducts(PageRequest.of(0, 20));
+        ResponseEntity<Page<ProductDto>> response = productController.getAllProducts(PageRequest.of(0, 20), getRequest());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().getTotalElements());
@@ -48,35 +109,123 @@ class ProductControllerTest {
         ProductDto dto = new ProductDto(2L, "Mouse", "Wireless", new BigDecimal("49.90"), "img", "Accessories");
         when(productService.getProductById(2L)).thenReturn(dto);
 
-        ResponseEntity<ProductDto> response = productController.getProductById(2L);
+        ResponseEntity<ProductDto> response = getProduct(2L, getRequest());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Mouse", response.getBody().getName());
+        verify(productTrendingService).recordView(2L);
+    }
+
+    @Test
+    void getTrendingProducts_ShouldReturnRankedProductsWithShortCacheLifetime() {
+        ProductSummaryDto dto = new ProductSummaryDto(14L, "Pedal", new BigDecimal("129.00"), "img", "Effects", null, null, 4);
+        when(productTrendingService.getTrendingProducts(TrendingWindow.LAST_7_DAYS, "Effects", 5)).thenReturn(List.of(dto));
+        when(productTrendingService.cacheControl()).thenReturn(CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic());
+
+        ResponseEntity<List<ProductSummaryDto>> response = productController.getTrendingProducts("7d", "Effects", 5);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Pedal", response.getBody().get(0).name());
+        assertEquals("max-age=60, public", response.getHeaders().getCacheControl());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void getFrequentlyBoughtTogether_ShouldReturnPrecomputedProducts() {
+        ProductSummaryDto dto = new ProductSummaryDto(15L, "Strings", new BigDecimal("9.90"), "img", "Accessories", null, null, 40);
+        when(frequentlyBoughtTogetherService.getFrequentlyBoughtTogether(2L, 6)).thenReturn(List.of(dto));
+
+        ResponseEntity<List<ProductSummaryDto>> response = productController.getFrequentlyBoughtTogether(2L, 6);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Strings", response.getBody().get(0).name());
+    }
+
+    @Test
+    void getProductsByCategory_ShouldSkipCatalogValidators_WhenSortedByPopularity() {
+        PageRequest popular = PageRequest.of(0, 20, Sort.by("popular"));
+        when(productService.getProductsByCategory("Effects", popular))
+                .thenReturn(new PageImpl<>(List.of(), popular, 0));
+        when(productTrendingService.cacheControl()).thenReturn(CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic());
+
+        ResponseEntity<Page<ProductSummaryDto>> response =
+                productController.getProductsByCategory("Effects", popular, getRequest());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.ETAG));
+        verify(catalogRevisionService, times(0)).catalog();
     }
 
     @Test
     void getProductsByCategory_ShouldReturnOkWithBody() {
-        ProductDto dto = new ProductDto(11L, "Shirt", "Cotton", new BigDecimal("29.90"), "img", "Apparel");
-        when(productService.getProductsByCategory("Apparel")).thenReturn(List.of(dto));
+        ProductSummaryDto dto = new ProductSummaryDto(11L, "Shirt", new BigDecimal("29.90"), "img", "Apparel", null, null, 3);
+        when(productService.getProductsByCategory("Apparel", PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(dto), PageRequest.of(0, 20), 1));
 
-        ResponseEntity<List<ProductDto>> response = productController.getProductsByCategory("Apparel");
+        ResponseEntity<Page<ProductSummaryDto>> response =
+                productController.getProductsByCategory("Apparel", PageRequest.of(0, 20), getRequest());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(1, response.getBody().size());
-        assertEquals("Shirt", response.getBody().get(0).getName());
+        assertEquals(1, response.getBody().getTotalElements());
+        assertEquals("Shirt", response.getBody().getContent().get(0).name());
     }
 
     @Test
     void getProductsByBrand_ShouldReturnOkWithBody() {
-        ProductDto dto = new ProductDto(12L, "Sneaker", "Sport", new BigDecimal("59.90"), "img", "Shoes");
-        dto.setBrand("Acme");
-        when(productService.getProductsByBrand("Acme")).thenReturn(List.of(dto));
+        ProductSummaryDto dto = new ProductSummaryDto(12L, "Sneaker", new BigDecimal("59.90"), "img", "Shoes", "Acme", null, 5);
+        when(productService.getProductsByBrand("Acme", PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(dto), PageRequest.of(0, 20), 1));
+
+        ResponseEntity<Page<ProductSummaryDto>> response =
+                productController.getProductsByBrand("Acme", PageRequest.of(0, 20), getRequest());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getTotalElements());
+        assertEquals("Sneaker", response.getBody().getContent().get(0).name());
+    }
+
+    @Test
+    void searchProducts_ShouldIncludeFacets_WhenRequested() {
+        ProductSummaryDto dto = new ProductSummaryDto(13L, "Amp", new BigDecimal("799.00"), "img", "Amplifier", null, null, 2);
+        ProductFacetsDto facets = new ProductFacetsDto(
+                List.of(new ProductFacetsDto.FacetCount("Amplifier", 1)), List.of(), List.of());
+        when(productService.searchProducts("Amplifier", null, "tube", ProductAttributeFilters.none(), PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(dto), PageRequest.of(0, 20), 1));
+        when(productFacetService.getFacets("Amplifier", null, "tube", ProductAttributeFilters.none())).thenReturn(facets);
 
-        ResponseEntity<List<ProductDto>> response = productController.getProductsByBrand("Acme");
+        ResponseEntity<ProductSearchResponse> response =
+                productController.searchProducts("Amplifier", null, "tube", true, new LinkedMultiValueMap<>(), PageRequest.of(0, 20), getRequest());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(1, response.getBody().size());
-        assertEquals("Sneaker", response.getBody().get(0).getName());
+        assertEquals(1, response.getBody().totalElements());
+        assertEquals("Amp", response.getBody().content().get(0).name());
+        assertEquals(facets, response.getBody().facets());
+        verify(searchAnalyticsService).record(
+                ProductSearchQuery.of("Amplifier", null, "tube", ProductAttributeFilters.none(), PageRequest.of(0, 20), true));
+    }
+
+    @Test
+    void searchProducts_ShouldSkipFacets_ByDefault() {
+        when(productService.searchProducts(null, null, null, ProductAttributeFilters.none(), PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+
+        ResponseEntity<ProductSearchResponse> response =
+                productController.searchProducts(null, null, null, false, new LinkedMultiValueMap<>(), PageRequest.of(0, 20), getRequest());
+
+        assertNull(response.getBody().facets());
+        verifyNoInteractions(productFacetService);
+    }
+
+    @Test
+    void suggestProducts_ShouldReturnSuggestions() {
+        List<ProductSuggestionDto> suggestions = List.of(
+                new ProductSuggestionDto("Fender", ProductSuggestionDto.SuggestionType.BRAND, null));
+        when(productSuggestionService.suggest("fen", 8)).thenReturn(suggestions);
+
+        ResponseEntity<List<ProductSuggestionDto>> response = productController.suggestProducts("fen", 8);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(suggestions, response.getBody());
     }
 
     @Test
@@ -110,4 +259,121 @@ class ProductControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(productService).deleteProduct(5L);
     }
+
+    @Test
+    void getProductsByIds_ShouldUseCatalogValidators() {
+        ProductDto dto = new ProductDto(2L, "Mouse", "Wireless", new BigDecimal("49.90"), "img", "Accessories");
+        List<ProductBatchItemDto> items = List.of(ProductBatchItemDto.found(dto), ProductBatchItemDto.notFound(99L));
+        when(productBatchService.getProducts(List.of(2L, 99L))).thenReturn(items);
+
+        ResponseEntity<List<ProductBatchItemDto>> response = productController.getProductsByIds(List.of(2L, 99L), getRequest());
+
+        assertEquals(items, response.getBody());
+        assertEquals(catalogRevisionService.catalog().etag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    void getProductById_ShouldQueueRecentlyViewedEntry_ForExistingViewer() {
+        ServletWebRequest request = getRequest();
+        when(recentViewerResolver.resolve(any(), any())).thenReturn("g:abc");
+
+        ResponseEntity<ProductDto> response = getProduct(2L, request);
+
+        verify(recentlyViewedService).recordView("g:abc", 2L);
+        assertNull(response.getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void getProductById_ShouldNotRecordViews_WhenProductIsMissing() {
+        when(productService.getProductById(99L)).thenThrow(new ProductNotFoundException("Product not found with id 99"));
+
+        assertThrows(ProductNotFoundException.class, () -> getProduct(99L, getRequest()));
+
+        verifyNoInteractions(recentlyViewedService, recentViewerResolver, productTrendingService);
+    }
+
+    @Test
+    void recordView_ShouldCreateViewerAndNotBeStoredByCaches() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products/2/views");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(recentViewerResolver.resolveOrCreate(request, servletResponse, null)).thenReturn("g:new");
+
+        ResponseEntity<Void> response = productController.recordView(2L, request, servletResponse, null);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals("no-store", response.getHeaders().getCacheControl());
+        verify(recentlyViewedService).recordView("g:new", 2L);
+    }
+
+    @Test
+    void recordView_ShouldNotCreateViewer_WhenProductIsMissing() {
+        when(productService.getProductById(99L)).thenThrow(new ProductNotFoundException("Product not found with id 99"));
+
+        assertThrows(ProductNotFoundException.class, () -> productController.recordView(99L,
+                new MockHttpServletRequest(), new MockHttpServletResponse(), null));
+
+        verifyNoInteractions(recentlyViewedService, recentViewerResolver);
+    }
+
+    @Test
+    void getRecentlyViewed_ShouldNotBeStoredByCaches() {
+        ProductSummaryDto summary = new ProductSummaryDto(2L, "Mouse", new BigDecimal("49.90"), "img", "Accessories", null, null, 3);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/recently-viewed");
+        when(recentViewerResolver.resolve(request, null)).thenReturn("g:abc");
+        when(recentlyViewedService.getRecentlyViewed("g:abc", 10)).thenReturn(List.of(summary));
+
+        ResponseEntity<List<ProductSummaryDto>> response = productController.getRecentlyViewed(10, request, null);
+
+        assertEquals(List.of(summary), response.getBody());
+        assertEquals("no-store", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getProductById_ShouldReturnNotModified_WithoutCallingService_WhenETagMatches() {
+        ResponseEntity<ProductDto> first = getProduct(2L, getRequest());
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/products/2");
+        conditional.addHeader("If-None-Match", first.getHeaders().getETag());
+
+        ResponseEntity<ProductDto> second = getProduct(2L, new ServletWebRequest(conditional));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertNull(second.getBody());
+        verify(productService, times(1)).getProductById(2L);
+    }
+
+    @Test
+    void getProductById_ShouldChangeETag_AfterProductUpdate() {
+        ResponseEntity<ProductDto> before = getProduct(2L, getRequest());
+        catalogRevisionService.onProductChanged(ProductChangedEvent.updated(
+                new ProductDto(2L, "Mouse", "Wireless", new BigDecimal("39.90"), "img", "Accessories")));
+
+        ResponseEntity<ProductDto> after = getProduct(2L, getRequest());
+
+        assertNotEquals(before.getHeaders().getETag(), after.getHeaders().getETag());
+        assertEquals("max-age=60, public, stale-while-revalidate=300", after.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void searchProducts_ShouldReturnNotModified_WhenCatalogUnchanged() {
+        when(productService.searchProducts(null, null, "amp", ProductAttributeFilters.none(), PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.<ProductSummaryDto>of(), PageRequest.of(0, 20), 0));
+        String etag = productController.searchProducts(null, null, "amp", false, new LinkedMultiValueMap<>(), PageRequest.of(0, 20), getRequest())
+                .getHeaders().getETag();
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/products/search");
+        conditional.addHeader("If-None-Match", etag);
+
+        ResponseEntity<ProductSearchResponse> response = productController.searchProducts(
+                null, null, "amp", false, new LinkedMultiValueMap<>(), PageRequest.of(0, 20), new ServletWebRequest(conditional));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(productService, times(1)).searchProducts(null, null, "amp", ProductAttributeFilters.none(), PageRequest.of(0, 20));
+    }
+
+    private ResponseEntity<ProductDto> getProduct(Long id, ServletWebRequest request) {
+        return productController.getProductById(id, request, request.getRequest(), null);
+    }
+
+    private ServletWebRequest getRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/products"));
+    }
 }
@@ -1,5 +1,7 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.product.service.CatalogRevisionService;
+import com.example.ecommerce.product.service.LocalCatalogRevisionStore;
 import com.example.ecommerce.review.controller.ProductReviewController;
 import com.example.ecommerce.review.dto.CreateProductReviewRequest;
 import com.example.ecommerce.review.dto.ProductReviewResponse;
@@ -9,14 +11,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -30,6 +35,9 @@ class ProductReviewControllerTest {
     @Mock
     private ProductReviewService productReviewService;
 
+    @Spy
+    private CatalogRevisionService catalogRevisionService = new CatalogRevisionService(new LocalCatalogRevisionStore(), 60, 300);
+
     @InjectMocks
     private ProductReviewController productReviewController;
 
@@ -52,7 +60,8 @@ class ProductReviewControllerTest {
                 .thenReturn(new PageImpl<>(List.of(response)));
 
         ResponseEntity<Page<ProductReviewResponse>> result =
-                productReviewController.getProductReviews(10L, PageRequest.of(0, 10));
+                productReviewController.getProductReviews(10L, PageRequest.of(0, 10),
+                        new ServletWebRequest(new MockHttpServletRequest("GET", "/api/products/10/reviews")));
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(1, result.getBody().getTotalElements());
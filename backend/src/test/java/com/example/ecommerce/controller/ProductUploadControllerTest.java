@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.net.URI;
+import java.util.Optional;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -14,7 +17,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 
 import com.example.ecommerce.product.controller.ProductUploadController;
+import com.example.ecommerce.product.dto.ProductImageUploadJobDto;
 import com.example.ecommerce.product.dto.ProductImageUploadResponse;
+import com.example.ecommerce.product.service.ProductImageUploadPipeline;
 import com.example.ecommerce.product.service.ProductImageUploadService;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +28,9 @@ class ProductUploadControllerTest {
     @Mock
     private ProductImageUploadService productImageUploadService;
 
+    @Mock
+    private ProductImageUploadPipeline productImageUploadPipeline;
+
     @InjectMocks
     private ProductUploadController controller;
 
@@ -39,4 +47,24 @@ class ProductUploadControllerTest {
         assertEquals("https://cdn/img.png", response.getBody().getUrl());
         verify(productImageUploadService).uploadProductImage(file);
     }
+
+    @Test
+    void submitProductImage_returnsAcceptedWithJobLocation() {
+        MockMultipartFile file = new MockMultipartFile("file", "shoe.png", "image/png", new byte[] {1, 2, 3});
+        ProductImageUploadJobDto job = ProductImageUploadJobDto.queued("job-1", 7L);
+        when(productImageUploadPipeline.submit(7L, file)).thenReturn(job);
+
+        ResponseEntity<ProductImageUploadJobDto> response = controller.submitProductImage(7L, file);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(URI.create("/api/admin/uploads/jobs/job-1"), response.getHeaders().getLocation());
+        assertEquals(job, response.getBody());
+    }
+
+    @Test
+    void getUploadJob_returnsNotFoundForUnknownJob() {
+        when(productImageUploadPipeline.getJob("missing")).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, controller.getUploadJob("missing").getStatusCode());
+    }
 }
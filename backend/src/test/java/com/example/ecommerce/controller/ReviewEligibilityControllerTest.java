@@ -0,0 +1,51 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.review.controller.ReviewEligibilityController;
+import com.example.ecommerce.review.dto.ReviewEligibilityResponse;
+import com.example.ecommerce.review.service.ProductReviewService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewEligibilityControllerTest {
+
+    @Mock
+    private ProductReviewService productReviewService;
+
+    @InjectMocks
+    private ReviewEligibilityController reviewEligibilityController;
+
+    @AfterEach
+    void cleanupSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getEligibility_shouldReturnCurrentUsersEligibility() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        List<ReviewEligibilityResponse> eligibility = List.of(
+                new ReviewEligibilityResponse(10L, true, false, true),
+                new ReviewEligibilityResponse(11L, false, false, false));
+        when(productReviewService.getReviewEligibility("alice", List.of(10L, 11L))).thenReturn(eligibility);
+
+        ResponseEntity<List<ReviewEligibilityResponse>> result =
+                reviewEligibilityController.getEligibility(List.of(10L, 11L));
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(eligibility, result.getBody());
+    }
+}
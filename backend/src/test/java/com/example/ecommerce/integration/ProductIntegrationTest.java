@@ -84,6 +84,96 @@ class ProductIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.content[0].name").value("Vintage Telecaster"));
     }
 
+    @Test
+    void getProductsByCategory_returnsPagedActiveSummaries() throws Exception {
+        productRepository.save(activeProduct("Strat", "Electric"));
+        productRepository.save(activeProduct("Tele", "electric"));
+        productRepository.save(activeProduct("Jazzmaster", "Electric"));
+        productRepository.save(activeProduct("Dreadnought", "Acoustic"));
+
+        mockMvc.perform(get("/api/products/category/ELECTRIC").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[0].name").value("Strat"))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    @Test
+    void searchProducts_filtersByJsonbAttributesInDatabase() throws Exception {
+        Product sevenString = activeProduct("RG7 Seven", "Electric");
+        sevenString.setAttributesJson("{\"strings\": 7, \"pickup\": \"humbucker\"}");
+        productRepository.save(sevenString);
+        Product sixString = activeProduct("RG6 Six", "Electric");
+        sixString.setAttributesJson("{\"strings\": 6, \"pickup\": \"humbucker\"}");
+        productRepository.save(sixString);
+        Product singleCoil = activeProduct("Strat Eight", "Electric");
+        singleCoil.setAttributesJson("{\"strings\": 8, \"pickup\": \"single-coil\"}");
+        productRepository.save(singleCoil);
+
+        mockMvc.perform(get("/api/products/search")
+                        .param("attr.pickup", "humbucker")
+                        .param("attr.strings", "7..8")
+                        .param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("RG7 Seven"))
+                .andExpect(jsonPath("$.facets.categories[0].count").value(1));
+
+        mockMvc.perform(get("/api/products/category/Electric/attributes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].key").value("pickup"))
+                .andExpect(jsonPath("$[0].values[0].value").value("humbucker"))
+                .andExpect(jsonPath("$[0].values[0].count").value(2));
+    }
+
+    @Test
+    @WithMockUser(authorities = "PRODUCT_WRITE")
+    void importProducts_upsertsBySkuAndReportsRowErrors() throws Exception {
+        Product existing = activeProduct("Old Strat", "Electric");
+        existing.setSku("STR-1");
+        productRepository.save(existing);
+        String csv = """
+                sku,name,description,price,category,stock
+                STR-1,Fender Strat,"Alder body, maple neck",14999.00,Electric,4
+                TEL-1,Fender Tele,Ash body,13999.00,Electric,7
+                BAD-1,,No name,10.00,Electric,1
+                """;
+
+        mockMvc.perform(post("/api/admin/products/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(4));
+
+        assertThat(productRepository.count()).isEqualTo(2);
+        Product updated = productRepository.findById(existing.getId()).orElseThrow();
+        assertThat(updated.getName()).isEqualTo("Fender Strat");
+        assertThat(updated.getDescription()).isEqualTo("Alder body, maple neck");
+        assertThat(inventoryRepository.findByProductId(existing.getId()).orElseThrow().getAvailableStock()).isEqualTo(4);
+    }
+
+    @Test
+    @WithMockUser(authorities = "PRODUCT_WRITE")
+    void importProducts_dryRunWritesNothing() throws Exception {
+        String ndjson = """
+                {"sku":"AMP-1","name":"Tube Amp","description":"30W combo","price":7999.00,"category":"Amplifier","stock":3}
+                """;
+
+        mockMvc.perform(post("/api/admin/products/import")
+                        .param("dryRun", "true")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dryRun").value(true))
+                .andExpect(jsonPath("$.created").value(1));
+
+        assertThat(productRepository.count()).isZero();
+    }
+
     private Product activeProduct(String name, String category) {
         Product product = new Product();
         product.setName(name);
@@ -0,0 +1,116 @@
+package com.example.ecommerce.integration;
+
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRatingSummaryRepository;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.service.InMemoryProductSearchEngine;
+import com.example.ecommerce.product.service.PostgresProductSearchEngine;
+import com.example.ecommerce.product.service.ProductSearchEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Postgres (tsvector + pg_trgm) ile bellek içi indeks arasındaki arama
+ * gecikmesini aynı veri ve aynı sorgularla karşılaştırır.
+ *
+ * Normal test koşusunda çalışmaz; süre ölçtüğü için açıkça istenmeli:
+ * mvn test -Dtest=ProductSearchEngineBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductSearchEngineBenchmarkTest extends AbstractIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchEngineBenchmarkTest.class);
+
+    private static final int PRODUCT_COUNT = 5000;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+    private static final String[] BRANDS = {"Fender", "Gibson", "Yamaha", "Ibanez", "Marshall", "Boss", "Roland", "Korg"};
+    private static final String[] CATEGORIES = {"Elektro Gitar", "Akustik Gitar", "Amfi", "Pedal", "Klavye", "Aksesuar"};
+    private static final String[] WORDS = {"vintage", "tube", "classic", "stage", "studio", "deluxe", "custom",
+            "standard", "pro", "mini", "wireless", "overdrive", "maple", "rosewood", "humbucker", "combo"};
+    private static final String[][] QUERIES = {
+            {null, null, "tube"},
+            {null, null, "vintage maple"},
+            {"Amfi", null, "combo"},
+            {null, "Fender", "custom deluxe"},
+            {"Pedal", "Boss", null}
+    };
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductRatingSummaryRepository ratingSummaryRepository;
+
+    @Autowired
+    private PostgresProductSearchEngine postgresSearchEngine;
+
+    @Test
+    void compareSearchLatency() {
+        seedCatalog();
+        InMemoryProductSearchEngine inMemorySearchEngine = new InMemoryProductSearchEngine(productRepository, ratingSummaryRepository,
+                "memory");
+        inMemorySearchEngine.rebuildIndex();
+        assertThat(inMemorySearchEngine.isReady()).isTrue();
+
+        long[] postgres = measure(postgresSearchEngine);
+        long[] inMemory = measure(inMemorySearchEngine);
+
+        logger.info("Search benchmark over {} products, {} queries each", PRODUCT_COUNT, MEASURED_ROUNDS);
+        logger.info("postgres  p50={}us p99={}us", percentile(postgres, 50), percentile(postgres, 99));
+        logger.info("in-memory p50={}us p99={}us", percentile(inMemory, 50), percentile(inMemory, 99));
+
+        assertThat(inMemorySearchEngine.search(null, null, "tube", PageRequest.of(0, 20)).getTotalElements())
+                .isPositive();
+    }
+
+    private long[] measure(ProductSearchEngine engine) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(engine, i);
+        }
+        long[] micros = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            run(engine, i);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        return micros;
+    }
+
+    private void run(ProductSearchEngine engine, int round) {
+        String[] query = QUERIES[round % QUERIES.length];
+        engine.search(query[0], query[1], query[2], PageRequest.of(0, 20));
+    }
+
+    private long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private void seedCatalog() {
+        List<Product> products = new ArrayList<>(PRODUCT_COUNT);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            String brand = BRANDS[i % BRANDS.length];
+            String name = brand + " " + WORDS[i % WORDS.length] + " " + WORDS[(i * 7 + 3) % WORDS.length] + " " + i;
+            String description = WORDS[(i * 3 + 1) % WORDS.length] + " " + WORDS[(i * 5 + 2) % WORDS.length]
+                    + " sound for " + WORDS[(i * 11 + 4) % WORDS.length] + " players";
+            Product product = new Product(null, name, description, BigDecimal.valueOf(500 + i),
+                    "/products/item.jpg", CATEGORIES[i % CATEGORIES.length], 5);
+            product.setBrand(brand);
+            product.setSku("BENCH-" + i);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+    }
+}
@@ -10,6 +10,7 @@ import com.example.ecommerce.order.model.Order;
 import com.example.ecommerce.order.model.OrderStatus;
 import com.example.ecommerce.order.repository.OrderRepository;
 import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.order.service.PurchaseEligibilityService;
 import com.example.ecommerce.product.model.Product;
 import com.example.ecommerce.product.repository.ProductRepository;
 import com.example.ecommerce.review.repository.ProductReviewRepository;
@@ -24,6 +25,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -46,6 +48,8 @@ class ReviewIntegrationTest extends AbstractIntegrationTest {
     private InventoryService inventoryService;
     @Autowired
     private OrderService orderService;
+    @Autowired
+    private PurchaseEligibilityService purchaseEligibilityService;
 
     private Long productId;
 
@@ -96,6 +100,37 @@ class ReviewIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.rating").value(5));
 
         assertThat(productReviewRepository.count()).isEqualTo(1);
+
+        // Ozet ayni transaction icinde guncellenir; liste ve detay ek sorgu olmadan puani gosterir.
+        mockMvc.perform(get("/api/products/category/{category}", "Electric"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].rating.average").value(5.0))
+                .andExpect(jsonPath("$.content[0].rating.count").value(1));
+        mockMvc.perform(get("/api/products/{id}", productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rating.stars[4]").value(1));
+    }
+
+    @Test
+    @WithMockUser(username = USERNAME, authorities = "ORDER_WRITE")
+    void reviewEligibility_followsPurchaseAndReview() throws Exception {
+        mockMvc.perform(get("/api/reviews/eligibility").param("productIds", productId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].purchased").value(false))
+                .andExpect(jsonPath("$[0].eligible").value(false));
+
+        placePaidOrderForProduct();
+        mockMvc.perform(get("/api/reviews/eligibility").param("productIds", productId.toString()))
+                .andExpect(jsonPath("$[0].purchased").value(true))
+                .andExpect(jsonPath("$[0].eligible").value(true));
+
+        mockMvc.perform(post("/api/products/{productId}/reviews", productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REVIEW_BODY))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/reviews/eligibility").param("productIds", productId.toString()))
+                .andExpect(jsonPath("$[0].reviewed").value(true))
+                .andExpect(jsonPath("$[0].eligible").value(false));
     }
 
     private void placePaidOrderForProduct() {
@@ -106,8 +141,10 @@ class ReviewIntegrationTest extends AbstractIntegrationTest {
         request.setItems(List.of(item));
 
         Long orderId = orderService.createOrder(USERNAME, request).getId();
-        Order order = orderRepository.findById(orderId).orElseThrow();
+        Order order = orderRepository.findByIdWithItemsAndProduct(orderId).orElseThrow();
         order.setStatus(OrderStatus.PAID);
         orderRepository.save(order);
+        // Odeme akisi atlandigi icin satin alma indeksini de elle besliyoruz.
+        purchaseEligibilityService.recordPaid(order);
     }
 }
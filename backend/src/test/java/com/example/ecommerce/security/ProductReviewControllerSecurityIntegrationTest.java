@@ -4,6 +4,8 @@ import com.example.ecommerce.auth.security.JwtAuthenticationEntryPoint;
 import com.example.ecommerce.auth.security.JwtTokenProvider;
 import com.example.ecommerce.auth.security.SecurityConfig;
 import com.example.ecommerce.auth.service.JwtValidationService;
+import com.example.ecommerce.product.service.CatalogRevisionService;
+import com.example.ecommerce.product.service.CatalogRevisionStore;
 import com.example.ecommerce.review.controller.ProductReviewController;
 import com.example.ecommerce.review.dto.ProductReviewResponse;
 import com.example.ecommerce.review.service.ProductReviewService;
@@ -29,7 +31,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ProductReviewController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, CatalogRevisionService.class})
 class ProductReviewControllerSecurityIntegrationTest {
 
     @Autowired
@@ -49,6 +51,8 @@ class ProductReviewControllerSecurityIntegrationTest {
 
     @MockitoBean
     private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+    @MockitoBean
+    private CatalogRevisionStore catalogRevisionStore;
 
     @Test
     void getReviews_shouldBePublic() throws Exception {
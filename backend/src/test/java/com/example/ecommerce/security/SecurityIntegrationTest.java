@@ -25,12 +25,22 @@ import com.example.ecommerce.auth.security.JwtAuthenticationEntryPoint;
 import com.example.ecommerce.auth.security.JwtTokenProvider;
 import com.example.ecommerce.auth.security.SecurityConfig;
 import com.example.ecommerce.auth.service.JwtValidationService;
+import com.example.ecommerce.product.service.CatalogRevisionService;
+import com.example.ecommerce.product.service.CatalogRevisionStore;
+import com.example.ecommerce.product.service.ProductBatchService;
+import com.example.ecommerce.product.service.FrequentlyBoughtTogetherService;
 import com.example.ecommerce.product.controller.ProductController;
+import com.example.ecommerce.product.controller.RecentViewerResolver;
 import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.service.ProductFacetService;
 import com.example.ecommerce.product.service.ProductService;
+import com.example.ecommerce.product.service.ProductSuggestionService;
+import com.example.ecommerce.product.service.ProductTrendingService;
+import com.example.ecommerce.product.service.RecentlyViewedService;
+import com.example.ecommerce.product.service.SearchAnalyticsService;
 
 @WebMvcTest(controllers = ProductController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, CatalogRevisionService.class})
 class SecurityIntegrationTest {
 
     @Autowired
@@ -39,6 +49,30 @@ class SecurityIntegrationTest {
     @MockitoBean
     private ProductService productService;
 
+    @MockitoBean
+    private ProductFacetService productFacetService;
+
+    @MockitoBean
+    private ProductSuggestionService productSuggestionService;
+
+    @MockitoBean
+    private ProductTrendingService productTrendingService;
+
+    @MockitoBean
+    private FrequentlyBoughtTogetherService frequentlyBoughtTogetherService;
+
+    @MockitoBean
+    private SearchAnalyticsService searchAnalyticsService;
+
+    @MockitoBean
+    private RecentlyViewedService recentlyViewedService;
+
+    @MockitoBean
+    private RecentViewerResolver recentViewerResolver;
+
+    @MockitoBean
+    private ProductBatchService productBatchService;
+
     @MockitoBean
     private JwtTokenProvider jwtTokenProvider;
 
@@ -50,6 +84,8 @@ class SecurityIntegrationTest {
 
     @MockitoBean
     private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+    @MockitoBean
+    private CatalogRevisionStore catalogRevisionStore;
 
     @Test
     void getProducts_isPublic_returnsOkWithoutToken() throws Exception {
@@ -4,7 +4,9 @@ import java.time.Duration;
 import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import com.example.ecommerce.auth.model.AccountLockRecord;
 import com.example.ecommerce.auth.model.AuditLog;
+import com.example.ecommerce.auth.model.LoginRecord;
 import com.example.ecommerce.auth.service.AccountLockoutService;
 import com.example.ecommerce.auth.service.AuditService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +25,7 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -44,6 +47,14 @@ class AccountLockoutServiceTest {
     @Mock
     private RedisTemplate<String, Object> redisTemplate;
     @Mock
+    private RedisTemplate<String, AccountLockRecord> accountLockTemplate;
+    @Mock
+    private ValueOperations<String, AccountLockRecord> lockOps;
+    @Mock
+    private RedisTemplate<String, LoginRecord> loginRecordTemplate;
+    @Mock
+    private ValueOperations<String, LoginRecord> loginOps;
+    @Mock
     private AuditService auditService;
     @Mock
     private AccountLockoutService selfProxy;
@@ -62,13 +73,16 @@ class AccountLockoutServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new AccountLockoutService(redisTemplate, auditService, selfProxy);
+        service = new AccountLockoutService(redisTemplate, accountLockTemplate, loginRecordTemplate,
+                auditService, selfProxy);
         ReflectionTestUtils.setField(service, "maxFailedAttempts", 5);
         ReflectionTestUtils.setField(service, "lockoutDurationMinutes", 30);
         ReflectionTestUtils.setField(service, "attemptWindowMinutes", 15);
         ReflectionTestUtils.setField(service, "ipMaxAttempts", 10);
         when(connection.stringCommands()).thenReturn(stringCommands);
         when(connection.keyCommands()).thenReturn(keyCommands);
+        when(accountLockTemplate.opsForValue()).thenReturn(lockOps);
+        when(loginRecordTemplate.opsForValue()).thenReturn(loginOps);
     }
 
     @SuppressWarnings({"rawtypes"})
@@ -133,7 +147,7 @@ class AccountLockoutServiceTest {
         when(request.getHeader("X-Forwarded-For")).thenReturn("5.5.5.5");
         when(request.getHeader("User-Agent")).thenReturn("JUnit-UA");
         when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.get("auth:suspicious:alice")).thenReturn(null);
+        when(loginOps.get("auth:suspicious:alice")).thenReturn(null);
         pipelineReturns(List.of());
 
         service.recordLoginAttemptAsync("alice", true, null, request);
@@ -147,8 +161,8 @@ class AccountLockoutServiceTest {
         when(request.getHeader("X-Forwarded-For")).thenReturn("5.5.5.5");
         when(request.getHeader("User-Agent")).thenReturn("NewDevice-UA");
         when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.get("auth:suspicious:alice")).thenReturn(Map.of(
-                "ipAddress", "1.1.1.1", "userAgent", "OldDevice-UA"));
+        when(loginOps.get("auth:suspicious:alice")).thenReturn(
+                new LoginRecord("alice", "1.1.1.1", "OldDevice-UA", true, null, 0, Instant.now()));
         pipelineReturns(List.of());
 
         service.recordLoginAttemptAsync("alice", true, null, request);
@@ -192,10 +206,26 @@ class AccountLockoutServiceTest {
 
     @Test
     void getAccountLockInfo_shouldReturnStoredMap() {
-        Map<String, Object> info = Map.of("reason", "locked");
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        when(valueOps.get("auth:account_locked:alice")).thenReturn(info);
-        assertEquals(info, service.getAccountLockInfo("alice"));
+        Instant lockedAt = Instant.parse("2030-01-01T00:00:00Z");
+        when(lockOps.get("auth:account_locked:alice"))
+                .thenReturn(new AccountLockRecord(lockedAt, lockedAt.plusSeconds(1800), 5, "locked"));
+
+        Map<String, Object> info = service.getAccountLockInfo("alice");
+
+        assertEquals("locked", info.get("reason"));
+        assertEquals("2030-01-01T00:30:00Z", info.get("lockedUntil"));
+        assertEquals(5, info.get("attemptCount"));
+    }
+
+    @Test
+    void recordLoginAttemptAsync_failedAtThreshold_shouldStoreLockRecord() {
+        when(request.getHeader("X-Forwarded-For")).thenReturn("8.8.8.8");
+        pipelineReturns(List.of(5L, Boolean.TRUE, 1L, Boolean.TRUE));
+
+        service.recordLoginAttemptAsync("alice", false, "bad password", request);
+
+        verify(lockOps).set(eq("auth:account_locked:alice"), any(AccountLockRecord.class), eq(Duration.ofMinutes(30)));
+        verify(loginOps).set(startsWith("auth:attempt_details:alice:"), any(LoginRecord.class), eq(Duration.ofDays(1)));
     }
 
     @Test
@@ -8,7 +8,6 @@ import com.example.ecommerce.cart.service.CartItemService;
 import com.example.ecommerce.cart.service.CartItemServiceImpl;
 import com.example.ecommerce.inventory.service.InventoryService;
 import com.example.ecommerce.product.model.Product;
-import com.example.ecommerce.product.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,8 +40,6 @@ class CartItemServiceImplTest {
     @Mock
     private CartItemRepository cartItemRepository;
     @Mock
-    private ProductRepository productRepository;
-    @Mock
     private InventoryService inventoryService;
     @Mock
     private CartItemService selfProxy;
@@ -51,7 +48,7 @@ class CartItemServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        service = new CartItemServiceImpl(cartItemRepository, productRepository, inventoryService, selfProxy);
+        service = new CartItemServiceImpl(cartItemRepository, inventoryService, selfProxy);
     }
 
     private Product product(Long id, String price, int stock) {
@@ -118,7 +115,6 @@ class CartItemServiceImplTest {
     void saveCartItem_existingItemTriggersPriceCheck() {
         Product p = product(5L, "12.00", 3);
         CartItem item = item(7L, 1, "10.00", p);
-        when(productRepository.findById(5L)).thenReturn(Optional.of(p));
         when(cartItemRepository.save(item)).thenReturn(item);
         assertSame(item, service.saveCartItem(item));
     }
@@ -302,42 +298,27 @@ class CartItemServiceImplTest {
     }
 
     @Test
-    void refreshItemPrices_shouldUpdateChangedPrices() {
-        Product p = product(5L, "12.00", 3);
-        CartItem item = item(1L, 1, "10.00", p);
-        when(selfProxy.getCartItemsByCartId(2L)).thenReturn(List.of(item));
-        when(productRepository.findById(5L)).thenReturn(Optional.of(p));
-        when(selfProxy.saveCartItem(item)).thenReturn(item);
-
-        service.refreshItemPrices(2L);
-
-        assertEquals(new BigDecimal("12.00"), item.getUnitPrice());
-        verify(selfProxy).saveCartItem(item);
-    }
-
-    @Test
-    void refreshItemPrices_shouldSkipWhenPriceUnchanged() {
-        Product p = product(5L, "10.00", 3);
-        CartItem item = item(1L, 1, "10.00", p);
-        when(selfProxy.getCartItemsByCartId(2L)).thenReturn(List.of(item));
-        when(productRepository.findById(5L)).thenReturn(Optional.of(p));
+    void refreshItemPrices_shouldBulkUpdateAndReload() {
+        CartItem item = item(1L, 1, "12.00", product(5L, "12.00", 3));
+        when(cartItemRepository.refreshUnitPrices(2L)).thenReturn(1);
+        when(cartItemRepository.findByCartId(2L)).thenReturn(List.of(item));
 
-        service.refreshItemPrices(2L);
+        List<CartItem> result = service.refreshItemPrices(2L);
 
+        assertSame(item, result.get(0));
         verify(selfProxy, never()).saveCartItem(any());
     }
 
     @Test
     void refreshItemPrices_shouldWrapError() {
-        when(selfProxy.getCartItemsByCartId(2L)).thenThrow(new RuntimeException("boom"));
+        when(cartItemRepository.refreshUnitPrices(2L)).thenThrow(new RuntimeException("boom"));
         assertThrows(CartOperationException.class, () -> service.refreshItemPrices(2L));
     }
 
     @Test
-    void findItemsWithInsufficientStock_shouldFilter() {
-        CartItem ok = item(1L, 1, "10.00", product(5L, "10.00", 5));
+    void findItemsWithInsufficientStock_shouldUseRepositoryQuery() {
         CartItem low = item(2L, 8, "10.00", product(6L, "10.00", 3));
-        when(selfProxy.getCartItemsByCartId(2L)).thenReturn(List.of(ok, low));
+        when(cartItemRepository.findItemsWithInsufficientStock(2L)).thenReturn(List.of(low));
 
         List<CartItem> result = service.findItemsWithInsufficientStock(2L);
 
@@ -347,7 +328,7 @@ class CartItemServiceImplTest {
 
     @Test
     void findItemsWithInsufficientStock_shouldWrapError() {
-        when(selfProxy.getCartItemsByCartId(2L)).thenThrow(new RuntimeException("boom"));
+        when(cartItemRepository.findItemsWithInsufficientStock(2L)).thenThrow(new RuntimeException("boom"));
         assertThrows(CartOperationException.class,
                 () -> service.findItemsWithInsufficientStock(2L));
     }
@@ -3,25 +3,42 @@ package com.example.ecommerce.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.example.ecommerce.auth.model.User;
 import com.example.ecommerce.auth.repository.UserRepository;
+import com.example.ecommerce.cart.dto.CartAdjustmentDto;
 import com.example.ecommerce.cart.dto.CartDto;
+import com.example.ecommerce.cart.event.UserCartChangedEvent;
 import com.example.ecommerce.cart.model.Cart;
+import com.example.ecommerce.cart.model.CartItem;
+import com.example.ecommerce.cart.model.CartSnapshot;
+import com.example.ecommerce.cart.model.GuestCart;
+import com.example.ecommerce.cart.model.GuestCartItem;
 import com.example.ecommerce.cart.repository.CartRepository;
 import com.example.ecommerce.cart.service.CartServiceImpl;
 import com.example.ecommerce.cart.service.GuestCartService;
+import com.example.ecommerce.cart.service.CartValidationService;
+import com.example.ecommerce.cart.service.UserCartCache;
 import com.example.ecommerce.inventory.service.InventoryService;
 import com.example.ecommerce.product.model.Product;
 import com.example.ecommerce.product.repository.ProductRepository;
@@ -39,19 +56,26 @@ class CartServiceImplTest {
     private GuestCartService guestCartService;
     @Mock
     private InventoryService inventoryService;
+    @Mock
+    private UserCartCache userCartCache;
+    @Mock
+    private CartValidationService cartValidationService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private CartServiceImpl cartService;
 
     @BeforeEach
     void setUp() {
-        cartService = new CartServiceImpl(cartRepository, userRepository, productRepository, guestCartService, inventoryService);
+        cartService = new CartServiceImpl(cartRepository, userRepository, productRepository, guestCartService, inventoryService,
+                userCartCache, cartValidationService, eventPublisher);
     }
 
     @Test
     void addItemToCart_createsCartAndAddsNewItem() {
         User user = User.builder().id(1L).username("alice").build();
         Product product = new Product(100L, "Phone", "desc", new BigDecimal("99.90"), "img", "Cat", 10);
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.empty());
+        when(cartRepository.findByUserIdWithItems(1L)).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(cartRepository.save(any(Cart.class))).thenAnswer(inv -> inv.getArgument(0));
         when(productRepository.findById(100L)).thenReturn(Optional.of(product));
@@ -61,17 +85,94 @@ class CartServiceImplTest {
         assertEquals(2, dto.getTotalItems());
         assertEquals(new BigDecimal("199.80"), dto.getTotalAmount());
         verify(inventoryService).ensureAvailableStock(100L, 2);
+
+        ArgumentCaptor<UserCartChangedEvent> event = ArgumentCaptor.forClass(UserCartChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().userId());
+        assertEquals(List.of(new CartSnapshot.Line(100L, "Phone", 2, new BigDecimal("99.90"))),
+                event.getValue().snapshot().lines());
+    }
+
+    @Test
+    void getCartByUserId_servesCachedCartWithoutQueries() {
+        when(userCartCache.get(1L)).thenReturn(new CartSnapshot(7L,
+                List.of(new CartSnapshot.Line(100L, "Phone", 3, new BigDecimal("10.00")))));
+
+        CartDto dto = cartService.getCartByUserId(1L);
+
+        assertEquals(3, dto.getTotalItems());
+        assertEquals(new BigDecimal("30.00"), dto.getTotalAmount());
+        assertEquals("Phone", dto.getItems().get(0).getProductName());
+        verifyNoInteractions(cartRepository, userRepository, productRepository);
+    }
+
+    @Test
+    void getCartByUserId_cachesEmptyCartWithoutCreatingIt() {
+        when(cartRepository.findByUserIdWithItems(1L)).thenReturn(Optional.empty());
+
+        CartDto dto = cartService.getCartByUserId(1L);
+
+        assertEquals(0, dto.getTotalItems());
+        verify(userCartCache).putIfAbsent(1L, CartSnapshot.empty(null));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void addItemToCart_throwsWhenProductMissing() {
         Cart cart = new Cart();
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(cart));
+        when(cartRepository.findByUserIdWithItems(1L)).thenReturn(Optional.of(cart));
         when(productRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> cartService.addItemToCart(1L, 999L, 1));
     }
 
+    @Test
+    void mergeGuestCartToUserCart_batchesLookupsAndReportsStockAdjustments() {
+        Product strings = new Product(1L, "Strings", "desc", new BigDecimal("9.90"), "img", "Cat", 0);
+        Product capo = new Product(2L, "Capo", "desc", new BigDecimal("14.90"), "img", "Cat", 0);
+        Product tuner = new Product(3L, "Tuner", "desc", new BigDecimal("19.90"), "img", "Cat", 0);
+        Cart cart = new Cart();
+        cart.setId(7L);
+        CartItem existing = new CartItem();
+        existing.setProduct(strings);
+        existing.setQuantity(2);
+        existing.setUnitPrice(new BigDecimal("9.90"));
+        cart.addItem(existing);
+
+        GuestCart guestCart = new GuestCart();
+        guestCart.getItems().put(1L, guestItem(1L, "Strings", 3, "9.90"));
+        guestCart.getItems().put(2L, guestItem(2L, "Capo", 4, "14.90"));
+        guestCart.getItems().put(3L, guestItem(3L, "Tuner", 1, "19.90"));
+        guestCart.getItems().put(4L, guestItem(4L, "Gone", 1, "5.00"));
+
+        when(guestCartService.getGuestCartForMerging("sess-1")).thenReturn(guestCart);
+        when(cartRepository.findByUserIdWithItems(1L)).thenReturn(Optional.of(cart));
+        when(productRepository.findAllById(Set.of(1L, 2L, 3L, 4L))).thenReturn(List.of(strings, capo, tuner));
+        when(inventoryService.getAvailableStocks(any())).thenReturn(Map.of(1L, 4, 2L, 3, 3L, 0));
+
+        CartDto dto = cartService.mergeGuestCartToUserCart("sess-1", 1L);
+
+        assertEquals(7, dto.getTotalItems());
+        assertEquals(Set.of(
+                new CartAdjustmentDto(1L, "Strings", 3, 2, "REDUCED_FOR_STOCK"),
+                new CartAdjustmentDto(2L, "Capo", 4, 3, "REDUCED_FOR_STOCK"),
+                new CartAdjustmentDto(3L, "Tuner", 1, 0, "OUT_OF_STOCK"),
+                new CartAdjustmentDto(4L, "Gone", 1, 0, "PRODUCT_UNAVAILABLE")), Set.copyOf(dto.getAdjustments()));
+        assertEquals(4, existing.getQuantity());
+        verify(inventoryService, never()).ensureAvailableStock(anyLong(), anyInt());
+        verify(productRepository, never()).findById(any());
+        verify(guestCartService).clearGuestCart("sess-1");
+    }
+
+    private static GuestCartItem guestItem(Long productId, String name, int quantity, String unitPrice) {
+        GuestCartItem item = new GuestCartItem();
+        item.setProductId(productId);
+        item.setProductName(name);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        return item;
+    }
+
     @Test
     void getGuestCart_delegatesToGuestCartService() {
         CartDto guest = new CartDto();
@@ -0,0 +1,110 @@
+package com.example.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.ecommerce.cart.dto.CartLineChangeDto;
+import com.example.ecommerce.cart.dto.CartValidationDto;
+import com.example.ecommerce.cart.event.UserCartChangedEvent;
+import com.example.ecommerce.cart.repository.CartItemRepository;
+import com.example.ecommerce.cart.repository.CartValidationLineView;
+import com.example.ecommerce.cart.service.CartValidationService;
+
+@ExtendWith(MockitoExtension.class)
+class CartValidationServiceTest {
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CartValidationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CartValidationService(cartItemRepository, eventPublisher);
+    }
+
+    @Test
+    void validateCart_refreshesDriftedPricesInOneUpdate() {
+        when(cartItemRepository.findValidationLinesByUserId(1L)).thenReturn(List.of(
+                line(5L, "Bag", 2, "10.00", "12.50", 10, true),
+                line(6L, "Cap", 1, "8.00", "8.0", 10, true)));
+        when(cartItemRepository.refreshUnitPrices(30L)).thenReturn(1);
+
+        CartValidationDto result = service.validateCart(1L);
+
+        assertTrue(result.isPricesUpdated());
+        assertTrue(result.isCheckoutReady());
+        assertEquals(1, result.getChanges().size());
+        CartLineChangeDto change = result.getChanges().get(0);
+        assertEquals(CartValidationService.PRICE_CHANGED, change.getType());
+        assertEquals(new BigDecimal("10.00"), change.getPreviousPrice());
+        assertEquals(new BigDecimal("12.50"), change.getCurrentPrice());
+        assertEquals(new BigDecimal("33.00"), result.getCart().getTotalAmount());
+
+        ArgumentCaptor<UserCartChangedEvent> event = ArgumentCaptor.forClass(UserCartChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(new BigDecimal("12.50"), event.getValue().snapshot().lines().get(0).unitPrice());
+    }
+
+    @Test
+    void validateCart_reportsStockShortfallAndInactiveProducts() {
+        when(cartItemRepository.findValidationLinesByUserId(1L)).thenReturn(List.of(
+                line(5L, "Bag", 4, "10.00", "10.00", 3, true),
+                line(6L, "Cap", 1, "8.00", "8.00", 10, false)));
+
+        CartValidationDto result = service.validateCart(1L);
+
+        assertFalse(result.isPricesUpdated());
+        assertFalse(result.isCheckoutReady());
+        assertEquals(CartValidationService.INSUFFICIENT_STOCK, result.getChanges().get(0).getType());
+        assertEquals(3, result.getChanges().get(0).getAvailableQuantity());
+        assertEquals(CartValidationService.PRODUCT_UNAVAILABLE, result.getChanges().get(1).getType());
+        verify(cartItemRepository, never()).refreshUnitPrices(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void validateCart_emptyCartIsNotReadyForCheckout() {
+        when(cartItemRepository.findValidationLinesByUserId(1L)).thenReturn(List.of());
+
+        CartValidationDto result = service.validateCart(1L);
+
+        assertFalse(result.isCheckoutReady());
+        assertTrue(result.getChanges().isEmpty());
+        assertEquals(0, result.getCart().getTotalItems());
+    }
+
+    private CartValidationLineView line(Long productId, String name, int quantity, String unitPrice,
+                                        String currentPrice, int availableStock, boolean active) {
+        return new CartValidationLineView() {
+            public Long getCartId() { return 30L; }
+            public Long getItemId() { return productId * 10; }
+            public Long getProductId() { return productId; }
+            public String getProductName() { return name; }
+            public Integer getQuantity() { return quantity; }
+            public BigDecimal getUnitPrice() { return new BigDecimal(unitPrice); }
+            public BigDecimal getCurrentPrice() { return new BigDecimal(currentPrice); }
+            public Integer getAvailableStock() { return availableStock; }
+            public Boolean getActive() { return active; }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.event.CatalogEventReplay;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.event.ProductStockChangedEvent;
+import com.example.ecommerce.product.service.CatalogEventRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogEventRelayTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache cache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CatalogEventRelay sender;
+    private CatalogEventRelay receiver;
+
+    @BeforeEach
+    void setUp() {
+        sender = new CatalogEventRelay(redisTemplate, eventPublisher, cacheManager, objectMapper);
+        receiver = new CatalogEventRelay(redisTemplate, eventPublisher, cacheManager, objectMapper);
+    }
+
+    @Test
+    void productChange_ShouldBeReplayedOnOtherNodes_AndClearTheirListCaches() {
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+        ProductDto dto = new ProductDto(5L, "Strat", "Alder", new BigDecimal("14999.00"), null, "Electric");
+        dto.setStock(3);
+        AtomicBoolean replaying = new AtomicBoolean();
+        doAnswer(invocation -> {
+            replaying.set(CatalogEventReplay.isReplaying());
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+
+        sender.onProductChanged(ProductChangedEvent.updated(dto));
+        receiver.onMessage(new DefaultMessage(CatalogEventRelay.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                sentPayload()), null);
+
+        ArgumentCaptor<Object> replayed = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(replayed.capture());
+        ProductChangedEvent event = (ProductChangedEvent) replayed.getValue();
+        assertEquals(ProductChangedEvent.ChangeType.UPDATED, event.changeType());
+        assertEquals(5L, event.productId());
+        assertEquals(3, event.product().getStock());
+        assertTrue(replaying.get());
+        verify(cache, times(2)).clear();
+    }
+
+    @Test
+    void stockChange_ShouldBeReplayed_WithoutClearingListCaches() {
+        sender.onStockChanged(new ProductStockChangedEvent(5L, 2));
+        receiver.onMessage(new DefaultMessage(CatalogEventRelay.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                sentPayload()), null);
+
+        verify(eventPublisher).publishEvent(new ProductStockChangedEvent(5L, 2));
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    void ownMessages_ShouldBeIgnored() {
+        sender.onStockChanged(new ProductStockChangedEvent(5L, 2));
+        sender.onMessage(new DefaultMessage(CatalogEventRelay.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                sentPayload()), null);
+
+        verifyNoInteractions(eventPublisher, cacheManager);
+    }
+
+    @Test
+    void replayedEvents_ShouldNotBeRelayedAgain() {
+        CatalogEventReplay.replay(() -> receiver.onStockChanged(new ProductStockChangedEvent(5L, 2)));
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void unreadableMessages_ShouldBeIgnored() {
+        ObjectNode unknown = objectMapper.createObjectNode().put("origin", "other").put("type", "order");
+
+        receiver.onMessage(new DefaultMessage(CatalogEventRelay.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "not json".getBytes(StandardCharsets.UTF_8)), null);
+        receiver.onMessage(new DefaultMessage(CatalogEventRelay.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                unknown.toString().getBytes(StandardCharsets.UTF_8)), null);
+
+        verifyNoInteractions(eventPublisher, cacheManager);
+    }
+
+    private byte[] sentPayload() {
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CatalogEventRelay.CHANNEL), payload.capture());
+        return payload.getValue().getBytes(StandardCharsets.UTF_8);
+    }
+}
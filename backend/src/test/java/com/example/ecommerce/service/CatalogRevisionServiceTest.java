@@ -0,0 +1,127 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.event.CatalogEventReplay;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.event.ProductStockChangedEvent;
+import com.example.ecommerce.product.service.CatalogRevisionService;
+import com.example.ecommerce.product.service.CatalogRevisionStore;
+import com.example.ecommerce.product.service.LocalCatalogRevisionStore;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogRevisionServiceTest {
+
+    private final CatalogRevisionService catalogRevisionService = new CatalogRevisionService(new LocalCatalogRevisionStore(), 60, 300);
+
+    @Test
+    void validators_ShouldBeStrongAndStable_UntilSomethingChanges() {
+        String etag = catalogRevisionService.product(5L).etag();
+
+        assertTrue(etag.startsWith("\"p5-"));
+        assertFalse(etag.startsWith("W/"));
+        assertEquals(etag, catalogRevisionService.product(5L).etag());
+        assertNotEquals(etag, catalogRevisionService.product(6L).etag());
+    }
+
+    @Test
+    void onProductChanged_ShouldBumpProductAndCatalogOnly() {
+        String product = catalogRevisionService.product(5L).etag();
+        String other = catalogRevisionService.product(6L).etag();
+        String catalog = catalogRevisionService.catalog().etag();
+        String reviews = catalogRevisionService.reviews(5L).etag();
+
+        catalogRevisionService.onProductChanged(ProductChangedEvent.updated(product(5L)));
+
+        assertNotEquals(product, catalogRevisionService.product(5L).etag());
+        assertNotEquals(catalog, catalogRevisionService.catalog().etag());
+        assertEquals(other, catalogRevisionService.product(6L).etag());
+        assertEquals(reviews, catalogRevisionService.reviews(5L).etag());
+    }
+
+    @Test
+    void stockAndReviewEvents_ShouldBumpTheirScopes() {
+        String product = catalogRevisionService.product(5L).etag();
+        String reviews = catalogRevisionService.reviews(5L).etag();
+
+        catalogRevisionService.onStockChanged(new ProductStockChangedEvent(5L, 3));
+        catalogRevisionService.onReviewCreated(new ProductReviewCreatedEvent(5L, 90L, 4));
+
+        assertNotEquals(product, catalogRevisionService.product(5L).etag());
+        assertNotEquals(reviews, catalogRevisionService.reviews(5L).etag());
+    }
+
+    @Test
+    void stockChanged_ShouldLeaveTheCatalogStampAlone() {
+        String product = catalogRevisionService.product(5L).etag();
+        String catalog = catalogRevisionService.catalog().etag();
+
+        catalogRevisionService.onStockChanged(new ProductStockChangedEvent(5L, 2));
+
+        assertNotEquals(product, catalogRevisionService.product(5L).etag());
+        assertEquals(catalog, catalogRevisionService.catalog().etag());
+    }
+
+    @Test
+    void replayedEvents_ShouldNotBumpAgain() {
+        String product = catalogRevisionService.product(5L).etag();
+
+        CatalogEventReplay.replay(() -> catalogRevisionService.onStockChanged(new ProductStockChangedEvent(5L, 2)));
+
+        assertEquals(product, catalogRevisionService.product(5L).etag());
+    }
+
+    @Test
+    void reviewCreated_ShouldBumpProductAndCatalog_SinceRatingsAreListed() {
+        String product = catalogRevisionService.product(5L).etag();
+        String catalog = catalogRevisionService.catalog().etag();
+
+        catalogRevisionService.onReviewCreated(new ProductReviewCreatedEvent(5L, 91L, 5));
+
+        assertNotEquals(product, catalogRevisionService.product(5L).etag());
+        assertNotEquals(catalog, catalogRevisionService.catalog().etag());
+    }
+
+    @Test
+    void deletedProduct_ShouldAlsoInvalidateReviews() {
+        String reviews = catalogRevisionService.reviews(5L).etag();
+
+        catalogRevisionService.onProductChanged(ProductChangedEvent.deleted(product(5L)));
+
+        assertNotEquals(reviews, catalogRevisionService.reviews(5L).etag());
+    }
+
+    @Test
+    void validators_ShouldMatchAcrossNodes_SharingOneStore() {
+        LocalCatalogRevisionStore store = new LocalCatalogRevisionStore();
+        CatalogRevisionService node1 = new CatalogRevisionService(store, 60, 300);
+        CatalogRevisionService node2 = new CatalogRevisionService(store, 60, 300);
+
+        node1.onProductChanged(ProductChangedEvent.updated(product(5L)));
+
+        assertEquals(node1.product(5L), node2.product(5L));
+        assertEquals(node1.catalog(), node2.catalog());
+    }
+
+    @Test
+    void validators_ShouldNeverRepeat_WhenStoreIsUnavailable() {
+        CatalogRevisionStore store = mock(CatalogRevisionStore.class);
+        when(store.current("p5")).thenThrow(new IllegalStateException("redis down"));
+        CatalogRevisionService service = new CatalogRevisionService(store, 60, 300);
+
+        assertNotEquals(service.product(5L).etag(), service.product(5L).etag());
+    }
+
+    private ProductDto product(Long id) {
+        return new ProductDto(id, "Amp", "Tube", new BigDecimal("799.00"), "img", "Amfi");
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductRatingDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.repository.CatalogSnapshotRepository;
+import com.example.ecommerce.product.service.CatalogSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotServiceTest {
+
+    @Mock
+    private CatalogSnapshotRepository snapshotRepository;
+
+    @TempDir
+    Path dir;
+
+    private CatalogSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        service = service(true);
+    }
+
+    @Test
+    void writeAndRefresh_ShouldServeProductsFromTheMappedFile() {
+        ProductDto guitar = product(3L, "Guitar", new BigDecimal("1299.90"), 4);
+        guitar.setBrand("Fender");
+        guitar.setAttributesJson("{\"strings\":\"6\"}");
+        guitar.setImageDerivatives(Map.of("320.jpg", "https://cdn.example.com/3/320.jpg"));
+        guitar.setRating(ProductRatingDto.of(3, 13L, List.of(0, 0, 1, 1, 1)));
+        ProductDto pick = product(8L, "Pick", new BigDecimal("0.50"), 900);
+        givenCatalog(guitar, pick);
+
+        assertTrue(service.writeIfLeader());
+        service.refresh();
+
+        ProductDto served = service.find(3L).orElseThrow();
+        assertEquals("Guitar", served.getName());
+        assertEquals(new BigDecimal("1299.90"), served.getPrice());
+        assertEquals(4, served.getStock());
+        assertEquals("Fender", served.getBrand());
+        assertNull(served.getColor());
+        assertEquals("{\"strings\":\"6\"}", served.getAttributesJson());
+        assertEquals(guitar.getImageDerivatives(), served.getImageDerivatives());
+        assertEquals(guitar.getRating(), served.getRating());
+        assertNull(service.find(8L).orElseThrow().getRating());
+        assertTrue(service.find(5L).isEmpty());
+    }
+
+    @Test
+    void refresh_ShouldNotServeProductsChangedOrRemovedSinceTheSnapshot() {
+        givenCatalog(product(1L, "Amp", new BigDecimal("499.00"), 2),
+                product(2L, "Cable", new BigDecimal("9.90"), 50),
+                product(3L, "Strap", new BigDecimal("19.90"), 10));
+        service.writeIfLeader();
+        when(snapshotRepository.findChangedProductIdsSince(any())).thenReturn(Set.of(1L));
+        when(snapshotRepository.findActiveProductIds()).thenReturn(Set.of(1L, 3L));
+
+        service.refresh();
+
+        assertTrue(service.isServing());
+        assertTrue(service.find(1L).isEmpty());
+        assertTrue(service.find(2L).isEmpty());
+        assertEquals("Strap", service.find(3L).orElseThrow().getName());
+
+        service.onProductChanged(ProductChangedEvent.updated(product(3L, "Strap", new BigDecimal("24.90"), 10)));
+
+        assertTrue(service.find(3L).isEmpty());
+    }
+
+    @Test
+    void catchUp_ShouldOnlyCompareAllIds_WhenTheIdChecksumMoves() {
+        givenCatalog(product(1L, "Amp", new BigDecimal("499.00"), 2),
+                product(2L, "Cable", new BigDecimal("9.90"), 50));
+        service.writeIfLeader();
+        when(snapshotRepository.findChangedProductIdsSince(any())).thenReturn(Set.of());
+        when(snapshotRepository.checksumProductIdsUpTo(2L)).thenReturn(
+                new CatalogSnapshotRepository.IdChecksum(2, 3),
+                new CatalogSnapshotRepository.IdChecksum(2, 3),
+                new CatalogSnapshotRepository.IdChecksum(1, 1));
+        service.refresh();
+
+        service.refresh();
+        verify(snapshotRepository, times(1)).findActiveProductIds();
+        assertEquals("Cable", service.find(2L).orElseThrow().getName());
+
+        when(snapshotRepository.findActiveProductIds()).thenReturn(Set.of(1L));
+        service.refresh();
+        verify(snapshotRepository, times(2)).findActiveProductIds();
+        assertTrue(service.find(2L).isEmpty());
+    }
+
+    @Test
+    void writeIfLeader_ShouldSkip_WhenAnotherNodeHoldsTheLockOrJustWroteTheFile() {
+        when(snapshotRepository.tryAcquireSnapshotLock()).thenReturn(false);
+        assertFalse(service.writeIfLeader());
+
+        givenCatalog(product(1L, "Amp", new BigDecimal("499.00"), 2));
+        assertTrue(service.writeIfLeader());
+        assertFalse(service.writeIfLeader());
+        verify(snapshotRepository).streamActiveProducts(anyInt(), any());
+    }
+
+    @Test
+    void refresh_ShouldIgnoreCorruptFiles() throws Exception {
+        Files.write(dir.resolve("catalog.bin"), new byte[] {1, 2, 3});
+
+        service.refresh();
+
+        assertFalse(service.isServing());
+        verify(snapshotRepository, never()).findActiveProductIds();
+    }
+
+    @Test
+    void refresh_ShouldDoNothing_WhenDisabled() {
+        CatalogSnapshotService disabled = service(false);
+
+        disabled.refresh();
+        disabled.writeSnapshot();
+
+        assertTrue(disabled.find(1L).isEmpty());
+        verifyNoInteractions(snapshotRepository);
+    }
+
+    private CatalogSnapshotService service(boolean enabled) {
+        return new CatalogSnapshotService(snapshotRepository, null, enabled, dir.resolve("catalog.bin").toString(),
+                900_000, 120, 300);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenCatalog(ProductDto... products) {
+        when(snapshotRepository.tryAcquireSnapshotLock()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<ProductDto> consumer = invocation.getArgument(1);
+            for (ProductDto product : products) {
+                consumer.accept(product);
+            }
+            return null;
+        }).when(snapshotRepository).streamActiveProducts(anyInt(), any(Consumer.class));
+        Set<Long> ids = new HashSet<>();
+        for (ProductDto product : products) {
+            ids.add(product.getId());
+        }
+        lenient().when(snapshotRepository.findActiveProductIds()).thenReturn(ids);
+    }
+
+    private static ProductDto product(Long id, String name, BigDecimal price, int stock) {
+        ProductDto dto = new ProductDto(id, name, name + " description", price, null, "Music");
+        dto.setStock(stock);
+        return dto;
+    }
+}
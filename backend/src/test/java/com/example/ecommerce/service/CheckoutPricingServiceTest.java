@@ -25,6 +25,7 @@ import org.mockito.quality.Strictness;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -192,6 +193,17 @@ class CheckoutPricingServiceTest {
                 () -> service.buildPricing(List.of(orderItem(1L, 5)), 1L, null, null));
     }
 
+    @Test
+    void buildPricing_shouldCountUsersHeldStockAsAvailable() {
+        Product p = product(1L, "100.00", 10);
+        stockAvailable(p, 1);
+
+        OrderPricingResult result = service.buildPricing(
+                List.of(orderItem(1L, 5)), 1L, null, ShippingMethod.STANDARD, Map.of(1L, 4));
+
+        assertEquals(new BigDecimal("500.00"), result.subtotalAmount());
+    }
+
     @Test
     void buildPricing_shouldFallBackToProductStockWhenNoInventoryRow() {
         Product p = product(1L, "100.00", 5);
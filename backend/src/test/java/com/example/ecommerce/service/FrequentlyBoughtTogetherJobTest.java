@@ -0,0 +1,150 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.repository.ProductCoPurchaseBulkRepository;
+import com.example.ecommerce.product.service.FrequentlyBoughtTogetherJob;
+import com.example.ecommerce.product.service.FrequentlyBoughtTogetherService;
+import com.example.ecommerce.util.LongCounterMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FrequentlyBoughtTogetherJobTest {
+
+    @Mock
+    private ProductCoPurchaseBulkRepository coPurchaseBulkRepository;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache cache;
+
+    private FrequentlyBoughtTogetherJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new FrequentlyBoughtTogetherJob(coPurchaseBulkRepository, cacheManager, null, true, 100, 3, 60, 50);
+    }
+
+    @Test
+    void processNextChunk_ShouldCountDistinctPairsPerOrderAndAdvanceWatermark() {
+        when(coPurchaseBulkRepository.lockWatermark(anyString())).thenReturn(10L);
+        when(coPurchaseBulkRepository.findChunkUpperBound(eq(10L), any(Instant.class), eq(100))).thenReturn(13L);
+        streamLines(new long[][]{
+                {11, 1}, {11, 2}, {11, 2},
+                {12, 2}, {12, 1}, {12, 3},
+                {13, 4}
+        });
+
+        assertTrue(job.processNextChunk());
+
+        ArgumentCaptor<LongCounterMap> pairs = ArgumentCaptor.forClass(LongCounterMap.class);
+        verify(coPurchaseBulkRepository).addPairCounts(pairs.capture(), anyInt());
+        assertEquals(3, pairs.getValue().size());
+        assertEquals(2, pairs.getValue().get(pair(1, 2)));
+        assertEquals(1, pairs.getValue().get(pair(1, 3)));
+        assertEquals(1, pairs.getValue().get(pair(2, 3)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> touched = ArgumentCaptor.forClass(Collection.class);
+        verify(coPurchaseBulkRepository).pruneToTop(touched.capture(), eq(50));
+        assertEquals(Set.of(1L, 2L, 3L), Set.copyOf(touched.getValue()));
+        verify(coPurchaseBulkRepository).saveWatermark(anyString(), eq(13L));
+    }
+
+    @Test
+    void processNextChunk_ShouldCapProductsPerOrder() {
+        when(coPurchaseBulkRepository.lockWatermark(anyString())).thenReturn(0L);
+        when(coPurchaseBulkRepository.findChunkUpperBound(eq(0L), any(Instant.class), eq(100))).thenReturn(1L);
+        streamLines(new long[][]{{1, 1}, {1, 2}, {1, 3}, {1, 4}, {1, 5}});
+
+        job.processNextChunk();
+
+        ArgumentCaptor<LongCounterMap> pairs = ArgumentCaptor.forClass(LongCounterMap.class);
+        verify(coPurchaseBulkRepository).addPairCounts(pairs.capture(), anyInt());
+        assertEquals(3, pairs.getValue().size());
+        assertEquals(0, pairs.getValue().get(pair(1, 4)));
+    }
+
+    @Test
+    void processNextChunk_ShouldReturnFalse_WhenNoNewOrders() {
+        when(coPurchaseBulkRepository.lockWatermark(anyString())).thenReturn(42L);
+        when(coPurchaseBulkRepository.findChunkUpperBound(eq(42L), any(Instant.class), anyInt())).thenReturn(null);
+
+        assertFalse(job.processNextChunk());
+
+        verify(coPurchaseBulkRepository, never()).saveWatermark(anyString(), anyLong());
+    }
+
+    @Test
+    void run_ShouldClearCache_WhenAnyChunkWasProcessed() {
+        when(coPurchaseBulkRepository.lockWatermark(anyString())).thenReturn(0L, 5L);
+        when(coPurchaseBulkRepository.findChunkUpperBound(anyLong(), any(Instant.class), anyInt())).thenReturn(5L, null);
+        when(cacheManager.getCache(FrequentlyBoughtTogetherService.CACHE_NAME)).thenReturn(cache);
+
+        job.run();
+
+        verify(coPurchaseBulkRepository).saveWatermark(anyString(), eq(5L));
+        verify(cache).clear();
+    }
+
+    @Test
+    void onProductChanged_ShouldClearTheSameCache() {
+        FrequentlyBoughtTogetherService service = new FrequentlyBoughtTogetherService(null, cacheManager, 2);
+        when(cacheManager.getCache(FrequentlyBoughtTogetherService.CACHE_NAME)).thenReturn(cache);
+
+        service.onProductChanged(ProductChangedEvent.deleted(new ProductDto(7L, "Amp", "Tube", BigDecimal.TEN, "img", "Amps")));
+
+        verify(cache).clear();
+    }
+
+    @Test
+    void run_ShouldDoNothing_WhenDisabled() {
+        FrequentlyBoughtTogetherJob disabled =
+                new FrequentlyBoughtTogetherJob(coPurchaseBulkRepository, cacheManager, null, false, 100, 3, 60, 50);
+
+        disabled.run();
+
+        verifyNoInteractions(coPurchaseBulkRepository, cacheManager);
+    }
+
+    private void streamLines(long[][] lines) {
+        doAnswer(invocation -> {
+            ProductCoPurchaseBulkRepository.OrderLineHandler handler = invocation.getArgument(3);
+            for (long[] line : List.of(lines)) {
+                handler.accept(line[0], line[1]);
+            }
+            return null;
+        }).when(coPurchaseBulkRepository).streamOrderLines(anyLong(), anyLong(), anyInt(), any());
+    }
+
+    private static long pair(long low, long high) {
+        return (low << 32) | high;
+    }
+}
@@ -17,15 +17,20 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -60,32 +65,33 @@ class GuestCartServiceCoverageTest {
         return p;
     }
 
-    private GuestCart existingCart(String sessionId) {
-        GuestCart cart = new GuestCart();
-        cart.setSessionId(sessionId);
-        cart.addItem(1L, 1, new BigDecimal("100.00"), "Guitar");
-        return cart;
+    @SafeVarargs
+    private void givenScriptReplies(List<String> first, List<String>... next) {
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("guest_cart:s1")), any(Object[].class)))
+                .thenReturn(first, (Object[]) next);
     }
 
     @Test
-    void getGuestCart_shouldCreateNewCartWhenAbsent() {
-        when(valueOps.get("guest_cart:s1")).thenReturn(null);
+    void getGuestCart_shouldReturnEmptyCartWhenAbsent() {
+        givenScriptReplies(List.of("ok"));
 
         CartDto dto = service.getGuestCart("s1");
 
         assertEquals("guest", dto.getCartType());
         assertEquals(0, dto.getTotalItems());
-        verify(valueOps).set(eq("guest_cart:s1"), any(GuestCart.class), any());
+        verify(valueOps, never()).set(any(), any(), any(Duration.class));
     }
 
     @Test
     void addItemToGuestCart_shouldAddWhenStockAvailable() {
         when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L)));
-        when(valueOps.get("guest_cart:s1")).thenReturn(existingCart("s1"));
+        givenScriptReplies(List.of("ok", "1", "3|100.00|Guitar"));
 
         CartDto dto = service.addItemToGuestCart("s1", 1L, 2);
 
         assertEquals("guest", dto.getCartType());
+        assertEquals(3, dto.getTotalItems());
         verify(inventoryService).ensureAvailableStock(1L, 2);
     }
 
@@ -98,29 +104,34 @@ class GuestCartServiceCoverageTest {
 
     @Test
     void updateGuestCartItem_shouldCheckStockForPositiveQuantity() {
-        when(valueOps.get("guest_cart:s1")).thenReturn(existingCart("s1"));
+        givenScriptReplies(List.of("ok", "1", "3|100.00|Guitar"));
 
         service.updateGuestCartItem("s1", 1L, 3);
 
         verify(inventoryService).ensureAvailableStock(1L, 3);
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("guest_cart:s1")), eq("1"), eq("3"), eq("604800"));
     }
 
     @Test
     void updateGuestCartItem_shouldRemoveWhenQuantityZero() {
-        when(valueOps.get("guest_cart:s1")).thenReturn(existingCart("s1"));
+        givenScriptReplies(List.of("ok"));
 
         CartDto dto = service.updateGuestCartItem("s1", 1L, 0);
 
         assertEquals(0, dto.getTotalItems());
+        verify(inventoryService, never()).ensureAvailableStock(any(), anyInt());
     }
 
     @Test
     void removeItemFromGuestCart_shouldRemoveItem() {
-        when(valueOps.get("guest_cart:s1")).thenReturn(existingCart("s1"));
+        givenScriptReplies(List.of("ok"));
 
         CartDto dto = service.removeItemFromGuestCart("s1", 1L);
 
         assertEquals(0, dto.getTotalItems());
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("guest_cart:s1")), eq("1"), eq("0"), eq("604800"));
     }
 
     @Test
@@ -131,9 +142,20 @@ class GuestCartServiceCoverageTest {
 
     @Test
     void getGuestCartForMerging_shouldReturnCart() {
-        when(valueOps.get("guest_cart:s1")).thenReturn(existingCart("s1"));
+        givenScriptReplies(List.of("ok", "1", "1|100.00|Guitar"));
         GuestCart cart = service.getGuestCartForMerging("s1");
         assertEquals(1, cart.getTotalItems());
+        assertEquals(new BigDecimal("100.00"), cart.getTotalAmount());
+    }
+
+    @Test
+    void getGuestCart_shouldKeepSeparatorsInProductNamesAndSkipMalformedLines() {
+        givenScriptReplies(List.of("ok", "1", "2|10.00|Strings | 10-46", "2", "garbage"));
+
+        CartDto dto = service.getGuestCart("s1");
+
+        assertEquals(1, dto.getItems().size());
+        assertEquals("Strings | 10-46", dto.getItems().get(0).getProductName());
     }
 
     @Test
@@ -142,9 +164,28 @@ class GuestCartServiceCoverageTest {
         java.util.Map<String, Object> legacy = new java.util.HashMap<>();
         legacy.put("sessionId", "s1");
         when(valueOps.get("guest_cart:s1")).thenReturn(legacy);
+        givenScriptReplies(List.of("legacy"), List.of("ok"), List.of("ok"));
 
         CartDto dto = service.getGuestCart("s1");
 
         assertEquals("guest", dto.getCartType());
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("guest_cart:s1")), eq("604800"));
+    }
+
+    @Test
+    void addItemToGuestCart_shouldConvertLegacyCartBeforeAdding() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L)));
+        GuestCart legacy = new GuestCart();
+        legacy.setSessionId("s1");
+        legacy.addItem(4L, 1, new BigDecimal("5.00"), "Picks");
+        when(valueOps.get("guest_cart:s1")).thenReturn(legacy);
+        givenScriptReplies(List.of("legacy"), List.of("ok", "4", "1|5.00|Picks"),
+                List.of("ok", "4", "1|5.00|Picks", "1", "2|100.00|Guitar"));
+
+        CartDto dto = service.addItemToGuestCart("s1", 1L, 2);
+
+        assertEquals(3, dto.getTotalItems());
+        assertEquals(new BigDecimal("205.00"), dto.getTotalAmount());
     }
 }
@@ -1,23 +1,33 @@
 package com.example.ecommerce.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Optional;
 
+import io.lettuce.core.RedisCommandExecutionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.DataType;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import com.example.ecommerce.cart.dto.CartDto;
-import com.example.ecommerce.cart.model.GuestCart;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.example.ecommerce.cart.service.GuestCartService;
 import com.example.ecommerce.inventory.service.InventoryService;
@@ -40,32 +50,45 @@ class GuestCartServiceTest {
 
     @BeforeEach
     void setUp() {
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         guestCartService = new GuestCartService(redisTemplate, productRepository, inventoryService, new ObjectMapper());
     }
 
     @Test
-    void getGuestCart_whenNotExists_createsNewCart() {
-        when(valueOperations.get("guest_cart:sess-1")).thenReturn(null);
+    void getGuestCart_whenNotExists_returnsEmptyCartWithoutWriting() {
+        givenScriptReplies("guest_cart:sess-1", List.of("ok"));
 
         CartDto dto = guestCartService.getGuestCart("sess-1");
 
         assertEquals("guest", dto.getCartType());
         assertEquals(0, dto.getTotalItems());
-        verify(valueOperations).set(org.mockito.ArgumentMatchers.eq("guest_cart:sess-1"), org.mockito.ArgumentMatchers.any(GuestCart.class), org.mockito.ArgumentMatchers.any());
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    void getGuestCart_withoutSession_returnsEmptyCartWithoutRedis() {
+        CartDto dto = guestCartService.getGuestCart(null);
+        guestCartService.removeItemFromGuestCart(" ", 5L);
+        guestCartService.clearGuestCart(null);
+
+        assertEquals(0, dto.getTotalItems());
+        assertEquals(0, guestCartService.getGuestCartForMerging(null).getItems().size());
+        verifyNoInteractions(redisTemplate, inventoryService);
     }
 
     @Test
     void addItemToGuestCart_addsProductAndReturnsTotals() {
         Product product = new Product(5L, "Bag", "desc", new BigDecimal("30.00"), "img", "Cat", 10);
         when(productRepository.findById(5L)).thenReturn(Optional.of(product));
-        when(valueOperations.get("guest_cart:sess-2")).thenReturn(null);
+        givenScriptReplies("guest_cart:sess-2", List.of("ok", "5", "3|30.00|Bag"));
 
         CartDto dto = guestCartService.addItemToGuestCart("sess-2", 5L, 3);
 
         assertEquals(3, dto.getTotalItems());
         assertEquals(new BigDecimal("90.00"), dto.getTotalAmount());
+        assertEquals("Bag", dto.getItems().get(0).getProductName());
         verify(inventoryService).ensureAvailableStock(5L, 3);
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("guest_cart:sess-2")), eq("5"), eq("3"), eq("30.00"), eq("Bag"), eq("604800"));
     }
 
     @Test
@@ -85,14 +108,43 @@ class GuestCartServiceTest {
         items.put("9", item);
         legacy.put("items", items);
 
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         when(valueOperations.get("guest_cart:sess-legacy")).thenReturn(legacy);
+        givenScriptReplies("guest_cart:sess-legacy",
+                List.of("legacy"),
+                List.of("ok", "9", "2|15.00|Legacy Product"),
+                List.of("ok", "9", "2|15.00|Legacy Product"));
 
         CartDto dto = guestCartService.getGuestCart("sess-legacy");
 
         assertEquals(2, dto.getTotalItems());
         assertEquals(new BigDecimal("30.00"), dto.getTotalAmount());
-        verify(valueOperations).set(org.mockito.ArgumentMatchers.eq("guest_cart:sess-legacy"),
-                org.mockito.ArgumentMatchers.any(GuestCart.class),
-                org.mockito.ArgumentMatchers.any());
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("guest_cart:sess-legacy")), eq("604800"), eq("9"), eq("2|15.00|Legacy Product"));
+    }
+
+    @Test
+    void getGuestCart_whenAnotherRequestConvertedTheLegacyCart_readsTheHash() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("guest_cart:sess-race")).thenThrow(new RedisSystemException("Error in execution",
+                new RedisCommandExecutionException("WRONGTYPE Operation against a key holding the wrong kind of value")));
+        when(redisTemplate.type("guest_cart:sess-race")).thenReturn(DataType.HASH);
+        givenScriptReplies("guest_cart:sess-race",
+                List.of("legacy"),
+                List.of("ok", "9", "3|15.00|Legacy Product"));
+
+        CartDto dto = guestCartService.getGuestCart("sess-race");
+
+        assertEquals(3, dto.getTotalItems());
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of("guest_cart:sess-race")), any(Object[].class));
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void givenScriptReplies(String key, List<String> first, List<String>... next) {
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of(key)), any(Object[].class)))
+                .thenReturn(first, (Object[]) next);
     }
 }
@@ -0,0 +1,83 @@
+package com.example.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import com.example.ecommerce.cart.service.GuestCartStorageMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class GuestCartStorageMetricsTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+    @Mock
+    private RedisConnection connection;
+    @Mock
+    private Cursor<byte[]> cursor;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GuestCartStorageMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new GuestCartStorageMetrics(redisTemplate, meterRegistry, 2);
+        when(redisTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void refresh_ShouldCountKeysAndScaleSampledMemory() {
+        byte[] first = key("a");
+        byte[] second = key("b");
+        byte[] third = key("c");
+        when(connection.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, true, false);
+        when(cursor.next()).thenReturn(first, second, third);
+        when(connection.execute(eq("MEMORY"), any(byte[].class), eq(first))).thenReturn(100L);
+        when(connection.execute(eq("MEMORY"), any(byte[].class), eq(second))).thenReturn(200L);
+
+        metrics.refresh();
+
+        assertEquals(3, meterRegistry.get("ecommerce.guest_cart.keys").gauge().value());
+        assertEquals(450, meterRegistry.get("ecommerce.guest_cart.memory").gauge().value());
+    }
+
+    @Test
+    void refresh_ShouldKeepLastValues_WhenRedisIsUnavailable() {
+        when(connection.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(key("a"));
+        when(connection.execute(eq("MEMORY"), any(byte[].class), any(byte[].class))).thenReturn(80L);
+        metrics.refresh();
+
+        when(connectionFactory.getConnection()).thenThrow(new RedisConnectionFailureException("down"));
+        metrics.refresh();
+
+        assertEquals(1, meterRegistry.get("ecommerce.guest_cart.keys").gauge().value());
+        assertEquals(80, meterRegistry.get("ecommerce.guest_cart.memory").gauge().value());
+    }
+
+    private static byte[] key(String sessionId) {
+        return ("guest_cart:" + sessionId).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductRatingDto;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.model.ProductRatingSummary;
+import com.example.ecommerce.product.repository.ProductRatingSummaryRepository;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.service.InMemoryProductSearchEngine;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryProductSearchEngineTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductRatingSummaryRepository ratingSummaryRepository;
+
+    @Test
+    void search_ShouldRankByBm25AndApplyFilters() {
+        InMemoryProductSearchEngine engine = buildEngine(List.of(
+                product(1L, "Fender Stratocaster", "Classic electric guitar", "Elektro Gitar", "Fender"),
+                product(2L, "Marshall Tube Amp", "All tube amplifier with warm tube tone", "Amfi", "Marshall"),
+                product(3L, "Boss Tube Screamer", "Overdrive pedal", "Pedal", "Boss"),
+                product(4L, "Fender Blues Junior", "Tube combo amp", "Amfi", "Fender")));
+
+        assertTrue(engine.isReady());
+        assertEquals(List.of(2L, 4L, 3L), ids(engine.search(null, null, "tube amp", PageRequest.of(0, 10))));
+        assertEquals(List.of(4L), ids(engine.search("amfi", "FENDER", "tube", PageRequest.of(0, 10))));
+        assertEquals(List.of(4L, 1L), ids(engine.search(null, "Fender", null, PageRequest.of(0, 10))));
+        assertTrue(engine.search("Pedal", null, "stratocaster", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_ShouldPageResults() {
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            products.add(product(id, "Gitar " + id, "desc", "Gitar", "Brand"));
+        }
+        InMemoryProductSearchEngine engine = buildEngine(products);
+
+        Page<ProductSummaryDto> page = engine.search(null, null, "gitar", PageRequest.of(2, 10));
+
+        assertEquals(25, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(5, page.getNumberOfElements());
+    }
+
+    @Test
+    void onProductChanged_ShouldUpdateIndexIncrementally() {
+        InMemoryProductSearchEngine engine = buildEngine(List.of(
+                product(1L, "Fender Stratocaster", "Electric guitar", "Elektro Gitar", "Fender"),
+                product(2L, "Yamaha Pacifica", "Electric guitar", "Elektro Gitar", "Yamaha")));
+
+        ProductDto renamed = dto(1L, "Fender Telecaster", "Electric guitar", "Elektro Gitar", "Fender");
+        engine.onProductChanged(ProductChangedEvent.updated(renamed));
+        engine.onProductChanged(ProductChangedEvent.deleted(dto(2L, "Yamaha Pacifica", "", "", "")));
+        engine.onProductChanged(ProductChangedEvent.created(dto(3L, "Ibanez RG", "Electric guitar", "Elektro Gitar", "Ibanez")));
+
+        assertTrue(engine.search(null, null, "stratocaster", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(1L), ids(engine.search(null, null, "telecaster", PageRequest.of(0, 10))));
+        assertEquals(List.of(3L, 1L), ids(engine.search("Elektro Gitar", null, null, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void onProductChanged_ShouldSurviveCompaction() {
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 80; id++) {
+            products.add(product(id, "Pena " + id, "desc", "Aksesuar", "Dunlop"));
+        }
+        InMemoryProductSearchEngine engine = buildEngine(products);
+
+        for (long id = 1; id <= 40; id++) {
+            engine.onProductChanged(ProductChangedEvent.updated(dto(id, "Pena " + id, "desc", "Aksesuar", "Dunlop")));
+        }
+
+        assertEquals(80, engine.search(null, "dunlop", "pena", PageRequest.of(0, 100)).getTotalElements());
+    }
+
+    @Test
+    void search_ShouldAttachRatings_FromSummariesAndReviewEvents() {
+        ProductRatingSummary summary = new ProductRatingSummary();
+        summary.setProductId(1L);
+        summary.setReviewCount(2);
+        summary.setRatingSum(9);
+        when(ratingSummaryRepository.findAll()).thenReturn(List.of(summary));
+        InMemoryProductSearchEngine engine = buildEngine(List.of(
+                product(1L, "Fender Stratocaster", "Electric guitar", "Elektro Gitar", "Fender"),
+                product(2L, "Yamaha Pacifica", "Electric guitar", "Elektro Gitar", "Yamaha"),
+                product(3L, "Ibanez RG", "Electric guitar", "Elektro Gitar", "Ibanez")));
+
+        engine.onReviewCreated(new ProductReviewCreatedEvent(1L, 10L, 3));
+        engine.onReviewCreated(new ProductReviewCreatedEvent(2L, 11L, 5));
+
+        Map<Long, ProductRatingDto> ratings = new HashMap<>();
+        engine.search(null, null, "guitar", PageRequest.of(0, 10))
+                .forEach(summaryDto -> ratings.put(summaryDto.id(), summaryDto.rating()));
+        assertEquals(new BigDecimal("4.00"), ratings.get(1L).average());
+        assertEquals(3, ratings.get(1L).count());
+        assertEquals(1, ratings.get(2L).count());
+        assertNull(ratings.get(3L));
+    }
+
+    @Test
+    void rebuildIndex_ShouldDoNothing_WhenEngineNotSelected() {
+        InMemoryProductSearchEngine engine = new InMemoryProductSearchEngine(productRepository, ratingSummaryRepository, "postgres");
+
+        engine.rebuildIndex();
+        engine.onProductChanged(ProductChangedEvent.created(dto(1L, "Amp", "", "Amfi", "Boss")));
+
+        assertFalse(engine.isReady());
+        verifyNoInteractions(productRepository);
+    }
+
+    private InMemoryProductSearchEngine buildEngine(List<Product> products) {
+        when(productRepository.findByActiveTrue(any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    Pageable pageable = invocation.getArgument(0);
+                    int from = (int) Math.min(pageable.getOffset(), products.size());
+                    int to = Math.min(from + pageable.getPageSize(), products.size());
+                    return new PageImpl<>(products.subList(from, to), pageable, products.size());
+                });
+        InMemoryProductSearchEngine engine = new InMemoryProductSearchEngine(productRepository, ratingSummaryRepository, "memory");
+        engine.rebuildIndex();
+        return engine;
+    }
+
+    private List<Long> ids(Page<ProductSummaryDto> page) {
+        return page.getContent().stream().map(ProductSummaryDto::id).toList();
+    }
+
+    private Product product(Long id, String name, String description, String category, String brand) {
+        Product product = new Product(id, name, description, new BigDecimal("1000.00"), "img", category, 1);
+        product.setBrand(brand);
+        return product;
+    }
+
+    private ProductDto dto(Long id, String name, String description, String category, String brand) {
+        ProductDto dto = new ProductDto(id, name, description, new BigDecimal("1000.00"), "img", category);
+        dto.setBrand(brand);
+        return dto;
+    }
+}
@@ -15,6 +15,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -37,11 +38,14 @@ class InventoryServiceCoverageTest {
     @Mock
     private InventoryService selfProxy;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private InventoryService service;
 
     @BeforeEach
     void setUp() {
-        service = new InventoryService(inventoryRepository, productRepository, selfProxy);
+        service = new InventoryService(inventoryRepository, productRepository, selfProxy, eventPublisher);
     }
 
     private Product product(Long id, int stock) {
@@ -2,17 +2,23 @@ package com.example.ecommerce.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.example.ecommerce.cart.exception.InsufficientStockException;
 import com.example.ecommerce.inventory.model.InventoryItem;
@@ -33,11 +39,14 @@ class InventoryServiceTest {
     @Mock
     private InventoryService selfProxy;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private InventoryService inventoryService;
 
     @BeforeEach
     void setUp() {
-        inventoryService = new InventoryService(inventoryRepository, productRepository, selfProxy);
+        inventoryService = new InventoryService(inventoryRepository, productRepository, selfProxy, eventPublisher);
     }
 
     @Test
@@ -50,6 +59,18 @@ class InventoryServiceTest {
         verify(inventoryRepository).save(org.mockito.ArgumentMatchers.any(InventoryItem.class));
     }
 
+    @Test
+    void getAvailableStocks_prefersInventoryRowsAndFallsBackToProductStock() {
+        Product tracked = new Product(1L, "Phone", "Desc", new BigDecimal("100.00"), "img", "Cat", 10);
+        Product untracked = new Product(2L, "Case", "Desc", new BigDecimal("10.00"), "img", "Cat", 4);
+        InventoryItem item = new InventoryItem();
+        item.setProduct(tracked);
+        item.setAvailableStock(7);
+        when(inventoryRepository.findByProductIdIn(Set.of(1L, 2L))).thenReturn(List.of(item));
+
+        assertEquals(Map.of(1L, 7, 2L, 4), inventoryService.getAvailableStocks(List.of(tracked, untracked)));
+    }
+
     @Test
     void getAvailableStock_readsFromInventoryItem_whenExists() {
         InventoryItem item = new InventoryItem();
@@ -66,4 +87,34 @@ class InventoryServiceTest {
 
         assertThrows(InsufficientStockException.class, () -> inventoryService.ensureAvailableStock(3L, 5));
     }
+
+    @Test
+    void reserveStock_movesQuantityIntoReservedStock() {
+        when(inventoryRepository.reserveStock(1L, 2)).thenReturn(1);
+
+        inventoryService.reserveStock(Map.of(1L, 2));
+
+        verify(inventoryRepository).syncProductStock(Set.of(1L));
+    }
+
+    @Test
+    void reserveStock_throwsWhenStockIsShort() {
+        when(inventoryRepository.reserveStock(1L, 5)).thenReturn(0);
+        when(inventoryRepository.findByProductId(1L)).thenReturn(Optional.of(new InventoryItem()));
+        when(selfProxy.getAvailableStock(1L)).thenReturn(3);
+
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserveStock(Map.of(1L, 5)));
+        verify(inventoryRepository, never()).syncProductStock(org.mockito.ArgumentMatchers.any());
+    }
+
+    @Test
+    void consumeReservedStock_takesHeldUnitsFirstAndReleasesTheRest() {
+        when(inventoryRepository.consumeReservedStock(1L, 2, 1)).thenReturn(1);
+
+        inventoryService.consumeReservedStock(Map.of(1L, 2, 2L, 4), Map.of(1L, 3));
+
+        verify(inventoryRepository).releaseReservedStock(2L, 4);
+        verify(inventoryRepository, never()).releaseReservedStock(org.mockito.ArgumentMatchers.eq(1L), anyInt());
+        verify(inventoryRepository, never()).consumeReservedStock(org.mockito.ArgumentMatchers.eq(2L), anyInt(), anyInt());
+    }
 }
@@ -10,6 +10,7 @@ import com.example.ecommerce.order.model.OrderStatus;
 import com.example.ecommerce.order.model.PaymentProviderStatus;
 import com.example.ecommerce.order.repository.OrderRepository;
 import com.example.ecommerce.order.service.CheckoutPricingService;
+import com.example.ecommerce.order.service.PurchaseEligibilityService;
 import com.example.ecommerce.payment.iyzico.IyzicoGatewayClient;
 import com.example.ecommerce.payment.iyzico.IyzicoInitializeResult;
 import com.example.ecommerce.payment.iyzico.IyzicoPaymentService;
@@ -32,6 +33,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +50,8 @@ class IyzicoPaymentServiceTest {
     private CartService cartService;
     @Mock
     private AuditService auditService;
+    @Mock
+    private PurchaseEligibilityService purchaseEligibilityService;
 
     private IyzicoPaymentService paymentService;
 
@@ -69,7 +73,8 @@ class IyzicoPaymentServiceTest {
                 checkoutPricingService,
                 cartService,
                 auditService,
-                new SimpleMeterRegistry()
+                new SimpleMeterRegistry(),
+                purchaseEligibilityService
         );
     }
 
@@ -136,6 +141,7 @@ class IyzicoPaymentServiceTest {
         assertEquals(PaymentProviderStatus.SUCCESS, response.getPaymentStatus());
         assertEquals("payment-123", response.getPaymentReferenceId());
         verify(cartService).clearCart(10L);
+        verify(purchaseEligibilityService).recordPaid(order);
     }
 
     @Test
@@ -157,7 +163,8 @@ class IyzicoPaymentServiceTest {
                 checkoutPricingService,
                 cartService,
                 auditService,
-                new SimpleMeterRegistry()
+                new SimpleMeterRegistry(),
+                purchaseEligibilityService
         );
 
         assertThrows(IllegalStateException.class, () -> productionGuardService.initializePayment("alice", 1L, "tr"));
@@ -186,6 +193,7 @@ class IyzicoPaymentServiceTest {
 
         assertEquals(false, response.isSuccess());
         assertEquals(OrderStatus.CANCELLED, response.getOrderStatus());
+        verifyNoInteractions(purchaseEligibilityService);
     }
 
     @Test
@@ -1,7 +1,9 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.auth.model.SessionRecord;
 import com.example.ecommerce.auth.security.JwtUtils;
 import com.example.ecommerce.auth.service.JwtBlacklistService;
+import io.lettuce.core.RedisCommandExecutionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,10 +11,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.DataType;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.Cursor;
-import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.SetOperations;
@@ -47,14 +50,16 @@ class JwtBlacklistServiceTest {
     @Mock
     private RedisTemplate<String, Object> redisTemplate;
     @Mock
+    private RedisTemplate<String, SessionRecord> sessionRecordTemplate;
+    @Mock
+    private ValueOperations<String, SessionRecord> sessionOps;
+    @Mock
     private JwtUtils jwtUtils;
     @Mock
     private ValueOperations<String, Object> valueOps;
     @Mock
     private SetOperations<String, Object> setOps;
     @Mock
-    private HashOperations<String, Object, Object> hashOps;
-    @Mock
     private RedisConnectionFactory connectionFactory;
     @Mock
     private RedisConnection connection;
@@ -63,7 +68,8 @@ class JwtBlacklistServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new JwtBlacklistService(redisTemplate, jwtUtils);
+        service = new JwtBlacklistService(redisTemplate, sessionRecordTemplate, jwtUtils);
+        when(sessionRecordTemplate.opsForValue()).thenReturn(sessionOps);
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -178,6 +184,7 @@ class JwtBlacklistServiceTest {
 
         assertTrue(result.isDone());
         assertFalse(result.isCompletedExceptionally());
+        verify(sessionOps).set(eq("jwt:metadata:tid-1"), any(SessionRecord.class), anyLong(), eq(TimeUnit.SECONDS));
         verify(redisTemplate).executePipelined(any(RedisCallback.class));
     }
 
@@ -206,14 +213,41 @@ class JwtBlacklistServiceTest {
     @Test
     void getTokenMetadata_shouldReturnMappedEntries() {
         when(jwtUtils.getTokenId(TOKEN)).thenReturn("tid-1");
-        when(redisTemplate.opsForHash()).thenReturn(hashOps);
-        when(hashOps.entries("jwt:metadata:tid-1")).thenReturn(Map.of("username", "alice"));
+        when(sessionOps.get("jwt:metadata:tid-1")).thenReturn(new SessionRecord("alice", "1.2.3.4", "JUnit-UA",
+                Instant.parse("2030-01-01T00:00:00Z"), "fp", "hash", null));
+
+        Map<String, Object> metadata = service.getTokenMetadata(TOKEN);
+
+        assertEquals("alice", metadata.get("username"));
+        assertEquals("2030-01-01T00:00:00Z", metadata.get("issuedAt"));
+        assertFalse(metadata.containsKey("expiresAt"));
+    }
+
+    @Test
+    void getTokenMetadata_shouldReadLegacyHashMetadata() {
+        when(jwtUtils.getTokenId(TOKEN)).thenReturn("tid-1");
+        when(sessionOps.get("jwt:metadata:tid-1")).thenThrow(wrongType());
+        when(redisTemplate.type("jwt:metadata:tid-1")).thenReturn(DataType.HASH);
+        when(connection.hGetAll("jwt:metadata:tid-1".getBytes(StandardCharsets.UTF_8))).thenReturn(Map.of(
+                "username".getBytes(StandardCharsets.UTF_8), "alice".getBytes(StandardCharsets.UTF_8)));
+        runCallbacksAgainstConnection();
 
         Map<String, Object> metadata = service.getTokenMetadata(TOKEN);
 
         assertEquals("alice", metadata.get("username"));
     }
 
+    @Test
+    void getTokenMetadata_shouldNotReadHash_WhenFailureIsNotWrongType() {
+        when(jwtUtils.getTokenId(TOKEN)).thenReturn("tid-1");
+        when(sessionOps.get("jwt:metadata:tid-1"))
+                .thenThrow(new RedisSystemException("Redis exception", new RedisCommandExecutionException("ERR unknown")));
+        when(redisTemplate.type("jwt:metadata:tid-1")).thenReturn(DataType.STRING);
+
+        assertTrue(service.getTokenMetadata(TOKEN).isEmpty());
+        verify(connection, never()).hGetAll(any());
+    }
+
     @Test
     void getTokenMetadata_shouldReturnEmptyOnError() {
         when(jwtUtils.getTokenId(TOKEN)).thenThrow(new RuntimeException("boom"));
@@ -312,4 +346,10 @@ class JwtBlacklistServiceTest {
         service.cleanupExpiredMetadata();
         verify(redisTemplate, never()).delete(anyString());
     }
+
+    // What Lettuce surfaces through Spring Data Redis for a GET against a hash key.
+    private static RedisSystemException wrongType() {
+        return new RedisSystemException("Error in execution", new RedisCommandExecutionException(
+                "WRONGTYPE Operation against a key holding the wrong kind of value"));
+    }
 }
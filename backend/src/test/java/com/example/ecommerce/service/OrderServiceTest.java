@@ -4,9 +4,11 @@ import com.example.ecommerce.auth.model.User;
 import com.example.ecommerce.auth.service.AuditService;
 import com.example.ecommerce.auth.service.UserService;
 import com.example.ecommerce.inventory.service.InventoryService;
+import com.example.ecommerce.inventory.service.StockHoldService;
 import com.example.ecommerce.order.dto.CheckoutQuoteRequest;
 import com.example.ecommerce.order.dto.CreateOrderRequest;
 import com.example.ecommerce.order.dto.OrderItemRequest;
+import com.example.ecommerce.order.event.OrderChangedEvent;
 import com.example.ecommerce.order.exception.OrderAccessDeniedException;
 import com.example.ecommerce.order.model.Order;
 import com.example.ecommerce.order.model.OrderItem;
@@ -17,21 +19,26 @@ import com.example.ecommerce.order.service.CheckoutPricingService;
 import com.example.ecommerce.order.service.OrderPricingItem;
 import com.example.ecommerce.order.service.OrderPricingResult;
 import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.order.service.PurchaseEligibilityService;
 import com.example.ecommerce.product.model.Product;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,9 +52,15 @@ class OrderServiceTest {
     @Mock
     private InventoryService inventoryService;
     @Mock
+    private StockHoldService stockHoldService;
+    @Mock
     private CheckoutPricingService checkoutPricingService;
     @Mock
     private AuditService auditService;
+    @Mock
+    private PurchaseEligibilityService purchaseEligibilityService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private OrderService orderService;
 
@@ -57,9 +70,12 @@ class OrderServiceTest {
                 orderRepository,
                 userService,
                 inventoryService,
+                stockHoldService,
                 checkoutPricingService,
                 auditService,
-                new SimpleMeterRegistry()
+                new SimpleMeterRegistry(),
+                purchaseEligibilityService,
+                eventPublisher
         );
     }
 
@@ -82,7 +98,7 @@ class OrderServiceTest {
         request.setItems(List.of(item));
 
         when(userService.getByUsername("alice")).thenReturn(user);
-        when(checkoutPricingService.buildPricing(any(), any(), any(), any()))
+        when(checkoutPricingService.buildPricing(any(), any(), any(), any(), any()))
                 .thenReturn(new OrderPricingResult(
                         List.of(new OrderPricingItem(product, 2)),
                         new BigDecimal("2000.00"),
@@ -107,6 +123,49 @@ class OrderServiceTest {
         assertEquals(new BigDecimal("2000.00"), response.getTotalAmount());
         assertEquals(1, response.getItems().size());
         verify(inventoryService).decreaseStockWithOptimisticLock(5L, 2);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof OrderChangedEvent changed
+                && changed.changeType() == OrderChangedEvent.ChangeType.CREATED
+                && changed.lines().get(0).quantity() == 2));
+    }
+
+    @Test
+    void createOrder_ShouldConsumeHeldStockInsteadOfDecreasing() {
+        User user = User.builder()
+                .id(2L)
+                .username("alice")
+                .password("pw")
+                .email("alice@test.com")
+                .firstName("A")
+                .lastName("L")
+                .build();
+        Product product = new Product(5L, "Guitar", "Desc", new BigDecimal("1000.00"), "img", "Strings", 10);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(5L);
+        item.setQuantity(2);
+        request.setItems(List.of(item));
+
+        when(userService.getByUsername("alice")).thenReturn(user);
+        when(stockHoldService.claimHold(2L)).thenReturn(Map.of(5L, 2));
+        when(checkoutPricingService.buildPricing(any(), any(), any(), any(), eq(Map.of(5L, 2))))
+                .thenReturn(new OrderPricingResult(
+                        List.of(new OrderPricingItem(product, 2)),
+                        new BigDecimal("2000.00"),
+                        BigDecimal.ZERO,
+                        BigDecimal.ZERO,
+                        BigDecimal.ZERO,
+                        new BigDecimal("2000.00"),
+                        ShippingMethod.STANDARD,
+                        null,
+                        null
+                ));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.createOrder("alice", request);
+
+        verify(inventoryService).consumeReservedStock(Map.of(5L, 2), Map.of(5L, 2));
+        verify(inventoryService, never()).decreaseStockWithOptimisticLock(5L, 2);
     }
 
     @Test
@@ -120,7 +179,7 @@ class OrderServiceTest {
                 .lastName("L")
                 .build();
         when(userService.getByUsername("alice")).thenReturn(user);
-        when(checkoutPricingService.buildPricing(any(), any(), any(), any()))
+        when(checkoutPricingService.buildPricing(any(), any(), any(), any(), any()))
                 .thenReturn(new OrderPricingResult(
                         List.of(),
                         new BigDecimal("100.00"),
@@ -267,5 +326,6 @@ class OrderServiceTest {
 
         assertEquals(OrderStatus.REFUNDED, response.getStatus());
         verify(inventoryService).increaseStockWithOptimisticLock(9L, 1);
+        verify(purchaseEligibilityService).recordRefunded(order);
     }
 }
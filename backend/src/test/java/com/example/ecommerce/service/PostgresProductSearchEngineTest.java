@@ -0,0 +1,129 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.model.ProductAttributeFilters;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.repository.ProductSummaryView;
+import com.example.ecommerce.product.service.PostgresProductSearchEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresProductSearchEngineTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private PostgresProductSearchEngine searchEngine;
+
+    @Test
+    void search_ShouldReturnPagedDtoResult() {
+        ProductSummaryView view = mock(ProductSummaryView.class);
+        when(view.getId()).thenReturn(10L);
+        when(view.getName()).thenReturn("Amp");
+        when(view.getStock()).thenReturn(4);
+        when(view.getRatingCount()).thenReturn(3);
+        when(view.getRatingSum()).thenReturn(14L);
+        when(productRepository.searchProductsAdvanced(eq("Amplifier"), eq((String) null), eq("tube"), eq((String) null), eq(PageRequest.of(0, 10))))
+                .thenReturn(new PageImpl<>(List.of(view)));
+
+        var result = searchEngine.search("Amplifier", null, "tube", PageRequest.of(0, 10));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Amp", result.getContent().get(0).name());
+        assertEquals(4, result.getContent().get(0).stock());
+        assertEquals(new BigDecimal("4.67"), result.getContent().get(0).rating().average());
+        assertEquals(3, result.getContent().get(0).rating().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_ShouldFallBackToSpecification_WhenAdvancedQueryFails() {
+        Product product = new Product(11L, "Tube Screamer", "Overdrive", new BigDecimal("1999.00"), "img", "Pedal", 2);
+        when(productRepository.searchProductsAdvanced(any(), any(), any(), any(), any()))
+                .thenThrow(new InvalidDataAccessResourceUsageException("pg_trgm missing"));
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(product)));
+
+        var result = searchEngine.search(null, null, "tube", PageRequest.of(0, 10));
+
+        assertEquals("Tube Screamer", result.getContent().get(0).name());
+    }
+
+    @Test
+    void search_ShouldPushAttributeFiltersIntoSql() {
+        ProductAttributeFilters attributes = ProductAttributeFilters.fromParams(Map.of(
+                "attr.strings", List.of("6..7"),
+                "attr.pickup", List.of("humbucker,P\"90"),
+                "category", List.of("ignored")));
+        when(productRepository.searchProductsAdvanced(eq("Electric"), eq((String) null), eq((String) null),
+                eq("($.\"pickup\" == \"humbucker\" || $.\"pickup\" == \"P\\\"90\") && ($.\"strings\" >= 6 && $.\"strings\" <= 7)"),
+                eq(PageRequest.of(0, 10))))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        var result = searchEngine.search("Electric", null, null, attributes, PageRequest.of(0, 10));
+
+        assertEquals(0, result.getTotalElements());
+        assertEquals("pickup=humbucker,P\"90&strings=6..7", attributes.toString());
+    }
+
+    @Test
+    void search_ShouldUseAttributeLikeQuery_WhenAdvancedQueryFails() {
+        ProductAttributeFilters attributes = ProductAttributeFilters.fromParams(Map.of("attr.strings", List.of("7")));
+        ProductSummaryView view = mock(ProductSummaryView.class);
+        when(view.getName()).thenReturn("7-String");
+        when(productRepository.searchProductsAdvanced(any(), any(), any(), any(), any()))
+                .thenThrow(new InvalidDataAccessResourceUsageException("pg_trgm missing"));
+        when(productRepository.searchProductsByAttributes(null, null, "%ibanez%",
+                "($.\"strings\" == \"7\" || $.\"strings\" == 7)", PageRequest.of(0, 10)))
+                .thenReturn(new PageImpl<>(List.of(view)));
+
+        var result = searchEngine.search(null, null, "Ibanez", attributes, PageRequest.of(0, 10));
+
+        assertEquals("7-String", result.getContent().get(0).name());
+    }
+
+    @Test
+    void attributeFilters_ShouldRejectMalformedInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ProductAttributeFilters.fromParams(Map.of("attr.bad key", List.of("x"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProductAttributeFilters.fromParams(Map.of("attr.strings", List.of("six..7"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProductAttributeFilters.fromParams(Map.of("attr.strings", List.of(".."))));
+        assertTrue(ProductAttributeFilters.fromParams(Map.of("q", List.of("amp"))).isEmpty());
+    }
+
+    @Test
+    void attributeFilters_ShouldRejectNumbersThatExpandWhenRendered() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ProductAttributeFilters.fromParams(Map.of("attr.weight", List.of("1e999999999"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProductAttributeFilters.fromParams(Map.of("attr.weight", List.of("..1e-40"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProductAttributeFilters.fromParams(Map.of("attr.weight", List.of("1" + "0".repeat(45)))));
+        assertTrue(ProductAttributeFilters.fromParams(Map.of("attr.weight", List.of("1e3..2.5e3")))
+                .toJsonPath().contains("$.\"weight\" >= 1000"));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductBatchItemDto;
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.model.ProductRatingSummary;
+import com.example.ecommerce.product.repository.ProductRatingSummaryRepository;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.repository.ProductStockLevelView;
+import com.example.ecommerce.product.service.CatalogSnapshotService;
+import com.example.ecommerce.product.service.ProductBatchService;
+import com.example.ecommerce.product.service.ProductStockView;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBatchServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductRatingSummaryRepository ratingSummaryRepository;
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private CacheManager cacheManager;
+    private ProductBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(ProductBatchService.CACHE_NAME);
+        service = new ProductBatchService(productRepository, ratingSummaryRepository, cacheManager, catalogSnapshotService,
+                new ProductStockView(productRepository, 100, 30), 3);
+    }
+
+    @Test
+    void getProducts_ShouldServeCacheHitsAndLoadMissesInOneQuery() {
+        ProductDto cached = new ProductDto(1L, "Mouse", "Wireless", new BigDecimal("49.90"), "img", "Accessories");
+        cacheManager.getCache(ProductBatchService.CACHE_NAME).put(1L, cached);
+        Product pedal = new Product(4L, "Pedal", "Fuzz", new BigDecimal("129.00"), "img", "Effects", 3);
+        when(productRepository.findAllById(Set.of(4L, 9L))).thenReturn(List.of(pedal));
+        when(ratingSummaryRepository.findAllById(List.of(4L))).thenReturn(List.of(ratingSummary(4L, 2, 9)));
+
+        List<ProductBatchItemDto> items = service.getProducts(List.of(4L, 1L, 9L));
+
+        assertEquals(List.of(4L, 1L, 9L), items.stream().map(ProductBatchItemDto::id).toList());
+        assertEquals("Pedal", items.get(0).product().getName());
+        assertEquals(2, items.get(0).product().getRating().count());
+        assertEquals("Mouse", items.get(1).product().getName());
+        assertFalse(items.get(2).found());
+        assertNull(items.get(2).product());
+        assertEquals("Pedal", cacheManager.getCache(ProductBatchService.CACHE_NAME).get(4L, ProductDto.class).getName());
+    }
+
+    @Test
+    void changeEvents_ShouldEvictTheCachedDetail() {
+        ProductDto cached = new ProductDto(1L, "Mouse", "Wireless", new BigDecimal("49.90"), "img", "Accessories");
+        Cache cache = cacheManager.getCache(ProductBatchService.CACHE_NAME);
+        cache.put(1L, cached);
+        cache.put(2L, cached);
+
+        service.onProductChanged(ProductChangedEvent.updated(cached));
+        service.onReviewCreated(new ProductReviewCreatedEvent(2L, 7L, 5));
+
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void getProducts_ShouldServeSnapshotHitsWithoutQuerying() {
+        ProductDto snapshot = new ProductDto(2L, "Cable", "Patch", new BigDecimal("9.90"), "img", "Accessories");
+        when(catalogSnapshotService.find(2L)).thenReturn(Optional.of(snapshot));
+
+        List<ProductBatchItemDto> items = service.getProducts(List.of(2L));
+
+        assertEquals("Cable", items.get(0).product().getName());
+        verify(productRepository, never()).findAllById(any());
+        verifyNoInteractions(ratingSummaryRepository);
+    }
+
+    @Test
+    void getProducts_ShouldComposeCachedDetailsWithCurrentStock() {
+        ProductDto cached = new ProductDto(1L, "Mouse", "Wireless", new BigDecimal("49.90"), "img", "Accessories");
+        cached.setStock(10);
+        cacheManager.getCache(ProductBatchService.CACHE_NAME).put(1L, cached);
+        when(productRepository.findStockLevelsByIdIn(Set.of(1L))).thenReturn(List.of(stockLevel(1L, 3)));
+
+        ProductDto product = service.getProducts(List.of(1L)).get(0).product();
+
+        assertEquals(3, product.getStock());
+        assertEquals(10, cached.getStock());
+    }
+
+    @Test
+    void getProducts_ShouldRejectRequestsOverTheCap() {
+        assertThrows(IllegalArgumentException.class, () -> service.getProducts(List.of(1L, 2L, 3L, 4L)));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProducts_ShouldSkipRatingLookup_WhenNothingWasFound() {
+        when(productRepository.findAllById(Set.of(5L))).thenReturn(Collections.emptyList());
+
+        List<ProductBatchItemDto> items = service.getProducts(List.of(5L, 5L));
+
+        assertEquals(List.of(ProductBatchItemDto.notFound(5L), ProductBatchItemDto.notFound(5L)), items);
+        verify(productRepository).findAllById(Set.of(5L));
+        verifyNoInteractions(ratingSummaryRepository);
+    }
+
+    private static ProductStockLevelView stockLevel(Long id, int stock) {
+        return new ProductStockLevelView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStock() {
+                return stock;
+            }
+        };
+    }
+
+    private ProductRatingSummary ratingSummary(Long productId, int count, long sum) {
+        ProductRatingSummary summary = new ProductRatingSummary();
+        summary.setProductId(productId);
+        summary.setReviewCount(count);
+        summary.setRatingSum(sum);
+        return summary;
+    }
+}
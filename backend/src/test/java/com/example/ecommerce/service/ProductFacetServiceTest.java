@@ -0,0 +1,183 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductAttributeFacetDto;
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductFacetsDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.model.ProductAttributeFilters;
+import com.example.ecommerce.product.repository.ProductFacetCountView;
+import com.example.ecommerce.product.repository.ProductFacetSourceView;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.service.ProductFacetService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductFacetService productFacetService;
+
+    @Test
+    void getFacets_ShouldAnswerFromIndex_WhenNoQuery() {
+        when(productRepository.findFacetSourcesByActiveTrue()).thenReturn(List.of(
+                source(1L, "Guitar", "Fender", "1500.00"),
+                source(2L, "Guitar", "Gibson", "24000.00"),
+                source(3L, "Amplifier", "Fender", "4200.00")));
+        productFacetService.rebuildIndex();
+
+        ProductFacetsDto facets = productFacetService.getFacets(null, "fender", null, ProductAttributeFilters.none());
+
+        assertEquals(List.of(
+                new ProductFacetsDto.FacetCount("Amplifier", 1),
+                new ProductFacetsDto.FacetCount("Guitar", 1)), facets.categories());
+        assertEquals(List.of(new ProductFacetsDto.FacetCount("Fender", 2)), facets.brands());
+        assertEquals(2, facets.priceRanges().size());
+        assertEquals("0-2500", facets.priceRanges().get(0).key());
+        assertEquals("2500-5000", facets.priceRanges().get(1).key());
+        verify(productRepository, never()).countSearchFacets(null, "fender", null, null);
+    }
+
+    @Test
+    void onProductChanged_ShouldKeepIndexInSync() {
+        when(productRepository.findFacetSourcesByActiveTrue()).thenReturn(List.of(
+                source(1L, "Guitar", "Fender", "1500.00")));
+        productFacetService.rebuildIndex();
+
+        productFacetService.onProductChanged(ProductChangedEvent.updated(
+                product(1L, "Guitar", "Fender", "6000.00")));
+        productFacetService.onProductChanged(ProductChangedEvent.created(
+                product(2L, "Drum", "Yamaha", "9000.00")));
+        productFacetService.onProductChanged(ProductChangedEvent.deleted(
+                product(2L, "Drum", "Yamaha", "9000.00")));
+
+        ProductFacetsDto facets = productFacetService.getFacets(null, null, null, ProductAttributeFilters.none());
+
+        assertEquals(List.of(new ProductFacetsDto.FacetCount("Guitar", 1)), facets.categories());
+        assertEquals(1, facets.priceRanges().size());
+        assertEquals("5000-10000", facets.priceRanges().get(0).key());
+        assertEquals(1, facets.priceRanges().get(0).count());
+    }
+
+    @Test
+    void getFacets_ShouldUseGroupedQuery_WhenQueryPresent() {
+        when(productRepository.countSearchFacets("Guitar", null, "strat", null)).thenReturn(List.of(
+                row("category", "Guitar", 3L),
+                row("brand", "Fender", 2L),
+                row("brand", "Squier", 1L),
+                row("price", "1", 3L)));
+
+        ProductFacetsDto facets = productFacetService.getFacets(" Guitar ", " ", "strat", ProductAttributeFilters.none());
+
+        assertEquals(List.of(new ProductFacetsDto.FacetCount("Guitar", 3)), facets.categories());
+        assertEquals("Fender", facets.brands().get(0).value());
+        assertEquals(new BigDecimal("2500"), facets.priceRanges().get(0).min());
+        assertEquals(3, facets.priceRanges().get(0).count());
+    }
+
+    @Test
+    void getFacets_ShouldReturnEmpty_WhenQueryFails() {
+        when(productRepository.countSearchFacets(null, null, "strat", null))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        ProductFacetsDto facets = productFacetService.getFacets(null, null, "strat", ProductAttributeFilters.none());
+
+        assertTrue(facets.categories().isEmpty());
+        assertTrue(facets.brands().isEmpty());
+        assertTrue(facets.priceRanges().isEmpty());
+    }
+
+    @Test
+    void getFacets_ShouldUseGroupedQuery_WhenAttributeFiltersPresent() {
+        ProductAttributeFilters attributes = ProductAttributeFilters.fromParams(Map.of("attr.strings", List.of("7..")));
+        when(productRepository.findFacetSourcesByActiveTrue()).thenReturn(List.of());
+        productFacetService.rebuildIndex();
+        when(productRepository.countSearchFacets(null, null, null, "($.\"strings\" >= 7)"))
+                .thenReturn(List.of(row("category", "Guitar", 2L)));
+
+        ProductFacetsDto facets = productFacetService.getFacets(null, null, null, attributes);
+
+        assertEquals(List.of(new ProductFacetsDto.FacetCount("Guitar", 2)), facets.categories());
+    }
+
+    @Test
+    void getAttributeFacets_ShouldGroupValuesByKey() {
+        when(productRepository.countAttributeValuesByCategory("Guitar")).thenReturn(List.of(
+                row("pickup", "humbucker", 5L),
+                row("pickup", "single-coil", 3L),
+                row("strings", "6", 8L)));
+
+        List<ProductAttributeFacetDto> facets = productFacetService.getAttributeFacets("Guitar");
+
+        assertEquals(2, facets.size());
+        assertEquals("pickup", facets.get(0).key());
+        assertEquals(new ProductFacetsDto.FacetCount("single-coil", 3), facets.get(0).values().get(1));
+        assertEquals(List.of(new ProductFacetsDto.FacetCount("6", 8)), facets.get(1).values());
+    }
+
+    private ProductDto product(Long id, String category, String brand, String price) {
+        ProductDto dto = new ProductDto(id, "Product " + id, "desc", new BigDecimal(price), "img", category);
+        dto.setBrand(brand);
+        return dto;
+    }
+
+    private ProductFacetSourceView source(Long id, String category, String brand, String price) {
+        return new ProductFacetSourceView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public String getBrand() {
+                return brand;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return new BigDecimal(price);
+            }
+        };
+    }
+
+    private ProductFacetCountView row(String dimension, String label, Long total) {
+        return new ProductFacetCountView() {
+            @Override
+            public String getDimension() {
+                return dimension;
+            }
+
+            @Override
+            public String getLabel() {
+                return label;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
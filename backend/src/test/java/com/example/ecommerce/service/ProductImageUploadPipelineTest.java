@@ -0,0 +1,147 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductImageUploadJobDto;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.service.ProductImageResizer;
+import com.example.ecommerce.product.service.ProductImageStore;
+import com.example.ecommerce.product.service.ProductImageUploadPipeline;
+import com.example.ecommerce.product.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImageUploadPipelineTest {
+
+    @Mock
+    private ProductService productService;
+    @Mock
+    private ProductRepository productRepository;
+
+    @TempDir
+    Path spoolDir;
+
+    private final Map<String, BufferedImage> stored = new ConcurrentHashMap<>();
+    private ProductImageStore cdnStore;
+
+    @BeforeEach
+    void setUp() {
+        cdnStore = new ProductImageStore() {
+            @Override
+            public String store(String key, Path file, String contentType) throws IOException {
+                stored.put(key, ImageIO.read(file.toFile()));
+                return "https://cdn.example.com/" + key;
+            }
+
+            @Override
+            public Optional<String> convertedUrl(String url, String format) {
+                return Optional.of(url.substring(0, url.lastIndexOf('.') + 1) + format);
+            }
+        };
+    }
+
+    @Test
+    void submit_ShouldStoreBoundedRenditionsAndUpdateProduct() throws IOException {
+        when(productRepository.existsById(7L)).thenReturn(true);
+        ProductImageUploadPipeline pipeline = pipeline(cdnStore, new SyncTaskExecutor());
+
+        ProductImageUploadJobDto queued = pipeline.submit(7L, png(900, 600));
+
+        ProductImageUploadJobDto job = pipeline.getJob(queued.jobId()).orElseThrow();
+        assertEquals(ProductImageUploadJobDto.Status.COMPLETED, job.status());
+        String prefix = "https://cdn.example.com/product-7/" + queued.jobId().substring(0, 8) + "/";
+        assertEquals(prefix + "900.jpg", job.imageUrl());
+        assertEquals(prefix + "320.jpg", job.derivatives().get("320.jpg"));
+        assertEquals(prefix + "640.webp", job.derivatives().get("640.webp"));
+        assertFalse(job.derivatives().containsKey("1280.jpg"));
+        assertEquals(213, stored.get("product-7/" + queued.jobId().substring(0, 8) + "/320.jpg").getHeight());
+        verify(productService).updateProductImage(7L, prefix + "900.jpg", job.derivatives());
+        assertSpoolDirEmpty();
+    }
+
+    @Test
+    void submit_ShouldMarkJobFailed_WhenFileIsNotAnImage() throws IOException {
+        when(productRepository.existsById(7L)).thenReturn(true);
+        ProductImageUploadPipeline pipeline = pipeline(cdnStore, new SyncTaskExecutor());
+        MockMultipartFile fake = new MockMultipartFile("file", "shoe.png", "image/png", new byte[] {1, 2, 3});
+
+        ProductImageUploadJobDto queued = pipeline.submit(7L, fake);
+
+        ProductImageUploadJobDto job = pipeline.getJob(queued.jobId()).orElseThrow();
+        assertEquals(ProductImageUploadJobDto.Status.FAILED, job.status());
+        assertEquals("Unsupported image format.", job.error());
+        verify(productService, never()).updateProductImage(any(), anyString(), anyMap());
+        assertSpoolDirEmpty();
+    }
+
+    @Test
+    void submit_ShouldDropSpooledFile_WhenWorkersAreSaturated() throws IOException {
+        when(productRepository.existsById(7L)).thenReturn(true);
+        TaskExecutor saturated = task -> {
+            throw new TaskRejectedException("queue full");
+        };
+        ProductImageUploadPipeline pipeline = pipeline(cdnStore, saturated);
+
+        assertThrows(TaskRejectedException.class, () -> pipeline.submit(7L, png(10, 10)));
+        assertSpoolDirEmpty();
+    }
+
+    @Test
+    void submit_ShouldRejectInvalidUploadBeforeSpooling() {
+        ProductImageUploadPipeline pipeline = pipeline(cdnStore, new SyncTaskExecutor());
+        MockMultipartFile file = new MockMultipartFile("file", "malware.exe", "application/octet-stream", new byte[] {1});
+
+        assertThrows(IllegalArgumentException.class, () -> pipeline.submit(7L, file));
+        verify(productRepository, never()).existsById(eq(7L));
+    }
+
+    private ProductImageUploadPipeline pipeline(ProductImageStore store, TaskExecutor executor) {
+        ProductImageResizer resizer = new ProductImageResizer(List.of(320, 640, 1280), 0.8f, 10_000_000);
+        return new ProductImageUploadPipeline(store, resizer, productService, productRepository, executor,
+                spoolDir.toString(), 60);
+    }
+
+    private void assertSpoolDirEmpty() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            assertTrue(files.findAny().isEmpty());
+        }
+    }
+
+    private static MockMultipartFile png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return new MockMultipartFile("file", "shoe.png", "image/png", bytes.toByteArray());
+    }
+}
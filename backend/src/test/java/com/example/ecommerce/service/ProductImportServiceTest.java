@@ -0,0 +1,217 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.auth.model.AuditLog;
+import com.example.ecommerce.auth.service.AuditService;
+import com.example.ecommerce.product.dto.ProductImportResult;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.model.ProductImportFormat;
+import com.example.ecommerce.product.repository.ProductBulkRepository;
+import com.example.ecommerce.product.repository.ProductBulkRepository.StoredProduct;
+import com.example.ecommerce.product.service.ProductImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+    @Mock
+    private AuditService auditService;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache cache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void setUp() {
+        productImportService = new ProductImportService(productBulkRepository, auditService, cacheManager,
+                eventPublisher, Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                null, 2, 10);
+    }
+
+    @Test
+    void importProducts_ShouldUpsertInBatches_AndAuditOncePerBatch() {
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+        when(productBulkRepository.findIdsBySku(any())).thenAnswer(invocation -> {
+            Collection<String> skus = invocation.getArgument(0);
+            return skus.contains("A-1") ? Map.of("A-1", 1L) : Map.of();
+        });
+        when(productBulkRepository.findStoredBySku(any()))
+                .thenReturn(Map.of("A-1", new StoredProduct(1L, true, 4), "B-1", new StoredProduct(2L, true, 7)))
+                .thenReturn(Map.of("C-1", new StoredProduct(3L, true, 2)));
+        String csv = """
+                sku,name,description,price,category,stock
+                A-1,Strat,"Alder, maple",14999.00,Electric,4
+                B-1,Tele,Ash,13999.00,Electric,7
+                C-1,Amp,"30W \"\"combo\"\"",7999.00,Amplifier,2
+                """;
+
+        ProductImportResult result = productImportService.importProducts(stream(csv), ProductImportFormat.CSV, false);
+
+        assertEquals(3, result.totalRows());
+        assertEquals(2, result.created());
+        assertEquals(1, result.updated());
+        assertEquals(0, result.failed());
+        verify(productBulkRepository, times(2)).upsertProducts(anyList());
+        verify(productBulkRepository, times(2)).upsertInventory(anyMap());
+        verify(auditService, times(2)).logSystemEvent(any(), anyString(),
+                eq(AuditLog.AuditAction.ADMIN_PRODUCT_IMPORTED), anyString(), anyMap());
+        verify(cache, times(4)).clear();
+
+        ArgumentCaptor<ProductChangedEvent> events = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertEquals(ProductChangedEvent.ChangeType.UPDATED, events.getAllValues().get(0).changeType());
+        assertEquals("30W \"combo\"", events.getAllValues().get(2).product().getDescription());
+    }
+
+    @Test
+    void importProducts_ShouldReportRowErrors_WithoutStoppingTheImport() {
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+        when(productBulkRepository.findIdsBySku(any())).thenReturn(Map.of());
+        when(productBulkRepository.findStoredBySku(any())).thenReturn(Map.of("A-1", new StoredProduct(1L, true, 4)));
+        String ndjson = """
+                {"sku":"A-1","name":"Strat","description":"Alder","price":14999.00,"category":"Electric","stock":4}
+                {"sku":"","name":"No sku","description":"x","price":1.00,"category":"Electric"}
+
+                {"sku":"A-1","name":"Strat again","description":"Alder","price":1.00,"category":"Electric"}
+                {"sku":"B-1","name":"","description":"x","price":-1,"category":"Electric"}
+                not json
+                """;
+
+        ProductImportResult result = productImportService.importProducts(stream(ndjson), ProductImportFormat.NDJSON, false);
+
+        assertEquals(5, result.totalRows());
+        assertEquals(1, result.created());
+        assertEquals(4, result.failed());
+        assertEquals(List.of(2L, 4L, 5L, 6L), result.errors().stream().map(ProductImportResult.RowError::row).toList());
+        assertEquals("SKU is required for import.", result.errors().get(0).message());
+        assertTrue(result.errors().get(1).message().startsWith("Duplicate SKU"));
+        assertTrue(result.errors().get(2).message().contains("Product name is required."));
+        assertTrue(result.errors().get(3).message().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void importProducts_DryRun_ShouldOnlyLookUpExistingSkus() {
+        when(productBulkRepository.findIdsBySku(any())).thenReturn(Map.of("A-1", 1L));
+        String csv = "SKU,Name,Description,Price,Category,Image_Url\n"
+                + "A-1,Strat,Alder,14999.00,Electric,\n"
+                + "B-1,Tele,Ash,abc,Electric,\n";
+
+        ProductImportResult result = productImportService.importProducts(stream(csv), ProductImportFormat.CSV, true);
+
+        assertTrue(result.dryRun());
+        assertEquals(1, result.updated());
+        assertEquals(1, result.failed());
+        assertEquals(3L, result.errors().get(0).row());
+        verify(productBulkRepository, never()).upsertProducts(anyList());
+        verify(auditService, never()).logSystemEvent(any(), anyString(), any(), anyString(), anyMap());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void importProducts_ShouldPublishStoredState_AndDeleteEventsForInactiveRows() {
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+        when(productBulkRepository.findIdsBySku(any())).thenReturn(Map.of("A-1", 1L, "B-1", 2L));
+        when(productBulkRepository.findStoredBySku(any()))
+                .thenReturn(Map.of("A-1", new StoredProduct(1L, false, 1), "B-1", new StoredProduct(2L, true, 5)));
+        String csv = """
+                sku,name,description,price,category,stock
+                A-1,Strat,Alder,14999.00,Electric,4
+                B-1,Tele,Ash,13999.00,Electric,7
+                """;
+
+        productImportService.importProducts(stream(csv), ProductImportFormat.CSV, false);
+
+        verify(productBulkRepository).upsertInventory(Map.of(1L, 4, 2L, 7));
+        ArgumentCaptor<ProductChangedEvent> events = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        ProductChangedEvent deactivated = events.getAllValues().get(0);
+        assertEquals(ProductChangedEvent.ChangeType.DELETED, deactivated.changeType());
+        assertEquals(1, deactivated.product().getStock());
+        ProductChangedEvent updated = events.getAllValues().get(1);
+        assertEquals(ProductChangedEvent.ChangeType.UPDATED, updated.changeType());
+        assertEquals(5, updated.product().getStock());
+    }
+
+    @Test
+    void importProducts_ShouldFailRowsOfRejectedBatch_AndContinue() {
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+        when(productBulkRepository.findIdsBySku(any())).thenReturn(Map.of());
+        when(productBulkRepository.findStoredBySku(any())).thenReturn(Map.of("C-1", new StoredProduct(3L, true, 0)));
+        doThrow(new DataIntegrityViolationException("value too long"))
+                .doNothing()
+                .when(productBulkRepository).upsertProducts(anyList());
+        String csv = """
+                sku,name,description,price,category
+                A-1,Strat,Alder,1.00,Electric
+                B-1,Tele,Ash,1.00,Electric
+                C-1,Amp,Combo,1.00,Amplifier
+                """;
+
+        ProductImportResult result = productImportService.importProducts(stream(csv), ProductImportFormat.CSV, false);
+
+        assertEquals(2, result.failed());
+        assertEquals(1, result.created());
+        verify(auditService, times(1)).logSystemEvent(any(), anyString(),
+                eq(AuditLog.AuditAction.ADMIN_PRODUCT_IMPORTED), anyString(), anyMap());
+    }
+
+    @Test
+    void importProducts_ShouldRejectCsvWithoutRequiredColumns() {
+        InputStream csv = stream("sku,name\nA-1,Strat\n");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> productImportService.importProducts(csv, ProductImportFormat.CSV, false));
+
+        assertEquals("CSV header is missing required column(s): category, description, price", ex.getMessage());
+        verify(productBulkRepository, never()).findIdsBySku(any());
+    }
+
+    @Test
+    void fromContentType_ShouldResolveFormats() {
+        assertEquals(ProductImportFormat.CSV, ProductImportFormat.fromContentType("text/csv; charset=UTF-8"));
+        assertEquals(ProductImportFormat.NDJSON, ProductImportFormat.fromContentType("application/x-ndjson"));
+        assertThrows(IllegalArgumentException.class, () -> ProductImportFormat.fromContentType("application/json"));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
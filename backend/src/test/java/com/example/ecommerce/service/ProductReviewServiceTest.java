@@ -2,11 +2,13 @@ package com.example.ecommerce.service;
 
 import com.example.ecommerce.auth.model.User;
 import com.example.ecommerce.auth.service.UserService;
-import com.example.ecommerce.order.model.OrderStatus;
-import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.service.PurchaseEligibilityService;
 import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRatingSummaryRepository;
 import com.example.ecommerce.product.repository.ProductRepository;
 import com.example.ecommerce.review.dto.CreateProductReviewRequest;
+import com.example.ecommerce.review.dto.ReviewEligibilityResponse;
+import com.example.ecommerce.review.event.ProductReviewCreatedEvent;
 import com.example.ecommerce.review.model.ProductReview;
 import com.example.ecommerce.review.repository.ProductReviewRepository;
 import com.example.ecommerce.review.service.ProductReviewService;
@@ -16,18 +18,21 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
-import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,7 +48,13 @@ class ProductReviewServiceTest {
     private UserService userService;
 
     @Mock
-    private OrderRepository orderRepository;
+    private PurchaseEligibilityService purchaseEligibilityService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductRatingSummaryRepository ratingSummaryRepository;
 
     @InjectMocks
     private ProductReviewService productReviewService;
@@ -67,12 +78,7 @@ class ProductReviewServiceTest {
         when(productRepository.findById(10L)).thenReturn(Optional.of(product));
         when(userService.getByUsername("alice")).thenReturn(user);
         when(productReviewRepository.existsByProduct_IdAndUserId(10L, 15L)).thenReturn(false);
-        when(orderRepository.hasPurchasedProduct(eq(15L), eq(10L), eq(EnumSet.of(
-                OrderStatus.PAID,
-                OrderStatus.PACKED,
-                OrderStatus.SHIPPED,
-                OrderStatus.DELIVERED
-        )))).thenReturn(true);
+        when(purchaseEligibilityService.hasPurchased(15L, 10L)).thenReturn(true);
         when(productReviewRepository.save(any(ProductReview.class))).thenAnswer(invocation -> {
             ProductReview saved = invocation.getArgument(0);
             saved.setId(99L);
@@ -89,6 +95,8 @@ class ProductReviewServiceTest {
         verify(productReviewRepository).save(captor.capture());
         assertEquals("alice", captor.getValue().getUsername());
         assertEquals(15L, captor.getValue().getUserId());
+        verify(ratingSummaryRepository).addRating(10L, 5);
+        verify(eventPublisher).publishEvent(new ProductReviewCreatedEvent(10L, 99L, 5));
     }
 
     @Test
@@ -115,6 +123,7 @@ class ProductReviewServiceTest {
                 () -> productReviewService.createReview(10L, "alice", request));
 
         assertEquals("Bu urun icin zaten yorum yaptiniz.", exception.getMessage());
+        verifyNoInteractions(ratingSummaryRepository);
     }
 
     @Test
@@ -136,7 +145,7 @@ class ProductReviewServiceTest {
         when(productRepository.findById(10L)).thenReturn(Optional.of(product));
         when(userService.getByUsername("alice")).thenReturn(user);
         when(productReviewRepository.existsByProduct_IdAndUserId(10L, 15L)).thenReturn(false);
-        when(orderRepository.hasPurchasedProduct(any(), any(), any())).thenReturn(true);
+        when(purchaseEligibilityService.hasPurchased(any(), any())).thenReturn(true);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> productReviewService.createReview(10L, "alice", request));
@@ -163,7 +172,7 @@ class ProductReviewServiceTest {
         when(productRepository.findById(10L)).thenReturn(Optional.of(product));
         when(userService.getByUsername("alice")).thenReturn(user);
         when(productReviewRepository.existsByProduct_IdAndUserId(10L, 15L)).thenReturn(false);
-        when(orderRepository.hasPurchasedProduct(any(), any(), any())).thenReturn(false);
+        when(purchaseEligibilityService.hasPurchased(any(), any())).thenReturn(false);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> productReviewService.createReview(10L, "alice", request));
@@ -171,6 +180,40 @@ class ProductReviewServiceTest {
         assertEquals("Yorum yazabilmek icin urunu satin almis olmaniz gerekir.", exception.getMessage());
     }
 
+    @Test
+    void getReviewEligibility_shouldCombinePurchasesAndExistingReviews() {
+        User user = User.builder()
+                .id(15L)
+                .username("alice")
+                .password("pw")
+                .email("alice@test.com")
+                .firstName("Alice")
+                .lastName("Doe")
+                .build();
+        when(userService.getByUsername("alice")).thenReturn(user);
+        when(purchaseEligibilityService.purchasedProductIds(eq(15L), eq(Set.of(10L, 11L, 12L))))
+                .thenReturn(Set.of(10L, 11L));
+        when(productReviewRepository.findReviewedProductIds(eq(15L), eq(Set.of(10L, 11L, 12L))))
+                .thenReturn(List.of(11L));
+
+        List<ReviewEligibilityResponse> result =
+                productReviewService.getReviewEligibility("alice", List.of(10L, 11L, 12L, 10L));
+
+        assertEquals(List.of(
+                new ReviewEligibilityResponse(10L, true, false, true),
+                new ReviewEligibilityResponse(11L, true, true, false),
+                new ReviewEligibilityResponse(12L, false, false, false)), result);
+    }
+
+    @Test
+    void getReviewEligibility_shouldRejectTooManyProducts() {
+        List<Long> productIds = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productReviewService.getReviewEligibility("alice", productIds));
+        verifyNoInteractions(purchaseEligibilityService);
+    }
+
     @Test
     void getProductReviews_shouldReturnPage() {
         ProductReview review = new ProductReview();
@@ -0,0 +1,84 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.SearchQueryStatDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.model.ProductAttributeFilters;
+import com.example.ecommerce.product.service.ProductFacetService;
+import com.example.ecommerce.product.service.ProductSearchCacheWarmer;
+import com.example.ecommerce.product.service.ProductService;
+import com.example.ecommerce.product.service.SearchAnalyticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchCacheWarmerTest {
+
+    @Mock
+    private SearchAnalyticsService searchAnalyticsService;
+    @Mock
+    private ProductService productService;
+    @Mock
+    private ProductFacetService productFacetService;
+
+    private ProductSearchCacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        warmer = new ProductSearchCacheWarmer(searchAnalyticsService, productService, productFacetService, 20);
+    }
+
+    @Test
+    void warmUp_ShouldReplayTopQueriesIntoSearchAndFacetCaches() {
+        when(searchAnalyticsService.topQueries(20, 7)).thenReturn(List.of(
+                new SearchQueryStatDto("category=effects&attr.type=fuzz&size=24&sort=price%2Cdesc&facets=true",
+                        "effects", null, null, true, 9),
+                new SearchQueryStatDto("q=amp&size=20", null, null, "amp", false, 4)));
+
+        warmer.warmUp();
+
+        ProductAttributeFilters fuzz = ProductAttributeFilters.fromParams(Map.of("attr.type", List.of("fuzz")));
+        verify(productService).searchProducts("effects", null, null, fuzz,
+                PageRequest.of(0, 24, Sort.by(Sort.Direction.DESC, "price")));
+        verify(productFacetService).getFacets("effects", null, null, fuzz);
+        verify(productService).searchProducts(null, null, "amp", ProductAttributeFilters.none(), PageRequest.of(0, 20));
+        verify(productFacetService, never()).getFacets(null, null, "amp", ProductAttributeFilters.none());
+    }
+
+    @Test
+    void warmUpIfInvalidated_ShouldRunOncePerBurstOfCatalogChanges() {
+        when(searchAnalyticsService.topQueries(20, 7)).thenReturn(List.of());
+
+        warmer.warmUpIfInvalidated();
+        warmer.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, 1L, null));
+        warmer.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, 2L, null));
+        warmer.warmUpIfInvalidated();
+        warmer.warmUpIfInvalidated();
+
+        verify(searchAnalyticsService, times(1)).topQueries(anyInt(), anyInt());
+    }
+
+    @Test
+    void warmUp_ShouldDoNothing_WhenDisabled() {
+        ProductSearchCacheWarmer disabled =
+                new ProductSearchCacheWarmer(searchAnalyticsService, productService, productFacetService, 0);
+
+        disabled.warmUp();
+
+        verifyNoInteractions(searchAnalyticsService, productService, productFacetService);
+    }
+}
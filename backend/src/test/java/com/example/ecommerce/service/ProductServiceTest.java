@@ -1,16 +1,19 @@
 package com.example.ecommerce.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.example.ecommerce.auth.enums.Role;
@@ -22,18 +25,35 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import com.example.ecommerce.auth.service.AuditService;
 import com.example.ecommerce.inventory.service.InventoryService;
 import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
 import com.example.ecommerce.product.exception.ProductNotFoundException;
+import com.example.ecommerce.product.mapper.ProductMapper;
 import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.model.ProductAttributeFilters;
+import com.example.ecommerce.product.model.ProductRatingSummary;
+import com.example.ecommerce.product.model.TrendingWindow;
+import com.example.ecommerce.product.repository.ProductRatingSummaryRepository;
 import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.service.CatalogSnapshotService;
+import com.example.ecommerce.product.service.InMemoryProductSearchEngine;
+import com.example.ecommerce.product.service.PostgresProductSearchEngine;
+import com.example.ecommerce.product.service.ProductBatchService;
 import com.example.ecommerce.product.service.ProductService;
+import com.example.ecommerce.product.service.ProductStockView;
+import com.example.ecommerce.product.service.ProductTrendingService;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
@@ -47,6 +67,30 @@ class ProductServiceTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PostgresProductSearchEngine postgresSearchEngine;
+
+    @Mock
+    private InMemoryProductSearchEngine inMemorySearchEngine;
+
+    @Mock
+    private ProductRatingSummaryRepository ratingSummaryRepository;
+
+    @Mock
+    private ProductTrendingService trendingService;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ProductStockView stockView;
+
     @InjectMocks
     private ProductService productService;
 
@@ -68,25 +112,50 @@ class ProductServiceTest {
     }
 
     @Test
-    void getProductsByCategory_ShouldMapActiveProductsToDto() {
-        Product product = new Product(1L, "Phone", "Flagship", new BigDecimal("999.99"), "img", "Electronics", 10);
-        when(productRepository.findByCategoryIgnoreCaseAndActiveTrue("Electronics")).thenReturn(List.of(product));
+    void getProductsByCategory_ShouldReturnActiveProductSummaries() {
+        ProductSummaryDto summary = new ProductSummaryDto(1L, "Phone", new BigDecimal("999.99"), "img", "Electronics", null, null, 10);
+        when(productRepository.findSummariesByCategory("Electronics", PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(summary)));
+
+        var result = productService.getProductsByCategory("Electronics", PageRequest.of(0, 20));
 
-        var result = productService.getProductsByCategory("Electronics");
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Phone", result.getContent().get(0).name());
+    }
+
+    @Test
+    void getProductsByBrand_ShouldReturnActiveProductSummaries() {
+        ProductSummaryDto summary = new ProductSummaryDto(1L, "Phone", new BigDecimal("999.99"), "img", "Electronics", "Acme", null, 10);
+        when(productRepository.findSummariesByBrand("Acme", PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(summary)));
+
+        var result = productService.getProductsByBrand("Acme", PageRequest.of(0, 20));
 
-        assertEquals(1, result.size());
-        assertEquals("Phone", result.get(0).getName());
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Phone", result.getContent().get(0).name());
     }
 
     @Test
-    void getProductsByBrand_ShouldMapActiveProductsToDto() {
-        Product product = new Product(1L, "Phone", "Flagship", new BigDecimal("999.99"), "img", "Electronics", 10);
-        when(productRepository.findByBrandIgnoreCaseAndActiveTrue("Acme")).thenReturn(List.of(product));
+    void getProductsByCategory_ShouldRankByTrending_WhenPopularSortRequested() {
+        when(trendingService.topProductIds(TrendingWindow.LAST_7_DAYS, "Electronics", 1000)).thenReturn(List.of(7L, 3L));
+        when(productRepository.findPopularSummaries("Electronics", null, "{7,3}", PageRequest.of(1, 10)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(1, 10), 0));
+
+        var result = productService.getProductsByCategory("Electronics", PageRequest.of(1, 10, Sort.by("popular")));
+
+        assertEquals(0, result.getTotalElements());
+        verify(productRepository, never()).findSummariesByCategory(any(), any());
+    }
+
+    @Test
+    void getProductsByBrand_ShouldFallBackToIdOrder_WhenNothingIsTrending() {
+        when(trendingService.topProductIds(TrendingWindow.LAST_7_DAYS, null, 1000)).thenReturn(List.of());
+        when(productRepository.findPopularSummaries(null, "Acme", "{}", PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
 
-        var result = productService.getProductsByBrand("Acme");
+        productService.getProductsByBrand("Acme", PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "popular")));
 
-        assertEquals(1, result.size());
-        assertEquals("Phone", result.get(0).getName());
+        verify(productRepository).findPopularSummaries(null, "Acme", "{}", PageRequest.of(0, 20));
     }
 
     @Test
@@ -100,6 +169,7 @@ class ProductServiceTest {
     void getProductById_ShouldReturnDto_WhenProductExists() {
         Product product = new Product(2L, "Keyboard", "Mechanical", new BigDecimal("120.00"), "img2", "Accessories", 5);
         when(productRepository.findById(2L)).thenReturn(Optional.of(product));
+        givenStockViewPassesThrough();
 
         ProductDto result = productService.getProductById(2L);
 
@@ -107,6 +177,67 @@ class ProductServiceTest {
         assertEquals("Keyboard", result.getName());
     }
 
+    @Test
+    void getProductById_ShouldAttachRatingSummary() {
+        Product product = new Product(2L, "Keyboard", "Mechanical", new BigDecimal("120.00"), "img2", "Accessories", 5);
+        ProductRatingSummary summary = ratingSummary(2L, 3, 13);
+        summary.setStars4(1);
+        summary.setStars5(2);
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product));
+        when(ratingSummaryRepository.findById(2L)).thenReturn(Optional.of(summary));
+        givenStockViewPassesThrough();
+
+        ProductDto result = productService.getProductById(2L);
+
+        assertEquals(new BigDecimal("4.33"), result.getRating().average());
+        assertEquals(3, result.getRating().count());
+        assertEquals(List.of(0, 0, 0, 1, 2), result.getRating().stars());
+    }
+
+    @Test
+    void getAllProducts_ShouldLoadRatingsForThePageInOneLookup() {
+        Product rated = new Product(1L, "Phone", "Flagship", new BigDecimal("999.99"), "img", "Electronics", 10);
+        Product unrated = new Product(2L, "Case", "Leather", new BigDecimal("19.99"), "img", "Electronics", 10);
+        when(productRepository.findByActiveTrue(PageRequest.of(0, 20))).thenReturn(new PageImpl<>(List.of(rated, unrated)));
+        when(ratingSummaryRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(ratingSummary(1L, 2, 7)));
+
+        var result = productService.getAllProducts(PageRequest.of(0, 20));
+
+        assertEquals(new BigDecimal("3.50"), result.getContent().get(0).getRating().average());
+        assertNull(result.getContent().get(1).getRating());
+        verify(ratingSummaryRepository, never()).findById(any());
+    }
+
+    @Test
+    void getProductById_ShouldComposeCachedDetailsWithCurrentStock() {
+        ProductDto details = new ProductDto(2L, "Keyboard", "Mechanical", new BigDecimal("120.00"), "img2", "Accessories");
+        details.setStock(5);
+        ConcurrentMapCache cache = new ConcurrentMapCache(ProductBatchService.CACHE_NAME);
+        cache.put(2L, details);
+        when(cacheManager.getCache(ProductBatchService.CACHE_NAME)).thenReturn(cache);
+        ProductDto withStock = ProductMapper.withStock(details, 1);
+        when(stockView.withCurrentStock(details)).thenReturn(withStock);
+
+        ProductDto result = productService.getProductById(2L);
+
+        assertEquals(1, result.getStock());
+        verify(productRepository, never()).findById(any());
+        verify(catalogSnapshotService, never()).find(any());
+    }
+
+    @Test
+    void getProductById_ShouldCacheLoadedDetails() {
+        Product product = new Product(2L, "Keyboard", "Mechanical", new BigDecimal("120.00"), "img2", "Accessories", 5);
+        ConcurrentMapCache cache = new ConcurrentMapCache(ProductBatchService.CACHE_NAME);
+        when(cacheManager.getCache(ProductBatchService.CACHE_NAME)).thenReturn(cache);
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product));
+        givenStockViewPassesThrough();
+
+        productService.getProductById(2L);
+
+        assertEquals("Keyboard", cache.get(2L, ProductDto.class).getName());
+    }
+
     @Test
     void getProductById_ShouldThrow_WhenProductMissing() {
         when(productRepository.findById(99L)).thenReturn(Optional.empty());
@@ -126,6 +257,9 @@ class ProductServiceTest {
         assertEquals(3L, result.getId());
         assertEquals("Mouse", result.getName());
         verify(inventoryService).initializeStock(3L, 20);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ProductChangedEvent changed
+                && changed.changeType() == ProductChangedEvent.ChangeType.CREATED
+                && changed.productId().equals(3L)));
     }
 
     @Test
@@ -153,6 +287,9 @@ class ProductServiceTest {
         productService.deleteProduct(5L);
 
         verify(productRepository).delete(existing);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ProductChangedEvent changed
+                && changed.isDeleted()
+                && changed.productId().equals(5L)));
     }
 
     @Test
@@ -172,14 +309,39 @@ class ProductServiceTest {
 
     @Test
     void searchProducts_ShouldReturnPagedDtoResult() {
-        Product product = new Product(10L, "Amp", "Tube amp", new BigDecimal("799.00"), "img", "Amplifier", 4);
-        when(productRepository.searchProductsAdvanced(eq("Amplifier"), eq((String) null), eq("tube"), eq(PageRequest.of(0, 10))))
+        ProductSummaryDto product = new ProductSummaryDto(10L, "Amp", new BigDecimal("799.00"), "img", "Amplifier", null, null, 4);
+        when(postgresSearchEngine.search(eq("Amplifier"), eq((String) null), eq("tube"), eq(PageRequest.of(0, 10))))
                 .thenReturn(new PageImpl<>(List.of(product)));
 
-        var result = productService.searchProducts("Amplifier", null, "tube", PageRequest.of(0, 10));
+        var result = productService.searchProducts(" Amplifier ", " ", "tube", ProductAttributeFilters.none(), PageRequest.of(0, 10));
 
         assertEquals(1, result.getTotalElements());
-        assertEquals("Amp", result.getContent().get(0).getName());
+        assertEquals("Amp", result.getContent().get(0).name());
+    }
+
+    @Test
+    void searchProducts_ShouldUseInMemoryEngine_WhenIndexReady() {
+        ProductSummaryDto product = new ProductSummaryDto(10L, "Amp", new BigDecimal("799.00"), "img", "Amplifier", null, null, 4);
+        when(inMemorySearchEngine.isReady()).thenReturn(true);
+        when(inMemorySearchEngine.search(null, null, "tube", PageRequest.of(0, 10)))
+                .thenReturn(new PageImpl<>(List.of(product)));
+
+        var result = productService.searchProducts(null, null, "tube", ProductAttributeFilters.none(), PageRequest.of(0, 10));
+
+        assertEquals("Amp", result.getContent().get(0).name());
+        verify(postgresSearchEngine, never()).search(any(), any(), any(), any());
+    }
+
+    @Test
+    void searchProducts_ShouldRouteAttributeFiltersToPostgres_EvenWhenIndexReady() {
+        ProductAttributeFilters attributes = ProductAttributeFilters.fromParams(
+                Map.of("attr.strings", List.of("7")));
+        when(postgresSearchEngine.search(null, null, "tube", attributes, PageRequest.of(0, 10)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        productService.searchProducts(null, null, "tube", attributes, PageRequest.of(0, 10));
+
+        verify(inMemorySearchEngine, never()).search(any(), any(), any(), any());
     }
 
     @Test
@@ -207,4 +369,16 @@ class ProductServiceTest {
         verify(auditService).logSystemEvent(eq(77L), eq("admin"), any(), any(), any());
         verify(auditService, never()).logSystemEvent(eq((Long) null), eq("admin"), any(), any(), any());
     }
+
+    private ProductRatingSummary ratingSummary(Long productId, int count, long sum) {
+        ProductRatingSummary summary = new ProductRatingSummary();
+        summary.setProductId(productId);
+        summary.setReviewCount(count);
+        summary.setRatingSum(sum);
+        return summary;
+    }
+
+    private void givenStockViewPassesThrough() {
+        when(stockView.withCurrentStock(any(ProductDto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
 }
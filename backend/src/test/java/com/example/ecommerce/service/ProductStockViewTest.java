@@ -0,0 +1,88 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.event.ProductStockChangedEvent;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.repository.ProductStockLevelView;
+import com.example.ecommerce.product.service.ProductStockView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductStockViewTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductStockView stockView;
+
+    @BeforeEach
+    void setUp() {
+        stockView = new ProductStockView(productRepository, 100, 30);
+    }
+
+    @Test
+    void withCurrentStock_ShouldLoadOnceAndThenFollowStockEvents() {
+        ProductDto details = details(7L, 12);
+        when(productRepository.findStockLevelsByIdIn(Set.of(7L))).thenReturn(List.of(stockLevel(7L, 4)));
+
+        assertEquals(4, stockView.withCurrentStock(details).getStock());
+        stockView.onStockChanged(new ProductStockChangedEvent(7L, 3));
+
+        assertEquals(3, stockView.withCurrentStock(details).getStock());
+        assertEquals(12, details.getStock());
+        verify(productRepository, times(1)).findStockLevelsByIdIn(Set.of(7L));
+    }
+
+    @Test
+    void withCurrentStock_ShouldReloadAfterProductChange() {
+        ProductDto details = details(7L, 12);
+        when(productRepository.findStockLevelsByIdIn(Set.of(7L)))
+                .thenReturn(List.of(stockLevel(7L, 4)), List.of(stockLevel(7L, 9)));
+
+        stockView.withCurrentStock(details);
+        stockView.onProductChanged(ProductChangedEvent.updated(details));
+
+        assertEquals(9, stockView.withCurrentStock(details).getStock());
+    }
+
+    @Test
+    void withCurrentStock_ShouldKeepDetailStock_WhenProductHasNoStockRow() {
+        when(productRepository.findStockLevelsByIdIn(Set.of(8L))).thenReturn(List.of());
+
+        assertEquals(6, stockView.withCurrentStock(details(8L, 6)).getStock());
+    }
+
+    private static ProductDto details(Long id, int stock) {
+        ProductDto dto = new ProductDto(id, "Tuner", "Clip-on", new BigDecimal("19.90"), "img", "Accessories");
+        dto.setStock(stock);
+        return dto;
+    }
+
+    private static ProductStockLevelView stockLevel(Long id, int stock) {
+        return new ProductStockLevelView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStock() {
+                return stock;
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.dto.ProductSuggestionDto;
+import com.example.ecommerce.product.dto.ProductSuggestionDto.SuggestionType;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.repository.ProductSuggestionSourceView;
+import com.example.ecommerce.product.service.ProductSuggestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestionServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSuggestionService productSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findSuggestionSources()).thenReturn(List.of(
+                source(1L, "Fender Player Stratocaster", "Fender", "Elektro Gitar", 2L),
+                source(2L, "Fender Precision Bass", "Fender", "Bas Gitar", 9L),
+                source(3L, "Gibson Les Paul", "Gibson", "Elektro Gitar", 0L)));
+        productSuggestionService.rebuildIndex();
+    }
+
+    @Test
+    void suggest_ShouldRankByPopularity() {
+        List<ProductSuggestionDto> result = productSuggestionService.suggest("fen", 10);
+
+        assertEquals(List.of(
+                new ProductSuggestionDto("Fender", SuggestionType.BRAND, null),
+                new ProductSuggestionDto("Fender Precision Bass", SuggestionType.PRODUCT, 2L),
+                new ProductSuggestionDto("Fender Player Stratocaster", SuggestionType.PRODUCT, 1L)), result);
+    }
+
+    @Test
+    void suggest_ShouldMatchInnerWordsAndFoldDiacritics() {
+        assertEquals(List.of(new ProductSuggestionDto("Fender Player Stratocaster", SuggestionType.PRODUCT, 1L)),
+                productSuggestionService.suggest("STRÂT", 5));
+
+        List<ProductSuggestionDto> gitar = productSuggestionService.suggest("gıtar", 5);
+        assertEquals(2, gitar.size());
+        assertTrue(gitar.stream().allMatch(s -> s.type() == SuggestionType.CATEGORY));
+    }
+
+    @Test
+    void suggest_ShouldIgnoreShortPrefixAndCapLimit() {
+        assertTrue(productSuggestionService.suggest("f", 10).isEmpty());
+        assertEquals(1, productSuggestionService.suggest("fender", 1).size());
+    }
+
+    @Test
+    void onProductChanged_ShouldUpdateIndexIncrementally() {
+        productSuggestionService.onProductChanged(ProductChangedEvent.created(product(4L, "Yamaha Pacifica", "Yamaha")));
+        productSuggestionService.onProductChanged(ProductChangedEvent.updated(product(3L, "Gibson SG Standard", "Gibson")));
+        productSuggestionService.onProductChanged(ProductChangedEvent.deleted(product(2L, "Fender Precision Bass", "Fender")));
+
+        assertEquals(List.of(new ProductSuggestionDto("Yamaha Pacifica", SuggestionType.PRODUCT, 4L),
+                        new ProductSuggestionDto("Yamaha", SuggestionType.BRAND, null)),
+                productSuggestionService.suggest("yam", 5));
+        assertTrue(productSuggestionService.suggest("les paul", 5).isEmpty());
+        assertEquals(List.of(new ProductSuggestionDto("Gibson SG Standard", SuggestionType.PRODUCT, 3L)),
+                productSuggestionService.suggest("sg", 5));
+        assertTrue(productSuggestionService.suggest("bas", 5).isEmpty());
+    }
+
+    private ProductDto product(Long id, String name, String brand) {
+        ProductDto dto = new ProductDto(id, name, "desc", new BigDecimal("1000.00"), "img", "Elektro Gitar");
+        dto.setBrand(brand);
+        return dto;
+    }
+
+    private ProductSuggestionSourceView source(Long id, String name, String brand, String category, Long sold) {
+        return new ProductSuggestionSourceView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getBrand() {
+                return brand;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public Long getSoldQuantity() {
+                return sold;
+            }
+        };
+    }
+}
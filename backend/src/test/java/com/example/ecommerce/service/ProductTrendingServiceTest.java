@@ -0,0 +1,179 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.order.event.OrderChangedEvent;
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.model.TrendingWindow;
+import com.example.ecommerce.product.repository.ProductFacetSourceView;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.service.ProductTrendingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductTrendingServiceTest {
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("yyyyMMddHH").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private RedisConnection connection;
+    @Mock
+    private RedisZSetCommands zSetCommands;
+    @Mock
+    private RedisKeyCommands keyCommands;
+
+    private ProductTrendingService service;
+
+    @BeforeEach
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void setUp() {
+        service = new ProductTrendingService(redisTemplate, productRepository, 10, 1, 1.0, 60);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(inv -> {
+            ((RedisCallback) inv.getArgument(0)).doInRedis(connection);
+            return List.of();
+        });
+        when(redisTemplate.execute(any(RedisCallback.class))).thenAnswer(inv ->
+                ((RedisCallback) inv.getArgument(0)).doInRedis(connection));
+    }
+
+    @Test
+    void onOrderChanged_ShouldAddWeightedQuantityToGlobalAndCategoryBuckets() {
+        Instant placedAt = Instant.now();
+        OrderChangedEvent event = new OrderChangedEvent(OrderChangedEvent.ChangeType.CREATED, 1L, placedAt,
+                List.of(new OrderChangedEvent.Line(5L, "Guitars", 2)));
+
+        service.onOrderChanged(event);
+
+        verify(zSetCommands).zIncrBy(key("trending:all:h:" + HOUR.format(placedAt)), 20.0, key("5"));
+        verify(zSetCommands).zIncrBy(key("trending:all:d:" + DAY.format(placedAt)), 20.0, key("5"));
+        verify(zSetCommands).zIncrBy(key("trending:c:guitars:h:" + HOUR.format(placedAt)), 20.0, key("5"));
+        verify(zSetCommands).zIncrBy(key("trending:c:guitars:d:" + DAY.format(placedAt)), 20.0, key("5"));
+        verify(keyCommands).expire(eq(key("trending:all:d:" + DAY.format(placedAt))), anyLong());
+    }
+
+    @Test
+    void onOrderChanged_ShouldSubtractRefundFromOriginalDayBucketOnly_WhenOrderIsOlderThanOneDay() {
+        Instant placedAt = Instant.now().minus(3, ChronoUnit.DAYS);
+        OrderChangedEvent event = new OrderChangedEvent(OrderChangedEvent.ChangeType.REFUNDED, 1L, placedAt,
+                List.of(new OrderChangedEvent.Line(5L, null, 1)));
+
+        service.onOrderChanged(event);
+
+        verify(zSetCommands).zIncrBy(key("trending:all:d:" + DAY.format(placedAt)), -10.0, key("5"));
+        verify(zSetCommands, never()).zIncrBy(eq(key("trending:all:h:" + HOUR.format(placedAt))), anyDouble(), any());
+    }
+
+    @Test
+    void onOrderChanged_ShouldNotThrow_WhenRedisIsUnavailable() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new QueryTimeoutException("down"));
+        OrderChangedEvent event = new OrderChangedEvent(OrderChangedEvent.ChangeType.CREATED, 1L, Instant.now(),
+                List.of(new OrderChangedEvent.Line(5L, "Guitars", 1)));
+
+        service.onOrderChanged(event);
+    }
+
+    @Test
+    void flushViews_ShouldWriteBufferedViewsWithCategoryAndClearBuffer() {
+        ProductFacetSourceView source = mock(ProductFacetSourceView.class);
+        when(source.getId()).thenReturn(9L);
+        when(source.getCategory()).thenReturn("Amps");
+        when(productRepository.findFacetSourcesByIdIn(any())).thenReturn(List.of(source));
+
+        service.recordView(9L);
+        service.recordView(9L);
+        service.flushViews();
+        service.flushViews();
+
+        Instant now = Instant.now();
+        verify(zSetCommands).zIncrBy(key("trending:all:d:" + DAY.format(now)), 2.0, key("9"));
+        verify(zSetCommands).zIncrBy(key("trending:c:amps:d:" + DAY.format(now)), 2.0, key("9"));
+        verify(productRepository).findFacetSourcesByIdIn(any());
+    }
+
+    @Test
+    void topProductIds_ShouldUnionWindowBucketsAndSkipNonPositiveScores() {
+        byte[] rankingKey = key("trending:ranking:7d:all");
+        when(keyCommands.exists(rankingKey)).thenReturn(false);
+        Set<Tuple> ranked = new LinkedHashSet<>();
+        ranked.add(new DefaultTuple(key("3"), 40.0));
+        ranked.add(new DefaultTuple(key("8"), 12.0));
+        ranked.add(new DefaultTuple(key("4"), 0.0));
+        when(zSetCommands.zRevRangeWithScores(rankingKey, 0, 9)).thenReturn(ranked);
+
+        List<Long> ids = service.topProductIds(TrendingWindow.LAST_7_DAYS, null, 10);
+
+        assertEquals(List.of(3L, 8L), ids);
+        verify(zSetCommands).zUnionStore(eq(rankingKey), any(byte[][].class));
+        verify(keyCommands).expire(rankingKey, 60);
+    }
+
+    @Test
+    void topProductIds_ShouldReturnEmpty_WhenRedisIsUnavailable() {
+        when(redisTemplate.execute(any(RedisCallback.class))).thenThrow(new QueryTimeoutException("down"));
+
+        assertTrue(service.topProductIds(TrendingWindow.LAST_24_HOURS, "Amps", 10).isEmpty());
+    }
+
+    @Test
+    void getTrendingProducts_ShouldKeepRankOrderAndDropMissingProducts() {
+        byte[] rankingKey = key("trending:ranking:24h:c:amps");
+        when(keyCommands.exists(rankingKey)).thenReturn(true);
+        Set<Tuple> ranked = new LinkedHashSet<>();
+        ranked.add(new DefaultTuple(key("8"), 30.0));
+        ranked.add(new DefaultTuple(key("2"), 20.0));
+        ranked.add(new DefaultTuple(key("5"), 10.0));
+        when(zSetCommands.zRevRangeWithScores(rankingKey, 0, 4)).thenReturn(ranked);
+        when(productRepository.findSummariesByIdIn(List.of(8L, 2L, 5L))).thenReturn(List.of(
+                new ProductSummaryDto(2L, "Combo", new BigDecimal("300.00"), "img", "Amps", null, null, 1),
+                new ProductSummaryDto(8L, "Head", new BigDecimal("900.00"), "img", "Amps", null, null, 1)));
+
+        List<ProductSummaryDto> products = service.getTrendingProducts(TrendingWindow.LAST_24_HOURS, "Amps", 5);
+
+        assertEquals(List.of(8L, 2L), products.stream().map(ProductSummaryDto::id).toList());
+        verify(zSetCommands, never()).zUnionStore(any(byte[].class), any(byte[][].class));
+    }
+
+    private static byte[] key(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.OrderItem;
+import com.example.ecommerce.order.repository.PurchasedProductRepository;
+import com.example.ecommerce.order.service.PurchaseEligibilityService;
+import com.example.ecommerce.product.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PurchaseEligibilityServiceTest {
+
+    @Mock
+    private PurchasedProductRepository purchasedProductRepository;
+
+    @InjectMocks
+    private PurchaseEligibilityService purchaseEligibilityService;
+
+    @Test
+    void recordPaid_ShouldCountEachProductOncePerOrder() {
+        Order order = order(7L, 3L, 3L, 4L);
+
+        purchaseEligibilityService.recordPaid(order);
+
+        verify(purchasedProductRepository, times(1)).addOrder(7L, 3L);
+        verify(purchasedProductRepository, times(1)).addOrder(7L, 4L);
+    }
+
+    @Test
+    void recordRefunded_ShouldDecrementAndDropEmptyRows() {
+        Order order = order(7L, 3L);
+
+        purchaseEligibilityService.recordRefunded(order);
+
+        verify(purchasedProductRepository).removeOrder(7L, 3L);
+        verify(purchasedProductRepository).deleteEmptyByUserId(7L);
+    }
+
+    @Test
+    void recordPaid_ShouldIgnoreOrdersWithoutUser() {
+        purchaseEligibilityService.recordPaid(order(null, 3L));
+
+        verifyNoInteractions(purchasedProductRepository);
+    }
+
+    @Test
+    void purchasedProductIds_ShouldSkipLookupForEmptyRequest() {
+        assertEquals(Set.of(), purchaseEligibilityService.purchasedProductIds(7L, Set.of()));
+        verify(purchasedProductRepository, times(0)).findProductIdsByUserIdAndProductIdIn(any(), any());
+
+        when(purchasedProductRepository.findProductIdsByUserIdAndProductIdIn(7L, Set.of(3L, 5L)))
+                .thenReturn(List.of(3L));
+        assertEquals(Set.of(3L), purchaseEligibilityService.purchasedProductIds(7L, Set.of(3L, 5L)));
+    }
+
+    private Order order(Long userId, Long... productIds) {
+        Order order = new Order();
+        order.setUserId(userId);
+        for (Long productId : productIds) {
+            Product product = new Product();
+            product.setId(productId);
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(1);
+            order.getItems().add(item);
+        }
+        return order;
+    }
+}
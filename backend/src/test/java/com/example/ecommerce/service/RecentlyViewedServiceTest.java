@@ -0,0 +1,128 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.ProductSummaryDto;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.example.ecommerce.product.service.RecentlyViewedService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisListCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RecentlyViewedServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private RedisConnection connection;
+    @Mock
+    private RedisListCommands listCommands;
+    @Mock
+    private RedisKeyCommands keyCommands;
+
+    private RecentlyViewedService service;
+
+    @BeforeEach
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void setUp() {
+        service = new RecentlyViewedService(redisTemplate, productRepository, 3, 30);
+        when(connection.listCommands()).thenReturn(listCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(inv -> {
+            ((RedisCallback) inv.getArgument(0)).doInRedis(connection);
+            return List.of();
+        });
+        when(redisTemplate.execute(any(RedisCallback.class))).thenAnswer(inv ->
+                ((RedisCallback) inv.getArgument(0)).doInRedis(connection));
+    }
+
+    @Test
+    void flush_ShouldPushCoalescedViewsOldestFirstAndCapTheList() {
+        service.recordView("u:7", 1L);
+        service.recordView("u:7", 2L);
+        service.recordView("u:7", 1L);
+
+        service.flush();
+        service.flush();
+
+        byte[] key = key("recent:u:7");
+        InOrder order = inOrder(listCommands, keyCommands);
+        order.verify(listCommands).lRem(key, 0, key("2"));
+        order.verify(listCommands).lPush(key, key("2"));
+        order.verify(listCommands).lRem(key, 0, key("1"));
+        order.verify(listCommands).lPush(key, key("1"));
+        order.verify(listCommands).lTrim(key, 0, 2);
+        order.verify(keyCommands).expire(key, Duration.ofDays(30).toSeconds());
+        verify(listCommands, times(2)).lPush(any(byte[].class), any(byte[].class));
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void flush_ShouldNotThrow_WhenRedisIsUnavailable() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new QueryTimeoutException("down"));
+        service.recordView("g:abc", 1L);
+
+        service.flush();
+
+        verify(keyCommands, never()).expire(any(byte[].class), anyLong());
+    }
+
+    @Test
+    void getRecentlyViewed_ShouldMergeQueuedViewsAndHydrateInOneQuery() {
+        when(listCommands.lRange(key("recent:g:abc"), 0, 2)).thenReturn(List.of(key("5"), key("9"), key("4")));
+        when(productRepository.findSummariesByIdIn(List.of(9L, 5L, 4L))).thenReturn(List.of(
+                summary(4L), summary(9L)));
+        service.recordView("g:abc", 9L);
+
+        List<ProductSummaryDto> products = service.getRecentlyViewed("g:abc", 10);
+
+        assertEquals(List.of(9L, 4L), products.stream().map(ProductSummaryDto::id).toList());
+    }
+
+    @Test
+    void getRecentlyViewed_ShouldFallBackToQueuedViews_WhenRedisIsUnavailable() {
+        when(redisTemplate.execute(any(RedisCallback.class))).thenThrow(new QueryTimeoutException("down"));
+        when(productRepository.findSummariesByIdIn(List.of(2L, 1L))).thenReturn(List.of(summary(1L), summary(2L)));
+        service.recordView("u:7", 1L);
+        service.recordView("u:7", 2L);
+
+        List<ProductSummaryDto> products = service.getRecentlyViewed("u:7", 10);
+
+        assertEquals(List.of(2L, 1L), products.stream().map(ProductSummaryDto::id).toList());
+    }
+
+    private static ProductSummaryDto summary(Long id) {
+        return new ProductSummaryDto(id, "Pedal " + id, new BigDecimal("99.00"), "img", "Effects", null, null, 1);
+    }
+
+    private static byte[] key(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.auth.model.AccountLockRecord;
+import com.example.ecommerce.auth.model.LoginRecord;
+import com.example.ecommerce.auth.model.SessionRecord;
+import com.example.ecommerce.auth.redis.AccountLockRecordSerializer;
+import com.example.ecommerce.auth.redis.LoginRecordSerializer;
+import com.example.ecommerce.auth.redis.SessionRecordSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the class-tagged JSON template with the per-keyspace binary serializers:
+ * bytes per value and time per serialize + deserialize round trip.
+ *
+ * Not part of the normal test run since it measures time; run it explicitly:
+ * mvn test -Dtest=RedisRecordSerializerBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RedisRecordSerializerBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(RedisRecordSerializerBenchmarkTest.class);
+
+    private static final int WARMUP_ROUNDS = 50_000;
+    private static final int MEASURED_ROUNDS = 200_000;
+    private static final Instant NOW = Instant.parse("2030-01-01T10:15:30.123Z");
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/126.0 Safari/537.36";
+
+    @Test
+    void compareJsonAndBinaryRecords() {
+        RedisSerializer<Object> json = RedisRecordSerializerTest.legacyJsonSerializer();
+
+        AccountLockRecord lock = new AccountLockRecord(NOW, NOW.plusSeconds(1800), 5, "Too many failed login attempts");
+        LoginRecord login = new LoginRecord("alice", "203.0.113.24", USER_AGENT, false, "Bad credentials", 3, NOW);
+        SessionRecord session = new SessionRecord("alice", "203.0.113.24", USER_AGENT, NOW, "-1340795837",
+                "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", NOW.plusSeconds(900));
+
+        compare("account lock", json, lock.toMap(), new AccountLockRecordSerializer(), lock);
+        compare("login", json, loginMap(login), new LoginRecordSerializer(), login);
+        compare("session", json, session.toMap(), new SessionRecordSerializer(), session);
+    }
+
+    private <T> void compare(String name, RedisSerializer<Object> json, Map<String, Object> legacy,
+                             RedisSerializer<T> binary, T value) {
+        int jsonBytes = json.serialize(legacy).length;
+        int binaryBytes = binary.serialize(value).length;
+        double jsonNanos = measure(() -> json.deserialize(json.serialize(legacy)));
+        double binaryNanos = measure(() -> binary.deserialize(binary.serialize(value)));
+
+        logger.info("{}: json {} B, {} ns/op | binary {} B, {} ns/op",
+                name, jsonBytes, String.format("%.0f", jsonNanos), binaryBytes, String.format("%.0f", binaryNanos));
+        assertThat(binaryBytes).isLessThan(jsonBytes);
+    }
+
+    private static double measure(Runnable roundTrip) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            roundTrip.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            roundTrip.run();
+        }
+        return (System.nanoTime() - start) / (double) MEASURED_ROUNDS;
+    }
+
+    private static Map<String, Object> loginMap(LoginRecord login) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("username", login.username());
+        map.put("ipAddress", login.ipAddress());
+        map.put("userAgent", login.userAgent());
+        map.put("successful", login.successful());
+        map.put("failureReason", login.failureReason());
+        map.put("attemptCount", login.attemptCount());
+        map.put("timestamp", login.timestamp().toString());
+        return map;
+    }
+}
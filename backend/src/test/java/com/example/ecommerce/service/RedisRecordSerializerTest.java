@@ -0,0 +1,113 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.auth.model.AccountLockRecord;
+import com.example.ecommerce.auth.model.LoginRecord;
+import com.example.ecommerce.auth.model.SessionRecord;
+import com.example.ecommerce.auth.redis.AccountLockRecordSerializer;
+import com.example.ecommerce.auth.redis.LoginRecordSerializer;
+import com.example.ecommerce.auth.redis.SessionRecordSerializer;
+import com.example.ecommerce.cart.model.CartSnapshot;
+import com.example.ecommerce.cart.redis.CartSnapshotSerializer;
+import com.example.ecommerce.config.RedisConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RedisRecordSerializerTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-01T10:15:30.123Z");
+
+    @Test
+    void serialize_ShouldRoundTripWithoutTypeOrFieldNames() {
+        SessionRecordSerializer serializer = new SessionRecordSerializer();
+        SessionRecord session = new SessionRecord("alice", "1.2.3.4", null, NOW, "fp", "hash", NOW.plusSeconds(900));
+
+        byte[] bytes = serializer.serialize(session);
+
+        assertEquals(session, serializer.deserialize(bytes));
+        String raw = new String(bytes, StandardCharsets.ISO_8859_1);
+        assertFalse(raw.contains("SessionRecord"));
+        assertFalse(raw.contains("username"));
+    }
+
+    @Test
+    void serialize_ShouldRoundTripCartSnapshots() {
+        CartSnapshotSerializer serializer = new CartSnapshotSerializer();
+        CartSnapshot cart = new CartSnapshot(7L, List.of(
+                new CartSnapshot.Line(100L, "Strap | Leather", 2, new BigDecimal("19.90")),
+                new CartSnapshot.Line(101L, null, 1, null)));
+
+        assertEquals(cart, serializer.deserialize(serializer.serialize(cart)));
+        assertEquals(CartSnapshot.empty(null), serializer.deserialize(serializer.serialize(CartSnapshot.empty(null))));
+    }
+
+    @Test
+    void deserialize_ShouldReadValuesWrittenByTheJsonTemplate() {
+        RedisSerializer<Object> json = legacyJsonSerializer();
+
+        Map<String, Object> lock = new HashMap<>();
+        lock.put("lockedAt", NOW.toString());
+        lock.put("lockedUntil", NOW.plusSeconds(1800).toString());
+        lock.put("attemptCount", 5);
+        lock.put("reason", "Too many failed login attempts");
+
+        Map<String, Object> login = new HashMap<>();
+        login.put("ipAddress", "9.9.9.9");
+        login.put("userAgent", "JUnit-UA");
+        login.put("timestamp", NOW.toString());
+
+        assertEquals(new AccountLockRecord(NOW, NOW.plusSeconds(1800), 5, "Too many failed login attempts"),
+                new AccountLockRecordSerializer().deserialize(json.serialize(lock)));
+        assertEquals(new LoginRecord(null, "9.9.9.9", "JUnit-UA", false, null, 0, NOW),
+                new LoginRecordSerializer().deserialize(json.serialize(login)));
+    }
+
+    @Test
+    void serialize_ShouldBeSmallerThanTheJsonTemplate() {
+        LoginRecord login = new LoginRecord("alice", "9.9.9.9", "Mozilla/5.0", false, "Bad credentials", 3, NOW);
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("username", login.username());
+        legacy.put("ipAddress", login.ipAddress());
+        legacy.put("userAgent", login.userAgent());
+        legacy.put("successful", login.successful());
+        legacy.put("failureReason", login.failureReason());
+        legacy.put("attemptCount", login.attemptCount());
+        legacy.put("timestamp", login.timestamp().toString());
+
+        int compact = new LoginRecordSerializer().serialize(login).length;
+        int json = legacyJsonSerializer().serialize(legacy).length;
+
+        assertTrue(compact * 2 < json, () -> compact + " bytes vs " + json + " bytes of JSON");
+    }
+
+    @Test
+    void deserialize_ShouldHandleEmptyAndRejectGarbage() {
+        LoginRecordSerializer serializer = new LoginRecordSerializer();
+
+        assertNull(serializer.deserialize(null));
+        assertNull(serializer.deserialize(new byte[0]));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[] {(byte) 0xB1, 1, 0}));
+    }
+
+    @SuppressWarnings("unchecked")
+    static RedisSerializer<Object> legacyJsonSerializer() {
+        return (RedisSerializer<Object>) new RedisConfig()
+                .redisTemplate(mock(RedisConnectionFactory.class))
+                .getValueSerializer();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.product.dto.SearchQueryStatDto;
+import com.example.ecommerce.product.model.ProductAttributeFilters;
+import com.example.ecommerce.product.model.ProductSearchQuery;
+import com.example.ecommerce.product.service.SearchAnalyticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SearchAnalyticsServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private RedisConnection connection;
+    @Mock
+    private RedisZSetCommands zSetCommands;
+    @Mock
+    private RedisKeyCommands keyCommands;
+
+    private SearchAnalyticsService service;
+
+    @BeforeEach
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void setUp() {
+        service = new SearchAnalyticsService(redisTemplate, true, 2, 4, 1024, 1000, 7);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(inv -> {
+            ((RedisCallback) inv.getArgument(0)).doInRedis(connection);
+            return List.of();
+        });
+        when(redisTemplate.execute(any(RedisCallback.class))).thenAnswer(inv ->
+                ((RedisCallback) inv.getArgument(0)).doInRedis(connection));
+    }
+
+    @Test
+    void record_ShouldNormalizeQueriesIntoOneCounter() {
+        service.record(search("Guitars", "Les  Paul"));
+        service.record(search(" guitars ", "les paul"));
+        service.flush();
+
+        verify(zSetCommands).zIncrBy(any(byte[].class), anyDouble(), any(byte[].class));
+        verify(zSetCommands).zIncrBy(any(byte[].class), eq(2.0), eq(key("category=guitars&q=les+paul&size=20&sort=id%2Casc")));
+    }
+
+    @Test
+    void record_ShouldKeepOnlyTopKHeaviestQueries() {
+        for (int i = 0; i < 5; i++) {
+            service.record(search(null, "amp"));
+        }
+        for (int i = 0; i < 3; i++) {
+            service.record(search(null, "pedal"));
+        }
+        service.record(search(null, "strap"));
+        service.record(search(null, "strings"));
+
+        when(redisTemplate.execute(any(RedisCallback.class))).thenThrow(new QueryTimeoutException("down"));
+        List<SearchQueryStatDto> top = service.topQueries(10, 1);
+
+        assertEquals(List.of("amp", "pedal"), top.stream().map(SearchQueryStatDto::text).toList());
+        assertEquals(5, top.get(0).count());
+    }
+
+    @Test
+    void flush_ShouldResetWindowAndSkipRedis_WhenNothingWasRecorded() {
+        service.record(search(null, "amp"));
+        service.flush();
+        service.flush();
+
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(zSetCommands).zRemRange(any(byte[].class), eq(0L), eq(-1001L));
+        verify(keyCommands).expire(any(byte[].class), anyLong());
+    }
+
+    @Test
+    void flush_ShouldNotThrow_WhenRedisIsUnavailable() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new QueryTimeoutException("down"));
+        service.record(search(null, "amp"));
+
+        service.flush();
+
+        verify(zSetCommands, never()).zIncrBy(any(byte[].class), anyDouble(), any(byte[].class));
+    }
+
+    @Test
+    void topQueries_ShouldSumDailyBucketsAndDecodeFilters() {
+        Set<Tuple> today = new LinkedHashSet<>();
+        today.add(new DefaultTuple(key("q=amp&size=20"), 4.0));
+        today.add(new DefaultTuple(key("category=effects&attr.type=fuzz&size=20&facets=true"), 3.0));
+        Set<Tuple> yesterday = new LinkedHashSet<>();
+        yesterday.add(new DefaultTuple(key("category=effects&attr.type=fuzz&size=20&facets=true"), 5.0));
+        when(zSetCommands.zRevRangeWithScores(any(byte[].class), anyLong(), anyLong())).thenReturn(today, yesterday);
+
+        List<SearchQueryStatDto> top = service.topQueries(10, 2);
+
+        assertEquals(2, top.size());
+        assertEquals("effects", top.get(0).category());
+        assertTrue(top.get(0).facets());
+        assertEquals(8, top.get(0).count());
+        assertEquals("amp", top.get(1).text());
+    }
+
+    @Test
+    void searchQuery_ShouldRoundTripThroughQueryString() {
+        ProductAttributeFilters attributes = ProductAttributeFilters.fromParams(Map.of("attr.pickup", List.of("humbucker,p90")));
+        ProductSearchQuery original = ProductSearchQuery.of("Guitars", "Gibson", "les paul & co", attributes,
+                PageRequest.of(3, 12, Sort.by(Sort.Direction.DESC, "price")), true);
+
+        ProductSearchQuery decoded = ProductSearchQuery.fromQueryString(original.toQueryString());
+
+        assertEquals(original, decoded);
+        assertEquals(PageRequest.of(0, 12, Sort.by(Sort.Direction.DESC, "price")), decoded.firstPage());
+    }
+
+    private static ProductSearchQuery search(String category, String query) {
+        return ProductSearchQuery.of(category, null, query, ProductAttributeFilters.none(),
+                PageRequest.of(0, 20, Sort.by("id")), false);
+    }
+
+    private static byte[] key(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
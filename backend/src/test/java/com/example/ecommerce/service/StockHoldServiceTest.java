@@ -0,0 +1,201 @@
+package com.example.ecommerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import com.example.ecommerce.inventory.event.StockHoldPlacedEvent;
+import com.example.ecommerce.inventory.model.StockHold;
+import com.example.ecommerce.inventory.model.StockHoldLine;
+import com.example.ecommerce.inventory.repository.StockHoldLineRepository;
+import com.example.ecommerce.inventory.repository.StockHoldLineView;
+import com.example.ecommerce.inventory.service.InventoryService;
+import com.example.ecommerce.inventory.service.StockHoldService;
+
+@ExtendWith(MockitoExtension.class)
+class StockHoldServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+    @Mock
+    private StockHoldLineRepository stockHoldLineRepository;
+    @Mock
+    private InventoryService inventoryService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private StockHoldService stockHoldService;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldService = new StockHoldService(redisTemplate, stockHoldLineRepository, inventoryService, eventPublisher,
+                null, 600, 3, 5, 2, 5, 300);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void placeHold_reservesStockAndRecordsHoldInSameTransaction() {
+        when(stockHoldLineRepository.lockLinesByUserId(1L)).thenReturn(List.of());
+
+        StockHold hold = stockHoldService.placeHold(1L, Map.of(5L, 2));
+
+        verify(inventoryService).releaseReservedStock(Map.of());
+        verify(inventoryService).reserveStock(Map.of(5L, 2));
+        ArgumentCaptor<List<StockHoldLine>> lines = ArgumentCaptor.forClass(List.class);
+        verify(stockHoldLineRepository).saveAll(lines.capture());
+        StockHoldLine line = lines.getValue().get(0);
+        assertEquals(hold.holdId(), line.getHoldId());
+        assertEquals(5L, line.getProductId());
+        assertEquals(2, line.getQuantity());
+        ArgumentCaptor<StockHoldPlacedEvent> event = ArgumentCaptor.forClass(StockHoldPlacedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(hold, event.getValue().hold());
+    }
+
+    @Test
+    void placeHold_releasesPreviousHoldOfTheUser() {
+        when(stockHoldLineRepository.lockLinesByUserId(1L)).thenReturn(List.of(line("old", 5L, 1), line("old", 6L, 3)));
+
+        stockHoldService.placeHold(1L, Map.of(5L, 2));
+
+        verify(stockHoldLineRepository).deleteByUserId(1L);
+        verify(inventoryService).releaseReservedStock(Map.of(5L, 1, 6L, 3));
+    }
+
+    @Test
+    void placeHold_rejectsQuantitiesAboveTheLineCap() {
+        assertThrows(IllegalArgumentException.class, () -> stockHoldService.placeHold(1L, Map.of(5L, 6)));
+
+        verifyNoInteractions(inventoryService, stockHoldLineRepository);
+    }
+
+    @Test
+    void placeHold_rejectsTooManyProducts() {
+        assertThrows(IllegalArgumentException.class,
+                () -> stockHoldService.placeHold(1L, Map.of(5L, 1, 6L, 1, 7L, 1, 8L, 1)));
+
+        verifyNoInteractions(inventoryService, stockHoldLineRepository);
+    }
+
+    @Test
+    void claimHold_deletesTheUsersRows() {
+        when(stockHoldLineRepository.lockLinesByUserId(1L)).thenReturn(List.of(line("hold-1", 5L, 2)));
+
+        Map<Long, Integer> held = stockHoldService.claimHold(1L);
+
+        assertEquals(Map.of(5L, 2), held);
+        verify(stockHoldLineRepository).deleteByUserId(1L);
+    }
+
+    @Test
+    void claimHold_returnsNothingWhenSweeperWonTheRace() {
+        when(stockHoldLineRepository.lockLinesByUserId(1L)).thenReturn(List.of());
+
+        assertTrue(stockHoldService.claimHold(1L).isEmpty());
+        verify(stockHoldLineRepository, never()).deleteByUserId(any());
+    }
+
+    @Test
+    void onHoldPlaced_indexesHoldByExpiry() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        StockHold hold = new StockHold("hold-1", 1L, Map.of(5L, 2), Instant.ofEpochMilli(1000));
+
+        stockHoldService.onHoldPlaced(new StockHoldPlacedEvent(hold));
+
+        verify(zSetOperations).add("stock_hold:expiry", "hold-1", 1000.0);
+    }
+
+    @Test
+    void releaseExpiredHolds_releasesHoldsInOneInventoryCall() {
+        Set<String> expired = new LinkedHashSet<>(List.of("hold-1", "hold-2"));
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScore(eq("stock_hold:expiry"), eq(0.0), anyDouble(), eq(0L), eq(2L)))
+                .thenReturn(expired, Set.of());
+        when(stockHoldLineRepository.lockExpiredLinesByHoldIdIn(eq(expired), any()))
+                .thenReturn(List.of(line("hold-1", 5L, 2), line("hold-2", 5L, 1), line("hold-2", 6L, 4)));
+        when(stockHoldLineRepository.findHoldIdsExpiredBefore(any(), anyInt())).thenReturn(List.of());
+
+        stockHoldService.releaseExpiredHolds();
+
+        verify(stockHoldLineRepository).deleteByHoldIdIn(Set.of("hold-1", "hold-2"));
+        verify(inventoryService).releaseReservedStock(Map.of(5L, 3, 6L, 4));
+        verify(zSetOperations).remove("stock_hold:expiry", "hold-1", "hold-2");
+    }
+
+    @Test
+    void releaseExpiredHolds_keepsIdsIndexedWhenReleaseFails() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScore(eq("stock_hold:expiry"), eq(0.0), anyDouble(), eq(0L), eq(2L)))
+                .thenReturn(Set.of("hold-1"));
+        when(stockHoldLineRepository.lockExpiredLinesByHoldIdIn(eq(Set.of("hold-1")), any()))
+                .thenReturn(List.of(line("hold-1", 5L, 2)));
+        doThrow(new IllegalStateException("db down"))
+                .when(inventoryService).releaseReservedStock(Map.of(5L, 2));
+        when(stockHoldLineRepository.findHoldIdsExpiredBefore(any(), anyInt())).thenReturn(List.of());
+
+        stockHoldService.releaseExpiredHolds();
+
+        verify(zSetOperations, never()).remove(any(), any(Object[].class));
+    }
+
+    @Test
+    void releaseExpiredHolds_releasesHoldsMissingFromTheIndex() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScore(eq("stock_hold:expiry"), eq(0.0), anyDouble(), eq(0L), eq(2L)))
+                .thenReturn(Set.of());
+        when(stockHoldLineRepository.findHoldIdsExpiredBefore(any(), eq(2))).thenReturn(List.of("lost"));
+        when(stockHoldLineRepository.lockExpiredLinesByHoldIdIn(eq(List.of("lost")), any()))
+                .thenReturn(List.of(line("lost", 7L, 1)));
+
+        stockHoldService.releaseExpiredHolds();
+
+        verify(stockHoldLineRepository).deleteByHoldIdIn(Set.of("lost"));
+        verify(inventoryService).releaseReservedStock(Map.of(7L, 1));
+    }
+
+    private static StockHoldLineView line(String holdId, Long productId, int quantity) {
+        return new StockHoldLineView() {
+            @Override
+            public String getHoldId() {
+                return holdId;
+            }
+
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
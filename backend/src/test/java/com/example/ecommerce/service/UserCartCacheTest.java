@@ -0,0 +1,138 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.cart.event.UserCartChangedEvent;
+import com.example.ecommerce.cart.model.CartSnapshot;
+import com.example.ecommerce.cart.service.UserCartCache;
+import com.example.ecommerce.product.dto.ProductDto;
+import com.example.ecommerce.product.event.ProductChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserCartCacheTest {
+
+    @Mock
+    private RedisTemplate<String, CartSnapshot> redisTemplate;
+    @Mock
+    private ValueOperations<String, CartSnapshot> valueOps;
+
+    @Test
+    void onCartChanged_ShouldServeTheWrittenCartLocally() {
+        UserCartCache cache = cache(false);
+        CartSnapshot cart = cart(5L, 100L);
+
+        cache.onCartChanged(new UserCartChangedEvent(1L, cart));
+
+        assertEquals(cart, cache.get(1L));
+        assertNull(cache.get(2L));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void onProductChanged_ShouldDropOnlyCartsContainingTheProduct() {
+        UserCartCache cache = cache(false);
+        cache.put(1L, cart(5L, 100L));
+        cache.put(2L, cart(6L, 200L));
+
+        cache.onProductChanged(ProductChangedEvent.updated(product(100L)));
+        cache.onProductChanged(ProductChangedEvent.created(product(200L)));
+
+        assertNull(cache.get(1L));
+        assertEquals(cart(6L, 200L), cache.get(2L));
+    }
+
+    @Test
+    void get_ShouldReadThroughRedisAndKeepTheCartLocally() {
+        UserCartCache cache = cache(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.get("cart:user:1")).thenReturn(cart(5L, 100L));
+
+        assertEquals(cart(5L, 100L), cache.get(1L));
+        assertEquals(cart(5L, 100L), cache.get(1L));
+        verify(valueOps, times(1)).get("cart:user:1");
+    }
+
+    @Test
+    void put_ShouldWriteRedisAndIndexProducts() {
+        UserCartCache cache = cache(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+
+        cache.put(1L, cart(5L, 100L));
+
+        verify(valueOps).set("cart:user:1", cart(5L, 100L), Duration.ofMinutes(60));
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void putIfAbsent_ShouldNotReplaceANewerWrite() {
+        UserCartCache cache = cache(false);
+        cache.onCartChanged(new UserCartChangedEvent(1L, cart(5L, 200L)));
+
+        cache.putIfAbsent(1L, cart(5L, 100L));
+
+        assertEquals(cart(5L, 200L), cache.get(1L));
+    }
+
+    @Test
+    void putIfAbsent_ShouldKeepLocalTierEmpty_WhenRedisAlreadyHasTheCart() {
+        UserCartCache cache = cache(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent("cart:user:1", cart(5L, 100L), Duration.ofMinutes(60))).thenReturn(false);
+        when(valueOps.get("cart:user:1")).thenReturn(cart(5L, 200L));
+
+        cache.putIfAbsent(1L, cart(5L, 100L));
+
+        assertEquals(cart(5L, 200L), cache.get(1L));
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void onProductChanged_ShouldEvictIndexedRedisCarts() {
+        UserCartCache cache = cache(true);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(Set.of("cart:user:1", "cart:user:3"));
+
+        cache.onProductChanged(ProductChangedEvent.deleted(product(100L)));
+
+        verify(redisTemplate).delete(Set.of("cart:user:1", "cart:user:3", "cart:by_product:100"));
+    }
+
+    @Test
+    void get_ShouldMissWhenRedisIsDown() {
+        UserCartCache cache = cache(true);
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertNull(cache.get(1L));
+    }
+
+    private UserCartCache cache(boolean redisEnabled) {
+        return new UserCartCache(redisTemplate, 100, 300, redisEnabled, 60);
+    }
+
+    private static CartSnapshot cart(Long cartId, Long productId) {
+        return new CartSnapshot(cartId, List.of(new CartSnapshot.Line(productId, "Item " + productId, 1, new BigDecimal("9.90"))));
+    }
+
+    private static ProductDto product(Long id) {
+        return new ProductDto(id, "Item " + id, "desc", new BigDecimal("12.90"), null, "Music");
+    }
+}